@@ -0,0 +1,339 @@
+package com.xwc1125.chain5j.abi;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.Array;
+import com.xwc1125.chain5j.abi.datatypes.Bool;
+import com.xwc1125.chain5j.abi.datatypes.Bytes;
+import com.xwc1125.chain5j.abi.datatypes.BytesType;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.DynamicBytes;
+import com.xwc1125.chain5j.abi.datatypes.NumericType;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.abi.datatypes.generated.Bytes32;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint160;
+import com.xwc1125.chain5j.utils.Numeric;
+
+/**
+ * <p>Ethereum Contract Application Binary Interface (ABI) decoding from binary data.</p>
+ *
+ * <p>The byte-oriented counterpart of {@link FunctionReturnDecoder} and {@link TypeDecoder}:
+ * values are read directly from 32 byte words, without converting the data to a hex string
+ * first. Results are the same as decoding the hex encoding of the data with
+ * {@link FunctionReturnDecoder}.</p>
+ */
+public final class AbiDecoder {
+
+    private static final int WORD = Type.MAX_BYTE_LENGTH;
+
+    private static final ClassValue<WordDecoder> WORD_DECODERS = new ClassValue<WordDecoder>() {
+        @Override
+        protected WordDecoder computeValue(Class<?> type) {
+            return createWordDecoder(type);
+        }
+    };
+
+    private AbiDecoder() { }
+
+    /**
+     * Decode ABI encoded return values, or non-indexed event values.
+     *
+     * @param data ABI encoded data
+     * @param outputParameters list of return types as {@link TypeReference}
+     * @return {@link List} of decoded values, {@link Collections#emptyList()} if there is no
+     *         data
+     */
+    public static List<Type> decode(byte[] data, List<TypeReference<Type>> outputParameters) {
+        return decode(data, 0, data.length, outputParameters);
+    }
+
+    /**
+     * Decode ABI encoded return values, or non-indexed event values.
+     *
+     * @param data array holding the ABI encoded data
+     * @param offset of the encoded data in {@code data}
+     * @param length of the encoded data
+     * @param outputParameters list of return types as {@link TypeReference}
+     * @return {@link List} of decoded values, {@link Collections#emptyList()} if there is no
+     *         data
+     */
+    public static List<Type> decode(
+            byte[] data, int offset, int length, List<TypeReference<Type>> outputParameters) {
+        return decode(data, offset, length, outputParameters, null);
+    }
+
+    private static List<Type> decode(byte[] data, int offset, int length,
+            List<TypeReference<Type>> outputParameters, Prepared prepared) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException(
+                    "Invalid range [" + offset + ", " + (offset + length) + ") of "
+                            + data.length + " bytes");
+        }
+        if (length == 0) {
+            return Collections.emptyList();
+        }
+
+        DecoderPlan plan = prepared != null ? prepared.plan : DecoderPlan.of(outputParameters);
+        if (plan == null) {
+            // let the hex decoder report the problem with the references
+            return FunctionReturnDecoder.decode(
+                    Numeric.toHexString(data, offset, length, false), outputParameters);
+        }
+        return plan.decode(data, offset, offset + length);
+    }
+
+    /**
+     * Resolve how a list of types is decoded once, for callers that decode many encodings of
+     * the same types.
+     *
+     * @param outputParameters list of types as {@link TypeReference}
+     * @return decoder for the types
+     */
+    public static Prepared prepare(List<TypeReference<Type>> outputParameters) {
+        return new Prepared(outputParameters, DecoderPlan.of(outputParameters));
+    }
+
+    /**
+     * Decode the remaining bytes of a buffer, without modifying its position.
+     *
+     * @param buffer ABI encoded data
+     * @param outputParameters list of return types as {@link TypeReference}
+     * @return {@link List} of decoded values
+     */
+    public static List<Type> decode(ByteBuffer buffer, List<TypeReference<Type>> outputParameters) {
+        if (buffer.hasArray()) {
+            return decode(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining(), outputParameters);
+        }
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return decode(data, outputParameters);
+    }
+
+    /**
+     * Decode a single, non array, value.
+     *
+     * @param data array holding the ABI encoded data
+     * @param offset of the value's word in {@code data}
+     * @param type of the value
+     * @param <T> type of the value
+     * @return the decoded value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Type> T decode(byte[] data, int offset, Class<T> type) {
+        return (T) decodeValue(data, offset, data.length, type);
+    }
+
+    /**
+     * Binary counterpart of {@link FunctionReturnDecoder#decodeIndexedValue(String,
+     * TypeReference)}, decodes an event topic.
+     *
+     * @param topic 32 byte topic
+     * @param typeReference of expected result type
+     * @param <T> type of TypeReference
+     * @return the decoded value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Type> Type decodeIndexedValue(
+            byte[] topic, TypeReference<T> typeReference) {
+        try {
+            Class<T> type = typeReference.getClassType();
+
+            if (Bytes.class.isAssignableFrom(type)) {
+                return decodeBytes(topic, 0, topic.length, (Class<Bytes>) type);
+            } else if (Array.class.isAssignableFrom(type)
+                    || BytesType.class.isAssignableFrom(type)
+                    || Utf8String.class.isAssignableFrom(type)) {
+                return decodeBytes(topic, 0, topic.length, Bytes32.class);
+            } else {
+                return decodeValue(topic, 0, topic.length, type);
+            }
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException("Invalid class reference provided", e);
+        }
+    }
+
+    static Type decodeValue(byte[] data, int offset, int end, Class<?> type) {
+        return WORD_DECODERS.get(type).decode(data, offset, end);
+    }
+
+    static int decodeUintAsInt(byte[] data, int offset, int end) {
+        checkRange(offset, WORD, end);
+        // the low 32 bits of the word, as BigInteger.intValue()
+        int position = offset + WORD - 4;
+        return (data[position] & 0xFF) << 24
+                | (data[position + 1] & 0xFF) << 16
+                | (data[position + 2] & 0xFF) << 8
+                | (data[position + 3] & 0xFF);
+    }
+
+    static <T extends Type> T decodeStaticArray(
+            byte[] data, int offset, int end, Class<T> elementType, int length) {
+        List<T> elements = decodeArrayElements(data, offset, end, elementType, length);
+        if (elements.isEmpty()) {
+            throw new UnsupportedOperationException("Zero length fixed array is invalid type");
+        }
+        return TypeDecoder.instantiateStaticArray(elements, length);
+    }
+
+    // Arrays are created like TypeDecoder does, so that their component type is the same as
+    // with FunctionReturnDecoder, e.g. Uint256 rather than Uint for DynamicArray<Uint>
+    @SuppressWarnings({"unchecked", "deprecation"})
+    static <T extends Type> T decodeDynamicArray(
+            byte[] data, int offset, int end, Class<T> elementType) {
+        int length = decodeUintAsInt(data, offset, end);
+        List<T> elements = decodeArrayElements(data, offset + WORD, end, elementType, length);
+        if (elements.isEmpty()) {
+            return (T) DynamicArray.empty(Utils.getSimpleTypeName(elementType));
+        }
+        return (T) new DynamicArray<>(elements);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Type> List<T> decodeArrayElements(
+            byte[] data, int offset, int end, Class<T> elementType, int length) {
+        if (Array.class.isAssignableFrom(elementType)) {
+            throw new UnsupportedOperationException(
+                    "Arrays of arrays are not currently supported for external functions, see"
+                            + "http://solidity.readthedocs.io/en/develop/types.html#members");
+        }
+
+        WordDecoder decoder = WORD_DECODERS.get(elementType);
+        boolean dynamic = DynamicBytes.class.isAssignableFrom(elementType)
+                || Utf8String.class.isAssignableFrom(elementType);
+        List<T> elements = new ArrayList<>(length);
+        int position = offset;
+        for (int i = 0; i < length; i++) {
+            elements.add((T) decoder.decode(data, position, end));
+            // same element lengths as TypeDecoder#getSingleElementLength
+            if (position == end) {
+                continue;
+            }
+            position += dynamic
+                    ? ((decodeUintAsInt(data, position, end) / WORD) + 2) * WORD
+                    : WORD;
+        }
+        return elements;
+    }
+
+    private static WordDecoder createWordDecoder(Class<?> type) {
+        if (NumericType.class.isAssignableFrom(type)) {
+            return (data, offset, end) -> decodeNumeric(data, offset, end, type);
+        } else if (Address.class.isAssignableFrom(type)) {
+            return (data, offset, end) ->
+                    new Address((Uint160) decodeNumeric(data, offset, end, Uint160.class));
+        } else if (Bool.class.isAssignableFrom(type)) {
+            return AbiDecoder::decodeBool;
+        } else if (Bytes.class.isAssignableFrom(type)) {
+            Class<? extends Bytes> bytesType = type.asSubclass(Bytes.class);
+            return (data, offset, end) -> decodeBytes(data, offset, end, bytesType);
+        } else if (DynamicBytes.class.isAssignableFrom(type)) {
+            return (data, offset, end) -> new DynamicBytes(decodeDynamicBytes(data, offset, end));
+        } else if (Utf8String.class.isAssignableFrom(type)) {
+            return (data, offset, end) -> new Utf8String(
+                    new String(decodeDynamicBytes(data, offset, end), StandardCharsets.UTF_8));
+        } else if (Array.class.isAssignableFrom(type)) {
+            return (data, offset, end) -> {
+                throw new UnsupportedOperationException(
+                        "Array types must be wrapped in a TypeReference");
+            };
+        } else {
+            return (data, offset, end) -> {
+                throw new UnsupportedOperationException(
+                        "Type cannot be decoded: " + type);
+            };
+        }
+    }
+
+    private static Type decodeNumeric(byte[] data, int offset, int end, Class<?> type) {
+        checkRange(offset, WORD, end);
+        TypeDecoder.TypeFactory factory = TypeDecoder.numericFactory(type);
+        int typeLengthAsBytes = factory.length();
+
+        byte[] resultByteArray = new byte[typeLengthAsBytes + 1];
+        if (factory.signed()) {
+            resultByteArray[0] = data[offset];  // take MSB as sign bit
+        }
+        System.arraycopy(data, offset + WORD - typeLengthAsBytes,
+                resultByteArray, 1, typeLengthAsBytes);
+
+        return (Type) factory.create(new BigInteger(resultByteArray));
+    }
+
+    private static Bool decodeBool(byte[] data, int offset, int end) {
+        checkRange(offset, WORD, end);
+        // true only for the value 1, as TypeDecoder#decodeBool
+        for (int i = offset; i < offset + WORD - 1; i++) {
+            if (data[i] != 0) {
+                return new Bool(false);
+            }
+        }
+        return new Bool(data[offset + WORD - 1] == 1);
+    }
+
+    private static <T extends Type> T decodeBytes(
+            byte[] data, int offset, int end, Class<T> type) {
+        TypeDecoder.TypeFactory factory = TypeDecoder.bytesFactory(type);
+        if (factory.length() < 0) {
+            // not a BytesN type, fail as the type name requires
+            Integer.parseInt(type.getSimpleName().split(Bytes.class.getSimpleName())[1]);
+        }
+        checkRange(offset, factory.length(), end);
+        byte[] bytes = Arrays.copyOfRange(data, offset, offset + factory.length());
+        return type.cast(factory.create(bytes));
+    }
+
+    private static byte[] decodeDynamicBytes(byte[] data, int offset, int end) {
+        int length = decodeUintAsInt(data, offset, end);
+        checkRange(offset + WORD, length, end);
+        return Arrays.copyOfRange(data, offset + WORD, offset + WORD + length);
+    }
+
+    private static void checkRange(int offset, int length, int end) {
+        if (offset < 0 || length < 0 || offset + length > end || offset + length < 0) {
+            throw new IndexOutOfBoundsException(
+                    "ABI data too short, " + length + " bytes expected at offset " + offset);
+        }
+    }
+
+    /**
+     * Decodes a single, non array, value from binary data.
+     */
+    interface WordDecoder {
+        Type decode(byte[] data, int offset, int end);
+    }
+
+    /**
+     * Decoder bound to a list of types, see {@link #prepare(List)}. Instances are immutable
+     * and can be shared between threads.
+     */
+    public static final class Prepared {
+        private final List<TypeReference<Type>> parameters;
+        private final DecoderPlan plan;
+
+        private Prepared(List<TypeReference<Type>> parameters, DecoderPlan plan) {
+            this.parameters = parameters;
+            this.plan = plan;
+        }
+
+        public List<TypeReference<Type>> getParameters() {
+            return parameters;
+        }
+
+        public List<Type> decode(byte[] data) {
+            return decode(data, 0, data.length);
+        }
+
+        public List<Type> decode(byte[] data, int offset, int length) {
+            return AbiDecoder.decode(data, offset, length, parameters, this);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.xwc1125.chain5j.abi;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.Array;
+import com.xwc1125.chain5j.abi.datatypes.Bool;
+import com.xwc1125.chain5j.abi.datatypes.Bytes;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.DynamicBytes;
+import com.xwc1125.chain5j.abi.datatypes.Function;
+import com.xwc1125.chain5j.abi.datatypes.NumericType;
+import com.xwc1125.chain5j.abi.datatypes.StaticArray;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Ufixed;
+import com.xwc1125.chain5j.abi.datatypes.Uint;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.crypto.Hash;
+
+/**
+ * <p>Ethereum Contract Application Binary Interface (ABI) encoding to binary data.</p>
+ *
+ * <p>The byte-oriented counterpart of {@link FunctionEncoder} and {@link TypeEncoder}: values
+ * are written as 32 byte words straight into the output, without building a hex string. The
+ * output is the same as the hex encoding of {@link FunctionEncoder}.</p>
+ */
+public final class AbiEncoder {
+
+    private static final int WORD = Type.MAX_BYTE_LENGTH;
+    private static final int METHOD_ID_LENGTH = 4;
+
+    private AbiEncoder() { }
+
+    public static byte[] encode(Function function) {
+        byte[] result = new byte[encodedLength(function)];
+        encode(function, result, 0);
+        return result;
+    }
+
+    /**
+     * Encode a function call into a caller provided array.
+     *
+     * @param function function call
+     * @param output array to write to, it must have room for {@link #encodedLength(Function)}
+     *               bytes
+     * @param offset of the encoding in {@code output}
+     * @return number of bytes written
+     */
+    public static int encode(Function function, byte[] output, int offset) {
+        int length = encodedLength(function);
+        if (offset < 0 || offset + length > output.length) {
+            throw new IndexOutOfBoundsException(
+                    "No room for " + length + " bytes at offset " + offset);
+        }
+        System.arraycopy(methodId(function), 0, output, offset, METHOD_ID_LENGTH);
+        writeParameters(function.getInputParameters(), output, offset + METHOD_ID_LENGTH);
+        return length;
+    }
+
+    /**
+     * Encode a function call at the position of a buffer, advancing its position.
+     *
+     * @param function function call
+     * @param buffer buffer to write to
+     */
+    public static void encode(Function function, ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            int length = encode(function, buffer.array(), buffer.arrayOffset() + buffer.position());
+            buffer.position(buffer.position() + length);
+        } else {
+            buffer.put(encode(function));
+        }
+    }
+
+    public static byte[] encodeConstructor(List<Type> parameters) {
+        byte[] result = new byte[parametersLength(parameters)];
+        writeParameters(parameters, result, 0);
+        return result;
+    }
+
+    /**
+     * @param parameter value to encode
+     * @return the encoding of a single value, as {@link TypeEncoder#encode(Type)}
+     */
+    public static byte[] encode(Type parameter) {
+        byte[] result = new byte[length(parameter)];
+        write(parameter, result, 0);
+        return result;
+    }
+
+    public static int encodedLength(Function function) {
+        return METHOD_ID_LENGTH + parametersLength(function.getInputParameters());
+    }
+
+    /**
+     * @param function function call
+     * @return the 4 byte method id of the function
+     */
+    public static byte[] methodId(Function function) {
+        String methodSignature = FunctionEncoder.buildMethodSignature(
+                function.getName(), function.getInputParameters());
+        return Arrays.copyOf(Hash.sha3(methodSignature.getBytes()), METHOD_ID_LENGTH);
+    }
+
+    private static int parametersLength(List<Type> parameters) {
+        int length = 0;
+        for (Type parameter : parameters) {
+            length += TypeEncoder.isDynamic(parameter) ? WORD + length(parameter) : length(parameter);
+        }
+        return length;
+    }
+
+    private static int writeParameters(List<Type> parameters, byte[] output, int offset) {
+        // offsets are based on the number of head words, as in FunctionEncoder
+        long dynamicDataOffset = FunctionEncoder.getLength(parameters) * WORD;
+
+        int headLength = 0;
+        for (Type parameter : parameters) {
+            headLength += TypeEncoder.isDynamic(parameter) ? WORD : length(parameter);
+        }
+
+        int head = offset;
+        int tail = offset + headLength;
+        for (Type parameter : parameters) {
+            if (TypeEncoder.isDynamic(parameter)) {
+                writeWord(dynamicDataOffset, output, head);
+                head += WORD;
+                int end = write(parameter, output, tail);
+                dynamicDataOffset += end - tail;
+                tail = end;
+            } else {
+                head = write(parameter, output, head);
+            }
+        }
+        return tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int length(Type parameter) {
+        if (parameter instanceof NumericType
+                || parameter instanceof Address
+                || parameter instanceof Bool) {
+            return WORD;
+        } else if (parameter instanceof Bytes) {
+            return paddedLength(((Bytes) parameter).getValue().length);
+        } else if (parameter instanceof DynamicBytes) {
+            return WORD + paddedLength(((DynamicBytes) parameter).getValue().length);
+        } else if (parameter instanceof Utf8String) {
+            return WORD + paddedLength(utf8(parameter).length);
+        } else if (parameter instanceof StaticArray) {
+            return elementsLength((StaticArray<Type>) parameter);
+        } else if (parameter instanceof DynamicArray) {
+            DynamicArray<Type> array = (DynamicArray<Type>) parameter;
+            int offsets = hasElementOffsets(array) ? array.getValue().size() * WORD : 0;
+            return WORD + offsets + elementsLength(array);
+        } else {
+            throw new UnsupportedOperationException(
+                    "Type cannot be encoded: " + parameter.getClass());
+        }
+    }
+
+    private static int elementsLength(Array<Type> array) {
+        int length = 0;
+        for (Type element : array.getValue()) {
+            length += length(element);
+        }
+        return length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int write(Type parameter, byte[] output, int offset) {
+        if (parameter instanceof NumericType) {
+            return writeNumeric((NumericType) parameter, output, offset);
+        } else if (parameter instanceof Address) {
+            return writeNumeric(((Address) parameter).toUint160(), output, offset);
+        } else if (parameter instanceof Bool) {
+            Arrays.fill(output, offset, offset + WORD, (byte) 0);
+            if (((Bool) parameter).getValue()) {
+                output[offset + WORD - 1] = 1;
+            }
+            return offset + WORD;
+        } else if (parameter instanceof Bytes) {
+            return writeBytes(((Bytes) parameter).getValue(), output, offset);
+        } else if (parameter instanceof DynamicBytes) {
+            return writeDynamicBytes(((DynamicBytes) parameter).getValue(), output, offset);
+        } else if (parameter instanceof Utf8String) {
+            return writeDynamicBytes(utf8(parameter), output, offset);
+        } else if (parameter instanceof StaticArray) {
+            return writeElements((StaticArray<Type>) parameter, output, offset);
+        } else if (parameter instanceof DynamicArray) {
+            return writeDynamicArray((DynamicArray<Type>) parameter, output, offset);
+        } else {
+            throw new UnsupportedOperationException(
+                    "Type cannot be encoded: " + parameter.getClass());
+        }
+    }
+
+    private static int writeNumeric(NumericType numericType, byte[] output, int offset) {
+        BigInteger value = numericType.getValue();
+        byte[] rawValue = value.toByteArray();
+        int rawOffset = 0;
+        int rawLength = rawValue.length;
+        if ((numericType instanceof Ufixed || numericType instanceof Uint)
+                && value.bitLength() == Type.MAX_BIT_LENGTH) {
+            // skip the sign byte of an unsigned 256 bit value
+            rawOffset = 1;
+            rawLength = WORD;
+        }
+
+        byte paddingValue = value.signum() == -1 ? (byte) 0xff : 0;
+        Arrays.fill(output, offset, offset + WORD - rawLength, paddingValue);
+        System.arraycopy(rawValue, rawOffset, output, offset + WORD - rawLength, rawLength);
+        return offset + WORD;
+    }
+
+    private static int writeBytes(byte[] value, byte[] output, int offset) {
+        int paddedLength = paddedLength(value.length);
+        System.arraycopy(value, 0, output, offset, value.length);
+        Arrays.fill(output, offset + value.length, offset + paddedLength, (byte) 0);
+        return offset + paddedLength;
+    }
+
+    private static int writeDynamicBytes(byte[] value, byte[] output, int offset) {
+        writeWord(value.length, output, offset);
+        return writeBytes(value, output, offset + WORD);
+    }
+
+    private static int writeElements(Array<Type> array, byte[] output, int offset) {
+        for (Type element : array.getValue()) {
+            offset = write(element, output, offset);
+        }
+        return offset;
+    }
+
+    private static int writeDynamicArray(DynamicArray<Type> array, byte[] output, int offset) {
+        List<Type> values = array.getValue();
+        writeWord(values.size(), output, offset);
+        offset += WORD;
+
+        if (hasElementOffsets(array)) {
+            // offsets of the elements, strings are measured in UTF-8 bytes
+            boolean arrayOfBytes = values.get(0) instanceof DynamicBytes;
+            long elementOffset = 0;
+            for (int i = 0; i < values.size(); i++) {
+                if (i == 0) {
+                    elementOffset = values.size() * WORD;
+                } else {
+                    int bytesLength = arrayOfBytes
+                            ? ((byte[]) values.get(i - 1).getValue()).length
+                            : utf8(values.get(i - 1)).length;
+                    elementOffset += paddedLength(bytesLength) + WORD;
+                }
+                writeWord(elementOffset, output, offset);
+                offset += WORD;
+            }
+        }
+        return writeElements(array, output, offset);
+    }
+
+    private static boolean hasElementOffsets(DynamicArray<Type> array) {
+        List<Type> values = array.getValue();
+        return !values.isEmpty()
+                && (values.get(0) instanceof DynamicBytes || values.get(0) instanceof Utf8String);
+    }
+
+    private static void writeWord(long value, byte[] output, int offset) {
+        Arrays.fill(output, offset, offset + WORD - 8, (byte) 0);
+        for (int i = 0; i < 8; i++) {
+            output[offset + WORD - 1 - i] = (byte) (value >>> (i << 3));
+        }
+    }
+
+    private static int paddedLength(int length) {
+        return (length + WORD - 1) / WORD * WORD;
+    }
+
+    private static byte[] utf8(Type string) {
+        return ((Utf8String) string).getValue().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+package com.xwc1125.chain5j.abi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.xwc1125.chain5j.abi.datatypes.Array;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.DynamicBytes;
+import com.xwc1125.chain5j.abi.datatypes.StaticArray;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+
+/**
+ * <p>The steps to decode a list of {@link TypeReference}s, resolved once and cached by the
+ * references' types, so that decoding does not inspect the references again.</p>
+ *
+ * <p>A plan decodes hex strings for {@link FunctionReturnDecoder} and binary data for
+ * {@link AbiDecoder}, with the same result as {@link FunctionReturnDecoder#decode(String, List)}.
+ * References a plan cannot be built for are left to {@link FunctionReturnDecoder}.</p>
+ *
+ * <p>At most {@link Utils#MAX_CACHED_TYPES} plans are cached.</p>
+ */
+final class DecoderPlan {
+
+    private static final Map<List<Object>, DecoderPlan> PLANS = new ConcurrentHashMap<>();
+
+    private static final DecoderPlan UNSUPPORTED = new DecoderPlan(null);
+
+    private final Step[] steps;
+
+    private DecoderPlan(Step[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * @param parameters types to decode
+     * @return the plan for the types, or null if it has to be decoded the generic way
+     */
+    static DecoderPlan of(List<TypeReference<Type>> parameters) {
+        List<Object> key = new ArrayList<>(parameters.size());
+        for (TypeReference<?> typeReference : parameters) {
+            if (typeReference instanceof TypeReference.StaticArrayTypeReference) {
+                key.add(Arrays.asList(typeReference.getType(),
+                        ((TypeReference.StaticArrayTypeReference) typeReference).getSize()));
+            } else {
+                key.add(typeReference.getType());
+            }
+        }
+
+        DecoderPlan plan = PLANS.get(key);
+        if (plan == null) {
+            plan = compile(parameters);
+            Utils.cache(PLANS, key, plan);
+        }
+        return plan == UNSUPPORTED ? null : plan;
+    }
+
+    List<Type> decode(String input) {
+        List<Type> results = new ArrayList<>(steps.length);
+        int offset = 0;
+        for (Step step : steps) {
+            results.add(step.decode(input, offset));
+            offset += step.headWords * TypeDecoder.MAX_BYTE_LENGTH_FOR_HEX_STRING;
+        }
+        return results;
+    }
+
+    List<Type> decode(byte[] data, int start, int end) {
+        List<Type> results = new ArrayList<>(steps.length);
+        int offset = start;
+        for (Step step : steps) {
+            results.add(step.decode(data, start, offset, end));
+            offset += step.headWords * Type.MAX_BYTE_LENGTH;
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DecoderPlan compile(List<TypeReference<Type>> parameters) {
+        Step[] steps = new Step[parameters.size()];
+        try {
+            for (int i = 0; i < steps.length; i++) {
+                TypeReference<Type> typeReference = parameters.get(i);
+                Class<Type> type = typeReference.getClassType();
+                boolean dynamic = DynamicBytes.class.isAssignableFrom(type)
+                        || Utf8String.class.isAssignableFrom(type);
+
+                if (DynamicArray.class.isAssignableFrom(type)) {
+                    steps[i] = new Step(Step.DYNAMIC_ARRAY, arrayElementType(typeReference), 1,
+                            true);
+
+                } else if (typeReference instanceof TypeReference.StaticArrayTypeReference
+                        || StaticArray.class.isAssignableFrom(type)) {
+                    int length = typeReference instanceof TypeReference.StaticArrayTypeReference
+                            ? ((TypeReference.StaticArrayTypeReference) typeReference).getSize()
+                            : Integer.parseInt(type.getSimpleName()
+                                    .substring(StaticArray.class.getSimpleName().length()));
+                    steps[i] = new Step(Step.STATIC_ARRAY, arrayElementType(typeReference),
+                            length, dynamic);
+
+                } else {
+                    steps[i] = new Step(Step.VALUE, type, 1, dynamic);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return UNSUPPORTED;
+        }
+        return new DecoderPlan(steps);
+    }
+
+    private static Class<Type> arrayElementType(TypeReference<Type> typeReference)
+            throws ClassNotFoundException {
+        Class<Type> elementType = Utils.getParameterizedTypeFromArray(typeReference);
+        if (Array.class.isAssignableFrom(elementType)) {
+            throw new UnsupportedOperationException("Arrays of arrays are not supported");
+        }
+        return elementType;
+    }
+
+    private static final class Step {
+        static final int VALUE = 0;
+        static final int DYNAMIC_ARRAY = 1;
+        static final int STATIC_ARRAY = 2;
+
+        private final int kind;
+        // type of the value, or of the elements of an array
+        private final Class<Type> type;
+        // words taken by the value in the head of the encoding, the length of static arrays
+        private final int headWords;
+        // the head holds the offset of the value rather than the value
+        private final boolean dynamic;
+        private final TypeDecoder.ValueDecoder valueDecoder;
+
+        Step(int kind, Class<Type> type, int headWords, boolean dynamic) {
+            this.kind = kind;
+            this.type = type;
+            this.headWords = headWords;
+            this.dynamic = dynamic;
+            this.valueDecoder = kind == VALUE ? TypeDecoder.valueDecoder(type) : null;
+        }
+
+        Type decode(String input, int offset) {
+            int dataOffset = dynamic ? TypeDecoder.decodeUintAsInt(input, offset) << 1 : offset;
+            switch (kind) {
+                case DYNAMIC_ARRAY:
+                    return TypeDecoder.decodeDynamicArray(input, dataOffset, type);
+                case STATIC_ARRAY:
+                    return TypeDecoder.decodeStaticArray(input, dataOffset, type, headWords);
+                default:
+                    return valueDecoder.decode(input, dataOffset);
+            }
+        }
+
+        Type decode(byte[] data, int start, int offset, int end) {
+            int dataOffset = dynamic
+                    ? start + AbiDecoder.decodeUintAsInt(data, offset, end)
+                    : offset;
+            switch (kind) {
+                case DYNAMIC_ARRAY:
+                    return AbiDecoder.decodeDynamicArray(data, dataOffset, end, type);
+                case STATIC_ARRAY:
+                    return AbiDecoder.decodeStaticArray(data, dataOffset, end, type, headWords);
+                default:
+                    return AbiDecoder.decodeValue(data, dataOffset, end, type);
+            }
+        }
+    }
+}
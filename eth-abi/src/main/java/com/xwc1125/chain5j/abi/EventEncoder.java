@@ -27,7 +27,7 @@ public class EventEncoder {
         return buildEventSignature(methodSignature);
     }
 
-    static <T extends Type> String buildMethodSignature(
+    public static <T extends Type> String buildMethodSignature(
             String methodName, List<TypeReference<T>> parameters) {
 
         StringBuilder result = new StringBuilder();
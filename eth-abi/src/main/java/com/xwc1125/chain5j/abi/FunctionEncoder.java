@@ -59,7 +59,7 @@ public class FunctionEncoder {
         return result.toString();
     }
 
-    private static int getLength(List<Type> parameters) {
+    static int getLength(List<Type> parameters) {
         int count = 0;
         for (Type type:parameters) {
             if (type instanceof StaticArray) {
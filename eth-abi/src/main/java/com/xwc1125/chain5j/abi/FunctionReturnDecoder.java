@@ -37,9 +37,12 @@ public class FunctionReturnDecoder {
 
         if (Strings.isEmpty(input)) {
             return Collections.emptyList();
-        } else {
-            return build(input, outputParameters);
         }
+        DecoderPlan plan = DecoderPlan.of(outputParameters);
+        if (plan != null) {
+            return plan.decode(input);
+        }
+        return build(input, outputParameters);
     }
 
     /**
@@ -87,7 +90,8 @@ public class FunctionReturnDecoder {
         }
     }
 
-    private static List<Type> build(
+    // Method visible for unit-tests, decodes without a DecoderPlan
+    static List<Type> build(
             String input, List<TypeReference<Type>> outputParameters) {
         List<Type> results = new ArrayList<>(outputParameters.size());
 
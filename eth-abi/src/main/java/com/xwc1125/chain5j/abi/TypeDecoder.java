@@ -1,5 +1,8 @@
 package com.xwc1125.chain5j.abi;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.math.BigInteger;
@@ -37,6 +40,90 @@ public class TypeDecoder {
 
     static final int MAX_BYTE_LENGTH_FOR_HEX_STRING = Type.MAX_BYTE_LENGTH << 1;
 
+    private static final int MAX_STATIC_ARRAY_LENGTH = 32;
+
+    // Everything that can be derived from a type is resolved once, rather than by reflection
+    // on every decoded value. ClassValue keeps the values with the classes, so they do not
+    // prevent classes from being unloaded
+    private static final ClassValue<ValueDecoder> VALUE_DECODERS = new ClassValue<ValueDecoder>() {
+        @Override
+        protected ValueDecoder computeValue(Class<?> type) {
+            return createValueDecoder(type);
+        }
+    };
+
+    private static final ClassValue<TypeFactory> NUMERIC_FACTORIES =
+            new ClassValue<TypeFactory>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                protected TypeFactory computeValue(Class<?> type) {
+                    return new TypeFactory(type, BigInteger.class,
+                            getTypeLengthInBytes((Class<NumericType>) type),
+                            Int.class.isAssignableFrom(type) || Fixed.class.isAssignableFrom(type));
+                }
+            };
+
+    private static final ClassValue<TypeFactory> BYTES_FACTORIES = new ClassValue<TypeFactory>() {
+        @Override
+        protected TypeFactory computeValue(Class<?> type) {
+            String[] splitName = type.getSimpleName().split(Bytes.class.getSimpleName());
+            int length = splitName.length >= 2 ? parseLength(splitName[1]) : -1;
+            return new TypeFactory(type, byte[].class, length, false);
+        }
+    };
+
+    // constructors of StaticArray1 to StaticArray32, by length
+    private static final MethodHandle[] STATIC_ARRAY_CONSTRUCTORS =
+            new MethodHandle[MAX_STATIC_ARRAY_LENGTH + 1];
+
+    /**
+     * Decodes a single, non array, value of a given type.
+     */
+    interface ValueDecoder {
+        Type decode(String input, int offset);
+    }
+
+    static ValueDecoder valueDecoder(Class<?> type) {
+        return VALUE_DECODERS.get(type);
+    }
+
+    static TypeFactory numericFactory(Class<?> type) {
+        return NUMERIC_FACTORIES.get(type);
+    }
+
+    static TypeFactory bytesFactory(Class<?> type) {
+        return BYTES_FACTORIES.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueDecoder createValueDecoder(Class<?> type) {
+        if (NumericType.class.isAssignableFrom(type)) {
+            Class<NumericType> numericType = (Class<NumericType>) type;
+            return (input, offset) -> decodeNumeric(input, offset, numericType);
+        } else if (Address.class.isAssignableFrom(type)) {
+            return (input, offset) -> new Address(decodeNumeric(input, offset, Uint160.class));
+        } else if (Bool.class.isAssignableFrom(type)) {
+            return TypeDecoder::decodeBool;
+        } else if (Bytes.class.isAssignableFrom(type)) {
+            Class<Bytes> bytesType = (Class<Bytes>) type;
+            return (input, offset) -> decodeBytes(input, offset, bytesType);
+        } else if (DynamicBytes.class.isAssignableFrom(type)) {
+            return TypeDecoder::decodeDynamicBytes;
+        } else if (Utf8String.class.isAssignableFrom(type)) {
+            return TypeDecoder::decodeUtf8String;
+        } else if (Array.class.isAssignableFrom(type)) {
+            return (input, offset) -> {
+                throw new UnsupportedOperationException(
+                        "Array types must be wrapped in a TypeReference");
+            };
+        } else {
+            return (input, offset) -> {
+                throw new UnsupportedOperationException(
+                        "Type cannot be encoded: " + type.getClass());
+            };
+        }
+    }
+
     public static <T extends Type> int getSingleElementLength(String input, int offset, Class<T> type) {
         if (input.length() == offset) {
             return 0;
@@ -51,25 +138,7 @@ public class TypeDecoder {
 
     @SuppressWarnings("unchecked")
     public static <T extends Type> T decode(String input, int offset, Class<T> type) {
-        if (NumericType.class.isAssignableFrom(type)) {
-            return (T) decodeNumeric(input.substring(offset), (Class<NumericType>) type);
-        } else if (Address.class.isAssignableFrom(type)) {
-            return (T) decodeAddress(input.substring(offset));
-        } else if (Bool.class.isAssignableFrom(type)) {
-            return (T) decodeBool(input, offset);
-        } else if (Bytes.class.isAssignableFrom(type)) {
-            return (T) decodeBytes(input, offset, (Class<Bytes>) type);
-        } else if (DynamicBytes.class.isAssignableFrom(type)) {
-            return (T) decodeDynamicBytes(input, offset);
-        } else if (Utf8String.class.isAssignableFrom(type)) {
-            return (T) decodeUtf8String(input, offset);
-        } else if (Array.class.isAssignableFrom(type)) {
-            throw new UnsupportedOperationException(
-                    "Array types must be wrapped in a TypeReference");
-        } else {
-            throw new UnsupportedOperationException(
-                    "Type cannot be encoded: " + type.getClass());
-        }
+        return (T) VALUE_DECODERS.get(type).decode(input, offset);
     }
 
     public static <T extends Array> T decode(
@@ -94,28 +163,56 @@ public class TypeDecoder {
     }
 
     static <T extends NumericType> T decodeNumeric(String input, Class<T> type) {
-        try {
-            byte[] inputByteArray = Numeric.hexStringToByteArray(input);
-            int typeLengthAsBytes = getTypeLengthInBytes(type);
+        byte[] inputByteArray = Numeric.hexStringToByteArray(input);
+        TypeFactory factory = NUMERIC_FACTORIES.get(type);
+        int typeLengthAsBytes = factory.length;
 
-            byte[] resultByteArray = new byte[typeLengthAsBytes + 1];
+        byte[] resultByteArray = new byte[typeLengthAsBytes + 1];
 
-            if (Int.class.isAssignableFrom(type) || Fixed.class.isAssignableFrom(type)) {
-                resultByteArray[0] = inputByteArray[0];  // take MSB as sign bit
-            }
+        if (factory.signed) {
+            resultByteArray[0] = inputByteArray[0];  // take MSB as sign bit
+        }
 
-            int valueOffset = Type.MAX_BYTE_LENGTH - typeLengthAsBytes;
-            System.arraycopy(inputByteArray, valueOffset, resultByteArray, 1, typeLengthAsBytes);
+        int valueOffset = Type.MAX_BYTE_LENGTH - typeLengthAsBytes;
+        System.arraycopy(inputByteArray, valueOffset, resultByteArray, 1, typeLengthAsBytes);
 
-            BigInteger numericValue = new BigInteger(resultByteArray);
-            return type.getConstructor(BigInteger.class).newInstance(numericValue);
+        BigInteger numericValue = new BigInteger(resultByteArray);
+        return type.cast(factory.create(numericValue));
+    }
 
-        } catch (NoSuchMethodException | SecurityException
-                | InstantiationException | IllegalAccessException
-                | IllegalArgumentException | InvocationTargetException e) {
-            throw new UnsupportedOperationException(
-                    "Unable to create instance of " + type.getName(), e);
+    /**
+     * Same as {@code decodeNumeric(input.substring(offset), type)}, but only converts the 32
+     * bytes of the value rather than the whole remaining input.
+     */
+    static <T extends NumericType> T decodeNumeric(String input, int offset, Class<T> type) {
+        int remaining = input.length() - offset;
+        if (remaining < MAX_BYTE_LENGTH_FOR_HEX_STRING || (remaining & 1) != 0
+                || input.startsWith("0x", offset)) {
+            // the whole remaining input is significant to the conversion
+            return decodeNumeric(input.substring(offset), type);
+        }
+
+        TypeFactory factory = NUMERIC_FACTORIES.get(type);
+        int typeLengthAsBytes = factory.length;
+
+        byte[] resultByteArray = new byte[typeLengthAsBytes + 1];
+
+        if (factory.signed) {
+            resultByteArray[0] = hexToByte(input, offset);  // take MSB as sign bit
         }
+
+        int valueOffset = offset + ((Type.MAX_BYTE_LENGTH - typeLengthAsBytes) << 1);
+        for (int i = 0; i < typeLengthAsBytes; i++) {
+            resultByteArray[i + 1] = hexToByte(input, valueOffset + (i << 1));
+        }
+
+        BigInteger numericValue = new BigInteger(resultByteArray);
+        return type.cast(factory.create(numericValue));
+    }
+
+    private static byte hexToByte(String input, int offset) {
+        return (byte) ((Character.digit(input.charAt(offset), 16) << 4)
+                + Character.digit(input.charAt(offset + 1), 16));
     }
 
     static <T extends NumericType> int getTypeLengthInBytes(Class<T> type) {
@@ -158,21 +255,16 @@ public class TypeDecoder {
     }
 
     static <T extends Bytes> T decodeBytes(String input, int offset, Class<T> type) {
-        try {
-            String simpleName = type.getSimpleName();
-            String[] splitName = simpleName.split(Bytes.class.getSimpleName());
-            int length = Integer.parseInt(splitName[1]);
-            int hexStringLength = length << 1;
-
-            byte[] bytes = Numeric.hexStringToByteArray(
-                    input.substring(offset, offset + hexStringLength));
-            return type.getConstructor(byte[].class).newInstance(bytes);
-        } catch (NoSuchMethodException | SecurityException
-                | InstantiationException | IllegalAccessException
-                | IllegalArgumentException | InvocationTargetException e) {
-            throw new UnsupportedOperationException(
-                    "Unable to create instance of " + type.getName(), e);
+        TypeFactory factory = BYTES_FACTORIES.get(type);
+        if (factory.length < 0) {
+            // not a BytesN type, fail as the type name requires
+            Integer.parseInt(type.getSimpleName().split(Bytes.class.getSimpleName())[1]);
         }
+        int hexStringLength = factory.length << 1;
+
+        byte[] bytes = Numeric.hexStringToByteArray(
+                input.substring(offset, offset + hexStringLength));
+        return type.cast(factory.create(bytes));
     }
 
     static DynamicBytes decodeDynamicBytes(String input, int offset) {
@@ -198,24 +290,53 @@ public class TypeDecoder {
     /**
      * Static array length cannot be passed as a type.
      */
-    @SuppressWarnings("unchecked")
     public static <T extends Type> T decodeStaticArray(
             String input, int offset, TypeReference<T> typeReference, int length) {
+        return decodeStaticArray(input, offset, elementType(typeReference), length);
+    }
+
+    static <T extends Type> T decodeStaticArray(
+            String input, int offset, Class<T> elementType, int length) {
 
-        BiFunction<List<T>, String, T> function = (elements, typeName) -> {
+        BiFunction<List<T>, Class<T>, T> function = (elements, type) -> {
             if (elements.isEmpty()) {
                 throw new UnsupportedOperationException("Zero length fixed array is invalid type");
             } else {
-                return instantiateStaticArray(typeReference, elements, length);
+                return instantiateStaticArray(elements, length);
             }
         };
 
-        return decodeArrayElements(input, offset, typeReference, length, function);
+        return decodeArrayElements(input, offset, elementType, length, function);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Type> T instantiateStaticArray(List<T> elements, int length) {
+        if (length < 1 || length > MAX_STATIC_ARRAY_LENGTH) {
+            return instantiateStaticArrayReflectively(elements, length);
+        }
+        MethodHandle constructor = STATIC_ARRAY_CONSTRUCTORS[length];
+        if (constructor == null) {
+            try {
+                Class<?> arrayClass = Class.forName(
+                        "com.xwc1125.chain5j.abi.datatypes.generated.StaticArray" + length);
+                constructor = MethodHandles.publicLookup()
+                        .findConstructor(arrayClass, MethodType.methodType(void.class, List.class))
+                        .asType(MethodType.methodType(Object.class, List.class));
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException(e);
+            }
+            STATIC_ARRAY_CONSTRUCTORS[length] = constructor;
+        }
+        try {
+            return (T) (Object) constructor.invokeExact(elements);
+        } catch (Throwable e) {
+            throw new UnsupportedOperationException(new InvocationTargetException(e));
+        }
     }
 
     @SuppressWarnings("unchecked")
-    private static <T extends Type> T instantiateStaticArray(
-            TypeReference<T> typeReference, List<T> elements, int length) {
+    private static <T extends Type> T instantiateStaticArrayReflectively(
+            List<T> elements, int length) {
         try {
             Class<? extends StaticArray> arrayClass =
                     (Class<? extends StaticArray>) Class.forName(
@@ -227,15 +348,19 @@ public class TypeDecoder {
         }
     }
 
-    @SuppressWarnings("unchecked")
     public static <T extends Type> T decodeDynamicArray(
             String input, int offset, TypeReference<T> typeReference) {
+        return decodeDynamicArray(input, offset, elementType(typeReference));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Type> T decodeDynamicArray(String input, int offset, Class<T> elementType) {
 
         int length = decodeUintAsInt(input, offset);
 
-        BiFunction<List<T>, String, T> function = (elements, typeName) -> {
+        BiFunction<List<T>, Class<T>, T> function = (elements, type) -> {
             if (elements.isEmpty()) {
-                return (T) DynamicArray.empty(typeName);
+                return (T) DynamicArray.empty(Utils.getSimpleTypeName(type));
             } else {
                 return (T) new DynamicArray<>(elements);
             }
@@ -243,38 +368,100 @@ public class TypeDecoder {
 
         int valueOffset = offset + MAX_BYTE_LENGTH_FOR_HEX_STRING;
 
-        return decodeArrayElements(input, valueOffset, typeReference, length, function);
+        return decodeArrayElements(input, valueOffset, elementType, length, function);
+    }
+
+    private static <T extends Type> Class<T> elementType(TypeReference<T> typeReference) {
+        try {
+            return Utils.getParameterizedTypeFromArray(typeReference);
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException(
+                    "Unable to access parameterized type " + typeReference.getType().getTypeName(),
+                    e);
+        }
     }
 
+    @SuppressWarnings("unchecked")
     private static <T extends Type> T decodeArrayElements(
-            String input, int offset, TypeReference<T> typeReference, int length,
-            BiFunction<List<T>, String, T> consumer) {
+            String input, int offset, Class<T> cls, int length,
+            BiFunction<List<T>, Class<T>, T> consumer) {
 
+        if (Array.class.isAssignableFrom(cls)) {
+            throw new UnsupportedOperationException(
+                    "Arrays of arrays are not currently supported for external functions, see"
+                            + "http://solidity.readthedocs.io/en/develop/types.html#members");
+        } else {
+            ValueDecoder decoder = VALUE_DECODERS.get(cls);
+            List<T> elements = new ArrayList<>(length);
+
+            for (int i = 0, currOffset = offset;
+                    i < length;
+                    i++, currOffset += getSingleElementLength(input, currOffset, cls)
+                         * MAX_BYTE_LENGTH_FOR_HEX_STRING) {
+                T value = (T) decoder.decode(input, currOffset);
+                elements.add(value);
+            }
+
+            return consumer.apply(elements, cls);
+        }
+    }
+
+    private static int parseLength(String value) {
         try {
-            Class<T> cls = Utils.getParameterizedTypeFromArray(typeReference);
-            if (Array.class.isAssignableFrom(cls)) {
-                throw new UnsupportedOperationException(
-                        "Arrays of arrays are not currently supported for external functions, see"
-                                + "http://solidity.readthedocs.io/en/develop/types.html#members");
-            } else {
-                List<T> elements = new ArrayList<>(length);
-
-                for (int i = 0, currOffset = offset;
-                        i < length;
-                        i++, currOffset += getSingleElementLength(input, currOffset, cls)
-                             * MAX_BYTE_LENGTH_FOR_HEX_STRING) {
-                    T value = decode(input, currOffset, cls);
-                    elements.add(value);
-                }
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 
-                String typeName = Utils.getSimpleTypeName(cls);
+    /**
+     * Constructor of a type taking a single value, with the type's length in bytes.
+     */
+    static final class TypeFactory {
+        private final Class<?> type;
+        private final int length;
+        private final boolean signed;
+        private final MethodHandle constructor;
+        private final ReflectiveOperationException lookupFailure;
+
+        TypeFactory(Class<?> type, Class<?> valueType, int length, boolean signed) {
+            this.type = type;
+            this.length = length;
+            this.signed = signed;
+
+            MethodHandle handle = null;
+            ReflectiveOperationException failure = null;
+            try {
+                handle = MethodHandles.publicLookup()
+                        .findConstructor(type, MethodType.methodType(void.class, valueType))
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                failure = e;
+            }
+            this.constructor = handle;
+            this.lookupFailure = failure;
+        }
+
+        int length() {
+            return length;
+        }
 
-                return consumer.apply(elements, typeName);
+        boolean signed() {
+            return signed;
+        }
+
+        Object create(Object value) {
+            if (constructor == null) {
+                throw new UnsupportedOperationException(
+                        "Unable to create instance of " + type.getName(), lookupFailure);
+            }
+            try {
+                return (Object) constructor.invokeExact(value);
+            } catch (Throwable e) {
+                throw new UnsupportedOperationException(
+                        "Unable to create instance of " + type.getName(),
+                        new InvocationTargetException(e));
             }
-        } catch (ClassNotFoundException e) {
-            throw new UnsupportedOperationException(
-                    "Unable to access parameterized type " + typeReference.getType().getTypeName(),
-                    e);
         }
     }
 }
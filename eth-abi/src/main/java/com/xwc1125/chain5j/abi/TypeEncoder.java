@@ -177,7 +177,8 @@ public class TypeEncoder {
                 } else {
                     int bytesLength = arrayOfBytes
                             ? ((byte[]) value.getValue().get(i - 1).getValue()).length
-                            : ((String) value.getValue().get(i - 1).getValue()).length();
+                            : ((String) value.getValue().get(i - 1).getValue())
+                                    .getBytes(StandardCharsets.UTF_8).length;
                     int numberOfWords = (bytesLength + Type.MAX_BYTE_LENGTH - 1) / Type.MAX_BYTE_LENGTH;
                     int totalBytesLength = numberOfWords * Type.MAX_BYTE_LENGTH;
                     offset += totalBytesLength + Type.MAX_BYTE_LENGTH;
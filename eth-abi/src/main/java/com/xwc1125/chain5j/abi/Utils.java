@@ -5,6 +5,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
@@ -21,9 +23,42 @@ import com.xwc1125.chain5j.abi.datatypes.Utf8String;
  * Utility functions.
  */
 public class Utils {
+
+    // Bound of the caches by java.lang.reflect.Type. The types an application decodes are
+    // usually a small fixed set; a cache outgrowing the bound, for instance with types loaded
+    // by short-lived class loaders, is cleared rather than holding on to those classes
+    static final int MAX_CACHED_TYPES = 1024;
+
+    // Resolved generics, by java.lang.reflect.Type of a TypeReference
+    private static final Map<java.lang.reflect.Type, String> TYPE_NAMES =
+            new ConcurrentHashMap<>();
+    private static final Map<java.lang.reflect.Type, Class<?>> ARRAY_ELEMENT_TYPES =
+            new ConcurrentHashMap<>();
+
     private Utils() {}
 
+    static <K, V> void cache(Map<K, V> cache, K key, V value) {
+        if (cache.size() >= MAX_CACHED_TYPES) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
+
     static <T extends Type> String getTypeName(TypeReference<T> typeReference) {
+        if (typeReference instanceof TypeReference.StaticArrayTypeReference) {
+            // the name depends on the size of the reference
+            return resolveTypeName(typeReference);
+        }
+        java.lang.reflect.Type type = typeReference.getType();
+        String typeName = TYPE_NAMES.get(type);
+        if (typeName == null) {
+            typeName = resolveTypeName(typeReference);
+            cache(TYPE_NAMES, type, typeName);
+        }
+        return typeName;
+    }
+
+    private static <T extends Type> String resolveTypeName(TypeReference<T> typeReference) {
         try {
             java.lang.reflect.Type reflectedType = typeReference.getType();
 
@@ -83,11 +118,16 @@ public class Utils {
             TypeReference typeReference) throws ClassNotFoundException {
 
         java.lang.reflect.Type type = typeReference.getType();
-        java.lang.reflect.Type[] typeArguments =
-                ((ParameterizedType) type).getActualTypeArguments();
-
-        String parameterizedTypeName = typeArguments[0].getTypeName();
-        return (Class<T>) Class.forName(parameterizedTypeName);
+        Class<?> elementType = ARRAY_ELEMENT_TYPES.get(type);
+        if (elementType == null) {
+            java.lang.reflect.Type[] typeArguments =
+                    ((ParameterizedType) type).getActualTypeArguments();
+
+            String parameterizedTypeName = typeArguments[0].getTypeName();
+            elementType = Class.forName(parameterizedTypeName);
+            cache(ARRAY_ELEMENT_TYPES, type, elementType);
+        }
+        return (Class<T>) elementType;
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,149 @@
+package com.xwc1125.chain5j.abi;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.Bool;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.DynamicBytes;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Uint;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.abi.datatypes.generated.Bytes32;
+import com.xwc1125.chain5j.abi.datatypes.generated.Bytes4;
+import com.xwc1125.chain5j.abi.datatypes.generated.Int256;
+import com.xwc1125.chain5j.abi.datatypes.generated.StaticArray2;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint8;
+import com.xwc1125.chain5j.utils.Numeric;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the results of {@link AbiDecoder} on binary data to the results of
+ * {@link FunctionReturnDecoder} on the hex encoding of the data.
+ */
+public class AbiDecoderTest {
+
+    private static final List<TypeReference<Type>> OUTPUT_PARAMETERS = references(
+            new TypeReference<Uint256>() { },
+            new TypeReference<Int256>() { },
+            new TypeReference<Uint8>() { },
+            new TypeReference<Address>() { },
+            new TypeReference<Bool>() { },
+            new TypeReference<Bytes4>() { },
+            new TypeReference<Bytes32>() { },
+            new TypeReference<Utf8String>() { },
+            new TypeReference<Utf8String>() { },
+            new TypeReference<DynamicBytes>() { },
+            new TypeReference<DynamicArray<Uint256>>() { },
+            new TypeReference<DynamicArray<Address>>() { },
+            new TypeReference<StaticArray2<Address>>() { });
+
+    private final List<Type> values = AbiEncoderTest.parameters();
+    private final String input = FunctionEncoder.encodeConstructor(values);
+    private final byte[] data = Numeric.hexStringToByteArray(input);
+
+    @Test
+    public void testDecode() {
+        List<Type> expected = FunctionReturnDecoder.decode(input, OUTPUT_PARAMETERS);
+        assertEquals(values, expected);
+        assertEquals(expected, AbiDecoder.decode(data, OUTPUT_PARAMETERS));
+        assertEquals(expected, AbiDecoder.prepare(OUTPUT_PARAMETERS).decode(data));
+    }
+
+    @Test
+    public void testDecodeEmpty() {
+        assertEquals(FunctionReturnDecoder.decode("0x", OUTPUT_PARAMETERS),
+                AbiDecoder.decode(new byte[0], OUTPUT_PARAMETERS));
+    }
+
+    @Test
+    public void testDecodeRange() {
+        byte[] padded = new byte[data.length + 9];
+        System.arraycopy(data, 0, padded, 5, data.length);
+        List<Type> expected = FunctionReturnDecoder.decode(input, OUTPUT_PARAMETERS);
+
+        assertEquals(expected, AbiDecoder.decode(padded, 5, data.length, OUTPUT_PARAMETERS));
+        assertEquals(expected,
+                AbiDecoder.prepare(OUTPUT_PARAMETERS).decode(padded, 5, data.length));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testDecodeInvalidRange() {
+        AbiDecoder.decode(data, 1, data.length, OUTPUT_PARAMETERS);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testDecodeTruncated() {
+        AbiDecoder.decode(Arrays.copyOf(data, data.length - 1), OUTPUT_PARAMETERS);
+    }
+
+    @Test
+    public void testDecodeBuffer() {
+        List<Type> expected = FunctionReturnDecoder.decode(input, OUTPUT_PARAMETERS);
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(data.length + 3),
+                ByteBuffer.allocateDirect(data.length + 3))) {
+            buffer.position(3);
+            buffer.put(data);
+            buffer.position(3);
+
+            assertEquals(expected, AbiDecoder.decode(buffer, OUTPUT_PARAMETERS));
+            assertEquals(3, buffer.position());
+        }
+    }
+
+    @Test
+    public void testDecodeGenericArrayElements() {
+        // component types follow FunctionReturnDecoder, Uint256 rather than Uint
+        List<TypeReference<Type>> outputParameters = references(
+                new TypeReference<DynamicArray<Uint>>() { });
+        String input = FunctionEncoder.encodeConstructor(Collections.singletonList(
+                new DynamicArray<>(Uint.class, new Uint(BigInteger.ONE))));
+        List<Type> expected = FunctionReturnDecoder.decode(input, outputParameters);
+
+        List<Type> actual = AbiDecoder.decode(
+                Numeric.hexStringToByteArray(input), outputParameters);
+        assertEquals(expected, actual);
+        assertEquals(((DynamicArray<?>) expected.get(0)).getComponentType(),
+                ((DynamicArray<?>) actual.get(0)).getComponentType());
+    }
+
+    @Test
+    public void testDecodeValue() {
+        for (int i = 0; i < 7; i++) {
+            Type value = values.get(i);
+            byte[] word = AbiEncoder.encode(value);
+            assertEquals(TypeDecoder.decode(Numeric.toHexStringNoPrefix(word), value.getClass()),
+                    AbiDecoder.decode(word, 0, value.getClass()));
+        }
+    }
+
+    @Test
+    public void testDecodeIndexedValue() {
+        List<TypeReference<?>> typeReferences = Arrays.asList(
+                new TypeReference<Uint256>() { },
+                new TypeReference<Address>() { },
+                new TypeReference<Bytes4>() { },
+                new TypeReference<Utf8String>() { },
+                new TypeReference<DynamicArray<Uint256>>() { });
+        byte[] topic = Numeric.hexStringToByteArray(
+                "0x0102030400000000000000000000000000000000000000000000000000000005");
+        for (TypeReference<?> typeReference : typeReferences) {
+            assertEquals(
+                    FunctionReturnDecoder.decodeIndexedValue(
+                            Numeric.toHexString(topic), typeReference),
+                    AbiDecoder.decodeIndexedValue(topic, typeReference));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<TypeReference<Type>> references(TypeReference<?>... typeReferences) {
+        return (List) Arrays.asList(typeReferences);
+    }
+}
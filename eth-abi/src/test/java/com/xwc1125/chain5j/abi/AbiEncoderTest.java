@@ -0,0 +1,150 @@
+package com.xwc1125.chain5j.abi;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.Bool;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.DynamicBytes;
+import com.xwc1125.chain5j.abi.datatypes.Function;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.abi.datatypes.generated.Bytes32;
+import com.xwc1125.chain5j.abi.datatypes.generated.Bytes4;
+import com.xwc1125.chain5j.abi.datatypes.generated.Int256;
+import com.xwc1125.chain5j.abi.datatypes.generated.StaticArray2;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint8;
+import com.xwc1125.chain5j.utils.Numeric;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the binary encoding of {@link AbiEncoder} to the hex encoding of
+ * {@link FunctionEncoder} and {@link TypeEncoder}.
+ */
+public class AbiEncoderTest {
+
+    static final Address ADDRESS = new Address("0xbe5422d15f39373eb0a97ff8c10fbd0e40e29338");
+
+    /**
+     * @return values covering static, dynamic and array types
+     */
+    static List<Type> parameters() {
+        return Arrays.asList(
+                new Uint256(BigInteger.TEN.pow(40)),
+                new Int256(BigInteger.valueOf(-1)),
+                new Uint8(BigInteger.valueOf(255)),
+                ADDRESS,
+                new Bool(true),
+                new Bytes4(new byte[] {1, 2, 3, 4}),
+                new Bytes32(new byte[32]),
+                new Utf8String("Hello, world!"),
+                new Utf8String(""),
+                // 33 bytes, padded to two words
+                new DynamicBytes(new byte[33]),
+                new DynamicArray<>(Uint256.class, new Uint256(BigInteger.ONE),
+                        new Uint256(BigInteger.valueOf(2))),
+                new DynamicArray<>(Address.class, Collections.emptyList()),
+                new StaticArray2<>(Address.class, ADDRESS, ADDRESS));
+    }
+
+    @Test
+    public void testEncodeFunction() {
+        for (List<Type> parameters : Arrays.asList(
+                Collections.<Type>emptyList(), parameters().subList(0, 7), parameters())) {
+            Function function = new Function(
+                    "test", parameters, Collections.<TypeReference<?>>emptyList());
+            String expected = FunctionEncoder.encode(function);
+
+            assertEquals(expected, Numeric.toHexString(AbiEncoder.encode(function)));
+            assertEquals(Numeric.hexStringToByteArray(expected).length,
+                    AbiEncoder.encodedLength(function));
+            assertEquals(expected.substring(0, 10),
+                    Numeric.toHexString(AbiEncoder.methodId(function)));
+        }
+    }
+
+    @Test
+    public void testEncodeConstructor() {
+        List<Type> parameters = parameters();
+        assertEquals(FunctionEncoder.encodeConstructor(parameters),
+                Numeric.toHexStringNoPrefix(AbiEncoder.encodeConstructor(parameters)));
+    }
+
+    @Test
+    public void testEncodeValue() {
+        for (Type parameter : parameters()) {
+            assertEquals(TypeEncoder.encode(parameter),
+                    Numeric.toHexStringNoPrefix(AbiEncoder.encode(parameter)));
+        }
+    }
+
+    @Test
+    public void testMultiByteStringArray() {
+        // 20 characters but 40 bytes, the next offset differs if measured in characters
+        List<Utf8String> values = Arrays.asList(
+                new Utf8String("\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9"
+                        + "\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9"),
+                new Utf8String("\u4e2d\u6587"),
+                new Utf8String("ascii"));
+        DynamicArray<Utf8String> strings = new DynamicArray<>(Utf8String.class, values);
+        String encoded = Numeric.toHexStringNoPrefix(AbiEncoder.encode(strings));
+        assertEquals(TypeEncoder.encode(strings), encoded);
+
+        // decode each element at the offset given in the head of the array
+        int wordLength = Type.MAX_BYTE_LENGTH * 2;
+        assertEquals(values.size(), Integer.parseInt(encoded.substring(0, wordLength), 16));
+        for (int i = 0; i < values.size(); i++) {
+            int headOffset = (i + 1) * wordLength;
+            int offset = Integer.parseInt(
+                    encoded.substring(headOffset, headOffset + wordLength), 16);
+            assertEquals(values.get(i),
+                    TypeDecoder.decodeUtf8String(encoded, wordLength + offset * 2));
+        }
+    }
+
+    @Test
+    public void testEncodeIntoArray() {
+        Function function = new Function(
+                "test", parameters(), Collections.<TypeReference<?>>emptyList());
+        byte[] expected = AbiEncoder.encode(function);
+        byte[] output = new byte[expected.length + 10];
+
+        assertEquals(expected.length, AbiEncoder.encode(function, output, 7));
+        assertArrayEquals(expected, Arrays.copyOfRange(output, 7, 7 + expected.length));
+        assertArrayEquals(new byte[7], Arrays.copyOf(output, 7));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testEncodeIntoShortArray() {
+        Function function = new Function(
+                "test", parameters(), Collections.<TypeReference<?>>emptyList());
+        AbiEncoder.encode(function, new byte[AbiEncoder.encodedLength(function)], 1);
+    }
+
+    @Test
+    public void testEncodeIntoBuffer() {
+        Function function = new Function(
+                "test", parameters(), Collections.<TypeReference<?>>emptyList());
+        byte[] expected = AbiEncoder.encode(function);
+
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(expected.length + 3),
+                ByteBuffer.allocateDirect(expected.length + 3))) {
+            buffer.position(3);
+            AbiEncoder.encode(function, buffer);
+            assertEquals(expected.length + 3, buffer.position());
+
+            byte[] encoded = new byte[expected.length];
+            buffer.position(3);
+            buffer.get(encoded);
+            assertArrayEquals(expected, encoded);
+        }
+    }
+}
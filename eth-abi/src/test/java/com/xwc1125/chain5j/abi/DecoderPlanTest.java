@@ -0,0 +1,163 @@
+package com.xwc1125.chain5j.abi;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.Bool;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.DynamicBytes;
+import com.xwc1125.chain5j.abi.datatypes.StaticArray;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.abi.datatypes.generated.Bytes32;
+import com.xwc1125.chain5j.abi.datatypes.generated.Bytes4;
+import com.xwc1125.chain5j.abi.datatypes.generated.Int8;
+import com.xwc1125.chain5j.abi.datatypes.generated.StaticArray2;
+import com.xwc1125.chain5j.abi.datatypes.generated.StaticArray3;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint8;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Compares decoding with cached {@link DecoderPlan}s to decoding without them.
+ */
+public class DecoderPlanTest {
+
+    private static final Address ADDRESS =
+            new Address("0xbe5422d15f39373eb0a97ff8c10fbd0e40e29338");
+
+    @Test
+    public void testStaticTypes() {
+        assertDecoding(
+                Arrays.asList(
+                        new Uint256(BigInteger.TEN.pow(40)),
+                        new Int8(BigInteger.valueOf(-128)),
+                        new Uint8(BigInteger.valueOf(255)),
+                        ADDRESS,
+                        new Bool(true),
+                        new Bytes4(new byte[] {1, 2, 3, 4}),
+                        new Bytes32(new byte[32])),
+                new TypeReference<Uint256>() { },
+                new TypeReference<Int8>() { },
+                new TypeReference<Uint8>() { },
+                new TypeReference<Address>() { },
+                new TypeReference<Bool>() { },
+                new TypeReference<Bytes4>() { },
+                new TypeReference<Bytes32>() { });
+    }
+
+    @Test
+    public void testDynamicTypes() {
+        assertDecoding(
+                Arrays.asList(
+                        new Utf8String("Hello, world!"),
+                        new Uint256(BigInteger.ONE),
+                        new DynamicBytes(new byte[] {1, 2, 3}),
+                        new DynamicArray<>(Uint256.class, new Uint256(BigInteger.ONE),
+                                new Uint256(BigInteger.valueOf(2))),
+                        new DynamicArray<>(Address.class, Collections.emptyList()),
+                        new Utf8String("")),
+                new TypeReference<Utf8String>() { },
+                new TypeReference<Uint256>() { },
+                new TypeReference<DynamicBytes>() { },
+                new TypeReference<DynamicArray<Uint256>>() { },
+                new TypeReference<DynamicArray<Address>>() { },
+                new TypeReference<Utf8String>() { });
+    }
+
+    @Test
+    public void testStaticArrays() {
+        assertDecoding(
+                Arrays.asList(
+                        new StaticArray2<>(Uint256.class, new Uint256(BigInteger.ONE),
+                                new Uint256(BigInteger.valueOf(2))),
+                        new Utf8String("after the array"),
+                        new StaticArray3<>(Address.class, ADDRESS, ADDRESS, ADDRESS)),
+                new TypeReference<StaticArray2<Uint256>>() { },
+                new TypeReference<Utf8String>() { },
+                new TypeReference.StaticArrayTypeReference<StaticArray<Address>>(3) { });
+    }
+
+    @Test
+    public void testStaticArrayReferencesOfDifferentSizes() {
+        List<Type> values = Arrays.asList(
+                new StaticArray3<>(Uint8.class, new Uint8(BigInteger.ONE),
+                        new Uint8(BigInteger.valueOf(2)), new Uint8(BigInteger.valueOf(3))));
+        String input = FunctionEncoder.encodeConstructor(values);
+
+        // plans of references differing only in size must not be shared
+        List<Type> two = FunctionReturnDecoder.decode(input, references(
+                new TypeReference.StaticArrayTypeReference<StaticArray<Uint8>>(2) { }));
+        List<Type> three = FunctionReturnDecoder.decode(input, references(
+                new TypeReference.StaticArrayTypeReference<StaticArray<Uint8>>(3) { }));
+        assertEquals(2, ((StaticArray<?>) two.get(0)).getValue().size());
+        assertEquals(values, three);
+    }
+
+    @Test
+    public void testNestedArrays() {
+        List<TypeReference<Type>> outputParameters = references(
+                new TypeReference<DynamicArray<StaticArray2<Uint256>>>() { });
+        assertNull(DecoderPlan.of(outputParameters));
+
+        String input = FunctionEncoder.encodeConstructor(Collections.singletonList(
+                new DynamicArray<>(StaticArray2.class, Collections.singletonList(
+                        new StaticArray2<>(Uint256.class, new Uint256(BigInteger.ONE),
+                                new Uint256(BigInteger.valueOf(2)))))));
+        assertSameOutcome(input, outputParameters);
+    }
+
+    @Test
+    public void testMalformedInput() {
+        List<TypeReference<Type>> outputParameters = references(
+                new TypeReference<Utf8String>() { }, new TypeReference<DynamicArray<Uint256>>() { });
+        String input = FunctionEncoder.encodeConstructor(Arrays.asList(
+                new Utf8String("truncated"),
+                new DynamicArray<>(Uint256.class, new Uint256(BigInteger.ONE))));
+
+        assertNotNull(DecoderPlan.of(outputParameters));
+        for (int length = 64; length < input.length(); length += 64) {
+            assertSameOutcome(input.substring(0, length), outputParameters);
+        }
+    }
+
+    private static void assertDecoding(List<Type> values, TypeReference<?>... typeReferences) {
+        List<TypeReference<Type>> outputParameters = references(typeReferences);
+        String input = FunctionEncoder.encodeConstructor(values);
+
+        assertNotNull(DecoderPlan.of(outputParameters));
+        assertEquals(values, FunctionReturnDecoder.build(input, outputParameters));
+        // both calls use the cached plan
+        assertEquals(values, FunctionReturnDecoder.decode(input, outputParameters));
+        assertEquals(values, FunctionReturnDecoder.decode("0x" + input, outputParameters));
+    }
+
+    private static void assertSameOutcome(
+            String input, List<TypeReference<Type>> outputParameters) {
+        Object expected;
+        try {
+            expected = FunctionReturnDecoder.build(input, outputParameters);
+        } catch (RuntimeException e) {
+            expected = e.getClass();
+        }
+        Object actual;
+        try {
+            actual = FunctionReturnDecoder.decode(input, outputParameters);
+        } catch (RuntimeException e) {
+            actual = e.getClass();
+        }
+        assertEquals(expected, actual);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<TypeReference<Type>> references(TypeReference<?>... typeReferences) {
+        return (List) Arrays.asList(typeReferences);
+    }
+}
@@ -0,0 +1,137 @@
+package com.xwc1125.chain5j.abi;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.DynamicBytes;
+import com.xwc1125.chain5j.abi.datatypes.Function;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import com.xwc1125.chain5j.utils.Numeric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link FunctionEncoder} and {@link FunctionReturnDecoder} on an ERC-20 transfer and on a
+ * function with dynamic parameters, against the byte-oriented {@link AbiEncoder} and
+ * {@link AbiDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbiBenchmark {
+
+    private static final int ARRAY_LENGTH = 50;
+
+    private Function transfer;
+    private Function batchTransfer;
+
+    private String uint256Output;
+    private List<TypeReference<Type>> uint256OutputTypes;
+    private String dynamicOutput;
+    private byte[] uint256OutputBytes;
+    private byte[] dynamicOutputBytes;
+    private byte[] encodeBuffer;
+    private List<TypeReference<Type>> dynamicOutputTypes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        transfer = new Function("transfer",
+                Arrays.<Type>asList(new Address(Fixtures.TO_ADDRESS),
+                        new Uint256(new BigInteger("1000000000000000000000"))),
+                Collections.<TypeReference<?>>emptyList());
+
+        List<Address> recipients = new ArrayList<>();
+        List<Uint256> amounts = new ArrayList<>();
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            recipients.add(new Address(BigInteger.valueOf(0x1000 + i)));
+            amounts.add(new Uint256(BigInteger.valueOf(i).shiftLeft(64)));
+        }
+        batchTransfer = new Function("batchTransfer",
+                Arrays.<Type>asList(new DynamicArray<>(Address.class, recipients),
+                        new DynamicArray<>(Uint256.class, amounts),
+                        new Utf8String("benchmark payment reference"),
+                        new DynamicBytes(new byte[100])),
+                Collections.<TypeReference<?>>emptyList());
+
+        uint256Output = TypeEncoder.encode(new Uint256(BigInteger.TEN.pow(24)));
+        uint256OutputTypes = Utils.convert(
+                Collections.<TypeReference<?>>singletonList(new TypeReference<Uint256>() { }));
+
+        dynamicOutput = FunctionEncoder.encode(batchTransfer).substring(10);
+        dynamicOutputTypes = Utils.convert(Arrays.<TypeReference<?>>asList(
+                new TypeReference<DynamicArray<Address>>() { },
+                new TypeReference<DynamicArray<Uint256>>() { },
+                new TypeReference<Utf8String>() { },
+                new TypeReference<DynamicBytes>() { }));
+
+        uint256OutputBytes = Numeric.hexStringToByteArray(uint256Output);
+        dynamicOutputBytes = Numeric.hexStringToByteArray(dynamicOutput);
+        encodeBuffer = new byte[AbiEncoder.encodedLength(batchTransfer)];
+    }
+
+    @Benchmark
+    public String encodeTransfer() {
+        return FunctionEncoder.encode(transfer);
+    }
+
+    @Benchmark
+    public String encodeDynamic() {
+        return FunctionEncoder.encode(batchTransfer);
+    }
+
+    @Benchmark
+    public byte[] encodeTransferBytes() {
+        return AbiEncoder.encode(transfer);
+    }
+
+    @Benchmark
+    public byte[] encodeDynamicBytes() {
+        return AbiEncoder.encode(batchTransfer);
+    }
+
+    @Benchmark
+    public int encodeDynamicInto() {
+        return AbiEncoder.encode(batchTransfer, encodeBuffer, 0);
+    }
+
+    @Benchmark
+    public List<Type> decodeUint256() {
+        return FunctionReturnDecoder.decode(uint256Output, uint256OutputTypes);
+    }
+
+    @Benchmark
+    public List<Type> decodeDynamic() {
+        return FunctionReturnDecoder.decode(dynamicOutput, dynamicOutputTypes);
+    }
+
+    @Benchmark
+    public List<Type> decodeUint256Bytes() {
+        return AbiDecoder.decode(uint256OutputBytes, uint256OutputTypes);
+    }
+
+    @Benchmark
+    public List<Type> decodeDynamicBytes() {
+        return AbiDecoder.decode(dynamicOutputBytes, dynamicOutputTypes);
+    }
+}
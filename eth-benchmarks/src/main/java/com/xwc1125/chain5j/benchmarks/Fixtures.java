@@ -0,0 +1,117 @@
+package com.xwc1125.chain5j.benchmarks;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import com.xwc1125.chain5j.crypto.Credentials;
+import com.xwc1125.chain5j.crypto.RawTransaction;
+import com.xwc1125.chain5j.crypto.TransactionEncoder;
+import com.xwc1125.chain5j.utils.Numeric;
+
+/**
+ * Deterministic, mainnet-like fixtures shared by the benchmarks.
+ */
+public class Fixtures {
+
+    public static final String PRIVATE_KEY =
+            "a392604efc2fad9c0b3da43b5f698a2e3f270f170d859912be0d54742275c5f6";
+
+    public static final String TO_ADDRESS = "0xef678007d18427e6022059dbc264f27507cd1ffc";
+
+    /**
+     * ERC-20 {@code transfer(address,uint256)} call data.
+     */
+    public static final String TRANSFER_DATA = "0xa9059cbb"
+            + "000000000000000000000000ef678007d18427e6022059dbc264f27507cd1ffc"
+            + "00000000000000000000000000000000000000000000003635c9adc5dea00000";
+
+    /**
+     * Number of transactions in a fixture block.
+     */
+    public static final int BLOCK_TRANSACTIONS = 200;
+
+    public static Credentials credentials() {
+        return Credentials.create("", PRIVATE_KEY);
+    }
+
+    public static RawTransaction rawTransaction(long nonce) {
+        return RawTransaction.createTransaction(
+                BigInteger.valueOf(nonce),
+                BigInteger.valueOf(20_000_000_000L),
+                BigInteger.valueOf(60_000),
+                TO_ADDRESS,
+                BigInteger.ZERO,
+                TRANSFER_DATA);
+    }
+
+    /**
+     * @param count number of transactions
+     * @return RLP encoded, signed transactions with consecutive nonces
+     */
+    public static byte[][] signedTransactions(int count) {
+        Credentials credentials = credentials();
+        byte[][] result = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            result[i] = TransactionEncoder.signMessage(rawTransaction(i), 1, credentials);
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code eth_getBlockByNumber} response with {@link #BLOCK_TRANSACTIONS} full
+     *     transaction objects, as returned by geth
+     */
+    public static String ethBlockResponse() {
+        Random random = new Random(42);
+        String blockHash = randomHex(random, 32);
+        StringBuilder json = new StringBuilder();
+        json.append("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{")
+                .append("\"number\":\"0x7a1200\",")
+                .append("\"hash\":\"").append(blockHash).append("\",")
+                .append("\"parentHash\":\"").append(randomHex(random, 32)).append("\",")
+                .append("\"nonce\":\"").append(randomHex(random, 8)).append("\",")
+                .append("\"sha3Uncles\":\"").append(randomHex(random, 32)).append("\",")
+                .append("\"logsBloom\":\"").append(randomHex(random, 256)).append("\",")
+                .append("\"transactionsRoot\":\"").append(randomHex(random, 32)).append("\",")
+                .append("\"stateRoot\":\"").append(randomHex(random, 32)).append("\",")
+                .append("\"receiptsRoot\":\"").append(randomHex(random, 32)).append("\",")
+                .append("\"miner\":\"").append(randomHex(random, 20)).append("\",")
+                .append("\"mixHash\":\"").append(randomHex(random, 32)).append("\",")
+                .append("\"difficulty\":\"0x7f6a1bb1a2b3c\",")
+                .append("\"totalDifficulty\":\"0x2a5e8b1f9d4c1a7b3e6f\",")
+                .append("\"extraData\":\"").append(randomHex(random, 16)).append("\",")
+                .append("\"size\":\"0x9c4f\",")
+                .append("\"gasLimit\":\"0x7a121d\",")
+                .append("\"gasUsed\":\"0x79f8a3\",")
+                .append("\"timestamp\":\"0x5c8c6a8f\",")
+                .append("\"transactions\":[");
+        for (int i = 0; i < BLOCK_TRANSACTIONS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"hash\":\"").append(randomHex(random, 32)).append("\",")
+                    .append("\"nonce\":\"0x").append(Integer.toHexString(i)).append("\",")
+                    .append("\"blockHash\":\"").append(blockHash).append("\",")
+                    .append("\"blockNumber\":\"0x7a1200\",")
+                    .append("\"transactionIndex\":\"0x")
+                    .append(Integer.toHexString(i)).append("\",")
+                    .append("\"from\":\"").append(randomHex(random, 20)).append("\",")
+                    .append("\"to\":\"").append(TO_ADDRESS).append("\",")
+                    .append("\"value\":\"0x0\",")
+                    .append("\"gasPrice\":\"0x4a817c800\",")
+                    .append("\"gas\":\"0xea60\",")
+                    .append("\"input\":\"").append(TRANSFER_DATA).append("\",")
+                    .append("\"v\":\"0x25\",")
+                    .append("\"r\":\"").append(randomHex(random, 32)).append("\",")
+                    .append("\"s\":\"").append(randomHex(random, 32)).append("\"}");
+        }
+        json.append("],\"uncles\":[]}}");
+        return json.toString();
+    }
+
+    private static String randomHex(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return Numeric.toHexString(bytes);
+    }
+}
@@ -0,0 +1,71 @@
+package com.xwc1125.chain5j.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local JSON-RPC endpoint answering every request with the same result after a fixed delay,
+ * standing in for the latency of a node.
+ */
+public class StubJsonRpcServer implements AutoCloseable {
+
+    private static final byte[] RESPONSE =
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x4b7\"}".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // headers and body are written separately, avoid Nagle delays between them
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param latencyMillis delay before each response
+     * @param threads       number of requests handled concurrently
+     * @throws IOException if the server cannot be started
+     */
+    public StubJsonRpcServer(long latencyMillis, int threads) throws IOException {
+        executor = Executors.newFixedThreadPool(threads);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                byte[] buffer = new byte[1024];
+                while (body.read(buffer) != -1) {
+                    // drain the request
+                }
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(RESPONSE);
+            }
+        });
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recovers the signers of a block of {@link Fixtures#BLOCK_TRANSACTIONS} signatures one at a
+ * time and with {@link BatchSignatureRecovery}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchSignatureRecoveryBenchmark {
+
+    private final BatchSignatureRecovery recovery = new BatchSignatureRecovery();
+
+    private List<byte[]> messageHashes;
+    private List<Sign.SignatureData> signatures;
+
+    @Setup
+    public void setup() {
+        ECKeyPair keyPair = Fixtures.credentials().getEcKeyPair();
+        messageHashes = new ArrayList<>();
+        signatures = new ArrayList<>();
+        for (int i = 0; i < Fixtures.BLOCK_TRANSACTIONS; i++) {
+            byte[] messageHash = Hash.sha3(
+                    TransactionEncoder.encode(Fixtures.rawTransaction(i), 1));
+            messageHashes.add(messageHash);
+            signatures.add(Sign.signMessageHash(messageHash, keyPair));
+        }
+    }
+
+    @Benchmark
+    public List<BigInteger> sequential() throws SignatureException {
+        List<BigInteger> keys = new ArrayList<>(messageHashes.size());
+        for (int i = 0; i < messageHashes.size(); i++) {
+            keys.add(Sign.signedMessageHashToKey(messageHashes.get(i), signatures.get(i)));
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public List<BigInteger> batch() throws SignatureException {
+        return recovery.recoverKeys(messageHashes, signatures);
+    }
+}
@@ -0,0 +1,61 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jcajce.provider.digest.Keccak;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares Keccak-256 through a new BouncyCastle digest per call, as {@link Hash} used to,
+ * with {@link Hash#sha3(byte[])} and its output buffer variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+    // method id input, public key, typical transaction, large call data
+    @Param({"25", "64", "300", "4096"})
+    public int size;
+
+    private byte[] input;
+    private final byte[] output = new byte[32];
+
+    @Setup
+    public void setup() {
+        input = new byte[size];
+        new Random(42).nextBytes(input);
+    }
+
+    @Benchmark
+    public byte[] bouncyCastle() {
+        Keccak.DigestKeccak keccak = new Keccak.Digest256();
+        keccak.update(input, 0, input.length);
+        return keccak.digest();
+    }
+
+    @Benchmark
+    public byte[] sha3() {
+        return Hash.sha3(input);
+    }
+
+    @Benchmark
+    public byte[] sha3IntoBuffer() {
+        Hash.sha3(input, 0, input.length, output, 0);
+        return output;
+    }
+}
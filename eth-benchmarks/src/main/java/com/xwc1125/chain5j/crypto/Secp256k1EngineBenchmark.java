@@ -0,0 +1,67 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link Secp256k1Engine} implementations on public key derivation and public key
+ * recovery.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Secp256k1EngineBenchmark {
+
+    @Param({"generic", "precomputed"})
+    public String engine;
+
+    private Secp256k1Engine secp256k1Engine;
+    private BigInteger privateKey;
+    private byte[] messageHash;
+    private ECDSASignature signature;
+    private int recId;
+
+    @Setup
+    public void setup() {
+        secp256k1Engine = "generic".equals(engine)
+                ? new GenericSecp256k1Engine()
+                : new PrecomputedSecp256k1Engine();
+        // build the generator table outside of the measurement
+        secp256k1Engine.multiplyGenerator(BigInteger.ONE);
+
+        ECKeyPair keyPair = Fixtures.credentials().getEcKeyPair();
+        privateKey = keyPair.getPrivateKey();
+        messageHash = Hash.sha3(TransactionEncoder.encode(Fixtures.rawTransaction(0), 1));
+        Sign.SignatureData signatureData = Sign.signMessageHash(messageHash, keyPair);
+        signature = new ECDSASignature(
+                new BigInteger(1, signatureData.getR()), new BigInteger(1, signatureData.getS()));
+        recId = signatureData.getV() - 27;
+    }
+
+    @Benchmark
+    public ECPoint publicKey() {
+        return secp256k1Engine.multiplyGenerator(privateKey).normalize();
+    }
+
+    @Benchmark
+    public ECPoint recover() {
+        return secp256k1Engine.recoverPoint(recId, signature, messageHash).normalize();
+    }
+}
@@ -0,0 +1,68 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares signing with the recovery id search of {@link Sign#signMessage(byte[], ECKeyPair)}
+ * against {@link Sign#signMessageHash(byte[], ECKeyPair)}, and measures transaction signing
+ * and public key recovery.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignBenchmark {
+
+    private Credentials credentials;
+    private ECKeyPair keyPair;
+    private RawTransaction rawTransaction;
+    private byte[] message;
+    private byte[] messageHash;
+    private Sign.SignatureData signatureData;
+
+    @Setup
+    public void setup() {
+        credentials = Fixtures.credentials();
+        keyPair = credentials.getEcKeyPair();
+        rawTransaction = Fixtures.rawTransaction(0);
+        message = TransactionEncoder.encode(rawTransaction, 1);
+        messageHash = Hash.sha3(message);
+        signatureData = Sign.signMessageHash(messageHash, keyPair);
+    }
+
+    @Benchmark
+    public Sign.SignatureData signMessage() {
+        return Sign.signMessage(messageHash, keyPair, false);
+    }
+
+    @Benchmark
+    public Sign.SignatureData signMessageHash() {
+        return Sign.signMessageHash(messageHash, keyPair);
+    }
+
+    @Benchmark
+    public byte[] signTransaction() {
+        return TransactionEncoder.signMessage(rawTransaction, 1, credentials);
+    }
+
+    @Benchmark
+    public BigInteger recover() throws SignatureException {
+        return Sign.signedMessageHashToKey(messageHash, signatureData);
+    }
+}
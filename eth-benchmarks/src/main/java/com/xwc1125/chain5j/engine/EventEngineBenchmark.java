@@ -0,0 +1,89 @@
+package com.xwc1125.chain5j.engine;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.abi.EventEncoder;
+import com.xwc1125.chain5j.abi.EventValues;
+import com.xwc1125.chain5j.abi.TypeEncoder;
+import com.xwc1125.chain5j.abi.TypeReference;
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.Event;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.engine.abi.DecodedEvent;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.tx.Contract;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding the logs of a block with {@link EventEngine}, against extracting every known event
+ * from every log with {@link Contract#staticExtractEventParameters(Event, Log)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventEngineBenchmark {
+
+    private static final int EVENTS = 20;
+    private static final int LOGS = 1000;
+
+    private List<Event> events;
+    private List<Log> logs;
+    private EventEngine engine;
+
+    @Setup
+    public void setup() {
+        events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new Event("Event" + i, Arrays.<TypeReference<?>>asList(
+                    new TypeReference<Address>(true) { }, new TypeReference<Address>(true) { },
+                    new TypeReference<Uint256>() { })));
+        }
+
+        logs = new ArrayList<>(LOGS);
+        for (int i = 0; i < LOGS; i++) {
+            Log log = new Log();
+            log.setTopics(Arrays.asList(EventEncoder.encode(events.get(i % EVENTS)),
+                    "0x" + TypeEncoder.encode(new Address(BigInteger.valueOf(i))),
+                    "0x" + TypeEncoder.encode(new Address(BigInteger.valueOf(i + 1)))));
+            log.setData("0x" + TypeEncoder.encode(new Uint256(BigInteger.TEN.pow(18 + i % 6))));
+            logs.add(log);
+        }
+
+        engine = EventEngine.of(events);
+    }
+
+    @Benchmark
+    public List<DecodedEvent> engine() {
+        return engine.decode(logs);
+    }
+
+    @Benchmark
+    public List<EventValues> extractEachEvent() {
+        List<EventValues> result = new ArrayList<>(logs.size());
+        for (Log log : logs) {
+            for (Event event : events) {
+                EventValues values = Contract.staticExtractEventParameters(event, log);
+                if (values != null) {
+                    result.add(values);
+                }
+            }
+        }
+        return result;
+    }
+}
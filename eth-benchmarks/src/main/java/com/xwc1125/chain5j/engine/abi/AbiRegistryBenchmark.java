@@ -0,0 +1,118 @@
+package com.xwc1125.chain5j.engine.abi;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.abi.FunctionInputDecoder;
+import com.xwc1125.chain5j.abi.TypeEncoder;
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import com.xwc1125.chain5j.protocol.core.methods.response.AbiDefinition;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.utils.Numeric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link AbiRegistry} lookups and decoding of an ERC-20 transfer call and log, with the ERC-20
+ * ABI registered among a number of other contract ABIs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbiRegistryBenchmark {
+
+    private static final int FUNCTIONS_PER_CONTRACT = 10;
+
+    @Param({"1", "500"})
+    private int contracts;
+
+    private AbiRegistry registry;
+    private byte[] transferData;
+    private Log transferLog;
+
+    @Setup
+    public void setup() {
+        List<List<AbiDefinition>> abis = new ArrayList<>();
+        for (int i = 1; i < contracts; i++) {
+            abis.add(contractAbi(i));
+        }
+        abis.add(erc20Abi());
+        registry = AbiRegistry.of(abis);
+
+        transferData = Numeric.hexStringToByteArray(Fixtures.TRANSFER_DATA);
+        transferLog = new Log();
+        transferLog.setTopics(Arrays.asList(
+                "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+                "0x" + TypeEncoder.encode(new Address(Fixtures.TO_ADDRESS)),
+                "0x" + TypeEncoder.encode(new Address(BigInteger.TEN))));
+        transferLog.setData("0x" + TypeEncoder.encode(new Uint256(BigInteger.TEN.pow(20))));
+    }
+
+    @Benchmark
+    public AbiRegistry.FunctionEntry lookupFunction() {
+        return registry.getFunction(Fixtures.TRANSFER_DATA);
+    }
+
+    @Benchmark
+    public FunctionInputDecoder.InputData decodeInput() {
+        return registry.decodeInput(Fixtures.TRANSFER_DATA);
+    }
+
+    @Benchmark
+    public FunctionInputDecoder.InputData decodeInputBytes() {
+        return registry.decodeInput(transferData);
+    }
+
+    @Benchmark
+    public DecodedEvent decodeLog() {
+        return registry.decodeLog(transferLog);
+    }
+
+    private static List<AbiDefinition> contractAbi(int contract) {
+        List<AbiDefinition> abi = new ArrayList<>();
+        for (int i = 0; i < FUNCTIONS_PER_CONTRACT; i++) {
+            abi.add(new AbiDefinition(false,
+                    Arrays.asList(new AbiDefinition.NamedType("a", "address"),
+                            new AbiDefinition.NamedType("b", "uint" + (8 << (i % 6)))),
+                    "method" + contract + "_" + i,
+                    Arrays.asList(new AbiDefinition.NamedType("", "bool")),
+                    "function", false, "nonpayable"));
+        }
+        abi.add(new AbiDefinition(false,
+                Arrays.asList(new AbiDefinition.NamedType("a", "address", true),
+                        new AbiDefinition.NamedType("b", "uint256")),
+                "Event" + contract, null, "event", false));
+        return abi;
+    }
+
+    private static List<AbiDefinition> erc20Abi() {
+        return Arrays.asList(
+                new AbiDefinition(false,
+                        Arrays.asList(new AbiDefinition.NamedType("to", "address"),
+                                new AbiDefinition.NamedType("value", "uint256")),
+                        "transfer", Arrays.asList(new AbiDefinition.NamedType("", "bool")),
+                        "function", false, "nonpayable"),
+                new AbiDefinition(false,
+                        Arrays.asList(new AbiDefinition.NamedType("from", "address", true),
+                                new AbiDefinition.NamedType("to", "address", true),
+                                new AbiDefinition.NamedType("value", "uint256")),
+                        "Transfer", null, "event", false));
+    }
+}
@@ -0,0 +1,101 @@
+package com.xwc1125.chain5j.protocol.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import com.xwc1125.chain5j.protocol.ObjectMapperFactory;
+import com.xwc1125.chain5j.protocol.ResponseStream;
+import com.xwc1125.chain5j.protocol.core.methods.response.CompactBlock;
+import com.xwc1125.chain5j.protocol.core.methods.response.CompactTransaction;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlock;
+import com.xwc1125.chain5j.protocol.core.methods.response.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson deserialization of an {@code eth_getBlockByNumber} response with
+ * {@link Fixtures#BLOCK_TRANSACTIONS} full transactions, whole or one transaction at a time
+ * through a {@link ResponseStream}, its conversion to a {@link CompactBlock} and reading the
+ * quantities of every transaction from both forms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EthBlockBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] response;
+    private EthBlock.Block block;
+    private CompactBlock compactBlock;
+
+    @Setup
+    public void setup() {
+        objectMapper = ObjectMapperFactory.getObjectMapper();
+        response = Fixtures.ethBlockResponse().getBytes();
+        try {
+            block = objectMapper.readValue(response, EthBlock.class).getBlock();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        compactBlock = CompactBlock.of(block);
+    }
+
+    @Benchmark
+    public EthBlock deserialize() throws IOException {
+        return objectMapper.readValue(response, EthBlock.class);
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        long sum = 0;
+        try (ResponseStream<EthBlock.TransactionObject> stream = new ResponseStream<>(
+                objectMapper, new ByteArrayInputStream(response),
+                "transactions", EthBlock.TransactionObject.class)) {
+            while (stream.hasNext()) {
+                sum += stream.next().getNonce().longValue();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public CompactBlock compact() {
+        return CompactBlock.of(block);
+    }
+
+    @Benchmark
+    public long readQuantities() {
+        long sum = 0;
+        for (EthBlock.TransactionResult<?> result : block.getTransactions()) {
+            Transaction transaction = (Transaction) result.get();
+            sum += transaction.getNonce().longValue() + transaction.getGas().longValue()
+                    + transaction.getBlockNumber().longValue()
+                    + transaction.getTransactionIndex().longValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readQuantitiesCompact() {
+        long sum = 0;
+        for (CompactTransaction transaction : compactBlock.getTransactions()) {
+            sum += transaction.getNonce() + transaction.getGas()
+                    + transaction.getBlockNumber() + transaction.getTransactionIndex();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,80 @@
+package com.xwc1125.chain5j.protocol.http;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.benchmarks.StubJsonRpcServer;
+import com.xwc1125.chain5j.protocol.core.Request;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlockNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load against a {@link StubJsonRpcServer} with a 2 ms latency: each operation is a burst of
+ * {@code concurrency} asynchronous {@code eth_blockNumber} calls, so requests per second are
+ * the score times {@code concurrency}. Compares a {@link HttpService} with OkHttp defaults to
+ * one configured through {@link HttpService#builder()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpServiceBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int concurrency;
+
+    @Param({"default", "builder"})
+    public String client;
+
+    private StubJsonRpcServer server;
+    private HttpService httpService;
+    private Request<?, EthBlockNumber> request;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new StubJsonRpcServer(2, 64);
+        if ("default".equals(client)) {
+            httpService = new HttpService(server.getUrl());
+        } else {
+            httpService = HttpService.builder()
+                    .url(server.getUrl())
+                    .maxRequestsPerHost(64)
+                    .connectionPool(64, 5, TimeUnit.MINUTES)
+                    .build();
+        }
+        request = new Request<>(
+                "eth_blockNumber", Collections.<String>emptyList(), httpService,
+                EthBlockNumber.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        httpService.close();
+        server.close();
+    }
+
+    @Benchmark
+    public void burst() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            futures[i] = request.sendAsync();
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
@@ -0,0 +1,64 @@
+package com.xwc1125.chain5j.protocol.websocket;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.protocol.core.Request;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlockNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Client-side cost of a {@link WebSocketService} request: registering the request and its
+ * timeout, then dispatching the reply, without a connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketServiceBenchmark {
+
+    private WebSocketService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        WebSocketClient client = new WebSocketClient(URI.create("ws://localhost")) {
+            @Override
+            public void send(String text) {
+            }
+        };
+        service = new WebSocketService(client, Executors.newScheduledThreadPool(1), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public EthBlockNumber request() throws IOException {
+        Request<?, EthBlockNumber> request = new Request<>(
+                "eth_blockNumber", Collections.<String>emptyList(), service,
+                EthBlockNumber.class);
+        CompletableFuture<EthBlockNumber> reply = service.sendAsync(request, EthBlockNumber.class);
+        service.onWebSocketMessage(
+                "{\"jsonrpc\":\"2.0\",\"id\":" + request.getId() + ",\"result\":\"0x4b7\"}");
+        return reply.join();
+    }
+}
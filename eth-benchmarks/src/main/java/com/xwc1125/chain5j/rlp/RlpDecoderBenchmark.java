@@ -0,0 +1,80 @@
+package com.xwc1125.chain5j.rlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the tree building {@link RlpDecoder#decode(byte[])} with the lazy and the
+ * streaming decoders on a block worth of signed transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RlpDecoderBenchmark {
+
+    private byte[] block;
+
+    @Setup
+    public void setup() {
+        List<RlpType> transactions = new ArrayList<>();
+        for (byte[] transaction : Fixtures.signedTransactions(Fixtures.BLOCK_TRANSACTIONS)) {
+            transactions.add(RlpDecoder.decode(transaction).getValues().get(0));
+        }
+        block = RlpEncoder.encode(new RlpList(transactions));
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        consume(RlpDecoder.decode(block), blackhole);
+    }
+
+    @Benchmark
+    public void decodeLazy(Blackhole blackhole) {
+        consume(RlpDecoder.decodeLazy(block), blackhole);
+    }
+
+    @Benchmark
+    public void reader(Blackhole blackhole) {
+        RlpReader reader = RlpDecoder.reader(block);
+        consume(reader, blackhole);
+    }
+
+    private static void consume(RlpList list, Blackhole blackhole) {
+        for (RlpType value : list.getValues()) {
+            if (value instanceof RlpList) {
+                consume((RlpList) value, blackhole);
+            } else {
+                blackhole.consume(((RlpString) value).getBytes().length);
+            }
+        }
+    }
+
+    private static void consume(RlpReader reader, Blackhole blackhole) {
+        while (reader.next()) {
+            if (reader.isList()) {
+                reader.enterList();
+                consume(reader, blackhole);
+                reader.exitList();
+            } else {
+                blackhole.consume(reader.length());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.xwc1125.chain5j.rlp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.xwc1125.chain5j.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encodes a single transaction and a block worth of transactions with {@link RlpEncoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RlpEncoderBenchmark {
+
+    private RlpType transaction;
+    private RlpList block;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        List<RlpType> transactions = new ArrayList<>();
+        for (byte[] encoded : Fixtures.signedTransactions(Fixtures.BLOCK_TRANSACTIONS)) {
+            transactions.add(RlpDecoder.decode(encoded).getValues().get(0));
+        }
+        transaction = transactions.get(0);
+        block = new RlpList(transactions);
+        buffer = ByteBuffer.allocate(RlpEncoder.encodedLength(block));
+    }
+
+    @Benchmark
+    public byte[] encodeTransaction() {
+        return RlpEncoder.encode(transaction);
+    }
+
+    @Benchmark
+    public byte[] encodeBlock() {
+        return RlpEncoder.encode(block);
+    }
+
+    @Benchmark
+    public int encodeBlockIntoBuffer() {
+        buffer.clear();
+        return RlpEncoder.encode(block, buffer);
+    }
+}
@@ -0,0 +1,72 @@
+package com.xwc1125.chain5j.utils;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hex conversions of 32 byte values, as used for hashes and ABI words, and of quantities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumericBenchmark {
+
+    private byte[] bytes;
+    private String hex;
+    private BigInteger quantity;
+    private String encodedQuantity;
+
+    @Setup
+    public void setup() {
+        bytes = new byte[32];
+        new Random(42).nextBytes(bytes);
+        hex = Numeric.toHexString(bytes);
+        quantity = new BigInteger("21000000000000000000000");
+        encodedQuantity = Numeric.encodeQuantity(quantity);
+    }
+
+    @Benchmark
+    public String toHexString() {
+        return Numeric.toHexString(bytes);
+    }
+
+    @Benchmark
+    public byte[] hexStringToByteArray() {
+        return Numeric.hexStringToByteArray(hex);
+    }
+
+    @Benchmark
+    public BigInteger toBigInt() {
+        return Numeric.toBigInt(hex);
+    }
+
+    @Benchmark
+    public String toHexStringWithPrefixZeroPadded() {
+        return Numeric.toHexStringWithPrefixZeroPadded(quantity, 64);
+    }
+
+    @Benchmark
+    public String encodeQuantity() {
+        return Numeric.encodeQuantity(quantity);
+    }
+
+    @Benchmark
+    public BigInteger decodeQuantity() {
+        return Numeric.decodeQuantity(encodedQuantity);
+    }
+}
@@ -8,6 +8,7 @@ import com.xwc1125.chain5j.abi.Utils;
 import com.xwc1125.chain5j.abi.datatypes.*;
 import com.xwc1125.chain5j.abi.datatypes.generated.AbiTypes;
 import com.xwc1125.chain5j.crypto.Hash;
+import com.xwc1125.chain5j.engine.abi.AbiRegistry;
 import com.xwc1125.chain5j.engine.abi.MethodInfo;
 import com.xwc1125.chain5j.protocol.ObjectMapperFactory;
 import com.xwc1125.chain5j.protocol.core.methods.response.AbiDefinition;
@@ -73,6 +74,7 @@ public class AbiEngine {
      * @return com.xwc1125.chain5j.abi.FunctionInputDecoder.InputData
      * @Author: xwc1125
      * @Date: 2019-11-05 10:18:52
+     * @deprecated use {@link AbiRegistry#decodeInput(String)}
      */
     @Deprecated
     public static FunctionInputDecoder.InputData parseInput2(String input, List<AbiDefinition> abiList) throws Exception {
@@ -103,6 +105,18 @@ public class AbiEngine {
         return inputData;
     }
 
+    /**
+     * Description: 根据selector从registry中解析Input，registry可在多线程间共享
+     * </p>
+     *
+     * @param input
+     * @param registry
+     * @return com.xwc1125.chain5j.abi.FunctionInputDecoder.InputData, null if the function is unknown
+     */
+    public static FunctionInputDecoder.InputData parseInput(String input, AbiRegistry registry) {
+        return registry.decodeInput(input);
+    }
+
     /**
      * Description: 获取方法签名拼接串，如transfer(address,uint256)
      * </p>
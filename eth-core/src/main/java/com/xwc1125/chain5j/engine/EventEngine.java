@@ -0,0 +1,195 @@
+package com.xwc1125.chain5j.engine;
+
+import com.xwc1125.chain5j.abi.datatypes.Event;
+import com.xwc1125.chain5j.engine.abi.AbiRegistry;
+import com.xwc1125.chain5j.engine.abi.DecodedEvent;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthLog;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.protocol.core.methods.response.TransactionReceipt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * @Description: 事件日志解析引擎。
+ * <p>
+ * 对一个区块或一批交易回执中的所有日志，按 {@code topics[0]} 在 {@link AbiRegistry} 中查找事件定义并解析
+ * indexed 及 non-indexed 参数，每条日志只需一次查找，而不是对每个 {@link Event} 调用一次
+ * {@code Contract.staticExtractEventParameters}。
+ * <p>
+ * 日志被分块后在 {@link ForkJoinPool} 上并行解析，结果按输入顺序返回，未注册事件的日志被忽略。
+ * 实例可在多线程间共享。
+ * @Copyright Copyright@2019
+ */
+public class EventEngine {
+
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private final AbiRegistry registry;
+    private final ForkJoinPool pool;
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public EventEngine(AbiRegistry registry) {
+        this(registry, ForkJoinPool.commonPool());
+    }
+
+    public EventEngine(AbiRegistry registry, ForkJoinPool pool) {
+        this.registry = registry;
+        this.pool = pool;
+    }
+
+    /**
+     * 使用事件定义创建引擎
+     *
+     * @param events
+     * @return
+     */
+    public static EventEngine of(Event... events) {
+        return new EventEngine(AbiRegistry.ofEvents(events));
+    }
+
+    public static EventEngine of(Collection<Event> events) {
+        return new EventEngine(AbiRegistry.empty().withEvents(events));
+    }
+
+    /**
+     * 每个并行任务解析的日志数，默认 64
+     *
+     * @param chunkSize
+     * @return
+     */
+    public EventEngine chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public AbiRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * 解析单条日志
+     *
+     * @param log
+     * @return 未注册事件时返回 null
+     */
+    public DecodedEvent decode(Log log) {
+        return registry.decodeLog(log);
+    }
+
+    /**
+     * 解析一批日志
+     *
+     * @param logs
+     * @return 按输入顺序排列的解析结果，不包含未注册事件的日志
+     */
+    public List<DecodedEvent> decode(List<? extends Log> logs) {
+        DecodedEvent[] results = new DecodedEvent[logs.size()];
+        Log[] input = logs.toArray(new Log[0]);
+        int size = chunkSize;
+        if (input.length <= size) {
+            decodeRange(input, results, 0, input.length);
+        } else {
+            pool.invoke(new DecodeTask(input, results, 0, input.length, size));
+        }
+
+        List<DecodedEvent> decoded = new ArrayList<>(results.length);
+        for (DecodedEvent result : results) {
+            if (result != null) {
+                decoded.add(result);
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * 按输入顺序将解析结果交给 consumer
+     *
+     * @param logs
+     * @param consumer
+     */
+    public void decode(List<? extends Log> logs, Consumer<? super DecodedEvent> consumer) {
+        decode(logs).forEach(consumer);
+    }
+
+    /**
+     * 解析一批交易回执（如一个区块的全部回执）中的日志
+     *
+     * @param receipts
+     * @return 按回执及日志顺序排列的解析结果
+     */
+    public List<DecodedEvent> decodeReceipts(List<TransactionReceipt> receipts) {
+        List<Log> logs = new ArrayList<>();
+        for (TransactionReceipt receipt : receipts) {
+            if (receipt != null && receipt.getLogs() != null) {
+                logs.addAll(receipt.getLogs());
+            }
+        }
+        return decode(logs);
+    }
+
+    /**
+     * 解析 eth_getLogs 的结果，只返回哈希的结果被忽略
+     *
+     * @param ethLog
+     * @return
+     */
+    public List<DecodedEvent> decode(EthLog ethLog) {
+        List<EthLog.LogResult> results = ethLog.getLogs();
+        if (results == null) {
+            return new ArrayList<>();
+        }
+        List<Log> logs = new ArrayList<>(results.size());
+        for (EthLog.LogResult result : results) {
+            if (result instanceof EthLog.LogObject) {
+                logs.add(((EthLog.LogObject) result).get());
+            }
+        }
+        return decode(logs);
+    }
+
+    private void decodeRange(Log[] logs, DecodedEvent[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (logs[i] != null) {
+                results[i] = registry.decodeLog(logs[i]);
+            }
+        }
+    }
+
+    /**
+     * 将 [from, to) 二分直至不超过 chunkSize 条日志
+     */
+    private final class DecodeTask extends RecursiveAction {
+        private final Log[] logs;
+        private final DecodedEvent[] results;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        DecodeTask(Log[] logs, DecodedEvent[] results, int from, int to, int chunkSize) {
+            this.logs = logs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                decodeRange(logs, results, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new DecodeTask(logs, results, from, middle, chunkSize),
+                        new DecodeTask(logs, results, middle, to, chunkSize));
+            }
+        }
+    }
+}
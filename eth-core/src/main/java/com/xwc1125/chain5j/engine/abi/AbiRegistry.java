@@ -0,0 +1,736 @@
+package com.xwc1125.chain5j.engine.abi;
+
+import com.xwc1125.chain5j.abi.AbiDecoder;
+import com.xwc1125.chain5j.abi.EventEncoder;
+import com.xwc1125.chain5j.abi.EventValues;
+import com.xwc1125.chain5j.abi.FunctionInputDecoder;
+import com.xwc1125.chain5j.abi.TypeReference;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.Event;
+import com.xwc1125.chain5j.abi.datatypes.StaticArray;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.generated.AbiTypes;
+import com.xwc1125.chain5j.crypto.Hash;
+import com.xwc1125.chain5j.engine.AbiEngine;
+import com.xwc1125.chain5j.protocol.core.methods.response.AbiDefinition;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.utils.Numeric;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Immutable index of the functions and events of any number of contract ABIs.</p>
+ *
+ * <p>Function selectors and event topics are hashed once, when the registry is created, and
+ * kept in an int keyed open addressing table together with a prepared {@link AbiDecoder}
+ * for their parameters. Decoding calldata or a log is then a single table lookup followed by
+ * the binary ABI decoding, instead of the linear scan and re-hashing of
+ * {@link AbiEngine#parseInput(String, List)}.</p>
+ *
+ * <p>Functions with the same signature in several ABIs are registered once, the first
+ * definition wins. Events are matched on their topic and on the number of indexed
+ * parameters, so events that only differ in which parameters are indexed (as the ERC-20 and
+ * ERC-721 {@code Transfer} events) are told apart. Anonymous events have no topic and are not
+ * registered.</p>
+ *
+ * <p>Registries are safe to share between threads.</p>
+ */
+public final class AbiRegistry {
+
+    private static final AbiRegistry EMPTY = new AbiRegistry(
+            Collections.<FunctionEntry>emptyList(), Collections.<EventEntry>emptyList());
+
+    private final List<FunctionEntry> functions;
+    private final List<EventEntry> events;
+    private final SelectorTable functionTable;
+    private final SelectorTable eventTable;
+
+    private AbiRegistry(List<FunctionEntry> functions, List<EventEntry> events) {
+        this.functions = Collections.unmodifiableList(functions);
+        this.events = Collections.unmodifiableList(events);
+        this.functionTable = new SelectorTable(functions);
+        this.eventTable = new SelectorTable(events);
+    }
+
+    public static AbiRegistry empty() {
+        return EMPTY;
+    }
+
+    public static AbiRegistry of(List<AbiDefinition> abi) {
+        return of(Collections.singletonList(abi));
+    }
+
+    public static AbiRegistry of(Collection<List<AbiDefinition>> abis) {
+        return EMPTY.with(abis);
+    }
+
+    /**
+     * @param abiJson contract ABIs in their JSON form
+     * @return registry of the ABIs
+     * @throws IOException if an ABI cannot be parsed
+     */
+    public static AbiRegistry fromJson(String... abiJson) throws IOException {
+        List<List<AbiDefinition>> abis = new ArrayList<>(abiJson.length);
+        for (String abi : abiJson) {
+            abis.add(AbiEngine.loadContractDefinition(abi));
+        }
+        return of(abis);
+    }
+
+    /**
+     * @param abi contract ABI
+     * @return a new registry with the definitions of this one and of {@code abi}
+     */
+    public AbiRegistry with(List<AbiDefinition> abi) {
+        return with(Collections.singletonList(abi));
+    }
+
+    public AbiRegistry with(Collection<List<AbiDefinition>> abis) {
+        Map<String, FunctionEntry> functionsBySignature = new LinkedHashMap<>();
+        for (FunctionEntry function : functions) {
+            functionsBySignature.put(function.signature, function);
+        }
+        // events are keyed on the signature and the indexed parameters
+        Map<List<Object>, EventEntry> eventsByLayout = new LinkedHashMap<>();
+        for (EventEntry event : events) {
+            eventsByLayout.put(event.layout(), event);
+        }
+
+        Map<String, TypeReference<Type>> references = new HashMap<>();
+        for (List<AbiDefinition> abi : abis) {
+            for (AbiDefinition definition : abi) {
+                if ("function".equals(definition.getType())) {
+                    String signature = signature(definition.getName(), definition.getInputs());
+                    if (!functionsBySignature.containsKey(signature)) {
+                        functionsBySignature.put(
+                                signature, new FunctionEntry(definition, signature, references));
+                    }
+                } else if ("event".equals(definition.getType()) && !isAnonymous(definition)) {
+                    EventEntry event = EventEntry.of(definition, references);
+                    eventsByLayout.putIfAbsent(event.layout(), event);
+                }
+            }
+        }
+        return new AbiRegistry(new ArrayList<>(functionsBySignature.values()),
+                new ArrayList<>(eventsByLayout.values()));
+    }
+
+    /**
+     * @param events event definitions, as used with {@code Contract.staticExtractEventParameters}
+     * @return a new registry with the definitions of this one and {@code events}
+     */
+    public AbiRegistry withEvents(Collection<Event> events) {
+        Map<List<Object>, EventEntry> eventsByLayout = new LinkedHashMap<>();
+        for (EventEntry event : this.events) {
+            eventsByLayout.put(event.layout(), event);
+        }
+        for (Event event : events) {
+            EventEntry entry = EventEntry.of(event);
+            eventsByLayout.putIfAbsent(entry.layout(), entry);
+        }
+        return new AbiRegistry(new ArrayList<>(functions), new ArrayList<>(eventsByLayout.values()));
+    }
+
+    public static AbiRegistry ofEvents(Event... events) {
+        return EMPTY.withEvents(Arrays.asList(events));
+    }
+
+    public List<FunctionEntry> getFunctions() {
+        return functions;
+    }
+
+    public List<EventEntry> getEvents() {
+        return events;
+    }
+
+    /**
+     * @param selector 4 byte function selector, big-endian
+     * @return the function, or null if no ABI defines it
+     */
+    public FunctionEntry getFunction(int selector) {
+        Selector[] chain = functionTable.get(selector);
+        return chain == null ? null : (FunctionEntry) chain[0];
+    }
+
+    /**
+     * @param input method id or hex calldata, with or without the 0x prefix
+     * @return the called function, or null if no ABI defines it
+     */
+    public FunctionEntry getFunction(String input) {
+        int start = Numeric.containsHexPrefix(input) ? 2 : 0;
+        if (input.length() < start + 8) {
+            return null;
+        }
+        return getFunction(parseSelector(input, start));
+    }
+
+    /**
+     * @param input calldata
+     * @return the called function, or null if no ABI defines it
+     */
+    public FunctionEntry getFunction(byte[] input) {
+        if (input.length < 4) {
+            return null;
+        }
+        return getFunction(selector(input));
+    }
+
+    /**
+     * Decode calldata, as {@link FunctionInputDecoder#decode(String, String, List)} with the
+     * function looked up by its selector.
+     *
+     * @param input hex calldata
+     * @return the function signature and arguments, or null if no ABI defines the function
+     */
+    public FunctionInputDecoder.InputData decodeInput(String input) {
+        FunctionEntry function = getFunction(input);
+        if (function == null) {
+            return null;
+        }
+        return function.decodeInput(Numeric.hexStringToByteArray(input));
+    }
+
+    public FunctionInputDecoder.InputData decodeInput(byte[] input) {
+        FunctionEntry function = getFunction(input);
+        if (function == null) {
+            return null;
+        }
+        return function.decodeInput(input);
+    }
+
+    /**
+     * @param topics topics of a log
+     * @return the event emitting the topics, or null if no ABI defines it
+     */
+    public EventEntry getEvent(List<String> topics) {
+        if (topics == null || topics.isEmpty()) {
+            return null;
+        }
+        String topic = topics.get(0);
+        if (topic == null) {
+            return null;
+        }
+        int start = Numeric.containsHexPrefix(topic) ? 2 : 0;
+        if (topic.length() != start + 64) {
+            return null;
+        }
+
+        Selector[] chain = eventTable.get(parseSelector(topic, start));
+        if (chain == null) {
+            return null;
+        }
+        int indexed = topics.size() - 1;
+        for (Selector entry : chain) {
+            EventEntry event = (EventEntry) entry;
+            if (event.indexedParameters.size() == indexed
+                    && event.topic.regionMatches(true, 2, topic, start, 64)) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decode the indexed and non-indexed values of a log, as
+     * {@code Contract.staticExtractEventParameters} with the event looked up by its topic.
+     *
+     * @param log log to decode
+     * @return the decoded log, or null if no ABI defines its event
+     */
+    public DecodedEvent decodeLog(Log log) {
+        EventEntry event = getEvent(log.getTopics());
+        if (event == null) {
+            return null;
+        }
+        return new DecodedEvent(event, event.decode(log), log);
+    }
+
+    private static int selector(byte[] input) {
+        return (input[0] & 0xFF) << 24
+                | (input[1] & 0xFF) << 16
+                | (input[2] & 0xFF) << 8
+                | (input[3] & 0xFF);
+    }
+
+    private static int parseSelector(String hex, int start) {
+        int selector = 0;
+        for (int i = start; i < start + 8; i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) {
+                // no selector matches an invalid one, use a key nothing is stored under
+                return 0;
+            }
+            selector = (selector << 4) | digit;
+        }
+        return selector;
+    }
+
+    private static boolean isAnonymous(AbiDefinition definition) {
+        // AbiDefinition does not carry the anonymous flag, an event without a name has no topic
+        return definition.getName() == null || definition.getName().isEmpty();
+    }
+
+    private static String signature(String name, List<AbiDefinition.NamedType> parameters) {
+        return AbiEngine.buildMethodSignature(name,
+                parameters == null ? Collections.<AbiDefinition.NamedType>emptyList() : parameters);
+    }
+
+    private static List<AbiDefinition.NamedType> orEmpty(List<AbiDefinition.NamedType> types) {
+        return types == null ? Collections.<AbiDefinition.NamedType>emptyList() : types;
+    }
+
+    /**
+     * Reference for an ABI type name such as {@code uint256}, {@code address[]} or
+     * {@code bytes32[4]}, see {@link AbiTypes#getTypeReference(String)}.
+     */
+    private static TypeReference<Type> typeReference(
+            String typeName, boolean indexed, Map<String, TypeReference<Type>> references) {
+        String key = indexed ? typeName + " indexed" : typeName;
+        TypeReference<Type> reference = references.get(key);
+        if (reference == null) {
+            reference = createTypeReference(typeName, indexed);
+            references.put(key, reference);
+        }
+        return reference;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeReference<Type> createTypeReference(String typeName, boolean indexed) {
+        int bracket = typeName.indexOf('[');
+        if (bracket < 0) {
+            Class<? extends Type> type = AbiTypes.getType(typeName);
+            return reference(type, indexed);
+        }
+
+        if (typeName.indexOf('[', bracket + 1) >= 0 || !typeName.endsWith("]")) {
+            throw new UnsupportedOperationException(
+                    "Arrays of arrays are not currently supported: " + typeName);
+        }
+        Class<? extends Type> elementType = AbiTypes.getType(typeName.substring(0, bracket));
+        String dimension = typeName.substring(bracket + 1, typeName.length() - 1);
+        if (dimension.isEmpty()) {
+            return reference(new ArrayType(DynamicArray.class, elementType), indexed);
+        }
+
+        int length = Integer.parseInt(dimension);
+        Class<?> arrayClass = StaticArray.class;
+        try {
+            arrayClass = Class.forName(
+                    "com.xwc1125.chain5j.abi.datatypes.generated.StaticArray" + length);
+        } catch (ClassNotFoundException e) {
+            // no generated class for the length, the size is carried by the reference
+        }
+        ArrayType type = new ArrayType(arrayClass, elementType);
+        if (indexed) {
+            // indexed arrays are decoded as their hash, only the class matters
+            return reference(type, true);
+        }
+        return new TypeReference.StaticArrayTypeReference<Type>(length) {
+            @Override
+            public java.lang.reflect.Type getType() {
+                return type;
+            }
+        };
+    }
+
+    private static TypeReference<Type> reference(java.lang.reflect.Type type, boolean indexed) {
+        return new TypeReference<Type>(indexed) {
+            @Override
+            public java.lang.reflect.Type getType() {
+                return type;
+            }
+        };
+    }
+
+    /**
+     * Entry of a {@link SelectorTable}.
+     */
+    abstract static class Selector {
+        final int key;
+
+        Selector(int key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * A function of a registered ABI.
+     */
+    public static final class FunctionEntry extends Selector {
+        private final String name;
+        private final String signature;
+        private final String methodId;
+        private final String stateMutability;
+        private final List<TypeReference<Type>> inputParameters;
+        private final List<TypeReference<Type>> outputParameters;
+        private final AbiDecoder.Prepared inputDecoder;
+        private final RuntimeException unsupported;
+
+        FunctionEntry(AbiDefinition definition, String signature,
+                      Map<String, TypeReference<Type>> references) {
+            this(definition, signature, Hash.sha3(signature.getBytes()), references);
+        }
+
+        private FunctionEntry(AbiDefinition definition, String signature, byte[] hash,
+                              Map<String, TypeReference<Type>> references) {
+            super(selector(hash));
+            this.name = definition.getName();
+            this.signature = signature;
+            this.methodId = Numeric.toHexString(hash, 0, 4, true);
+            this.stateMutability = definition.getStateMutability();
+
+            List<TypeReference<Type>> inputs = new ArrayList<>();
+            List<TypeReference<Type>> outputs = new ArrayList<>();
+            RuntimeException error = null;
+            try {
+                for (AbiDefinition.NamedType input : orEmpty(definition.getInputs())) {
+                    inputs.add(typeReference(input.getType(), false, references));
+                }
+                for (AbiDefinition.NamedType output : orEmpty(definition.getOutputs())) {
+                    outputs.add(typeReference(output.getType(), false, references));
+                }
+            } catch (RuntimeException e) {
+                error = e;
+                inputs.clear();
+                outputs.clear();
+            }
+            this.inputParameters = Collections.unmodifiableList(inputs);
+            this.outputParameters = Collections.unmodifiableList(outputs);
+            this.inputDecoder = error == null ? AbiDecoder.prepare(inputParameters) : null;
+            this.unsupported = error;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return canonical signature, such as {@code transfer(address,uint256)}
+         */
+        public String getSignature() {
+            return signature;
+        }
+
+        /**
+         * @return 4 byte selector as hex, such as {@code 0xa9059cbb}
+         */
+        public String getMethodId() {
+            return methodId;
+        }
+
+        public int getSelector() {
+            return key;
+        }
+
+        public String getStateMutability() {
+            return stateMutability;
+        }
+
+        /**
+         * @return input types, empty if the function uses types that cannot be decoded
+         */
+        public List<TypeReference<Type>> getInputParameters() {
+            return inputParameters;
+        }
+
+        public List<TypeReference<Type>> getOutputParameters() {
+            return outputParameters;
+        }
+
+        /**
+         * @return true if the inputs of the function can be decoded
+         */
+        public boolean isSupported() {
+            return unsupported == null;
+        }
+
+        /**
+         * @param input calldata, including the selector
+         * @return the function signature and arguments
+         * @throws UnsupportedOperationException if the function uses types that cannot be
+         *                                       decoded
+         */
+        public FunctionInputDecoder.InputData decodeInput(byte[] input) {
+            return decodeInput(input, 0, input.length);
+        }
+
+        public FunctionInputDecoder.InputData decodeInput(byte[] input, int offset, int length) {
+            if (unsupported != null) {
+                throw new UnsupportedOperationException(
+                        "Unable to decode " + signature + ": " + unsupported.getMessage(),
+                        unsupported);
+            }
+            List<Type> values = inputDecoder.decode(input, offset + 4, length - 4);
+            return new FunctionInputDecoder.InputData(signature, values);
+        }
+
+        /**
+         * @return a new {@link MethodInfo} of the function, as
+         *         {@link AbiEngine#buildMethodInfo(String, List, List)}
+         */
+        public MethodInfo toMethodInfo() {
+            MethodInfo methodInfo = new MethodInfo();
+            methodInfo.setName(name);
+            methodInfo.setMethodSignature(signature);
+            methodInfo.setMethodId(methodId);
+            methodInfo.setStateMutability(stateMutability);
+            methodInfo.getInputParameters().addAll(inputParameters);
+            methodInfo.getOutputParameters().addAll(outputParameters);
+            return methodInfo;
+        }
+
+        @Override
+        public String toString() {
+            return methodId + " " + signature;
+        }
+    }
+
+    /**
+     * An event of a registered ABI.
+     */
+    public static final class EventEntry extends Selector {
+        private final String name;
+        private final String signature;
+        private final String topic;
+        private final Event event;
+        private final List<TypeReference<Type>> indexedParameters;
+        private final List<TypeReference<Type>> nonIndexedParameters;
+        private final AbiDecoder.Prepared dataDecoder;
+        private final RuntimeException unsupported;
+
+        private EventEntry(String name, String signature, List<TypeReference<Type>> parameters,
+                           Event event, RuntimeException unsupported) {
+            this(name, signature, Hash.sha3(signature.getBytes()), parameters, event,
+                    unsupported);
+        }
+
+        private EventEntry(String name, String signature, byte[] topic,
+                           List<TypeReference<Type>> parameters, Event event,
+                           RuntimeException unsupported) {
+            super(selector(topic));
+            this.name = name;
+            this.signature = signature;
+            this.topic = Numeric.toHexString(topic);
+            this.event = event;
+
+            List<TypeReference<Type>> indexed = new ArrayList<>();
+            List<TypeReference<Type>> nonIndexed = new ArrayList<>();
+            for (TypeReference<Type> parameter : parameters) {
+                (parameter.isIndexed() ? indexed : nonIndexed).add(parameter);
+            }
+            this.indexedParameters = Collections.unmodifiableList(indexed);
+            this.nonIndexedParameters = Collections.unmodifiableList(nonIndexed);
+            this.dataDecoder = unsupported == null ? AbiDecoder.prepare(nonIndexedParameters) : null;
+            this.unsupported = unsupported;
+        }
+
+        static EventEntry of(AbiDefinition definition, Map<String, TypeReference<Type>> references) {
+            List<AbiDefinition.NamedType> inputs = orEmpty(definition.getInputs());
+            List<TypeReference<Type>> parameters = new ArrayList<>(inputs.size());
+            RuntimeException unsupported = null;
+            for (AbiDefinition.NamedType input : inputs) {
+                TypeReference<Type> reference;
+                try {
+                    reference = typeReference(input.getType(), input.isIndexed(), references);
+                } catch (RuntimeException e) {
+                    // keep the layout of the event, the values cannot be decoded though
+                    unsupported = e;
+                    reference = reference(Type.class, input.isIndexed());
+                }
+                parameters.add(reference);
+            }
+
+            Event event = null;
+            if (unsupported == null) {
+                event = new Event(definition.getName(), new ArrayList<TypeReference<?>>(parameters));
+            }
+            return new EventEntry(definition.getName(),
+                    signature(definition.getName(), inputs), parameters, event, unsupported);
+        }
+
+        static EventEntry of(Event event) {
+            return new EventEntry(event.getName(),
+                    EventEncoder.buildMethodSignature(event.getName(), event.getParameters()),
+                    event.getParameters(), event, null);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        /**
+         * @return hex event topic, the hash of its signature
+         */
+        public String getTopic() {
+            return topic;
+        }
+
+        /**
+         * @return the event, or null if it uses types that cannot be decoded
+         */
+        public Event getEvent() {
+            return event;
+        }
+
+        public List<TypeReference<Type>> getIndexedParameters() {
+            return indexedParameters;
+        }
+
+        public List<TypeReference<Type>> getNonIndexedParameters() {
+            return nonIndexedParameters;
+        }
+
+        public boolean isSupported() {
+            return unsupported == null;
+        }
+
+        /**
+         * @param log log of the event
+         * @return its indexed and non-indexed values
+         * @throws UnsupportedOperationException if the event uses types that cannot be decoded
+         */
+        public EventValues decode(Log log) {
+            if (unsupported != null) {
+                throw new UnsupportedOperationException(
+                        "Unable to decode " + signature + ": " + unsupported.getMessage(),
+                        unsupported);
+            }
+            List<String> topics = log.getTopics();
+            List<Type> indexedValues = new ArrayList<>(indexedParameters.size());
+            for (int i = 0; i < indexedParameters.size(); i++) {
+                indexedValues.add(AbiDecoder.decodeIndexedValue(
+                        Numeric.hexStringToByteArray(topics.get(i + 1)),
+                        indexedParameters.get(i)));
+            }
+            String data = log.getData();
+            List<Type> nonIndexedValues = data == null
+                    ? Collections.<Type>emptyList()
+                    : dataDecoder.decode(Numeric.hexStringToByteArray(data));
+            return new EventValues(indexedValues, nonIndexedValues);
+        }
+
+        private List<Object> layout() {
+            List<Object> layout = new ArrayList<>(indexedParameters.size() + 1);
+            layout.add(signature);
+            for (TypeReference<Type> parameter : indexedParameters) {
+                layout.add(parameter.getType());
+            }
+            layout.add(nonIndexedParameters.size());
+            return layout;
+        }
+
+        @Override
+        public String toString() {
+            return topic + " " + signature;
+        }
+    }
+
+    /**
+     * Open addressing table from 4 byte selectors to the entries with that selector, in
+     * registration order. The keys are the leading bytes of Keccak hashes, so they are already
+     * uniformly distributed.
+     */
+    private static final class SelectorTable {
+        private final int[] keys;
+        private final Selector[][] values;
+        private final int mask;
+
+        SelectorTable(List<? extends Selector> entries) {
+            int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 2 - 1) << 1;
+            keys = new int[capacity];
+            values = new Selector[capacity][];
+            mask = capacity - 1;
+
+            for (Selector entry : entries) {
+                int slot = entry.key & mask;
+                while (values[slot] != null && keys[slot] != entry.key) {
+                    slot = (slot + 1) & mask;
+                }
+                if (values[slot] == null) {
+                    keys[slot] = entry.key;
+                    values[slot] = new Selector[] { entry };
+                } else {
+                    Selector[] chain = Arrays.copyOf(values[slot], values[slot].length + 1);
+                    chain[chain.length - 1] = entry;
+                    values[slot] = chain;
+                }
+            }
+        }
+
+        Selector[] get(int key) {
+            int slot = key & mask;
+            Selector[] value;
+            while ((value = values[slot]) != null) {
+                if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Parameterized array type for references created from ABI type names, equal to the
+     * types of the equivalent {@code new TypeReference<DynamicArray<Uint256>>() {}}.
+     */
+    private static final class ArrayType implements ParameterizedType {
+        private final Class<?> rawType;
+        private final java.lang.reflect.Type[] arguments;
+
+        ArrayType(Class<?> rawType, Class<? extends Type> elementType) {
+            this.rawType = rawType;
+            this.arguments = new java.lang.reflect.Type[] { elementType };
+        }
+
+        @Override
+        public java.lang.reflect.Type[] getActualTypeArguments() {
+            return arguments.clone();
+        }
+
+        @Override
+        public java.lang.reflect.Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public java.lang.reflect.Type getOwnerType() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType that = (ParameterizedType) o;
+            return that.getOwnerType() == null
+                    && rawType.equals(that.getRawType())
+                    && Arrays.equals(arguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            // as the JDK's ParameterizedTypeImpl, which has no owner for these types
+            return Arrays.hashCode(arguments) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return rawType.getName() + "<" + arguments[0].getTypeName() + ">";
+        }
+    }
+}
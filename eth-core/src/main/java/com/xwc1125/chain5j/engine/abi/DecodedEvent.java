@@ -0,0 +1,48 @@
+package com.xwc1125.chain5j.engine.abi;
+
+import com.xwc1125.chain5j.abi.EventValues;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+
+/**
+ * A log decoded with the event of an {@link AbiRegistry}.
+ */
+public class DecodedEvent {
+    private final AbiRegistry.EventEntry event;
+    private final EventValues values;
+    private final Log log;
+
+    public DecodedEvent(AbiRegistry.EventEntry event, EventValues values, Log log) {
+        this.event = event;
+        this.values = values;
+        this.log = log;
+    }
+
+    public AbiRegistry.EventEntry getEvent() {
+        return event;
+    }
+
+    public String getName() {
+        return event.getName();
+    }
+
+    public EventValues getValues() {
+        return values;
+    }
+
+    public Log getLog() {
+        return log;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        sb.append("\"event\":\"")
+                .append(event.getSignature()).append('\"');
+        sb.append(",\"indexedValues\":")
+                .append(values.getIndexedValues());
+        sb.append(",\"nonIndexedValues\":")
+                .append(values.getNonIndexedValues());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -6,20 +6,40 @@ import com.xwc1125.chain5j.engine.sync.vo.ChainBlockInfo;
 import com.xwc1125.chain5j.engine.sync.vo.ChainTransactionInfo;
 import com.xwc1125.chain5j.engine.sync.vo.ChainTransactionReceiptInfo;
 import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
 import com.xwc1125.chain5j.protocol.core.DefaultBlockParameter;
 import com.xwc1125.chain5j.protocol.core.Request;
 import com.xwc1125.chain5j.protocol.core.methods.response.*;
 import com.xwc1125.chain5j.utils.json.JSON;
+import io.reactivex.disposables.Disposable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * @Description:
+ * @Description: 区块同步引擎。
+ * <p>
+ * 每个实例同步一条链，由 {@link ScheduledExecutorService} 驱动：每次调度最多同步
+ * {@link #maxBlocksPerTick(int)} 个区块后重新调度自身，因此多个引擎可以共享同一个调度线程池
+ * 以及同一个 {@link Web3j}（连接池）。
  * @Author: xwc1125
  * @Date: 2019-06-03 19:29
  * @Copyright Copyright@2019
@@ -27,83 +47,379 @@ import java.util.List;
 public class BlockSyncEngine {
     static Logger log = LoggerFactory.getLogger(BlockSyncEngine.class);
     private static final Long WAITING_TIME = 60000L;
-    static BlockSyncEngine ins;
-    private static Web3j web3j;
-    private static BlockSyncCallback callback;
+    private static final int DEFAULT_MAX_BLOCKS_PER_TICK = 100;
+    private static final int DEFAULT_MAX_RETRIES = 10;
+    private static final long DEFAULT_INITIAL_BACKOFF = 1000L;
 
+    /**
+     * 引擎状态
+     */
+    public enum State {
+        NEW, RUNNING, PAUSED, STOPPED, FAILED
+    }
+
+    private final Web3j web3j;
+    private final BlockSyncCallback callback;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final BlockSyncMetrics metrics = new BlockSyncMetrics();
+    private final AtomicReference<State> state = new AtomicReference<>(State.NEW);
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    /**
+     * 同时在途的区块请求数，1 表示逐块同步
+     */
+    private int pipelineWindow = 1;
+    private ExecutorService fetchExecutor;
+    private boolean ownsFetchExecutor;
+
+    private long pollInterval = WAITING_TIME;
+    private int maxBlocksPerTick = DEFAULT_MAX_BLOCKS_PER_TICK;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    private long maxBackoff = WAITING_TIME;
+    private boolean subscribeFlowable = true;
+
+    private volatile BigInteger currentBlockNumber = BigInteger.ZERO;
+    private boolean connected;
+    private boolean subscribed;
+    private int retries;
+    private ScheduledFuture<?> scheduledTick;
+
+    private BlockSyncEngine(Web3j web3j, BlockSyncCallback callback,
+                            ScheduledExecutorService scheduler, boolean ownsScheduler) {
+        this.web3j = web3j;
+        this.callback = callback;
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    /**
+     * 创建一个使用独立调度线程的同步引擎。
+     * <p>
+     * 每次调用都会创建新的引擎，不再返回单例；同一进程中可以同时同步多条链。
+     *
+     * @param web3j
+     * @param callback
+     * @return
+     */
+    public static BlockSyncEngine bulid(Web3j web3j, BlockSyncCallback callback) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "block-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new BlockSyncEngine(web3j, callback, scheduler, true);
+    }
 
-    private BlockSyncEngine() {
+    /**
+     * 创建一个使用共享调度线程池的同步引擎
+     *
+     * @param web3j
+     * @param callback
+     * @param scheduler 调度线程池，由调用方负责关闭
+     * @return
+     */
+    public static BlockSyncEngine build(Web3j web3j, BlockSyncCallback callback,
+                                        ScheduledExecutorService scheduler) {
+        return new BlockSyncEngine(web3j, callback, scheduler, false);
     }
 
-    private BlockSyncEngine(Web3j web3j, BlockSyncCallback callback) {
-        if (ins == null) {
-            BlockSyncEngine.web3j = web3j;
-            BlockSyncEngine.callback = callback;
+    /**
+     * 开启流水线同步：最多同时请求 window 个区块（区块内交易回执通过一次批量请求获取），
+     * 区块仍严格按顺序交给 {@link BlockSyncCallback#saveBlock(ChainBlockInfo)}。
+     * <p>
+     * 注意：流水线模式下 {@link BlockSyncCallback#logException(Exception)} 可能在请求线程中被调用。
+     * 请求线程池按窗口大小创建，因此只能在引擎启动前设置。
+     *
+     * @param window 在途区块数，同时也是重排序缓冲区的大小
+     * @return this
+     * @throws IllegalStateException 引擎已启动
+     */
+    public BlockSyncEngine pipeline(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Pipeline window must be positive: " + window);
         }
+        checkNotStarted();
+        this.pipelineWindow = window;
+        return this;
     }
 
-    public static BlockSyncEngine bulid(Web3j web3j, BlockSyncCallback callback) {
-        if (ins == null) {
-            ins = new BlockSyncEngine(web3j, callback);
+    /**
+     * 使用指定的线程池执行流水线模式下的区块请求，未指定时按窗口大小创建固定线程池。
+     * 只能在引擎启动前设置。
+     *
+     * @param executor 请求线程池，由调用方负责关闭
+     * @return this
+     * @throws IllegalStateException 引擎已启动
+     */
+    public BlockSyncEngine fetchExecutor(ExecutorService executor) {
+        checkNotStarted();
+        this.fetchExecutor = executor;
+        this.ownsFetchExecutor = false;
+        return this;
+    }
+
+    /**
+     * 已追上链上最新区块时的轮询间隔
+     *
+     * @param pollInterval 毫秒
+     * @return this
+     */
+    public BlockSyncEngine pollInterval(long pollInterval) {
+        if (pollInterval <= 0) {
+            throw new IllegalArgumentException("Poll interval must be positive: " + pollInterval);
         }
-        return ins;
+        this.pollInterval = pollInterval;
+        return this;
     }
 
-    public void syncFlowable() {
-        web3j.blockFlowable(true).subscribe(block -> {
-            getBlockInfo(block.getBlock());
-        });
+    /**
+     * 每次调度最多同步的区块数，用于在共享调度线程池的引擎之间公平分配
+     *
+     * @param maxBlocksPerTick
+     * @return this
+     */
+    public BlockSyncEngine maxBlocksPerTick(int maxBlocksPerTick) {
+        if (maxBlocksPerTick < 1) {
+            throw new IllegalArgumentException("Max blocks per tick must be positive: " + maxBlocksPerTick);
+        }
+        this.maxBlocksPerTick = maxBlocksPerTick;
+        return this;
+    }
 
-        web3j.pendingTransactionFlowable().subscribe(tx -> {
-            if (callback != null) {
-                ChainTransactionInfo transactionInfo = getTransaction(tx, new BigInteger(System.currentTimeMillis() / 1000 + ""));
-                callback.pendingTransaction(transactionInfo);
-            }
-        });
+    /**
+     * 请求失败后的重试策略：退避时间从 initialBackoff 开始翻倍，最大为 maxBackoff；
+     * 连续失败超过 maxRetries 次后引擎进入 {@link State#FAILED} 状态
+     *
+     * @param maxRetries     最大连续重试次数
+     * @param initialBackoff 毫秒
+     * @param maxBackoff     毫秒
+     * @return this
+     */
+    public BlockSyncEngine retry(int maxRetries, long initialBackoff, long maxBackoff) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Max retries must not be negative: " + maxRetries);
+        }
+        if (initialBackoff <= 0) {
+            throw new IllegalArgumentException("Initial backoff must be positive: " + initialBackoff);
+        }
+        if (maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException(
+                    "Max backoff must not be less than initial backoff: " + maxBackoff);
+        }
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
 
+    /**
+     * 是否同时订阅新区块及 pending 交易，默认订阅
+     *
+     * @param subscribeFlowable
+     * @return this
+     */
+    public BlockSyncEngine subscribeFlowable(boolean subscribeFlowable) {
+        this.subscribeFlowable = subscribeFlowable;
+        return this;
     }
 
+    private void checkNotStarted() {
+        if (state.get() != State.NEW) {
+            throw new IllegalStateException("Block sync engine already started, state: " + state.get());
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public BlockSyncMetrics getMetrics() {
+        return metrics;
+    }
+
+    public BigInteger getCurrentBlockNumber() {
+        return currentBlockNumber;
+    }
+
+    public void syncFlowable() {
+        synchronized (subscriptions) {
+            subscriptions.add(web3j.blockFlowable(true).subscribe(block -> {
+                getBlockInfo(block.getBlock());
+            }));
+
+            subscriptions.add(web3j.pendingTransactionFlowable().subscribe(tx -> {
+                if (callback != null) {
+                    ChainTransactionInfo transactionInfo = getTransaction(tx, new BigInteger(System.currentTimeMillis() / 1000 + ""));
+                    callback.pendingTransaction(transactionInfo);
+                }
+            }));
+        }
+    }
+
+    /**
+     * 从指定区块开始同步，并阻塞当前线程直到引擎停止。
+     * <p>
+     * 同步在调度线程中进行，本方法在 {@link #stop()} 被调用、或连续失败超过最大重试次数后返回；
+     * 当前线程被中断时停止引擎并返回。不需要阻塞时使用 {@link #start(BigInteger)}。
+     *
+     * @param currentBlockNumber 起始区块
+     */
     public void syncBlock(BigInteger currentBlockNumber) {
-        getProtocolVersion(web3j);
+        start(currentBlockNumber);
+        try {
+            terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop();
+        }
+    }
+
+    /**
+     * 当前线程等待一个轮询间隔
+     */
+    public void waitTime() {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从指定区块开始异步同步
+     *
+     * @param currentBlockNumber 起始区块
+     */
+    public void start(BigInteger currentBlockNumber) {
+        if (!state.compareAndSet(State.NEW, State.RUNNING)) {
+            throw new IllegalStateException("Block sync engine already started, state: " + state.get());
+        }
         if (currentBlockNumber.compareTo(BigInteger.ZERO) < 0) {
             currentBlockNumber = BigInteger.ZERO;
         }
-        syncFlowable();
+        this.currentBlockNumber = currentBlockNumber;
+        metrics.setCurrentBlockNumber(currentBlockNumber.longValue());
+        schedule(0);
+    }
 
-        BigInteger lastBlockNumber = BigInteger.ZERO;
-        while (true) {
-            try {
-                //获取链上最新的
-                Request<?, EthBlockNumber> ethBlockNumberRequest = web3j.ethBlockNumber();
-                lastBlockNumber = ethBlockNumberRequest.send().getBlockNumber();
-            } catch (IOException e) {
-                log.error(e.getMessage(), e);
-                waitTime();
-                syncBlock(currentBlockNumber);
-                return;
-            }
-            if (currentBlockNumber.compareTo(lastBlockNumber) > 0) {
-                // 当前线程等待1分钟
-                waitTime();
-                continue;
+    /**
+     * 暂停同步，已在执行的一次调度会在当前批次完成后停止
+     */
+    public void pause() {
+        state.compareAndSet(State.RUNNING, State.PAUSED);
+    }
+
+    /**
+     * 恢复暂停的同步
+     */
+    public void resume() {
+        if (state.compareAndSet(State.PAUSED, State.RUNNING)) {
+            schedule(0);
+        }
+    }
+
+    /**
+     * 停止同步并释放引擎自身创建的资源
+     */
+    public void stop() {
+        State previous = state.getAndSet(State.STOPPED);
+        if (previous != State.STOPPED && previous != State.FAILED) {
+            terminate();
+        } else {
+            state.set(previous);
+        }
+    }
+
+    private void terminate() {
+        synchronized (this) {
+            if (scheduledTick != null) {
+                scheduledTick.cancel(false);
             }
-            try {
-                currentBlockNumber = queryBlockCurrentBlockNumber(currentBlockNumber, lastBlockNumber);
-            } catch (IOException e) {
-                log.error(e.getMessage(), e);
-                waitTime();
-                syncBlock(currentBlockNumber);
-                return;
+        }
+        synchronized (subscriptions) {
+            subscriptions.forEach(Disposable::dispose);
+            subscriptions.clear();
+        }
+        if (ownsScheduler) {
+            scheduler.shutdown();
+        }
+        synchronized (this) {
+            if (ownsFetchExecutor && fetchExecutor != null) {
+                fetchExecutor.shutdownNow();
             }
         }
+        terminated.countDown();
     }
 
-    public void waitTime() {
+    private synchronized void schedule(long delay) {
+        if (state.get() != State.RUNNING) {
+            return;
+        }
+        if (scheduledTick != null && !scheduledTick.isDone()) {
+            // 已有待执行或正在执行的调度
+            return;
+        }
+        scheduledTick = scheduler.schedule(this::tick, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 一次调度：检测连接，获取链上最新区块，并最多同步 maxBlocksPerTick 个区块
+     */
+    private void tick() {
+        if (state.get() != State.RUNNING) {
+            return;
+        }
+        long delay;
         try {
-            Thread.sleep(WAITING_TIME);
-        } catch (InterruptedException e) {
+            if (!connected) {
+                getProtocolVersion(web3j);
+                connected = true;
+                if (subscribeFlowable && !subscribed) {
+                    syncFlowable();
+                    subscribed = true;
+                }
+            }
+            //获取链上最新的
+            BigInteger lastBlockNumber = web3j.ethBlockNumber().send().getBlockNumber();
+            metrics.setChainBlockNumber(lastBlockNumber.longValue());
+            if (currentBlockNumber.compareTo(lastBlockNumber) > 0) {
+                delay = pollInterval;
+            } else {
+                BigInteger tickLastBlockNumber = lastBlockNumber.min(
+                        currentBlockNumber.add(BigInteger.valueOf(maxBlocksPerTick - 1)));
+                currentBlockNumber = queryBlockCurrentBlockNumber(currentBlockNumber, tickLastBlockNumber);
+                delay = currentBlockNumber.compareTo(lastBlockNumber) > 0 ? pollInterval : 0;
+            }
+            retries = 0;
+        } catch (Exception e) {
             log.error(e.getMessage(), e);
+            metrics.onFailure();
+            // 下次调度重新检测连接
+            connected = false;
+            if (++retries > maxRetries) {
+                log.error("Block sync failed after {} retries, stopping at block {}", maxRetries, currentBlockNumber);
+                if (callback != null) {
+                    callback.logException(e);
+                }
+                if (state.compareAndSet(State.RUNNING, State.FAILED)
+                        || state.compareAndSet(State.PAUSED, State.FAILED)) {
+                    terminate();
+                }
+                return;
+            }
+            delay = Math.min(maxBackoff, initialBackoff << Math.min(retries - 1, 30));
         }
+        metrics.setCurrentBlockNumber(currentBlockNumber.longValue());
+        reschedule(delay);
+    }
+
+    private synchronized void reschedule(long delay) {
+        scheduledTick = null;
+        schedule(delay);
     }
 
     /**
@@ -115,17 +431,14 @@ public class BlockSyncEngine {
      * @Author: xwc1125
      * @Date: 2019-05-09 10:29:49
      */
-    private void getProtocolVersion(Web3j web3j) {
+    private void getProtocolVersion(Web3j web3j) throws IOException {
         Request<?, EthProtocolVersion> protocolVersionRequest = web3j.ethProtocolVersion();
         try {
             String protocolVersion = protocolVersionRequest.send().getProtocolVersion();
-            System.out.println("protocolVersion:" + protocolVersion);
+            log.info("protocolVersion:" + protocolVersion);
         } catch (IOException e) {
             log.error("无法连接");
-            log.error(e.getMessage(), e);
-            waitTime();
-            getProtocolVersion(web3j);
-            return;
+            throw e;
         }
     }
 
@@ -136,24 +449,142 @@ public class BlockSyncEngine {
      * @param lastBlockNumber    最新链上块
      */
     private BigInteger queryBlockCurrentBlockNumber(BigInteger currentBlockNumber, BigInteger lastBlockNumber) throws IOException {
+        if (pipelineWindow > 1) {
+            return queryBlocksPipelined(currentBlockNumber, lastBlockNumber);
+        }
         while (true) {
             if (currentBlockNumber.compareTo(lastBlockNumber) > 0) {
                 return currentBlockNumber;
             }
-            queryBlock(currentBlockNumber);
-            //加1
-            currentBlockNumber = currentBlockNumber.add(BigInteger.ONE);
+            if (queryBlock(currentBlockNumber)) {
+                //加1
+                currentBlockNumber = currentBlockNumber.add(BigInteger.ONE);
+            } else {
+                // 出现分叉，从上一区块重新同步
+                currentBlockNumber = currentBlockNumber.subtract(BigInteger.ONE).max(BigInteger.ZERO);
+            }
+            this.currentBlockNumber = currentBlockNumber;
+        }
+    }
+
+    /**
+     * 流水线方式查询当前和最新块的信息。
+     * <p>
+     * 请求按区块号顺序提交，并按提交顺序取回结果，因此在途队列同时充当有界的重排序缓冲区。
+     *
+     * @param currentBlockNumber 当前块
+     * @param lastBlockNumber    最新链上块
+     */
+    private BigInteger queryBlocksPipelined(BigInteger currentBlockNumber, BigInteger lastBlockNumber) throws IOException {
+        ExecutorService executor = getFetchExecutor();
+        Deque<Future<FetchedBlock>> inFlight = new ArrayDeque<>(pipelineWindow);
+        BigInteger nextBlockNumber = currentBlockNumber;
+        try {
+            while (currentBlockNumber.compareTo(lastBlockNumber) <= 0) {
+                while (inFlight.size() < pipelineWindow && nextBlockNumber.compareTo(lastBlockNumber) <= 0) {
+                    BigInteger blockNumber = nextBlockNumber;
+                    inFlight.addLast(executor.submit(() -> fetchBlock(blockNumber)));
+                    nextBlockNumber = nextBlockNumber.add(BigInteger.ONE);
+                }
+                FetchedBlock fetchedBlock = awaitBlock(inFlight.pollFirst());
+                if (saveFetchedBlock(currentBlockNumber, fetchedBlock)) {
+                    currentBlockNumber = currentBlockNumber.add(BigInteger.ONE);
+                } else {
+                    // 出现分叉，丢弃已预取的区块，从上一区块重新同步
+                    cancelAll(inFlight);
+                    currentBlockNumber = currentBlockNumber.subtract(BigInteger.ONE).max(BigInteger.ZERO);
+                    nextBlockNumber = currentBlockNumber;
+                }
+                // 记录进度，请求失败后从未保存的区块重试
+                this.currentBlockNumber = currentBlockNumber;
+            }
+            return currentBlockNumber;
+        } finally {
+            cancelAll(inFlight);
+        }
+    }
+
+    private synchronized ExecutorService getFetchExecutor() {
+        if (fetchExecutor == null) {
+            fetchExecutor = Executors.newFixedThreadPool(pipelineWindow, runnable -> {
+                Thread thread = new Thread(runnable, "block-sync-fetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ownsFetchExecutor = true;
+        }
+        return fetchExecutor;
+    }
+
+    private FetchedBlock awaitBlock(Future<FetchedBlock> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching block", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void cancelAll(Deque<Future<FetchedBlock>> inFlight) {
+        Future<FetchedBlock> future;
+        while ((future = inFlight.pollFirst()) != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 在请求线程中获取区块及其全部交易回执，并完成数据转换
+     *
+     * @param blockNumber 区块号
+     * @return 区块及转换后的区块信息
+     * @throws IOException
+     */
+    private FetchedBlock fetchBlock(BigInteger blockNumber) throws IOException {
+        EthBlock.Block block = web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(blockNumber), true)
+                .send().getBlock();
+        if (block == null) {
+            throw new IOException("Block not found: " + blockNumber);
         }
+        Map<String, ChainTransactionReceiptInfo> receipts = getTransactionReceiptInfos(block.getTransactions());
+        return new FetchedBlock(block, buildBlockInfo(block, receipts));
+    }
+
+    /**
+     * 按顺序保存已获取的区块，方法中校验是否分叉
+     *
+     * @param currentBlockNumber 当前块
+     * @param fetchedBlock       已获取的区块
+     * @return 是否保存成功，false 表示出现分叉
+     */
+    private boolean saveFetchedBlock(BigInteger currentBlockNumber, FetchedBlock fetchedBlock) {
+        ChainBlockInfo one = null;
+        if (callback != null) {
+            one = callback.findBlockByNumber(currentBlockNumber.subtract(BigInteger.ONE));
+        }
+        if (one != null && !fetchedBlock.block.getParentHash().equals(one.getHash())) {
+            // 出现分叉，删除上一区块的交易信息和区块信息
+            metrics.onForkDetected();
+            callback.deleteTransactionByBlockHash(one.getHash());
+            callback.deleteBlockByNumber(currentBlockNumber.subtract(BigInteger.ONE));
+            return false;
+        }
+        saveBlockInfo(fetchedBlock.blockInfo);
+        return true;
     }
 
     /**
      * 查询区块方法,方法中校验是否分叉
      *
      * @param currentBlockNumber
-     * @return
+     * @return 是否保存成功，false 表示出现分叉
      * @throws IOException
      */
-    private void queryBlock(BigInteger currentBlockNumber) throws IOException {
+    private boolean queryBlock(BigInteger currentBlockNumber) throws IOException {
         // 读取当前链上blockNumber为i的区块
         Request<?, EthBlock> ethGetBlockByNumber = web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(currentBlockNumber), true);
         EthBlock.Block block = ethGetBlockByNumber.send().getBlock();
@@ -167,15 +598,16 @@ public class BlockSyncEngine {
         }
         if (one == null) {
             getBlockInfo(block);
-            return;
+            return true;
         }
         String hash = one.getHash();
         //当前块是数据库块中的hash，回退12个块
         if (parentHash.equals(hash)) {
             getBlockInfo(block);
-            return;
+            return true;
         } else {
             //出现分叉
+            metrics.onForkDetected();
             currentBlockNumber = currentBlockNumber.subtract(BigInteger.ONE);
             // 调用数据库中的方法删除上一区块的交易信息和另一个表中的区块信息
             // 删除交易信息
@@ -184,7 +616,7 @@ public class BlockSyncEngine {
                 // 删除block表中的分叉区块的数据
                 callback.deleteBlockByNumber(currentBlockNumber);
             }
-            return;
+            return false;
         }
     }
 
@@ -194,6 +626,25 @@ public class BlockSyncEngine {
      * @param block
      */
     void getBlockInfo(EthBlock.Block block) {
+        saveBlockInfo(buildBlockInfo(block, null));
+    }
+
+    private void saveBlockInfo(ChainBlockInfo blockInfo) {
+        if (blockInfo != null && callback != null) {
+            callback.saveBlock(blockInfo);
+            List<ChainTransactionInfo> transactionInfos = blockInfo.getTransactionInfos();
+            metrics.onBlockSynced(transactionInfos == null ? 0 : transactionInfos.size());
+        }
+    }
+
+    /**
+     * 转换区块信息
+     *
+     * @param block
+     * @param receipts 交易hash对应的回执，为null时逐笔查询
+     * @return
+     */
+    ChainBlockInfo buildBlockInfo(EthBlock.Block block, Map<String, ChainTransactionReceiptInfo> receipts) {
         ChainBlockInfo blockInfo = null;
         try {
             blockInfo = JSON.getObjectMapper().readValue(block.toJsonString(), ChainBlockInfo.class);
@@ -208,12 +659,10 @@ public class BlockSyncEngine {
         }
         if (blockInfo != null) {
             blockInfo.setStatus(StatusType.OK.value);
-            List<ChainTransactionInfo> transactionInfoList = getTransactionInfo(block.getTransactions(), block.getTimestamp());
+            List<ChainTransactionInfo> transactionInfoList = getTransactionInfo(block.getTransactions(), block.getTimestamp(), receipts);
             blockInfo.setTransactionInfos(transactionInfoList);
-            if (callback != null) {
-                callback.saveBlock(blockInfo);
-            }
         }
+        return blockInfo;
     }
 
     /**
@@ -223,13 +672,18 @@ public class BlockSyncEngine {
      * @param timestamp
      */
     List<ChainTransactionInfo> getTransactionInfo(List<EthBlock.TransactionResult> transactionResultList, BigInteger timestamp) {
+        return getTransactionInfo(transactionResultList, timestamp, null);
+    }
+
+    List<ChainTransactionInfo> getTransactionInfo(List<EthBlock.TransactionResult> transactionResultList, BigInteger timestamp,
+                                                  Map<String, ChainTransactionReceiptInfo> receipts) {
         List<ChainTransactionInfo> transactionInfoList = new ArrayList<>();
         if (transactionResultList != null && transactionResultList.size() > 0) {
             ChainTransactionInfo transactionInfo;
             for (EthBlock.TransactionResult transactionResult : transactionResultList) {
                 try {
                     Transaction transaction = (Transaction) transactionResult.get();
-                    transactionInfo = getTransaction(transaction, timestamp);
+                    transactionInfo = getTransaction(transaction, timestamp, receipts);
                     transactionInfoList.add(transactionInfo);
 
                 } catch (JsonProcessingException e) {
@@ -247,13 +701,20 @@ public class BlockSyncEngine {
     }
 
     ChainTransactionInfo getTransaction(Transaction transaction, BigInteger timestamp) throws IOException {
+        return getTransaction(transaction, timestamp, null);
+    }
+
+    ChainTransactionInfo getTransaction(Transaction transaction, BigInteger timestamp,
+                                        Map<String, ChainTransactionReceiptInfo> receipts) throws IOException {
         Gson gson = new Gson();
         ChainTransactionInfo transactionInfo = gson.fromJson(transaction.toString(), ChainTransactionInfo.class);
 //        ChainTransactionInfo transactionInfo = JSON.getObjectMapper().readValue(transaction.toString(), ChainTransactionInfo.class);
         transactionInfo.setTimestamp(timestamp.longValue());
         transactionInfo.setIsSuccess(StatusType.UNKNOWN.value);
         transactionInfo.setStatus(StatusType.OK.value);
-        ChainTransactionReceiptInfo transactionReceipt = getTransactionReceiptInfo(transactionInfo.getHash());
+        ChainTransactionReceiptInfo transactionReceipt = receipts != null
+                ? receipts.get(transactionInfo.getHash())
+                : getTransactionReceiptInfo(transactionInfo.getHash());
         if (transactionReceipt != null) {
             transactionInfo.setTransactionReceiptInfo(transactionReceipt);
         }
@@ -285,4 +746,61 @@ public class BlockSyncEngine {
         return transactionReceiptInfo;
     }
 
+    /**
+     * 通过一次批量请求获取区块内全部交易的回执
+     *
+     * @param transactionResultList
+     * @return 交易hash对应的回执
+     * @throws IOException
+     */
+    Map<String, ChainTransactionReceiptInfo> getTransactionReceiptInfos(List<EthBlock.TransactionResult> transactionResultList) throws IOException {
+        Map<String, ChainTransactionReceiptInfo> receipts = new HashMap<>();
+        if (transactionResultList == null || transactionResultList.isEmpty()) {
+            return receipts;
+        }
+        BatchRequest batchRequest = web3j.newBatch();
+        for (EthBlock.TransactionResult transactionResult : transactionResultList) {
+            Transaction transaction = (Transaction) transactionResult.get();
+            batchRequest.add(web3j.ethGetTransactionReceipt(transaction.getHash()));
+        }
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            // 按失败处理，由重试机制重新获取
+            throw new IOException("No response to receipt batch of "
+                    + batchRequest.getRequests().size() + " requests");
+        }
+        for (int i = 0; i < batchRequest.getRequests().size(); i++) {
+            EthGetTransactionReceipt ethGetTransactionReceipt =
+                    batchResponse.getResponse(i, EthGetTransactionReceipt.class);
+            if (ethGetTransactionReceipt == null) {
+                continue;
+            }
+            if (ethGetTransactionReceipt.hasError()) {
+                log.error(ethGetTransactionReceipt.getError().toString());
+                if (callback != null) {
+                    callback.logException(new Exception(ethGetTransactionReceipt.getError().toString()));
+                }
+                continue;
+            }
+            TransactionReceipt transactionReceipt = ethGetTransactionReceipt.getTransactionReceipt().orElse(null);
+            if (transactionReceipt != null) {
+                receipts.put(transactionReceipt.getTransactionHash(),
+                        JSON.getObjectMapper().readValue(transactionReceipt.toString(), ChainTransactionReceiptInfo.class));
+            }
+        }
+        return receipts;
+    }
+
+    /**
+     * 已获取、待按顺序保存的区块
+     */
+    private static class FetchedBlock {
+        private final EthBlock.Block block;
+        private final ChainBlockInfo blockInfo;
+
+        FetchedBlock(EthBlock.Block block, ChainBlockInfo blockInfo) {
+            this.block = block;
+            this.blockInfo = blockInfo;
+        }
+    }
 }
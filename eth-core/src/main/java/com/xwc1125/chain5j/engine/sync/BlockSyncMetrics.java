@@ -0,0 +1,115 @@
+package com.xwc1125.chain5j.engine.sync;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description: 单个同步引擎的运行指标
+ * @Copyright Copyright@2019
+ */
+public class BlockSyncMetrics {
+    /**
+     * 已保存的区块数
+     */
+    private final AtomicLong blocksSynced = new AtomicLong();
+    /**
+     * 已保存的交易数
+     */
+    private final AtomicLong transactionsSynced = new AtomicLong();
+    /**
+     * 检测到的分叉次数
+     */
+    private final AtomicLong forksDetected = new AtomicLong();
+    /**
+     * 请求失败次数
+     */
+    private final AtomicLong failures = new AtomicLong();
+    /**
+     * 下一个待同步的区块号
+     */
+    private final AtomicLong currentBlockNumber = new AtomicLong(-1);
+    /**
+     * 最近一次获取的链上最新区块号
+     */
+    private final AtomicLong chainBlockNumber = new AtomicLong(-1);
+    /**
+     * 最近一次保存区块的时间（毫秒）
+     */
+    private final AtomicLong lastSyncTime = new AtomicLong();
+
+    void onBlockSynced(int transactionCount) {
+        blocksSynced.incrementAndGet();
+        transactionsSynced.addAndGet(transactionCount);
+        lastSyncTime.set(System.currentTimeMillis());
+    }
+
+    void onForkDetected() {
+        forksDetected.incrementAndGet();
+    }
+
+    void onFailure() {
+        failures.incrementAndGet();
+    }
+
+    void setCurrentBlockNumber(long blockNumber) {
+        currentBlockNumber.set(blockNumber);
+    }
+
+    void setChainBlockNumber(long blockNumber) {
+        chainBlockNumber.set(blockNumber);
+    }
+
+    public long getBlocksSynced() {
+        return blocksSynced.get();
+    }
+
+    public long getTransactionsSynced() {
+        return transactionsSynced.get();
+    }
+
+    public long getForksDetected() {
+        return forksDetected.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getCurrentBlockNumber() {
+        return currentBlockNumber.get();
+    }
+
+    public long getChainBlockNumber() {
+        return chainBlockNumber.get();
+    }
+
+    /**
+     * 距离链上最新区块还差的区块数
+     *
+     * @return 未知时返回-1
+     */
+    public long getBlocksBehind() {
+        long chain = chainBlockNumber.get();
+        long current = currentBlockNumber.get();
+        if (chain < 0 || current < 0) {
+            return -1;
+        }
+        return Math.max(0, chain - current + 1);
+    }
+
+    public long getLastSyncTime() {
+        return lastSyncTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return "BlockSyncMetrics{"
+                + "blocksSynced=" + blocksSynced
+                + ", transactionsSynced=" + transactionsSynced
+                + ", forksDetected=" + forksDetected
+                + ", failures=" + failures
+                + ", currentBlockNumber=" + currentBlockNumber
+                + ", chainBlockNumber=" + chainBlockNumber
+                + ", lastSyncTime=" + lastSyncTime
+                + '}';
+    }
+}
@@ -0,0 +1,242 @@
+package com.xwc1125.chain5j.protocol;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.xwc1125.chain5j.protocol.core.Response;
+import com.xwc1125.chain5j.protocol.exceptions.ResponseErrorException;
+
+/**
+ * <p>Incremental reader of a JSON-RPC response whose result is, or contains, a large array.</p>
+ *
+ * <p>The response is read with a {@link JsonParser} straight from the transport stream and
+ * the elements of the array are only deserialized as they are iterated, so memory use does
+ * not depend on the size of the result. The array is either the result itself, such as the
+ * logs of {@code eth_getLogs}, or a field of the result object, such as the
+ * {@code transactions} of {@code eth_getBlockByNumber}. The other fields of a result object
+ * are kept as a tree, see {@link #getResult()}.</p>
+ *
+ * <p>A JSON-RPC error is thrown as a {@link ResponseErrorException} when the stream is
+ * created. I/O and parsing failures during iteration are thrown as
+ * {@link UncheckedIOException}. The stream is closed once the response has been read to
+ * the end and must be closed by the caller if iteration stops early.</p>
+ *
+ * @param <T> type of the array elements
+ */
+public class ResponseStream<T> implements Iterator<T>, Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final String arrayField;
+    private final JsonParser parser;
+
+    private final ObjectNode result;
+    private long id;
+
+    private T next;
+    private boolean pending;
+    private boolean done;
+
+    /**
+     * @param objectMapper mapper used to read the elements and the other result fields
+     * @param input        JSON-RPC response, closed with the stream
+     * @param arrayField   field of the result object holding the array, or null if the
+     *                     result is the array
+     * @param elementType  type of the array elements
+     * @throws IOException            if the response cannot be read up to the array
+     * @throws ResponseErrorException if the response is a JSON-RPC error
+     */
+    public ResponseStream(ObjectMapper objectMapper, InputStream input,
+                          String arrayField, Class<T> elementType) throws IOException {
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(elementType);
+        this.arrayField = arrayField;
+        this.result = objectMapper.createObjectNode();
+
+        if (input == null) {
+            this.parser = null;
+            this.done = true;
+            return;
+        }
+
+        this.parser = objectMapper.getFactory().createParser(input);
+        try {
+            if (!openArray()) {
+                done = true;
+                close();
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return id of the response, complete once the stream has been read to the end if the
+     *         node sends the id after the result
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Fields of the result object other than the array. Fields that the node sends after
+     * the array are only present once the stream has been read to the end.
+     *
+     * @return result fields, empty if the result is the array itself
+     */
+    public ObjectNode getResult() {
+        return result;
+    }
+
+    /**
+     * Convert the fields of the result object other than the array, e.g. to an
+     * {@code EthBlock.Block} holding the block header without its transactions.
+     *
+     * @param type target type
+     * @param <R>  target type
+     * @return converted result
+     * @throws IOException if the fields cannot be converted
+     */
+    public <R> R getResult(Class<R> type) throws IOException {
+        return objectMapper.treeToValue(result, type);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        try {
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                done = true;
+                readRemaining();
+                close();
+                return false;
+            }
+            next = reader.readValue(parser);
+            pending = true;
+            return true;
+        } catch (IOException e) {
+            done = true;
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = next;
+        next = null;
+        pending = false;
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        if (parser != null) {
+            parser.close();
+        }
+    }
+
+    /**
+     * Read the response up to the first element of the array.
+     *
+     * @return false if the result holds no array
+     */
+    private boolean openArray() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw JsonMappingException.from(parser, "Expected a JSON-RPC response object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("result".equals(name)) {
+                if (openResult(token)) {
+                    return true;
+                }
+            } else {
+                readEnvelopeField(name);
+            }
+        }
+        return false;
+    }
+
+    private boolean openResult(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (arrayField == null) {
+            if (token != JsonToken.START_ARRAY) {
+                throw JsonMappingException.from(parser, "Expected an array result");
+            }
+            return true;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw JsonMappingException.from(parser, "Expected an object result");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (arrayField.equals(name) && value == JsonToken.START_ARRAY) {
+                return true;
+            }
+            result.set(name, objectMapper.readTree(parser));
+        }
+        return false;
+    }
+
+    /**
+     * Read what follows the array: the rest of the result object and of the response.
+     */
+    private void readRemaining() throws IOException {
+        if (arrayField != null) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                result.set(name, objectMapper.readTree(parser));
+            }
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            readEnvelopeField(name);
+        }
+    }
+
+    private void readEnvelopeField(String name) throws IOException {
+        if ("id".equals(name)) {
+            id = parser.getValueAsLong();
+        } else if ("error".equals(name) && parser.getCurrentToken() == JsonToken.START_OBJECT) {
+            throw new ResponseErrorException(objectMapper.readValue(parser, Response.Error.class));
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+    }
+}
@@ -2,12 +2,18 @@ package com.xwc1125.chain5j.protocol;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.reactivex.Emitter;
 import io.reactivex.Flowable;
 
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
 import com.xwc1125.chain5j.protocol.core.Request;
 import com.xwc1125.chain5j.protocol.core.Response;
 import com.xwc1125.chain5j.protocol.websocket.events.Notification;
@@ -41,12 +47,96 @@ public abstract class Service implements Web3jService {
         }
     }
 
+    /**
+     * Perform a request for a streamed response. Transports that buffer responses, e.g. to
+     * include raw responses, override this to hand over the stream as it is received.
+     *
+     * @param payload JSON-RPC payload
+     * @return response stream
+     * @throws IOException thrown if failed to perform the request
+     */
+    protected InputStream performStreamingIO(String payload) throws IOException {
+        return performIO(payload);
+    }
+
+    /**
+     * Perform a synchronous JSON-RPC request and read the elements of an array of its result
+     * one at a time, see {@link ResponseStream}. Raw responses are not recorded.
+     *
+     * @param request request to perform
+     * @param arrayField field of the result object holding the array, e.g.
+     *                   {@code "transactions"}, or null if the result is the array
+     * @param elementType class of the array elements
+     * @param <E> type of the array elements
+     * @return open stream, to be closed if not read to the end
+     * @throws IOException thrown if failed to perform the request
+     */
+    public <E> ResponseStream<E> sendStreaming(
+            Request request, String arrayField, Class<E> elementType) throws IOException {
+        String payload = objectMapper.writeValueAsString(request);
+        return new ResponseStream<>(
+                objectMapper, performStreamingIO(payload), arrayField, elementType);
+    }
+
+    /**
+     * Perform a JSON-RPC request on subscription and emit the elements of an array of its
+     * result as they are read, honouring downstream demand. The request is performed on the
+     * subscribing thread and the response is closed on completion or cancellation. Null
+     * elements are skipped.
+     *
+     * @param request request to perform
+     * @param arrayField field of the result object holding the array, or null if the
+     *                   result is the array
+     * @param elementType class of the array elements
+     * @param <E> type of the array elements
+     * @return a {@link Flowable} of the array elements
+     */
+    public <E> Flowable<E> stream(Request request, String arrayField, Class<E> elementType) {
+        return Flowable.generate(
+                () -> sendStreaming(request, arrayField, elementType),
+                (ResponseStream<E> stream, Emitter<E> emitter) -> {
+                    while (stream.hasNext()) {
+                        E element = stream.next();
+                        if (element != null) {
+                            emitter.onNext(element);
+                            return;
+                        }
+                    }
+                    emitter.onComplete();
+                },
+                ResponseStream::close);
+    }
+
     @Override
     public <T extends Response> CompletableFuture<T> sendAsync(
             Request jsonRpc20Request, Class<T> responseType) {
         return Async.run(() -> send(jsonRpc20Request, responseType));
     }
 
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        List<Request<?, ? extends Response<?>>> requests = batchRequest.getRequests();
+        if (requests.isEmpty()) {
+            return new BatchResponse(requests, Collections.emptyList());
+        }
+
+        String payload = objectMapper.writeValueAsString(requests);
+
+        try (InputStream result = performIO(payload)) {
+            if (result != null) {
+                JsonNode replies = objectMapper.readTree(result);
+                return BatchResponse.fromReplies(objectMapper, requests, replies);
+            } else {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
     @Override
     public <T extends Notification<?>> Flowable<T> subscribe(
             Request request,
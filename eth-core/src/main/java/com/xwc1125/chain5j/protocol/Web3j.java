@@ -2,6 +2,7 @@ package com.xwc1125.chain5j.protocol;
 
 import java.util.concurrent.ScheduledExecutorService;
 
+import com.xwc1125.chain5j.protocol.core.Batcher;
 import com.xwc1125.chain5j.protocol.core.Ethereum;
 import com.xwc1125.chain5j.protocol.core.JsonRpc2_0Web3j;
 import com.xwc1125.chain5j.protocol.rx.Web3jRx;
@@ -9,7 +10,7 @@ import com.xwc1125.chain5j.protocol.rx.Web3jRx;
 /**
  * JSON-RPC Request object building factory.
  */
-public interface Web3j extends Ethereum, Web3jRx {
+public interface Web3j extends Ethereum, Web3jRx, Batcher {
 
     static Web3j build(Web3jService web3jService) {
         return new JsonRpc2_0Web3j(web3jService, "eth");
@@ -1,13 +1,18 @@
 package com.xwc1125.chain5j.protocol;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import io.reactivex.Flowable;
 
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
 import com.xwc1125.chain5j.protocol.core.Request;
 import com.xwc1125.chain5j.protocol.core.Response;
 import com.xwc1125.chain5j.protocol.websocket.events.Notification;
+import com.xwc1125.chain5j.utils.Async;
 
 /**
  * Services API.
@@ -38,6 +43,35 @@ public interface Web3jService {
     <T extends Response> CompletableFuture<T> sendAsync(
             Request request, Class<T> responseType);
 
+    /**
+     * Perform a synchronous JSON-RPC batch request. Services of this library send all
+     * requests of the batch in a single JSON-RPC array payload, the default implementation
+     * sends them one after another.
+     *
+     * @param batchRequest batch request to perform
+     * @return responses matched to the requests of the batch
+     * @throws IOException thrown if failed to perform a batch request
+     */
+    default BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        List<Request<?, ? extends Response<?>>> requests = batchRequest.getRequests();
+        List<Response<?>> responses = new ArrayList<>(requests.size());
+        for (Request<?, ? extends Response<?>> request : requests) {
+            responses.add(send(request, request.getResponseType()));
+        }
+        return new BatchResponse(requests, responses);
+    }
+
+    /**
+     * Performs an asynchronous JSON-RPC batch request.
+     *
+     * @param batchRequest batch request to perform
+     * @return CompletableFuture that will be completed when the batch result is returned or
+     *         if the batch request has failed
+     */
+    default CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
     /**
      * Subscribe to a stream of notifications. A stream of notifications is opened by
      * by performing a specified JSON-RPC request and is closed by calling
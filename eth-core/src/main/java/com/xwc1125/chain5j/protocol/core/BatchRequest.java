@@ -0,0 +1,39 @@
+package com.xwc1125.chain5j.protocol.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.xwc1125.chain5j.protocol.Web3jService;
+
+/**
+ * A JSON-RPC batch, i.e. a number of {@link Request} objects that are sent to the node
+ * in a single round trip.
+ */
+public class BatchRequest {
+
+    private final Web3jService web3jService;
+    private final List<Request<?, ? extends Response<?>>> requests = new ArrayList<>();
+
+    public BatchRequest(Web3jService web3jService) {
+        this.web3jService = web3jService;
+    }
+
+    public BatchRequest add(Request<?, ? extends Response<?>> request) {
+        requests.add(request);
+        return this;
+    }
+
+    public List<Request<?, ? extends Response<?>>> getRequests() {
+        return requests;
+    }
+
+    public BatchResponse send() throws IOException {
+        return web3jService.sendBatch(this);
+    }
+
+    public CompletableFuture<BatchResponse> sendAsync() {
+        return web3jService.sendBatchAsync(this);
+    }
+}
@@ -0,0 +1,91 @@
+package com.xwc1125.chain5j.protocol.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Result of a JSON-RPC batch request.
+ *
+ * <p>Responses are returned in the same order as the requests were added to the batch,
+ * regardless of the order in which the node replied. A request the node did not reply to
+ * has a {@code null} response.
+ */
+public class BatchResponse {
+
+    private List<Request<?, ? extends Response<?>>> requests;
+    private List<? extends Response<?>> responses;
+
+    public BatchResponse(
+            List<Request<?, ? extends Response<?>>> requests,
+            List<? extends Response<?>> responses) {
+        this.requests = requests;
+        this.responses = responses;
+    }
+
+    public List<Request<?, ? extends Response<?>>> getRequests() {
+        return requests;
+    }
+
+    public List<? extends Response<?>> getResponses() {
+        return responses;
+    }
+
+    /**
+     * Returns the typed response of the request at the given position in the batch.
+     *
+     * @param index position of the request in the batch
+     * @param responseType expected response class
+     * @param <T> type of the response
+     * @return response, or null if the node did not reply to this request
+     */
+    public <T extends Response<?>> T getResponse(int index, Class<T> responseType) {
+        return responseType.cast(responses.get(index));
+    }
+
+    /**
+     * Matches the replies of a JSON-RPC batch to the requests they belong to by their
+     * {@code id} field, and converts each reply to the response type of its request.
+     *
+     * @param objectMapper mapper used to convert the replies
+     * @param requests requests of the batch, in the order they were added
+     * @param replies parsed JSON-RPC reply array
+     * @return batch response
+     * @throws IOException thrown if the node rejected the whole batch or a reply
+     *                     could not be converted
+     */
+    public static BatchResponse fromReplies(
+            ObjectMapper objectMapper,
+            List<Request<?, ? extends Response<?>>> requests,
+            JsonNode replies) throws IOException {
+        if (!replies.isArray()) {
+            JsonNode error = replies.get("error");
+            throw new IOException(
+                    "Batch request failed: " + (error != null ? error.toString() : replies));
+        }
+
+        Map<Long, JsonNode> replyForId = new HashMap<>(replies.size() * 2);
+        for (JsonNode reply : replies) {
+            JsonNode id = reply.get("id");
+            if (id != null && id.isIntegralNumber()) {
+                replyForId.put(id.longValue(), reply);
+            }
+        }
+
+        List<Response<?>> responses = new ArrayList<>(requests.size());
+        for (Request<?, ? extends Response<?>> request : requests) {
+            JsonNode reply = replyForId.get(request.getId());
+            if (reply == null) {
+                responses.add(null);
+            } else {
+                responses.add(objectMapper.treeToValue(reply, request.getResponseType()));
+            }
+        }
+        return new BatchResponse(requests, responses);
+    }
+}
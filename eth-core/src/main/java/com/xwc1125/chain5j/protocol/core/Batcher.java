@@ -0,0 +1,15 @@
+package com.xwc1125.chain5j.protocol.core;
+
+/**
+ * Factory for JSON-RPC batch requests.
+ */
+public interface Batcher {
+
+    /**
+     * Creates a new, empty JSON-RPC batch request. Requests added to the batch are
+     * sent to the node as a single JSON-RPC array payload.
+     *
+     * @return new batch request instance
+     */
+    BatchRequest newBatch();
+}
@@ -736,6 +736,12 @@ public class JsonRpc2_0Web3j implements Web3j {
         return web3jRx.ethLogFlowable(ethFilter, blockTime);
     }
 
+    @Override
+    public Flowable<Log> replayLogsFlowable(
+            com.xwc1125.chain5j.protocol.core.methods.request.EthFilter ethFilter) {
+        return web3jRx.replayLogsFlowable(ethFilter);
+    }
+
     @Override
     public Flowable<com.xwc1125.chain5j.protocol.core.methods.response.Transaction>
     transactionFlowable() {
@@ -769,6 +775,15 @@ public class JsonRpc2_0Web3j implements Web3j {
                 fullTransactionObjects, ascending);
     }
 
+    @Override
+    public Flowable<EthBlock> replayPastBlocksFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock,
+            boolean fullTransactionObjects, boolean ascending,
+            int concurrency, int batchSize) {
+        return web3jRx.replayBlocksFlowable(startBlock, endBlock,
+                fullTransactionObjects, ascending, concurrency, batchSize);
+    }
+
     @Override
     public Flowable<EthBlock> replayPastBlocksFlowable(
             DefaultBlockParameter startBlock, boolean fullTransactionObjects,
@@ -777,6 +792,14 @@ public class JsonRpc2_0Web3j implements Web3j {
                 startBlock, fullTransactionObjects, onCompleteFlowable);
     }
 
+    @Override
+    public Flowable<EthBlock> replayPastBlocksFlowable(
+            DefaultBlockParameter startBlock, boolean fullTransactionObjects,
+            Flowable<EthBlock> onCompleteFlowable, int concurrency, int batchSize) {
+        return web3jRx.replayPastBlocksFlowable(
+                startBlock, fullTransactionObjects, onCompleteFlowable, concurrency, batchSize);
+    }
+
     @Override
     public Flowable<EthBlock> replayPastBlocksFlowable(
             DefaultBlockParameter startBlock, boolean fullTransactionObjects) {
@@ -810,6 +833,11 @@ public class JsonRpc2_0Web3j implements Web3j {
                 startBlock, blockTime);
     }
 
+    @Override
+    public BatchRequest newBatch() {
+        return new BatchRequest(web3jService);
+    }
+
     @Override
     public void shutdown() {
         scheduledExecutorService.shutdown();
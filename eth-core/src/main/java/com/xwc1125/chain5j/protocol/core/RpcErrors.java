@@ -12,4 +12,6 @@ public final class RpcErrors {
     public static final int INVALID_PARAMS = -32602;
 
     public static final int INTERNAL_ERROR = -32603;
+
+    public static final int LIMIT_EXCEEDED = -32005;
 }
@@ -46,6 +46,20 @@ public class EthFilter extends Filter<EthFilter> {
         return address;
     }
 
+    /**
+     * Copy this filter, with the same addresses and topics, for another block range.
+     *
+     * @param fromBlock first block of the range
+     * @param toBlock last block of the range
+     * @return new filter
+     */
+    public EthFilter withBlockRange(DefaultBlockParameter fromBlock,
+                                    DefaultBlockParameter toBlock) {
+        EthFilter filter = new EthFilter(fromBlock, toBlock, address);
+        filter.getTopics().addAll(getTopics());
+        return filter;
+    }
+
     @Override
     EthFilter getThis() {
         return this;
@@ -0,0 +1,216 @@
+package com.xwc1125.chain5j.protocol.core.methods.response;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Compact, read-only form of an {@link EthBlock.Block}, for keeping many blocks in
+ * memory.</p>
+ *
+ * <p>The number, size, gas limit, gas used and timestamp are decoded once, when the block is
+ * converted, and kept as longs. The nonce, difficulty and total difficulty are decoded on
+ * first access, after which their hex strings are released. Full transactions are converted to
+ * {@link CompactTransaction}s sharing the block's hash instance, and one instance of each
+ * address, value and gas price that repeats within the block.</p>
+ */
+public class CompactBlock {
+    private final long number;
+    private final String hash;
+    private final String parentHash;
+    private final String sha3Uncles;
+    private final String logsBloom;
+    private final String transactionsRoot;
+    private final String stateRoot;
+    private final String receiptsRoot;
+    private final String author;
+    private final String miner;
+    private final String mixHash;
+    private final String extraData;
+    private final long size;
+    private final long gasLimit;
+    private final long gasUsed;
+    private final long timestamp;
+    private final List<CompactTransaction> transactions;
+    private final List<String> transactionHashes;
+    private final List<String> uncles;
+    private final List<String> sealFields;
+    // hex string until first read, then its BigInteger
+    private Object nonce;
+    private Object difficulty;
+    private Object totalDifficulty;
+
+    CompactBlock(EthBlock.Block block) {
+        this.number = Quantities.toLong(block.getNumberRaw());
+        this.hash = block.getHash();
+        this.parentHash = block.getParentHash();
+        this.nonce = block.getNonceRaw();
+        this.sha3Uncles = block.getSha3Uncles();
+        this.logsBloom = block.getLogsBloom();
+        this.transactionsRoot = block.getTransactionsRoot();
+        this.stateRoot = block.getStateRoot();
+        this.receiptsRoot = block.getReceiptsRoot();
+        this.author = block.getAuthor();
+        this.miner = block.getMiner();
+        this.mixHash = block.getMixHash();
+        this.difficulty = block.getDifficultyRaw();
+        this.totalDifficulty = block.getTotalDifficultyRaw();
+        this.extraData = block.getExtraData();
+        this.size = Quantities.toLong(block.getSizeRaw());
+        this.gasLimit = Quantities.toLong(block.getGasLimitRaw());
+        this.gasUsed = Quantities.toLong(block.getGasUsedRaw());
+        this.timestamp = Quantities.toLong(block.getTimestampRaw());
+        this.uncles = block.getUncles();
+        this.sealFields = block.getSealFields();
+
+        List<CompactTransaction> fullTransactions = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        Map<String, String> shared = new HashMap<>();
+        if (block.getTransactions() != null) {
+            for (EthBlock.TransactionResult<?> result : block.getTransactions()) {
+                if (result instanceof EthBlock.TransactionObject) {
+                    fullTransactions.add(new CompactTransaction(
+                            ((EthBlock.TransactionObject) result).get(), hash, shared));
+                } else {
+                    hashes.add(((EthBlock.TransactionHash) result).get());
+                }
+            }
+        }
+        this.transactions = fullTransactions.isEmpty()
+                ? Collections.<CompactTransaction>emptyList()
+                : Collections.unmodifiableList(fullTransactions);
+        this.transactionHashes = hashes.isEmpty()
+                ? Collections.<String>emptyList()
+                : Collections.unmodifiableList(hashes);
+    }
+
+    public static CompactBlock of(EthBlock.Block block) {
+        return new CompactBlock(block);
+    }
+
+    /**
+     * @return block number, -1 for pending blocks
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getParentHash() {
+        return parentHash;
+    }
+
+    public BigInteger getNonce() {
+        Object result = nonce;
+        if (result instanceof String) {
+            result = Quantities.toBigInteger(result);
+            nonce = result;
+        }
+        return (BigInteger) result;
+    }
+
+    public String getSha3Uncles() {
+        return sha3Uncles;
+    }
+
+    public String getLogsBloom() {
+        return logsBloom;
+    }
+
+    public String getTransactionsRoot() {
+        return transactionsRoot;
+    }
+
+    public String getStateRoot() {
+        return stateRoot;
+    }
+
+    public String getReceiptsRoot() {
+        return receiptsRoot;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getMiner() {
+        return miner;
+    }
+
+    public String getMixHash() {
+        return mixHash;
+    }
+
+    public BigInteger getDifficulty() {
+        Object result = difficulty;
+        if (result instanceof String) {
+            result = Quantities.toBigInteger(result);
+            difficulty = result;
+        }
+        return (BigInteger) result;
+    }
+
+    public BigInteger getTotalDifficulty() {
+        Object result = totalDifficulty;
+        if (result instanceof String) {
+            result = Quantities.toBigInteger(result);
+            totalDifficulty = result;
+        }
+        return (BigInteger) result;
+    }
+
+    public String getExtraData() {
+        return extraData;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getGasLimit() {
+        return gasLimit;
+    }
+
+    public long getGasUsed() {
+        return gasUsed;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the transactions, if the block was requested with full transaction objects
+     */
+    public List<CompactTransaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * @return the transaction hashes, if the block was requested without full transaction
+     *         objects
+     */
+    public List<String> getTransactionHashes() {
+        return transactionHashes;
+    }
+
+    public List<String> getUncles() {
+        return uncles;
+    }
+
+    public List<String> getSealFields() {
+        return sealFields;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactBlock{number=" + number + ", hash=" + hash + ", timestamp=" + timestamp
+                + ", transactions=" + (transactions.size() + transactionHashes.size()) + "}";
+    }
+}
@@ -0,0 +1,97 @@
+package com.xwc1125.chain5j.protocol.core.methods.response;
+
+import java.util.List;
+
+/**
+ * <p>Compact, read-only form of a {@link Log}.</p>
+ *
+ * <p>The log index, transaction index and block number are decoded once, when the log is
+ * converted, and kept as longs. They are -1 for pending logs.</p>
+ */
+public class CompactLog {
+    private final boolean removed;
+    private final long logIndex;
+    private final long transactionIndex;
+    private final String transactionHash;
+    private final String blockHash;
+    private final long blockNumber;
+    private final String address;
+    private final String data;
+    private final String type;
+    private final List<String> topics;
+
+    CompactLog(Log log, String transactionHash, String blockHash) {
+        this.removed = log.isRemoved();
+        this.logIndex = Quantities.toLong(log.getLogIndexRaw());
+        this.transactionIndex = Quantities.toLong(log.getTransactionIndexRaw());
+        this.transactionHash = Quantities.share(log.getTransactionHash(), transactionHash);
+        this.blockHash = Quantities.share(log.getBlockHash(), blockHash);
+        this.blockNumber = Quantities.toLong(log.getBlockNumberRaw());
+        this.address = log.getAddress();
+        this.data = log.getData();
+        this.type = log.getType();
+        this.topics = log.getTopics();
+    }
+
+    public static CompactLog of(Log log) {
+        return new CompactLog(log, null, null);
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    public long getLogIndex() {
+        return logIndex;
+    }
+
+    public long getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public String getBlockHash() {
+        return blockHash;
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * @return the log as a {@link Log}, e.g. to decode it with an event
+     */
+    public Log toLog() {
+        return new Log(removed, encode(logIndex), encode(transactionIndex), transactionHash,
+                blockHash, encode(blockNumber), address, data, type, topics);
+    }
+
+    private static String encode(long quantity) {
+        return quantity == Quantities.ABSENT ? null : "0x" + Long.toHexString(quantity);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactLog{blockNumber=" + blockNumber + ", logIndex=" + logIndex
+                + ", address=" + address + ", topics=" + topics + "}";
+    }
+}
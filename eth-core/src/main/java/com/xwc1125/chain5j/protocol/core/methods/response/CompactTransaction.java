@@ -0,0 +1,168 @@
+package com.xwc1125.chain5j.protocol.core.methods.response;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * <p>Compact, read-only form of a {@link Transaction}.</p>
+ *
+ * <p>Quantities that fit in 64 bits (nonce, block number, index, gas) are decoded once, when
+ * the transaction is converted, and kept as longs. The value and gas price are decoded on
+ * first access, after which their hex strings are released. Absent 64 bit quantities, such as
+ * the block number of a pending transaction, are returned as -1.</p>
+ */
+public class CompactTransaction {
+    private static final int CHAIN_ID_INC = 35;
+    private static final int LOWER_REAL_V = 27;
+
+    private final String hash;
+    private final long nonce;
+    private final String blockHash;
+    private final long blockNumber;
+    private final long transactionIndex;
+    private final String from;
+    private final String to;
+    private final String input;
+    private final String token;
+    private final String creates;
+    private final String publicKey;
+    private final String raw;
+    private final String r;
+    private final String s;
+    private final long v;
+    private final long gas;
+    // hex string until first read, then its BigInteger
+    private Object value;
+    private Object gasPrice;
+
+    /**
+     * @param blockHash instance to use for the transaction's block hash if equal
+     * @param shared    addresses and quantities that repeat within the block, or null
+     */
+    CompactTransaction(Transaction transaction, String blockHash, Map<String, String> shared) {
+        this.hash = transaction.getHash();
+        this.nonce = Quantities.toLong(transaction.getNonceRaw());
+        this.blockHash = Quantities.share(transaction.getBlockHash(), blockHash);
+        this.blockNumber = Quantities.toLong(transaction.getBlockNumberRaw());
+        this.transactionIndex = Quantities.toLong(transaction.getTransactionIndexRaw());
+        this.from = Quantities.share(transaction.getFrom(), shared);
+        this.to = Quantities.share(transaction.getTo(), shared);
+        this.value = Quantities.share(transaction.getValueRaw(), shared);
+        this.gasPrice = Quantities.share(transaction.getGasPriceRaw(), shared);
+        this.gas = Quantities.toLong(transaction.getGasRaw());
+        this.input = transaction.getInput();
+        this.token = transaction.getToken();
+        this.creates = transaction.getCreates();
+        this.publicKey = transaction.getPublicKey();
+        this.raw = transaction.getRaw();
+        this.r = transaction.getR();
+        this.s = transaction.getS();
+        this.v = transaction.getV();
+    }
+
+    public static CompactTransaction of(Transaction transaction) {
+        return new CompactTransaction(transaction, null, null);
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getNonce() {
+        return nonce;
+    }
+
+    public String getBlockHash() {
+        return blockHash;
+    }
+
+    /**
+     * @return block number, -1 for pending transactions
+     */
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    /**
+     * @return index in the block, -1 for pending transactions
+     */
+    public long getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public BigInteger getValue() {
+        Object result = value;
+        if (result instanceof String) {
+            result = Quantities.toBigInteger(result);
+            value = result;
+        }
+        return (BigInteger) result;
+    }
+
+    public BigInteger getGasPrice() {
+        Object result = gasPrice;
+        if (result instanceof String) {
+            result = Quantities.toBigInteger(result);
+            gasPrice = result;
+        }
+        return (BigInteger) result;
+    }
+
+    public long getGas() {
+        return gas;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getCreates() {
+        return creates;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public String getR() {
+        return r;
+    }
+
+    public String getS() {
+        return s;
+    }
+
+    public long getV() {
+        return v;
+    }
+
+    public Long getChainId() {
+        if (v == LOWER_REAL_V || v == (LOWER_REAL_V + 1)) {
+            return null;
+        }
+        return (v - CHAIN_ID_INC) / 2;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactTransaction{hash=" + hash + ", blockNumber=" + blockNumber
+                + ", transactionIndex=" + transactionIndex + ", from=" + from + ", to=" + to
+                + ", nonce=" + nonce + ", gas=" + gas + "}";
+    }
+}
@@ -0,0 +1,124 @@
+package com.xwc1125.chain5j.protocol.core.methods.response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Compact, read-only form of a {@link TransactionReceipt}.</p>
+ *
+ * <p>Quantities are decoded once, when the receipt is converted, and kept as longs, see
+ * {@link CompactTransaction}. The logs share the receipt's transaction and block hash
+ * instances.</p>
+ */
+public class CompactTransactionReceipt {
+    private final String transactionHash;
+    private final long transactionIndex;
+    private final String blockHash;
+    private final long blockNumber;
+    private final long cumulativeGasUsed;
+    private final long gasUsed;
+    private final String contractAddress;
+    private final String root;
+    private final long status;
+    private final String from;
+    private final String to;
+    private final List<CompactLog> logs;
+    private final String logsBloom;
+
+    CompactTransactionReceipt(TransactionReceipt receipt) {
+        this.transactionHash = receipt.getTransactionHash();
+        this.transactionIndex = Quantities.toLong(receipt.getTransactionIndexRaw());
+        this.blockHash = receipt.getBlockHash();
+        this.blockNumber = Quantities.toLong(receipt.getBlockNumberRaw());
+        this.cumulativeGasUsed = Quantities.toLong(receipt.getCumulativeGasUsedRaw());
+        this.gasUsed = Quantities.toLong(receipt.getGasUsedRaw());
+        this.contractAddress = receipt.getContractAddress();
+        this.root = receipt.getRoot();
+        this.status = Quantities.toLong(receipt.getStatus());
+        this.from = receipt.getFrom();
+        this.to = receipt.getTo();
+        this.logsBloom = receipt.getLogsBloom();
+
+        List<Log> receiptLogs = receipt.getLogs();
+        if (receiptLogs == null || receiptLogs.isEmpty()) {
+            this.logs = Collections.emptyList();
+        } else {
+            List<CompactLog> compactLogs = new ArrayList<>(receiptLogs.size());
+            for (Log log : receiptLogs) {
+                compactLogs.add(new CompactLog(log, transactionHash, blockHash));
+            }
+            this.logs = Collections.unmodifiableList(compactLogs);
+        }
+    }
+
+    public static CompactTransactionReceipt of(TransactionReceipt receipt) {
+        return new CompactTransactionReceipt(receipt);
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public long getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public String getBlockHash() {
+        return blockHash;
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public long getCumulativeGasUsed() {
+        return cumulativeGasUsed;
+    }
+
+    public long getGasUsed() {
+        return gasUsed;
+    }
+
+    public String getContractAddress() {
+        return contractAddress;
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    /**
+     * @return status of Byzantium receipts, -1 before Byzantium
+     */
+    public long getStatus() {
+        return status;
+    }
+
+    public boolean isStatusOK() {
+        return status == Quantities.ABSENT || status == 1;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public List<CompactLog> getLogs() {
+        return logs;
+    }
+
+    public String getLogsBloom() {
+        return logsBloom;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactTransactionReceipt{transactionHash=" + transactionHash
+                + ", blockNumber=" + blockNumber + ", status=" + status
+                + ", gasUsed=" + gasUsed + ", logs=" + logs.size() + "}";
+    }
+}
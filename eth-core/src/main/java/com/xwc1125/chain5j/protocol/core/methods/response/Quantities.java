@@ -0,0 +1,54 @@
+package com.xwc1125.chain5j.protocol.core.methods.response;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+import com.xwc1125.chain5j.utils.Numeric;
+
+/**
+ * Quantity handling shared by the compact response models.
+ */
+final class Quantities {
+
+    /**
+     * Value of absent 64 bit quantities, e.g. the block number of a pending transaction.
+     */
+    static final long ABSENT = -1;
+
+    private Quantities() { }
+
+    static long toLong(String quantity) {
+        return quantity == null ? ABSENT : Numeric.decodeQuantityAsLong(quantity);
+    }
+
+    /**
+     * @param quantity hex string, or the {@link BigInteger} it was already decoded to
+     * @return the decoded value, null if absent
+     */
+    static BigInteger toBigInteger(Object quantity) {
+        if (quantity instanceof String) {
+            return Numeric.decodeQuantity((String) quantity);
+        }
+        return (BigInteger) quantity;
+    }
+
+    /**
+     * @return {@code canonical} if it is equal to {@code value}, so that repeated hashes of a
+     *         block or transaction share one instance
+     */
+    static String share(String value, String canonical) {
+        return value != null && value.equals(canonical) ? canonical : value;
+    }
+
+    /**
+     * @param shared instances already seen while converting a block, null to not share
+     * @return an instance equal to {@code value}, the first one seen if it repeats
+     */
+    static String share(String value, Map<String, String> shared) {
+        if (value == null || shared == null) {
+            return value;
+        }
+        String existing = shared.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
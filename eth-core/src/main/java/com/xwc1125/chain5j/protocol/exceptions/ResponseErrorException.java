@@ -0,0 +1,20 @@
+package com.xwc1125.chain5j.protocol.exceptions;
+
+import com.xwc1125.chain5j.protocol.core.Response;
+
+/**
+ * JSON-RPC error returned in place of a result that was being streamed.
+ */
+public class ResponseErrorException extends RuntimeException {
+
+    private final Response.Error error;
+
+    public ResponseErrorException(Response.Error error) {
+        super(error.getMessage());
+        this.error = error;
+    }
+
+    public Response.Error getError() {
+        return error;
+    }
+}
@@ -4,14 +4,24 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.xwc1125.chain5j.protocol.Service;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
+import com.xwc1125.chain5j.protocol.core.Response;
 import com.xwc1125.chain5j.protocol.exceptions.ClientConnectionException;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.CipherSuite;
+import okhttp3.ConnectionPool;
 import okhttp3.ConnectionSpec;
+import okhttp3.Dispatcher;
 import okhttp3.Headers;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
@@ -75,6 +85,11 @@ public class HttpService extends Service {
 
     public static final String DEFAULT_URL = "http://localhost:8545/";
 
+    // OkHttp allows only 5 concurrent asynchronous requests per host by default, which would
+    // throttle pipelined callers talking to a single node
+    static final int DEFAULT_MAX_REQUESTS = 64;
+    static final int DEFAULT_MAX_REQUESTS_PER_HOST = 64;
+
     private static final Logger log = LoggerFactory.getLogger(HttpService.class);
 
     private OkHttpClient httpClient;
@@ -120,13 +135,28 @@ public class HttpService extends Service {
         this(DEFAULT_URL);
     }
 
+    /**
+     * @return a builder to configure the HTTP client of a new service
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     private static OkHttpClient createOkHttpClient() {
         final OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                .connectionSpecs(CONNECTION_SPEC_LIST);
+                .connectionSpecs(CONNECTION_SPEC_LIST)
+                .dispatcher(createDispatcher(DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST));
         configureLogging(builder);
         return builder.build();
     }
 
+    private static Dispatcher createDispatcher(int maxRequests, int maxRequestsPerHost) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return dispatcher;
+    }
+
     private static void configureLogging(OkHttpClient.Builder builder) {
         if (log.isDebugEnabled()) {
             HttpLoggingInterceptor logging = new HttpLoggingInterceptor(log::debug);
@@ -137,24 +167,122 @@ public class HttpService extends Service {
 
     @Override
     protected InputStream performIO(String request) throws IOException {
+        ResponseBody responseBody = execute(request);
+        if (responseBody != null) {
+            return buildInputStream(responseBody);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * The response body is handed over as it is received, without the buffering required
+     * to include raw responses.
+     */
+    @Override
+    protected InputStream performStreamingIO(String request) throws IOException {
+        ResponseBody responseBody = execute(request);
+        if (responseBody != null) {
+            return responseBody.byteStream();
+        } else {
+            return null;
+        }
+    }
+
+    private ResponseBody execute(String request) throws IOException {
+        okhttp3.Response response = httpClient.newCall(buildRequest(request)).execute();
+        return checkResponse(response);
+    }
+
+    /**
+     * Performs the request with OkHttp's asynchronous API: the call waits in its dispatcher
+     * instead of holding a thread, and the response is parsed by the dispatcher thread that
+     * receives it. The number of threads is bounded by the dispatcher's maximum number of
+     * requests, see {@link Builder#maxRequests(int)}; services created with a constructor
+     * allow 64 concurrent requests, per host and in total, unless they are given their own
+     * {@link OkHttpClient}.
+     *
+     * <p>The returned future is completed on that dispatcher thread, so dependent stages
+     * without an executor, e.g. {@code thenApply}, run on it too. Blocking in such a stage,
+     * for instance by sending another request synchronously, holds a dispatcher slot and can
+     * starve the dispatcher; use the {@code *Async} variants with an executor instead.
+     */
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(
+            com.xwc1125.chain5j.protocol.core.Request request, Class<T> responseType) {
+        return performAsync(request,
+                inputStream -> objectMapper.readValue(inputStream, responseType));
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        List<com.xwc1125.chain5j.protocol.core.Request<?, ? extends Response<?>>> requests =
+                batchRequest.getRequests();
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    new BatchResponse(requests, Collections.emptyList()));
+        }
+        return performAsync(requests, inputStream -> BatchResponse.fromReplies(
+                objectMapper, requests, objectMapper.readTree(inputStream)));
+    }
+
+    private <T> CompletableFuture<T> performAsync(Object payload, ResponseReader<T> reader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Call call;
+        try {
+            call = httpClient.newCall(buildRequest(objectMapper.writeValueAsString(payload)));
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, okhttp3.Response response) {
+                try {
+                    ResponseBody responseBody = checkResponse(response);
+                    if (responseBody == null) {
+                        result.complete(null);
+                        return;
+                    }
+                    try (InputStream inputStream = buildInputStream(responseBody)) {
+                        result.complete(reader.read(inputStream));
+                    }
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return result;
+    }
 
+    private okhttp3.Request buildRequest(String request) {
         RequestBody requestBody = RequestBody.create(JSON_MEDIA_TYPE, request);
         Headers headers = buildHeaders();
 
-        okhttp3.Request httpRequest = new okhttp3.Request.Builder()
+        return new okhttp3.Request.Builder()
                 .url(url)
                 .headers(headers)
                 .post(requestBody)
                 .build();
+    }
 
-        okhttp3.Response response = httpClient.newCall(httpRequest).execute();
+    private static ResponseBody checkResponse(okhttp3.Response response) throws IOException {
         ResponseBody responseBody = response.body();
         if (response.isSuccessful()) {
-            if (responseBody != null) {
-                return buildInputStream(responseBody);
-            } else {
-                return null;
-            }
+            return responseBody;
         } else {
             int code = response.code();
             String text = responseBody == null ? "N/A" : responseBody.string();
@@ -208,8 +336,133 @@ public class HttpService extends Service {
         return headers;
     }
 
+    // Method visible for unit-tests
+    OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
     @Override
     public void close() throws IOException {
 
     }
+
+    private interface ResponseReader<T> {
+        T read(InputStream inputStream) throws IOException;
+    }
+
+    /**
+     * Builder for a {@link HttpService} and its {@link OkHttpClient}.
+     *
+     * <p>Unlike OkHttp's defaults of 64 concurrent asynchronous requests, 5 of them per host,
+     * and 5 idle connections, a single node is allowed 64 concurrent requests and as many
+     * idle connections. Responses are gzip compressed if the node supports it, whatever the
+     * settings. HTTP/2 is negotiated with TLS nodes that support it, as by default in OkHttp.
+     */
+    public static class Builder {
+
+        private String url = DEFAULT_URL;
+        private boolean includeRawResponses;
+        private final Map<String, String> headers = new HashMap<>();
+
+        private int maxRequests = DEFAULT_MAX_REQUESTS;
+        private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+        private int maxIdleConnections = 64;
+        private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5);
+        private long connectTimeoutMillis = 10_000;
+        private long readTimeoutMillis = 10_000;
+        private long writeTimeoutMillis = 10_000;
+        private boolean gzipRequests;
+
+        Builder() {
+        }
+
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder includeRawResponses(boolean includeRawResponses) {
+            this.includeRawResponses = includeRawResponses;
+            return this;
+        }
+
+        public Builder header(String key, String value) {
+            headers.put(key, value);
+            return this;
+        }
+
+        /**
+         * @param maxRequests maximum number of concurrent requests over all hosts
+         * @return this builder
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * @param maxRequestsPerHost maximum number of concurrent requests to the node
+         * @return this builder
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param maxIdleConnections maximum number of idle connections kept for reuse
+         * @param keepAlive          time an idle connection is kept for
+         * @param unit               unit of {@code keepAlive}
+         * @return this builder
+         */
+        public Builder connectionPool(int maxIdleConnections, long keepAlive, TimeUnit unit) {
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveMillis = unit.toMillis(keepAlive);
+            return this;
+        }
+
+        public Builder connectTimeout(long timeout, TimeUnit unit) {
+            this.connectTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder readTimeout(long timeout, TimeUnit unit) {
+            this.readTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder writeTimeout(long timeout, TimeUnit unit) {
+            this.writeTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * @param gzipRequests compress request bodies, the node must accept
+         *                     {@code Content-Encoding: gzip}
+         * @return this builder
+         */
+        public Builder gzipRequests(boolean gzipRequests) {
+            this.gzipRequests = gzipRequests;
+            return this;
+        }
+
+        public HttpService build() {
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .connectionSpecs(CONNECTION_SPEC_LIST)
+                    .dispatcher(createDispatcher(maxRequests, maxRequestsPerHost))
+                    .connectionPool(new ConnectionPool(
+                            maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+                    .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (gzipRequests) {
+                builder.addInterceptor(new GzipRequestInterceptor());
+            }
+            configureLogging(builder);
+
+            HttpService httpService = new HttpService(url, builder.build(), includeRawResponses);
+            httpService.addHeaders(headers);
+            return httpService;
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package com.xwc1125.chain5j.protocol.ipc;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Simple IO facade for the &#42;nix and Windows IPC implementations.
@@ -9,6 +12,17 @@ public interface IOFacade {
     void write(String payload) throws IOException;
 
     String read() throws IOException;
-    
+
+    /**
+     * Stream the response instead of collecting it with {@link #read()}. The stream is
+     * released by {@link #close()}.
+     *
+     * @return response stream
+     * @throws IOException if the response cannot be read
+     */
+    default InputStream getInputStream() throws IOException {
+        return new ByteArrayInputStream(read().getBytes(StandardCharsets.UTF_8));
+    }
+
     void close() throws IOException;
 }
@@ -1,6 +1,7 @@
 package com.xwc1125.chain5j.protocol.ipc;
 
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -43,6 +44,28 @@ public class IpcService extends Service {
         return new ByteArrayInputStream(result.getBytes("UTF-8"));
     }
 
+    /**
+     * The response is parsed from the socket as it is received, rather than collected into
+     * a string first. The connection is closed with the returned stream.
+     */
+    @Override
+    protected InputStream performStreamingIO(String payload) throws IOException {
+        IOFacade io = getIO();
+        io.write(payload);
+        log.debug(">> " + payload);
+
+        return new FilterInputStream(io.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    io.close();
+                }
+            }
+        };
+    }
+
     @Override
     public void close() throws IOException {
     }
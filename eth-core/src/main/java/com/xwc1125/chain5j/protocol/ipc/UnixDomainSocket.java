@@ -1,6 +1,7 @@
 package com.xwc1125.chain5j.protocol.ipc;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.nio.CharBuffer;
@@ -18,6 +19,7 @@ public class UnixDomainSocket implements IOFacade {
 
     private final int bufferSize;
 
+    private final InputStream input;
     private final InputStreamReader reader;
     private final PrintWriter writer;
 
@@ -34,7 +36,8 @@ public class UnixDomainSocket implements IOFacade {
             UnixSocketAddress address = new UnixSocketAddress(ipcSocketPath);
             channel = UnixSocketChannel.open(address);
 
-            reader = new InputStreamReader(Channels.newInputStream(channel));
+            input = Channels.newInputStream(channel);
+            reader = new InputStreamReader(input);
             writer = new PrintWriter(Channels.newOutputStream(channel));
 
         } catch (IOException e) {
@@ -47,6 +50,7 @@ public class UnixDomainSocket implements IOFacade {
         this.bufferSize = bufferSize;
         this.writer = writer;
         this.reader = reader;
+        this.input = null;
         this.channel = null;
     }
 
@@ -70,6 +74,14 @@ public class UnixDomainSocket implements IOFacade {
         return result.toString();
     }
 
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (input == null) {
+            return IOFacade.super.getInputStream();
+        }
+        return input;
+    }
+
     @Override
     public void close() throws IOException {
         reader.close();
@@ -1,6 +1,8 @@
 package com.xwc1125.chain5j.protocol.ipc;
 
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
 
 /**
@@ -29,6 +31,11 @@ public class WindowsNamedPipe implements IOFacade {
         return pipe.readLine();
     }
 
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FileInputStream(pipe.getFD());
+    }
+
     @Override
     public void close() throws IOException {
         pipe.close();
@@ -2,11 +2,16 @@ package com.xwc1125.chain5j.protocol.rx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
 import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
 import com.xwc1125.chain5j.protocol.core.DefaultBlockParameter;
 import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterName;
 import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterNumber;
@@ -20,9 +25,11 @@ import com.xwc1125.chain5j.protocol.core.methods.response.Log;
 import com.xwc1125.chain5j.protocol.core.methods.response.Transaction;
 import com.xwc1125.chain5j.utils.Flowables;
 import io.reactivex.BackpressureStrategy;
+import io.reactivex.Emitter;
 import io.reactivex.Flowable;
 import io.reactivex.FlowableEmitter;
 import io.reactivex.Scheduler;
+import io.reactivex.Single;
 import io.reactivex.schedulers.Schedulers;
 
 /**
@@ -67,6 +74,10 @@ public class JsonRpc2_0Rx {
         }, BackpressureStrategy.BUFFER);
     }
 
+    public Flowable<Log> replayLogsFlowable(EthFilter ethFilter) {
+        return new LogScanner(web3j, scheduler).flowable(ethFilter);
+    }
+
     private <T> void run(
             Filter<T> filter, FlowableEmitter<? super T> emitter,
             long pollingInterval) {
@@ -110,10 +121,20 @@ public class JsonRpc2_0Rx {
                 .subscribeOn(scheduler);
     }
 
-    private Flowable<EthBlock> replayBlocksFlowableSync(
+    /**
+     * Replay a range of blocks with up to {@code concurrency} requests in flight, each
+     * fetching {@code batchSize} consecutive blocks, in a JSON-RPC batch if more than one.
+     * Upcoming blocks are fetched ahead while earlier ones are consumed, blocks are emitted
+     * in strict block order and no further than requested downstream.
+     */
+    public Flowable<EthBlock> replayBlocksFlowable(
             DefaultBlockParameter startBlock, DefaultBlockParameter endBlock,
-            boolean fullTransactionObjects) {
-        return replayBlocksFlowableSync(startBlock, endBlock, fullTransactionObjects, true);
+            boolean fullTransactionObjects, boolean ascending,
+            int concurrency, int batchSize) {
+        checkReplayParameters(concurrency, batchSize);
+        return replayBlocksFlowableSync(startBlock, endBlock, fullTransactionObjects, ascending,
+                concurrency, batchSize)
+                .subscribeOn(scheduler);
     }
 
     private Flowable<EthBlock> replayBlocksFlowableSync(
@@ -142,6 +163,114 @@ public class JsonRpc2_0Rx {
         }
     }
 
+    private Flowable<EthBlock> replayBlocksFlowableSync(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock,
+            boolean fullTransactionObjects, boolean ascending,
+            int concurrency, int batchSize) {
+        if (concurrency == 1 && batchSize == 1) {
+            return replayBlocksFlowableSync(
+                    startBlock, endBlock, fullTransactionObjects, ascending);
+        }
+
+        BigInteger startBlockNumber;
+        BigInteger endBlockNumber;
+        try {
+            startBlockNumber = getBlockNumber(startBlock);
+            endBlockNumber = getBlockNumber(endBlock);
+        } catch (IOException e) {
+            return Flowable.error(e);
+        }
+
+        return blockNumbers(startBlockNumber, endBlockNumber, ascending, batchSize)
+                .concatMapEager(group -> getBlocks(group, fullTransactionObjects),
+                        concurrency, batchSize);
+    }
+
+    private Flowable<EthBlock> getBlocks(
+            List<BigInteger> blockNumbers, boolean fullTransactionObjects) {
+        if (blockNumbers.size() == 1) {
+            return fromFuture(() -> web3j.ethGetBlockByNumber(
+                    new DefaultBlockParameterNumber(blockNumbers.get(0)),
+                    fullTransactionObjects).sendAsync());
+        }
+
+        return fromFuture(() -> {
+            BatchRequest batch = web3j.newBatch();
+            for (BigInteger blockNumber : blockNumbers) {
+                batch.add(web3j.ethGetBlockByNumber(
+                        new DefaultBlockParameterNumber(blockNumber), fullTransactionObjects));
+            }
+            return batch.sendAsync();
+        }).flatMapIterable(batchResponse -> {
+            List<EthBlock> blocks = new ArrayList<>(blockNumbers.size());
+            for (int i = 0; i < blockNumbers.size(); i++) {
+                EthBlock block = batchResponse.getResponse(i, EthBlock.class);
+                if (block == null) {
+                    throw new IOException("No response for block " + blockNumbers.get(i));
+                }
+                blocks.add(block);
+            }
+            return blocks;
+        });
+    }
+
+    /**
+     * Emit the block numbers of a range in groups of up to {@code batchSize}, as requested.
+     */
+    private static Flowable<List<BigInteger>> blockNumbers(
+            BigInteger startBlockNumber, BigInteger endBlockNumber,
+            boolean ascending, int batchSize) {
+        BigInteger first = ascending ? startBlockNumber : endBlockNumber;
+        BigInteger step = ascending ? BigInteger.ONE : BigInteger.ONE.negate();
+
+        return Flowable.generate(() -> first,
+                (BigInteger next, Emitter<List<BigInteger>> emitter) -> {
+                    List<BigInteger> blockNumbers = new ArrayList<>(batchSize);
+                    while (blockNumbers.size() < batchSize
+                            && next.compareTo(startBlockNumber) >= 0
+                            && next.compareTo(endBlockNumber) <= 0) {
+                        blockNumbers.add(next);
+                        next = next.add(step);
+                    }
+                    if (blockNumbers.isEmpty()) {
+                        emitter.onComplete();
+                    } else {
+                        emitter.onNext(blockNumbers);
+                    }
+                    return next;
+                });
+    }
+
+    /**
+     * Adapt an asynchronous request, the future is created on subscription.
+     */
+    private static <T> Flowable<T> fromFuture(Callable<CompletableFuture<T>> request) {
+        return Flowable.defer(() -> {
+            CompletableFuture<T> future = request.call();
+            return Single.<T>create(emitter -> {
+                emitter.setCancellable(() -> future.cancel(false));
+                future.whenComplete((value, error) -> {
+                    if (error != null) {
+                        emitter.onError(error);
+                    } else if (value == null) {
+                        emitter.onError(new IOException("No response received"));
+                    } else {
+                        emitter.onSuccess(value);
+                    }
+                });
+            }).toFlowable();
+        });
+    }
+
+    private static void checkReplayParameters(int concurrency, int batchSize) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+    }
+
     public Flowable<Transaction> replayTransactionsFlowable(
             DefaultBlockParameter startBlock, DefaultBlockParameter endBlock) {
         return replayBlocksFlowable(startBlock, endBlock, true)
@@ -164,9 +293,30 @@ public class JsonRpc2_0Rx {
                 startBlock, fullTransactionObjects, Flowable.empty());
     }
 
+    /**
+     * Replay past blocks up to the latest one as
+     * {@link #replayBlocksFlowable(DefaultBlockParameter, DefaultBlockParameter, boolean,
+     * boolean, int, int)} does, then continue with {@code onCompleteFlowable}.
+     */
+    public Flowable<EthBlock> replayPastBlocksFlowable(
+            DefaultBlockParameter startBlock, boolean fullTransactionObjects,
+            Flowable<EthBlock> onCompleteFlowable, int concurrency, int batchSize) {
+        checkReplayParameters(concurrency, batchSize);
+        return replayPastBlocksFlowableSync(
+                startBlock, fullTransactionObjects, onCompleteFlowable, concurrency, batchSize)
+                .subscribeOn(scheduler);
+    }
+
     private Flowable<EthBlock> replayPastBlocksFlowableSync(
             DefaultBlockParameter startBlock, boolean fullTransactionObjects,
             Flowable<EthBlock> onCompleteFlowable) {
+        return replayPastBlocksFlowableSync(
+                startBlock, fullTransactionObjects, onCompleteFlowable, 1, 1);
+    }
+
+    private Flowable<EthBlock> replayPastBlocksFlowableSync(
+            DefaultBlockParameter startBlock, boolean fullTransactionObjects,
+            Flowable<EthBlock> onCompleteFlowable, int concurrency, int batchSize) {
 
         BigInteger startBlockNumber;
         BigInteger latestBlockNumber;
@@ -184,11 +334,11 @@ public class JsonRpc2_0Rx {
                     replayBlocksFlowableSync(
                             new DefaultBlockParameterNumber(startBlockNumber),
                             new DefaultBlockParameterNumber(latestBlockNumber),
-                            fullTransactionObjects),
+                            fullTransactionObjects, true, concurrency, batchSize),
                     Flowable.defer(() -> replayPastBlocksFlowableSync(
                             new DefaultBlockParameterNumber(latestBlockNumber.add(BigInteger.ONE)),
                             fullTransactionObjects,
-                            onCompleteFlowable)));
+                            onCompleteFlowable, concurrency, batchSize)));
         }
     }
 
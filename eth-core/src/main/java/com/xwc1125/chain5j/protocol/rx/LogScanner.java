@@ -0,0 +1,254 @@
+package com.xwc1125.chain5j.protocol.rx;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.DefaultBlockParameter;
+import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterName;
+import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterNumber;
+import com.xwc1125.chain5j.protocol.core.RpcErrors;
+import com.xwc1125.chain5j.protocol.core.filters.FilterException;
+import com.xwc1125.chain5j.protocol.core.methods.request.EthFilter;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthLog;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.protocol.exceptions.ResponseErrorException;
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * <p>Replays the logs matching an {@link EthFilter} over its block range with
+ * {@code eth_getLogs}, without holding the whole result in memory.</p>
+ *
+ * <p>The range is requested in chunks of blocks. A chunk that the node rejects for returning
+ * too many results, or that times out, is split in two and later chunks are made smaller;
+ * chunks returning fewer than half of the target number of results let later chunks grow.
+ * Several chunks are requested concurrently, logs are emitted in block order and only as
+ * fast as they are requested downstream.</p>
+ *
+ * <p>Named block parameters are resolved when the {@link Flowable} is subscribed to, a
+ * missing {@code fromBlock} or {@code toBlock} stands for the latest block.</p>
+ */
+public class LogScanner {
+
+    public static final long DEFAULT_CHUNK_SIZE = 1_000;
+    public static final long DEFAULT_MAX_CHUNK_SIZE = 10_000;
+    public static final int DEFAULT_TARGET_RESULTS = 2_000;
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    private final Web3j web3j;
+    private final Scheduler scheduler;
+
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+    private long minChunkSize = 1;
+    private long maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
+    private int targetResults = DEFAULT_TARGET_RESULTS;
+    private int concurrency = DEFAULT_CONCURRENCY;
+
+    public LogScanner(Web3j web3j) {
+        this(web3j, Schedulers.io());
+    }
+
+    public LogScanner(Web3j web3j, Scheduler scheduler) {
+        this.web3j = web3j;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param chunkSize number of blocks of the first chunk
+     * @return this scanner
+     */
+    public LogScanner chunkSize(long chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param minChunkSize smallest number of blocks later chunks shrink to
+     * @param maxChunkSize largest number of blocks later chunks grow to
+     * @return this scanner
+     */
+    public LogScanner chunkSizeBounds(long minChunkSize, long maxChunkSize) {
+        if (minChunkSize < 1 || maxChunkSize < minChunkSize) {
+            throw new IllegalArgumentException("Invalid chunk size bounds");
+        }
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        return this;
+    }
+
+    /**
+     * @param targetResults number of logs per chunk aimed for when growing chunks
+     * @return this scanner
+     */
+    public LogScanner targetResults(int targetResults) {
+        if (targetResults < 1) {
+            throw new IllegalArgumentException("targetResults must be positive");
+        }
+        this.targetResults = targetResults;
+        return this;
+    }
+
+    /**
+     * @param concurrency maximum number of chunks requested at the same time
+     * @return this scanner
+     */
+    public LogScanner concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Create a {@link Flowable} instance that emits all logs matching the filter over its
+     * block range. Each subscription scans the range again, starting with the configured
+     * chunk size.
+     *
+     * @param ethFilter filter criteria and block range
+     * @return a {@link Flowable} instance that emits the logs in block order
+     */
+    public Flowable<Log> flowable(EthFilter ethFilter) {
+        return Flowable.defer(() -> new Scan(ethFilter).flowable()).subscribeOn(scheduler);
+    }
+
+    /**
+     * @param throwable failure of a chunk
+     * @return true if the chunk may succeed if it covers fewer blocks
+     */
+    static boolean isRangeError(Throwable throwable) {
+        if (throwable instanceof InterruptedIOException) {
+            return true;
+        }
+        if (!(throwable instanceof ResponseErrorException)) {
+            return false;
+        }
+        ResponseErrorException e = (ResponseErrorException) throwable;
+        if (e.getError().getCode() == RpcErrors.LIMIT_EXCEEDED) {
+            return true;
+        }
+        String message = e.getMessage() == null ? "" : e.getMessage().toLowerCase(Locale.ROOT);
+        return message.contains("more than")
+                || message.contains("too many")
+                || message.contains("too large")
+                || message.contains("too wide")
+                || message.contains("exceed")
+                || message.contains("timeout")
+                || message.contains("timed out");
+    }
+
+    private long getBlockNumber(DefaultBlockParameter defaultBlockParameter) throws IOException {
+        if (defaultBlockParameter == null) {
+            defaultBlockParameter = DefaultBlockParameterName.LATEST;
+        }
+        if (defaultBlockParameter instanceof DefaultBlockParameterNumber) {
+            return ((DefaultBlockParameterNumber) defaultBlockParameter)
+                    .getBlockNumber().longValueExact();
+        } else if (defaultBlockParameter == DefaultBlockParameterName.EARLIEST) {
+            return 0;
+        } else {
+            return web3j.ethGetBlockByNumber(defaultBlockParameter, false).send()
+                    .getBlock().getNumber().longValueExact();
+        }
+    }
+
+    /**
+     * State of one subscription.
+     */
+    private final class Scan {
+        private final EthFilter ethFilter;
+        private final AtomicLong size;
+
+        Scan(EthFilter ethFilter) {
+            this.ethFilter = ethFilter;
+            this.size = new AtomicLong(chunkSize);
+        }
+
+        Flowable<Log> flowable() throws IOException {
+            long from = getBlockNumber(ethFilter.getFromBlock());
+            long to = getBlockNumber(ethFilter.getToBlock());
+            if (from > to) {
+                return Flowable.empty();
+            }
+
+            return Flowable.generate(() -> from, (Long next, Emitter<long[]> emitter) -> {
+                if (next > to) {
+                    emitter.onComplete();
+                    return next;
+                }
+                long end = Math.min(to, next + size.get() - 1);
+                if (end < next) {
+                    // overflow
+                    end = to;
+                }
+                emitter.onNext(new long[] {next, end});
+                return end + 1;
+            })
+                    .concatMapEager(range -> fetch(range[0], range[1]), concurrency, 1)
+                    .concatMapIterable(logs -> logs, 1);
+        }
+
+        private Flowable<List<Log>> fetch(long from, long to) {
+            return Flowable.fromCallable(() -> getLogs(from, to))
+                    .subscribeOn(scheduler)
+                    .onErrorResumeNext((Throwable e) -> {
+                        if (to > from && isRangeError(e)) {
+                            long middle = from + (to - from) / 2;
+                            shrink(middle - from + 1);
+                            return Flowable.concat(fetch(from, middle), fetch(middle + 1, to));
+                        }
+                        return Flowable.error(e);
+                    });
+        }
+
+        private List<Log> getLogs(long from, long to) throws IOException {
+            EthLog ethLog = web3j.ethGetLogs(ethFilter.withBlockRange(
+                    new DefaultBlockParameterNumber(from),
+                    new DefaultBlockParameterNumber(to))).send();
+            if (ethLog.hasError()) {
+                throw new ResponseErrorException(ethLog.getError());
+            }
+
+            List<EthLog.LogResult> results = ethLog.getLogs();
+            if (results == null) {
+                results = Collections.emptyList();
+            }
+            List<Log> logs = new ArrayList<>(results.size());
+            for (EthLog.LogResult result : results) {
+                if (result instanceof EthLog.LogObject) {
+                    logs.add(((EthLog.LogObject) result).get());
+                } else {
+                    throw new FilterException(
+                            "Unexpected result type: " + result.get() + " required LogObject");
+                }
+            }
+
+            if (logs.size() < targetResults / 2) {
+                grow((to - from + 1) * 2);
+            }
+            return logs;
+        }
+
+        private void grow(long blocks) {
+            long bounded = Math.min(maxChunkSize, blocks);
+            size.accumulateAndGet(bounded, Math::max);
+        }
+
+        private void shrink(long blocks) {
+            long bounded = Math.max(minChunkSize, blocks);
+            size.accumulateAndGet(bounded, Math::min);
+        }
+    }
+}
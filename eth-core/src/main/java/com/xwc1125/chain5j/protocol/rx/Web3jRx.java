@@ -24,6 +24,16 @@ public interface Web3jRx {
      */
     Flowable<Log> ethLogFlowable(EthFilter ethFilter);
 
+    /**
+     * Create a {@link Flowable} instance that emits all logs matching the filter over its
+     * block range with {@code eth_getLogs}. The range is requested in chunks that are split
+     * when the node returns too many results or times out, see {@link LogScanner}.
+     *
+     * @param ethFilter filter criteria and block range
+     * @return a {@link Flowable} instance that emits the logs in block order
+     */
+    Flowable<Log> replayLogsFlowable(EthFilter ethFilter);
+
     /**
      * Create an Flowable to emit block hashes.
      *
@@ -96,6 +106,27 @@ public interface Web3jRx {
             DefaultBlockParameter startBlock, DefaultBlockParameter endBlock,
             boolean fullTransactionObjects, boolean ascending);
 
+    /**
+     * Create an {@link Flowable} instance that emits all blocks from the blockchain contained
+     * within the requested range, fetching several blocks concurrently. Blocks are still
+     * emitted in order and only as fast as they are requested downstream.
+     *
+     * @param startBlock block number to commence with
+     * @param endBlock block number to finish with
+     * @param fullTransactionObjects if true, provides transactions embedded in blocks, otherwise
+     *                               transaction hashes
+     * @param ascending if true, emits blocks in ascending order between range, otherwise
+     *                  in descending order
+     * @param concurrency maximum number of requests in flight
+     * @param batchSize number of blocks fetched per request, in a JSON-RPC batch if more
+     *                  than one
+     * @return a {@link Flowable} instance to emit these blocks
+     */
+    Flowable<EthBlock> replayPastBlocksFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock,
+            boolean fullTransactionObjects, boolean ascending,
+            int concurrency, int batchSize);
+
     /**
      * Create a {@link Flowable} instance that emits all transactions from the blockchain
      * starting with a provided block number. Once it has replayed up to the most current block,
@@ -115,6 +146,25 @@ public interface Web3jRx {
             DefaultBlockParameter startBlock, boolean fullTransactionObjects,
             Flowable<EthBlock> onCompleteFlowable);
 
+    /**
+     * Create a {@link Flowable} instance that emits all blocks from the blockchain starting
+     * with a provided block number, fetching several blocks concurrently, then continues with
+     * the provided Flowable once it is caught up with the latest block.
+     *
+     * @param startBlock the block number we wish to request from
+     * @param fullTransactionObjects if we require full {@link Transaction} objects to be provided
+     *                              in the {@link EthBlock} responses
+     * @param onCompleteFlowable a subsequent Flowable that we wish to run once we are caught
+     *                             up with the latest block
+     * @param concurrency maximum number of requests in flight
+     * @param batchSize number of blocks fetched per request, in a JSON-RPC batch if more
+     *                  than one
+     * @return a {@link Flowable} instance to emit all requested blocks
+     */
+    Flowable<EthBlock> replayPastBlocksFlowable(
+            DefaultBlockParameter startBlock, boolean fullTransactionObjects,
+            Flowable<EthBlock> onCompleteFlowable, int concurrency, int batchSize);
+
     /**
      * Creates a {@link Flowable} instance that emits all blocks from the requested block number
      * to the most current. Once it has emitted the most current block, onComplete is called.
@@ -0,0 +1,184 @@
+package com.xwc1125.chain5j.protocol.websocket;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer for a large number of timeouts that rarely expire, such as request timeouts.
+ *
+ * <p>Timeouts are placed in the bucket of a wheel corresponding to their deadline. A single
+ * periodic task advances the wheel by one bucket per tick and runs the expired timeouts of that
+ * bucket. Adding and cancelling a timeout only enqueue it, the tick task moves new timeouts to
+ * their bucket and unlinks cancelled ones, so both cost O(1) regardless of how many timeouts are
+ * pending. A timeout fires up to one tick after its deadline.
+ */
+class HashedWheelTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final ScheduledFuture<?> ticker;
+
+    // only accessed by the tick task
+    private long tick;
+
+    /**
+     * @param executor      executor running the periodic tick task
+     * @param tickDuration  duration of a tick
+     * @param unit          unit of {@code tickDuration}
+     * @param ticksPerWheel number of buckets, rounded up to a power of two
+     */
+    HashedWheelTimer(
+            ScheduledExecutorService executor, long tickDuration, TimeUnit unit,
+            int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("ticksPerWheel must be positive");
+        }
+        int size = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.ticker = executor.scheduleAtFixedRate(
+                this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Run a task once the delay has elapsed, unless the timeout is cancelled first.
+     *
+     * @param task  task, run on the executor of the timer
+     * @param delay delay
+     * @param unit  unit of {@code delay}
+     * @return timeout
+     */
+    Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        long ticks = Math.max(1, (unit.toNanos(delay) + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(this, task, ticks);
+        added.add(timeout);
+        return timeout;
+    }
+
+    void stop() {
+        ticker.cancel(false);
+    }
+
+    void advance() {
+        long current = ++tick;
+
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state == Timeout.PENDING) {
+                timeout.deadline = current + timeout.deadline;
+                wheel[(int) (timeout.deadline & mask)].add(timeout);
+            }
+        }
+
+        Bucket bucket = wheel[(int) (current & mask)];
+        timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadline <= current) {
+                bucket.remove(timeout);
+                timeout.expire();
+            }
+            timeout = next;
+        }
+    }
+
+    static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private volatile int state = PENDING;
+
+        // number of ticks until added to a bucket, then the tick it expires at
+        private long deadline;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long ticks) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = ticks;
+        }
+
+        void cancel() {
+            if (STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                timer.cancelled.add(this);
+            }
+        }
+
+        private void expire() {
+            if (STATE.compareAndSet(this, PENDING, EXPIRED)) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Timeout task failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, only accessed by the tick task.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
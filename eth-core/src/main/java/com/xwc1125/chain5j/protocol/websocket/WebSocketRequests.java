@@ -0,0 +1,28 @@
+package com.xwc1125.chain5j.protocol.websocket;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
+import com.xwc1125.chain5j.protocol.core.Request;
+import com.xwc1125.chain5j.protocol.core.Response;
+
+/**
+ * Objects necessary to process a reply for a batch request sent via WebSocket protocol.
+ *
+ * <p>A batch is tracked under the id of its first request.
+ */
+class WebSocketRequests extends WebSocketRequest<BatchResponse> {
+    private List<Request<?, ? extends Response<?>>> requests;
+
+    public WebSocketRequests(
+            CompletableFuture<BatchResponse> onReply,
+            List<Request<?, ? extends Response<?>>> requests) {
+        super(onReply, BatchResponse.class);
+        this.requests = requests;
+    }
+
+    public List<Request<?, ? extends Response<?>>> getRequests() {
+        return requests;
+    }
+}
@@ -2,30 +2,47 @@ package com.xwc1125.chain5j.protocol.websocket;
 
 import java.io.IOException;
 
+import java.math.BigInteger;
 import java.net.ConnectException;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import com.xwc1125.chain5j.protocol.ObjectMapperFactory;
 import com.xwc1125.chain5j.protocol.Web3jService;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
 import com.xwc1125.chain5j.protocol.core.Request;
 import com.xwc1125.chain5j.protocol.core.Response;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlockNumber;
 import com.xwc1125.chain5j.protocol.core.methods.response.EthSubscribe;
 import com.xwc1125.chain5j.protocol.core.methods.response.EthUnsubscribe;
 import com.xwc1125.chain5j.protocol.websocket.events.Notification;
+import com.xwc1125.chain5j.utils.Numeric;
 import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
 import io.reactivex.subjects.BehaviorSubject;
@@ -42,6 +59,12 @@ import org.slf4j.LoggerFactory;
  *
  * <p>To unsubscribe from a stream of notifications it should send another JSON-RPC
  * request.
+ *
+ * <p>With {@link #enableReconnect(long, long, TimeUnit)} a closed connection is re-established
+ * with exponential backoff and active subscriptions are resumed instead of failing: each is
+ * subscribed again under a new subscription id, and {@code newHeads} and {@code logs}
+ * subscriptions first receive the events of the blocks missed while disconnected, fetched by
+ * block range. Requests pending when the connection closed still fail.
  */
 public class WebSocketService implements Web3jService {
 
@@ -49,22 +72,42 @@ public class WebSocketService implements Web3jService {
 
     // Timeout for JSON-RPC requests
     static final long REQUEST_TIMEOUT = 60;
+    // Resolution of request timeouts
+    static final long TIMEOUT_TICK_MILLIS = 100;
+    // Number of buckets of the timeout wheel, one rotation covers the request timeout
+    static final int TIMEOUT_TICKS_PER_WHEEL = 1024;
+    // Maximum number of missed blocks delivered when a subscription is resumed
+    public static final int DEFAULT_MAX_BACKFILL_BLOCKS = 1000;
+    // Maximum number of blocks requested in a single batch when backfilling
+    static final int BACKFILL_BATCH_SIZE = 100;
 
     // WebSocket client
     private final WebSocketClient webSocketClient;
     // Executor to schedule request timeouts
     private final ScheduledExecutorService executor;
+    // Timer expiring requests, a single task for all requests in flight
+    private final HashedWheelTimer timer;
     // Object mapper to map incoming JSON objects
     private final ObjectMapper objectMapper;
 
-    // Map of a sent request id to objects necessary to process this request
-    private Map<Long, WebSocketRequest<?>> requestForId = new ConcurrentHashMap<>();
+    // Map of a sent request id to objects necessary to process this request,
+    // sized for thousands of requests in flight
+    private Map<Long, WebSocketRequest<?>> requestForId = new ConcurrentHashMap<>(4096);
     // Map of a sent subscription request id to objects necessary to process
     // subscription events
     private Map<Long, WebSocketSubscription<?>> subscriptionRequestForId
             = new ConcurrentHashMap<>();
     // Map of a subscription id to objects necessary to process incoming events
     private Map<String, WebSocketSubscription<?>> subscriptionForId = new ConcurrentHashMap<>();
+    // Subscriptions of a closed connection waiting to be resumed
+    private final Set<WebSocketSubscription<?>> suspended = ConcurrentHashMap.newKeySet();
+
+    // Delays between reconnection attempts, reconnection is disabled if zero
+    private volatile long reconnectDelay;
+    private volatile long maxReconnectDelay;
+    private volatile int maxBackfillBlocks = DEFAULT_MAX_BACKFILL_BLOCKS;
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+    private volatile boolean closed;
 
     public WebSocketService(String serverUrl, boolean includeRawResponses) {
         this(new WebSocketClient(parseURI(serverUrl)), includeRawResponses);
@@ -80,6 +123,8 @@ public class WebSocketService implements Web3jService {
                      boolean includeRawResponses) {
         this.webSocketClient = webSocketClient;
         this.executor = executor;
+        this.timer = new HashedWheelTimer(
+                executor, TIMEOUT_TICK_MILLIS, TimeUnit.MILLISECONDS, TIMEOUT_TICKS_PER_WHEEL);
         this.objectMapper = ObjectMapperFactory.getObjectMapper(includeRawResponses);
     }
 
@@ -98,6 +143,39 @@ public class WebSocketService implements Web3jService {
         }
     }
 
+    /**
+     * Reconnect when the connection closes and resume active subscriptions.
+     *
+     * @param initialDelay delay before the first reconnection attempt
+     * @param maxDelay     maximum delay between attempts, the delay doubles after each failure
+     * @param unit         unit of the delays
+     * @return this service
+     */
+    public WebSocketService enableReconnect(long initialDelay, long maxDelay, TimeUnit unit) {
+        if (initialDelay <= 0) {
+            throw new IllegalArgumentException("initialDelay must be positive");
+        }
+        if (maxDelay < initialDelay) {
+            throw new IllegalArgumentException("maxDelay must not be less than initialDelay");
+        }
+        this.reconnectDelay = unit.toMillis(initialDelay);
+        this.maxReconnectDelay = unit.toMillis(maxDelay);
+        return this;
+    }
+
+    /**
+     * @param maxBackfillBlocks maximum number of missed blocks whose events are delivered when
+     *                          a subscription is resumed, older blocks are skipped
+     * @return this service
+     */
+    public WebSocketService maxBackfillBlocks(int maxBackfillBlocks) {
+        if (maxBackfillBlocks <= 0) {
+            throw new IllegalArgumentException("maxBackfillBlocks must be positive");
+        }
+        this.maxBackfillBlocks = maxBackfillBlocks;
+        return this;
+    }
+
     private void connectToWebSocket() throws InterruptedException, ConnectException {
         boolean connected = webSocketClient.connectBlocking();
         if (!connected) {
@@ -148,9 +226,10 @@ public class WebSocketService implements Web3jService {
 
         CompletableFuture<T> result = new CompletableFuture<>();
         long requestId = request.getId();
-        requestForId.put(requestId, new WebSocketRequest<>(result, responseType));
+        WebSocketRequest<T> webSocketRequest = new WebSocketRequest<>(result, responseType);
+        requestForId.put(requestId, webSocketRequest);
         try {
-            sendRequest(request, requestId);
+            sendRequest(request, requestId, webSocketRequest);
         } catch (IOException e) {
             closeRequest(requestId, e);
         }
@@ -158,85 +237,170 @@ public class WebSocketService implements Web3jService {
         return result;
     }
 
-    private void sendRequest(Request request, long requestId) throws JsonProcessingException {
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        try {
+            return sendBatchAsync(batchRequest).get();
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new IOException("Interrupted WebSocket batch request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new RuntimeException("Unexpected exception", e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        List<Request<?, ? extends Response<?>>> requests = batchRequest.getRequests();
+        CompletableFuture<BatchResponse> result = new CompletableFuture<>();
+        if (requests.isEmpty()) {
+            result.complete(new BatchResponse(requests, Collections.emptyList()));
+            return result;
+        }
+
+        long requestId = requests.get(0).getId();
+        WebSocketRequests webSocketRequests = new WebSocketRequests(result, requests);
+        requestForId.put(requestId, webSocketRequests);
+        try {
+            sendRequest(requests, requestId, webSocketRequests);
+        } catch (IOException e) {
+            closeRequest(requestId, e);
+        }
+
+        return result;
+    }
+
+    private void sendRequest(
+            Object request, long requestId, WebSocketRequest<?> webSocketRequest)
+            throws JsonProcessingException {
         String payload = objectMapper.writeValueAsString(request);
         log.debug("Sending request: {}", payload);
         webSocketClient.send(payload);
-        setRequestTimeout(requestId);
+        setRequestTimeout(requestId, webSocketRequest);
     }
 
-    private void setRequestTimeout(long requestId) {
-        executor.schedule(
+    private void setRequestTimeout(long requestId, WebSocketRequest<?> webSocketRequest) {
+        webSocketRequest.setTimeout(timer.newTimeout(
                 () -> closeRequest(
                     requestId,
                     new IOException(
                         String.format("Request with id %d timed out", requestId))),
                 REQUEST_TIMEOUT,
-                TimeUnit.SECONDS);
+                TimeUnit.SECONDS));
     }
 
     void closeRequest(long requestId, Exception e) {
-        CompletableFuture result = requestForId.get(requestId).getOnReply();
-        requestForId.remove(requestId);
-        result.completeExceptionally(e);
+        WebSocketRequest<?> request = requestForId.remove(requestId);
+        if (request != null) {
+            request.cancelTimeout();
+            request.getOnReply().completeExceptionally(e);
+        }
     }
 
     void onWebSocketMessage(String messageStr) throws IOException {
-        JsonNode replyJson = parseToTree(messageStr);
-
-        if (isReply(replyJson)) {
-            processRequestReply(messageStr, replyJson);
-        } else if (isSubscriptionEvent(replyJson)) {
-            processSubscriptionEvent(messageStr, replyJson);
+        MessageHeader header = parseHeader(messageStr);
+
+        if (header.batch) {
+            JsonNode replyJson = parseToTree(messageStr);
+            processBatchRequestReply(messageStr, replyJson, getAndRemoveBatchRequest(replyJson));
+        } else if (header.hasId && header.id == null && header.idNull) {
+            processNullIdReply(messageStr, header);
+        } else if (header.hasId) {
+            processRequestReply(messageStr, header);
+        } else if (header.hasMethod) {
+            processSubscriptionEvent(messageStr, header.subscriptionId);
         } else {
             throw new IOException("Unknown message type");
         }
     }
 
-    private void processRequestReply(String replyStr, JsonNode replyJson) throws IOException {
-        long replyId = getReplyId(replyJson);
+    private void processRequestReply(String replyStr, MessageHeader header) throws IOException {
+        long replyId = getReplyId(header);
         WebSocketRequest request = getAndRemoveRequest(replyId);
+        Object reply;
         try {
-            Object reply = objectMapper.convertValue(replyJson, request.getResponseType());
-            // Instead of sending a reply to a caller asynchronously we need to process it here
-            // to avoid race conditions we need to modify state of this class.
-            if (reply instanceof EthSubscribe) {
-                processSubscriptionResponse(replyId, (EthSubscribe) reply);
+            reply = objectMapper.readValue(replyStr, request.getResponseType());
+        } catch (IOException e) {
+            sendExceptionToListener(replyStr, request, e);
+            return;
+        }
+
+        // Instead of sending a reply to a caller asynchronously we need to process it here
+        // to avoid race conditions we need to modify state of this class.
+        if (reply instanceof EthSubscribe) {
+            processSubscriptionResponse(replyId, (EthSubscribe) reply);
+        }
+
+        sendReplyToListener(request, reply);
+    }
+
+    /**
+     * A node rejecting a whole batch, e.g. because it is too large, replies with a single
+     * error object whose {@code id} is null. It can only be matched to a batch if a single
+     * batch is awaiting a reply, otherwise the batches are left to time out.
+     */
+    private void processNullIdReply(String replyStr, MessageHeader header) throws IOException {
+        List<Long> batchIds = new ArrayList<>();
+        for (Map.Entry<Long, WebSocketRequest<?>> entry : requestForId.entrySet()) {
+            if (entry.getValue() instanceof WebSocketRequests) {
+                batchIds.add(entry.getKey());
             }
+        }
+        if (batchIds.isEmpty()) {
+            processRequestReply(replyStr, header);
+            return;
+        }
+        if (batchIds.size() > 1) {
+            log.warn("Ignoring reply without id, {} batches are awaiting a reply: {}",
+                    batchIds.size(), replyStr);
+            return;
+        }
+        WebSocketRequest<?> request = requestForId.remove(batchIds.get(0));
+        if (request != null) {
+            request.cancelTimeout();
+            processBatchRequestReply(replyStr, parseToTree(replyStr), (WebSocketRequests) request);
+        }
+    }
 
+    private void processBatchRequestReply(
+            String replyStr, JsonNode replyJson, WebSocketRequests request) {
+        try {
+            BatchResponse reply = BatchResponse.fromReplies(
+                    objectMapper, request.getRequests(), replyJson);
             sendReplyToListener(request, reply);
-        } catch (IllegalArgumentException e) {
+        } catch (IOException e) {
+            request.getOnReply().completeExceptionally(e);
+        } catch (RuntimeException e) {
             sendExceptionToListener(replyStr, request, e);
         }
     }
 
     private void processSubscriptionResponse(long replyId, EthSubscribe reply) throws IOException {
-        WebSocketSubscription subscription = subscriptionRequestForId.get(replyId);
-        processSubscriptionResponse(
-                reply,
-                subscription.getSubject(),
-                subscription.getResponseType()
-        );
+        WebSocketSubscription subscription = subscriptionRequestForId.remove(replyId);
+        if (subscription != null) {
+            processSubscriptionResponse(reply, subscription);
+        }
     }
 
-    private <T extends Notification<?>> void processSubscriptionResponse(
+    private <T> void processSubscriptionResponse(
             EthSubscribe subscriptionReply,
-            BehaviorSubject<T> subject,
-            Class<T> responseType) throws IOException {
+            WebSocketSubscription<T> subscription) throws IOException {
         if (!subscriptionReply.hasError()) {
-            establishSubscription(subject, responseType, subscriptionReply);
+            establishSubscription(subscription, subscriptionReply);
         } else {
-            reportSubscriptionError(subject, subscriptionReply);
+            reportSubscriptionError(subscription.getSubject(), subscriptionReply);
         }
     }
 
-    private <T extends Notification<?>> void establishSubscription(
-            BehaviorSubject<T> subject, Class<T> responseType, EthSubscribe subscriptionReply) {
+    private <T> void establishSubscription(
+            WebSocketSubscription<T> subscription, EthSubscribe subscriptionReply) {
         log.debug("Subscribed to RPC events with id {}",
                 subscriptionReply.getSubscriptionId());
-        subscriptionForId.put(
-                subscriptionReply.getSubscriptionId(),
-                new WebSocketSubscription<>(subject, responseType));
+        subscriptionForId.put(subscriptionReply.getSubscriptionId(), subscription);
     }
 
     private <T extends Notification<?>> String getSubscriptionId(BehaviorSubject<T> subject) {
@@ -247,7 +411,7 @@ public class WebSocketService implements Web3jService {
                 .orElse(null);
     }
 
-    private <T extends Notification<?>> void reportSubscriptionError(
+    private <T> void reportSubscriptionError(
             BehaviorSubject<T> subject, EthSubscribe subscriptionReply) {
         Response.Error error = subscriptionReply.getError();
         log.error("Subscription request returned error: {}", error.getMessage());
@@ -266,7 +430,7 @@ public class WebSocketService implements Web3jService {
     private void sendExceptionToListener(
             String replyStr,
             WebSocketRequest request,
-            IllegalArgumentException e) {
+            Exception e) {
         request.getOnReply().completeExceptionally(
                 new IOException(
                         String.format(
@@ -276,33 +440,80 @@ public class WebSocketService implements Web3jService {
                         e));
     }
 
-    private void processSubscriptionEvent(String replyStr, JsonNode replyJson) {
+    private void processSubscriptionEvent(
+            String replyStr, String subscriptionId) throws IOException {
         log.debug("Processing event: {}", replyStr);
-        String subscriptionId = extractSubscriptionId(replyJson);
-        WebSocketSubscription subscription = subscriptionForId.get(subscriptionId);
+        WebSocketSubscription subscription =
+                subscriptionId != null ? subscriptionForId.get(subscriptionId) : null;
 
         if (subscription != null) {
-            sendEventToSubscriber(replyJson, subscription);
+            sendEventToSubscriber(replyStr, subscription);
         } else {
             log.warn("No subscriber for WebSocket event with subscription id {}", subscriptionId);
         }
     }
 
-    private String extractSubscriptionId(JsonNode replyJson) {
-        return replyJson.get("params").get("subscription").asText();
+    private void sendEventToSubscriber(String replyStr, WebSocketSubscription subscription)
+            throws IOException {
+        Object event = objectMapper.readValue(replyStr, subscription.getResponseType());
+        subscription.onEvent(event);
     }
 
-    private void sendEventToSubscriber(JsonNode replyJson, WebSocketSubscription subscription) {
-        Object event = objectMapper.convertValue(replyJson, subscription.getResponseType());
-        subscription.getSubject().onNext(event);
-    }
+    /**
+     * Reads the fields identifying a message with a streaming parser, so that the message is
+     * then parsed once, straight into its response type. Reading stops as soon as the message
+     * is identified, i.e. at the {@code id} of a reply or the subscription id of an event.
+     */
+    private MessageHeader parseHeader(String replyStr) throws IOException {
+        MessageHeader header = new MessageHeader();
+        try (JsonParser parser = objectMapper.getFactory().createParser(replyStr)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                header.batch = true;
+                return header;
+            } else if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Failed to parse incoming WebSocket message");
+            }
 
-    private boolean isReply(JsonNode replyJson) {
-        return replyJson.has("id");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(field)) {
+                    header.hasId = true;
+                    header.id = value == JsonToken.VALUE_NUMBER_INT
+                            ? parser.getLongValue() : null;
+                    header.idText = parser.getText();
+                    header.idNull = value == JsonToken.VALUE_NULL;
+                    return header;
+                } else if ("method".equals(field)) {
+                    header.hasMethod = true;
+                } else if ("params".equals(field) && value == JsonToken.START_OBJECT) {
+                    header.subscriptionId = readSubscriptionId(parser);
+                } else {
+                    parser.skipChildren();
+                }
+                if (header.hasMethod && header.subscriptionId != null) {
+                    return header;
+                }
+            }
+            return header;
+        } catch (JsonProcessingException e) {
+            throw new IOException("Failed to parse incoming WebSocket message", e);
+        }
     }
 
-    private boolean isSubscriptionEvent(JsonNode replyJson) {
-        return replyJson.has("method");
+    private static String readSubscriptionId(JsonParser parser) throws IOException {
+        String subscriptionId = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("subscription".equals(field) && subscriptionId == null) {
+                subscriptionId = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return subscriptionId;
     }
 
     private JsonNode parseToTree(String replyStr) throws IOException {
@@ -314,29 +525,45 @@ public class WebSocketService implements Web3jService {
     }
 
     private WebSocketRequest getAndRemoveRequest(long id) throws IOException {
-        if (!requestForId.containsKey(id)) {
+        WebSocketRequest request = requestForId.remove(id);
+        if (request == null) {
             throw new IOException(
                     String.format("Received reply for unexpected request id: %d",
                             id));
         }
-        WebSocketRequest request = requestForId.get(id);
-        requestForId.remove(id);
+        request.cancelTimeout();
         return request;
     }
 
-    private long getReplyId(JsonNode replyJson) throws IOException {
-        JsonNode idField = replyJson.get("id");
-        if (idField == null) {
+    private WebSocketRequests getAndRemoveBatchRequest(JsonNode replyJson) throws IOException {
+        // Replies of a batch can be returned in any order, so look for the element
+        // whose id the batch was registered under
+        for (JsonNode reply : replyJson) {
+            JsonNode idField = reply.get("id");
+            if (idField != null && idField.isIntegralNumber()) {
+                WebSocketRequest<?> request = requestForId.get(idField.longValue());
+                if (request instanceof WebSocketRequests
+                        && requestForId.remove(idField.longValue(), request)) {
+                    request.cancelTimeout();
+                    return (WebSocketRequests) request;
+                }
+            }
+        }
+        throw new IOException("Received reply for unexpected batch request");
+    }
+
+    private long getReplyId(MessageHeader header) throws IOException {
+        if (!header.hasId) {
             throw new IOException("'id' field is missing in the reply");
         }
 
-        if (!idField.isIntegralNumber()) {
+        if (header.id == null) {
             throw new IOException(
                     String.format("'id' expected to be long, but it is: '%s'",
-                            idField.asText()));
+                            header.idText));
         }
 
-        return idField.longValue();
+        return header.id;
     }
 
     private static URI parseURI(String serverUrl) {
@@ -361,7 +588,7 @@ public class WebSocketService implements Web3jService {
         // an Flowable to a client before we got a reply
         // a client can unsubscribe before we know a subscription
         // id and this can cause a race condition
-        subscribeToEventsStream(request, subject, responseType);
+        subscribeToEventsStream(request, subject, responseType, unsubscribeMethod);
 
 
         return subject
@@ -372,11 +599,11 @@ public class WebSocketService implements Web3jService {
 
     private <T extends Notification<?>> void subscribeToEventsStream(
             Request request,
-            BehaviorSubject<T> subject, Class<T> responseType) {
+            BehaviorSubject<T> subject, Class<T> responseType, String unsubscribeMethod) {
 
         subscriptionRequestForId.put(
                 request.getId(),
-                new WebSocketSubscription<>(subject, responseType));
+                new WebSocketSubscription<>(subject, responseType, request, unsubscribeMethod));
         try {
             send(request, EthSubscribe.class);
         } catch (IOException e) {
@@ -420,20 +647,31 @@ public class WebSocketService implements Web3jService {
 
     @Override
     public void close() {
+        closed = true;
         webSocketClient.close();
+        timer.stop();
         executor.shutdown();
     }
 
     void onWebSocketClose() {
         closeOutstandingRequests();
-        closeOutstandingSubscriptions();
+        if (closed || reconnectDelay == 0) {
+            closeOutstandingSubscriptions();
+            return;
+        }
+
+        for (WebSocketSubscription<?> subscription : subscriptionForId.values()) {
+            subscription.suspend();
+            suspended.add(subscription);
+        }
+        subscriptionForId.clear();
+        startReconnect();
     }
 
     private void closeOutstandingRequests() {
-        requestForId.values().forEach(request -> {
-            request.getOnReply()
-                    .completeExceptionally(new IOException("Connection was closed"));
-        });
+        for (Long requestId : requestForId.keySet()) {
+            closeRequest(requestId, new IOException("Connection was closed"));
+        }
     }
 
     private void closeOutstandingSubscriptions() {
@@ -441,11 +679,270 @@ public class WebSocketService implements Web3jService {
             subscription.getSubject()
                     .onError(new IOException("Connection was closed"));
         });
+        suspended.forEach(subscription -> {
+            subscription.getSubject()
+                    .onError(new IOException("Connection was closed"));
+        });
+        suspended.clear();
+    }
+
+    private void startReconnect() {
+        if (reconnecting.compareAndSet(false, true)) {
+            scheduleReconnect(reconnectDelay);
+        }
+    }
+
+    private void scheduleReconnect(long delay) {
+        if (closed) {
+            reconnecting.set(false);
+            return;
+        }
+        try {
+            executor.schedule(() -> startReconnectThread(delay), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the service was closed
+            reconnecting.set(false);
+        }
+    }
+
+    /**
+     * The reconnection attempt blocks until the handshake completes, so it runs on its own
+     * thread to keep the executor expiring requests.
+     */
+    private void startReconnectThread(long delay) {
+        Thread thread = new Thread(() -> reconnect(delay), "websocket-reconnect");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reconnection attempt, run on a reconnect thread. Subscriptions are resumed
+     * asynchronously.
+     */
+    private void reconnect(long delay) {
+        long nextDelay = Math.min(delay * 2, maxReconnectDelay);
+        if (closed) {
+            reconnecting.set(false);
+            return;
+        }
+        try {
+            if (!webSocketClient.isOpen() && !webSocketClient.reconnectBlocking()) {
+                log.warn("Failed to reconnect via WebSocket protocol");
+                scheduleReconnect(nextDelay);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reconnecting.set(false);
+            return;
+        }
+
+        resumeSubscriptions().whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Failed to resume subscriptions after reconnecting", e);
+                scheduleReconnect(nextDelay);
+                return;
+            }
+            reconnecting.set(false);
+            // the connection may have closed again while resuming
+            if (!closed && (!suspended.isEmpty() || !webSocketClient.isOpen())) {
+                startReconnect();
+            }
+        });
+    }
+
+    private CompletableFuture<Void> resumeSubscriptions() {
+        List<CompletableFuture<Void>> resumed = new ArrayList<>();
+        for (WebSocketSubscription<?> subscription : new ArrayList<>(suspended)) {
+            CompletableFuture<Void> result = subscription.getSubject().hasObservers()
+                    ? resumeSubscription(subscription)
+                    : CompletableFuture.completedFuture(null);
+            resumed.add(result.thenRun(() -> suspended.remove(subscription)));
+        }
+        return CompletableFuture.allOf(resumed.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Subscribe again and deliver the missed events. If the backfill fails the new
+     * subscription is cancelled, the next attempt subscribes from scratch.
+     */
+    private <T> CompletableFuture<Void> resumeSubscription(
+            WebSocketSubscription<T> subscription) {
+        Request<?, ?> original = subscription.getRequest();
+        Request<?, EthSubscribe> request = new Request<>(
+                original.getMethod(), original.getParams(), this, EthSubscribe.class);
+        subscriptionRequestForId.put(request.getId(), subscription);
+        return sendAsync(request, EthSubscribe.class)
+                .whenComplete((reply, e) -> subscriptionRequestForId.remove(request.getId()))
+                .thenCompose(reply -> {
+                    if (reply.hasError()) {
+                        // the subscriber was notified of the error
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    String subscriptionId = reply.getSubscriptionId();
+                    return backfill(subscription, subscriptionId)
+                            .handle((backfilledTo, e) -> {
+                                if (e != null) {
+                                    subscriptionForId.remove(subscriptionId, subscription);
+                                    subscription.suspend();
+                                    unsubscribeFromEventsStream(
+                                            subscriptionId, subscription.getUnsubscribeMethod());
+                                    throw e instanceof CompletionException
+                                            ? (CompletionException) e
+                                            : new CompletionException(e);
+                                }
+                                subscription.resume(backfilledTo);
+                                log.info("Resumed subscription with id {}", subscriptionId);
+                                return null;
+                            });
+                });
+    }
+
+    /**
+     * Deliver the events of the blocks a {@code newHeads} or {@code logs} subscription missed,
+     * from the block after the last one it delivered up to the current block. The blocks of a
+     * {@code newHeads} subscription are fetched in batches of up to
+     * {@link #BACKFILL_BATCH_SIZE} blocks, one after the other.
+     *
+     * @return future completed with the last block whose events were delivered, or null if
+     *     none were
+     */
+    private <T> CompletableFuture<BigInteger> backfill(
+            WebSocketSubscription<T> subscription, String subscriptionId) {
+        BigInteger lastBlockNumber = subscription.getLastBlockNumber();
+        List<?> params = subscription.getRequest().getParams();
+        Object kind = params.isEmpty() ? null : params.get(0);
+        if (lastBlockNumber == null || !("newHeads".equals(kind) || "logs".equals(kind))) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return sendAsync(
+                new Request<>("eth_blockNumber", Collections.<String>emptyList(), this,
+                        EthBlockNumber.class),
+                EthBlockNumber.class).thenCompose(blockNumber -> {
+                    if (blockNumber.hasError()) {
+                        throw new CompletionException(new IOException(
+                                "Failed to backfill subscription: "
+                                        + blockNumber.getError().getMessage()));
+                    }
+                    BigInteger head = blockNumber.getBlockNumber();
+                    BigInteger from = lastBlockNumber.add(BigInteger.ONE)
+                            .max(head.subtract(BigInteger.valueOf(maxBackfillBlocks - 1)));
+                    if (from.compareTo(head) > 0) {
+                        return CompletableFuture.completedFuture(head);
+                    }
+                    CompletableFuture<List<JsonNode>> results = "newHeads".equals(kind)
+                            ? fetchBlocks(from, head)
+                            : fetchLogs(params, from, head);
+                    return results.thenApply(events -> {
+                        for (JsonNode result : events) {
+                            subscription.backfill(toNotification(
+                                    subscriptionId, result, subscription.getResponseType()));
+                        }
+                        return head;
+                    });
+                });
+    }
+
+    private CompletableFuture<List<JsonNode>> fetchBlocks(BigInteger from, BigInteger to) {
+        List<JsonNode> blocks = new ArrayList<>();
+        BigInteger batchSize = BigInteger.valueOf(BACKFILL_BATCH_SIZE);
+        CompletableFuture<Void> fetched = CompletableFuture.completedFuture(null);
+        for (BigInteger first = from; first.compareTo(to) <= 0; first = first.add(batchSize)) {
+            BigInteger batchFrom = first;
+            BigInteger batchTo = first.add(batchSize).subtract(BigInteger.ONE).min(to);
+            fetched = fetched.thenCompose(ignored -> fetchBlockBatch(batchFrom, batchTo, blocks));
+        }
+        return fetched.thenApply(ignored -> blocks);
+    }
+
+    private CompletableFuture<Void> fetchBlockBatch(
+            BigInteger from, BigInteger to, List<JsonNode> blocks) {
+        BatchRequest batch = new BatchRequest(this);
+        for (BigInteger i = from; i.compareTo(to) <= 0; i = i.add(BigInteger.ONE)) {
+            batch.add(new Request<>("eth_getBlockByNumber",
+                    Arrays.asList(Numeric.encodeQuantity(i), false), this, RawResponse.class));
+        }
+        return sendBatchAsync(batch).thenAccept(response -> {
+            for (int i = 0; i < response.getResponses().size(); i++) {
+                JsonNode block = checkResult(response.getResponse(i, RawResponse.class));
+                if (!block.isNull()) {
+                    blocks.add(block);
+                }
+            }
+        });
+    }
+
+    private CompletableFuture<List<JsonNode>> fetchLogs(
+            List<?> params, BigInteger from, BigInteger to) {
+        Map<String, Object> filter = new HashMap<>();
+        if (params.size() > 1 && params.get(1) instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) params.get(1)).entrySet()) {
+                filter.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+        filter.put("fromBlock", Numeric.encodeQuantity(from));
+        filter.put("toBlock", Numeric.encodeQuantity(to));
+        return sendAsync(
+                new Request<>("eth_getLogs", Collections.singletonList(filter), this,
+                        RawResponse.class),
+                RawResponse.class).thenApply(response -> {
+                    List<JsonNode> logs = new ArrayList<>();
+                    for (JsonNode log : checkResult(response)) {
+                        logs.add(log);
+                    }
+                    return logs;
+                });
+    }
+
+    private <T> T toNotification(String subscriptionId, JsonNode result, Class<T> type) {
+        ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", "eth_subscription");
+        ObjectNode notificationParams = notification.putObject("params");
+        notificationParams.put("subscription", subscriptionId);
+        notificationParams.set("result", result);
+        try {
+            return objectMapper.treeToValue(notification, type);
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static JsonNode checkResult(RawResponse response) {
+        if (response == null) {
+            throw new CompletionException(
+                    new IOException("Failed to backfill subscription: missing reply"));
+        }
+        if (response.hasError()) {
+            throw new CompletionException(new IOException("Failed to backfill subscription: "
+                    + response.getError().getMessage()));
+        }
+        JsonNode result = response.getResult();
+        return result != null ? result : NullNode.getInstance();
     }
 
     // Method visible for unit-tests
     boolean isWaitingForReply(long requestId) {
         return requestForId.containsKey(requestId);
     }
-}
 
+    /**
+     * Response with an untyped result, used to backfill subscriptions.
+     */
+    static class RawResponse extends Response<JsonNode> {
+    }
+
+    /**
+     * Fields identifying an incoming message.
+     */
+    private static final class MessageHeader {
+        private boolean batch;
+        private boolean hasId;
+        private Long id;
+        private String idText;
+        private boolean idNull;
+        private boolean hasMethod;
+        private String subscriptionId;
+    }
+}
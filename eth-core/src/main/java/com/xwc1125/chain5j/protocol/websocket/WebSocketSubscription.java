@@ -1,15 +1,32 @@
 package com.xwc1125.chain5j.protocol.websocket;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.xwc1125.chain5j.protocol.core.Request;
+import com.xwc1125.chain5j.protocol.websocket.events.LogNotification;
+import com.xwc1125.chain5j.protocol.websocket.events.NewHeadsNotification;
+import com.xwc1125.chain5j.utils.Numeric;
 import io.reactivex.subjects.BehaviorSubject;
 
 /**
  * Objects necessary to process a new item received via a WebSocket subscription.
  *
+ * <p>To resume a subscription after a reconnect it also keeps the request that created it and
+ * the number of the last block it delivered an event for. While a subscription is resuming,
+ * live events are buffered until the missed blocks have been delivered.
+ *
  * @param <T> type of a data item that should be returned by a WebSocket subscription.
  */
 public class WebSocketSubscription<T> {
     private BehaviorSubject<T> subject;
     private Class<T> responseType;
+    private Request<?, ?> request;
+    private String unsubscribeMethod;
+
+    private BigInteger lastBlockNumber;
+    private List<T> buffer;
 
     /**
      * Creates WebSocketSubscription.
@@ -22,6 +39,14 @@ public class WebSocketSubscription<T> {
         this.responseType = responseType;
     }
 
+    WebSocketSubscription(
+            BehaviorSubject<T> subject, Class<T> responseType, Request<?, ?> request,
+            String unsubscribeMethod) {
+        this(subject, responseType);
+        this.request = request;
+        this.unsubscribeMethod = unsubscribeMethod;
+    }
+
     public BehaviorSubject<T> getSubject() {
         return subject;
     }
@@ -29,4 +54,85 @@ public class WebSocketSubscription<T> {
     public Class<T> getResponseType() {
         return responseType;
     }
+
+    Request<?, ?> getRequest() {
+        return request;
+    }
+
+    String getUnsubscribeMethod() {
+        return unsubscribeMethod;
+    }
+
+    synchronized BigInteger getLastBlockNumber() {
+        return lastBlockNumber;
+    }
+
+    /**
+     * Deliver an event, or buffer it while the subscription is resuming.
+     *
+     * @param event event
+     */
+    synchronized void onEvent(T event) {
+        if (buffer != null) {
+            buffer.add(event);
+        } else {
+            emit(event);
+        }
+    }
+
+    /**
+     * Buffer live events until {@link #resume(BigInteger)}. Events buffered by an earlier
+     * attempt to resume are discarded, the next backfill delivers them.
+     */
+    synchronized void suspend() {
+        buffer = new ArrayList<>();
+    }
+
+    /**
+     * Deliver a missed event while the subscription is suspended.
+     *
+     * @param event event
+     */
+    synchronized void backfill(T event) {
+        emit(event);
+    }
+
+    /**
+     * Deliver the buffered events and stop buffering.
+     *
+     * @param backfilledTo last block whose events were backfilled, or null if none were;
+     *                     buffered events of blocks up to it are dropped as duplicates
+     */
+    synchronized void resume(BigInteger backfilledTo) {
+        if (buffer == null) {
+            return;
+        }
+        for (T event : buffer) {
+            BigInteger blockNumber = blockNumber(event);
+            if (backfilledTo == null || blockNumber == null
+                    || blockNumber.compareTo(backfilledTo) > 0) {
+                emit(event);
+            }
+        }
+        buffer = null;
+    }
+
+    private void emit(T event) {
+        BigInteger blockNumber = blockNumber(event);
+        if (blockNumber != null
+                && (lastBlockNumber == null || blockNumber.compareTo(lastBlockNumber) > 0)) {
+            lastBlockNumber = blockNumber;
+        }
+        subject.onNext(event);
+    }
+
+    private static BigInteger blockNumber(Object event) {
+        String number = null;
+        if (event instanceof NewHeadsNotification) {
+            number = ((NewHeadsNotification) event).getParams().getResult().getNumber();
+        } else if (event instanceof LogNotification) {
+            number = ((LogNotification) event).getParams().getResult().getBlockNumber();
+        }
+        return number != null ? Numeric.decodeQuantity(number) : null;
+    }
 }
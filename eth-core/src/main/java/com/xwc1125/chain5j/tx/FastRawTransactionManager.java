@@ -37,6 +37,9 @@ public class FastRawTransactionManager extends RawTransactionManager {
 
     @Override
     protected synchronized BigInteger getNonce() throws IOException {
+        if (getNonceManager() != null) {
+            return super.getNonce();
+        }
         if (nonce.signum() == -1) {
             // obtain lock
             nonce = super.getNonce();
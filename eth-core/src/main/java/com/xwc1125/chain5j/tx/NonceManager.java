@@ -0,0 +1,270 @@
+package com.xwc1125.chain5j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterName;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthGetTransactionCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Nonce allocator shared by any number of accounts and transaction managers.
+ *
+ * <p>Each account has an atomic counter, concurrent callers are handed out nonces without
+ * blocking each other once the account has been synchronised with
+ * {@code eth_getTransactionCount(pending)}. A nonce must be either
+ * {@link #confirm(String, BigInteger) confirmed} once the node accepted the transaction, or
+ * {@link #release(String, BigInteger) released} if it was rejected. Released nonces are gaps
+ * in the account's sequence and are handed out again, lowest first, before new ones.</p>
+ *
+ * <p>Accounts are resynchronised with the node every {@link #resyncInterval(long, TimeUnit)}.
+ * If nonces were used by another sender the counter moves forward; if no nonce was in flight
+ * or allocated while the count was requested and the node reports a lower count, the missing
+ * nonces never reached the transaction pool and become gaps. A failed resynchronisation is
+ * retried by the next {@link #acquire(String)}, meanwhile nonces are handed out from the local
+ * counter.</p>
+ *
+ * <p>Use it with a {@link RawTransactionManager} through
+ * {@link RawTransactionManager#setNonceManager(NonceManager)}.</p>
+ */
+public class NonceManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NonceManager.class);
+
+    public static final long DEFAULT_RESYNC_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
+    private final Web3j web3j;
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+
+    private volatile long resyncInterval = DEFAULT_RESYNC_INTERVAL;
+
+    public NonceManager(Web3j web3j) {
+        this.web3j = web3j;
+    }
+
+    /**
+     * @param interval time between two synchronisations of an account with the node
+     * @param unit     unit of {@code interval}
+     * @return this manager
+     */
+    public NonceManager resyncInterval(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.resyncInterval = unit.toMillis(interval);
+        return this;
+    }
+
+    /**
+     * Allocate the next nonce of an account, the first call synchronises the account with
+     * the node.
+     *
+     * @param address account address
+     * @return nonce, in flight until confirmed or released
+     * @throws IOException if the transaction count of the account cannot be retrieved on the
+     *     first call
+     */
+    public BigInteger acquire(String address) throws IOException {
+        Account account = account(address);
+        if (!account.synced) {
+            synchronized (account) {
+                if (!account.synced) {
+                    resync(address, account);
+                    account.synced = true;
+                }
+            }
+        } else if (System.currentTimeMillis() - account.lastSync > resyncInterval
+                && account.syncing.compareAndSet(false, true)) {
+            try {
+                resync(address, account);
+            } catch (IOException e) {
+                // the local counter is still valid, retried by the next acquire
+                log.warn("Failed to resynchronise nonce of {}", address, e);
+            } finally {
+                account.syncing.set(false);
+            }
+        }
+
+        Lock lock = account.lock.readLock();
+        lock.lock();
+        try {
+            Long nonce = account.gaps.pollFirst();
+            if (nonce == null) {
+                nonce = account.next.getAndIncrement();
+            }
+            account.inFlight.add(nonce);
+            account.acquired.incrementAndGet();
+            return BigInteger.valueOf(nonce);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The transaction with this nonce was accepted by the node.
+     *
+     * @param address account address
+     * @param nonce   nonce returned by {@link #acquire(String)}
+     */
+    public void confirm(String address, BigInteger nonce) {
+        account(address).inFlight.remove(nonce.longValue());
+    }
+
+    /**
+     * The transaction with this nonce was rejected, the nonce is reused by the next
+     * {@link #acquire(String)}.
+     *
+     * @param address account address
+     * @param nonce   nonce returned by {@link #acquire(String)}
+     */
+    public void release(String address, BigInteger nonce) {
+        Account account = account(address);
+        long value = nonce.longValue();
+        if (account.inFlight.remove(value)) {
+            account.gaps.add(value);
+        }
+    }
+
+    /**
+     * Synchronise the account with the node on the next {@link #acquire(String)}, e.g. when
+     * the outcome of a transaction is unknown.
+     *
+     * @param address account address
+     */
+    public void invalidate(String address) {
+        account(address).lastSync = 0;
+    }
+
+    /**
+     * Synchronise an account with {@code eth_getTransactionCount(pending)}.
+     *
+     * @param address account address
+     * @throws IOException if the transaction count cannot be retrieved
+     */
+    public void resync(String address) throws IOException {
+        Account account = account(address);
+        synchronized (account) {
+            resync(address, account);
+            account.synced = true;
+        }
+    }
+
+    /**
+     * @param address account address
+     * @return nonces allocated but neither confirmed nor released, in ascending order
+     */
+    public List<BigInteger> getInFlight(String address) {
+        return toList(account(address).inFlight);
+    }
+
+    /**
+     * @param address account address
+     * @return released nonces waiting to be reused, in ascending order
+     */
+    public List<BigInteger> getGaps(String address) {
+        return toList(account(address).gaps);
+    }
+
+    /**
+     * @param address account address
+     * @return nonce allocated after the gaps are filled, or -1 if the account was never
+     *     synchronised
+     */
+    public BigInteger getNextNonce(String address) {
+        Account account = account(address);
+        return account.synced ? BigInteger.valueOf(account.next.get()) : BigInteger.valueOf(-1);
+    }
+
+    /**
+     * Whether a node error for {@code eth_sendRawTransaction} means the nonce was already used,
+     * so it must not be released.
+     *
+     * @param message JSON-RPC error message
+     * @return true if the nonce is used
+     */
+    public static boolean isNonceUsed(String message) {
+        if (message == null) {
+            return false;
+        }
+        String lower = message.toLowerCase(Locale.ROOT);
+        return lower.contains("nonce too low")
+                || lower.contains("already known")
+                || lower.contains("known transaction")
+                || lower.contains("replacement transaction underpriced");
+    }
+
+    private void resync(String address, Account account) throws IOException {
+        // state before the request, in the order acquire updates it
+        long acquired = account.acquired.get();
+        long snapshotNext = account.next.get();
+        boolean idle = account.inFlight.isEmpty();
+
+        EthGetTransactionCount ethGetTransactionCount = web3j.ethGetTransactionCount(
+                address, DefaultBlockParameterName.PENDING).send();
+        if (ethGetTransactionCount.hasError()) {
+            throw new IOException("Error retrieving transaction count: "
+                    + ethGetTransactionCount.getError().getMessage());
+        }
+        long count = ethGetTransactionCount.getTransactionCount().longValue();
+
+        account.next.accumulateAndGet(count, Math::max);
+        // nonces below the count were used, by us or another sender
+        account.gaps.headSet(count).clear();
+        if (account.synced && idle && count < snapshotNext) {
+            // the count may predate nonces allocated during the request, only nonces that were
+            // confirmed before it are known to be missing
+            Lock lock = account.lock.writeLock();
+            lock.lock();
+            try {
+                if (account.acquired.get() == acquired) {
+                    for (long nonce = count; nonce < snapshotNext; nonce++) {
+                        account.gaps.add(nonce);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        account.lastSync = System.currentTimeMillis();
+    }
+
+    private Account account(String address) {
+        return accounts.computeIfAbsent(address.toLowerCase(Locale.ROOT), a -> new Account());
+    }
+
+    private static List<BigInteger> toList(NavigableSet<Long> nonces) {
+        List<BigInteger> result = new ArrayList<>();
+        for (Long nonce : nonces) {
+            result.add(BigInteger.valueOf(nonce));
+        }
+        return result;
+    }
+
+    private static final class Account {
+        private final AtomicLong next = new AtomicLong();
+        // number of nonces handed out, to detect allocations during a resync
+        private final AtomicLong acquired = new AtomicLong();
+        // shared by acquire, exclusive while a resync adds gaps
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableSet<Long> gaps = new ConcurrentSkipListSet<>();
+        private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+        private final AtomicBoolean syncing = new AtomicBoolean();
+        private volatile boolean synced;
+        private volatile long lastSync;
+    }
+}
@@ -0,0 +1,51 @@
+package com.xwc1125.chain5j.tx;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import com.xwc1125.chain5j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * Transaction of a bulk send, see
+ * {@link RawTransactionManager#sendTransactions(Iterable, java.util.concurrent.Executor, int)}.
+ */
+public class PendingTransaction {
+
+    private final BigInteger nonce;
+    private final CompletableFuture<String> transactionHash = new CompletableFuture<>();
+    private final Function<String, CompletableFuture<TransactionReceipt>> receiptProcessor;
+
+    private CompletableFuture<TransactionReceipt> transactionReceipt;
+
+    PendingTransaction(
+            BigInteger nonce,
+            Function<String, CompletableFuture<TransactionReceipt>> receiptProcessor) {
+        this.nonce = nonce;
+        this.receiptProcessor = receiptProcessor;
+    }
+
+    public BigInteger getNonce() {
+        return nonce;
+    }
+
+    /**
+     * @return future completed with the hash once the node accepted the transaction
+     */
+    public CompletableFuture<String> getTransactionHash() {
+        return transactionHash;
+    }
+
+    /**
+     * The receipt is requested from the transaction manager's receipt processor on the first
+     * call, once the transaction hash is known.
+     *
+     * @return future completed with the transaction receipt
+     */
+    public synchronized CompletableFuture<TransactionReceipt> getTransactionReceipt() {
+        if (transactionReceipt == null) {
+            transactionReceipt = transactionHash.thenCompose(receiptProcessor);
+        }
+        return transactionReceipt;
+    }
+}
@@ -2,12 +2,25 @@ package com.xwc1125.chain5j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
 import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterName;
 import com.xwc1125.chain5j.protocol.core.methods.response.EthSendTransaction;
+import com.xwc1125.chain5j.protocol.core.methods.response.TransactionReceipt;
+import com.xwc1125.chain5j.protocol.exceptions.TransactionException;
 import com.xwc1125.chain5j.tx.exceptions.TxHashMismatchException;
+import com.xwc1125.chain5j.tx.response.BlockTransactionReceiptProcessor;
 import com.xwc1125.chain5j.tx.response.TransactionReceiptProcessor;
+import com.xwc1125.chain5j.utils.Async;
 import com.xwc1125.chain5j.utils.TxHashVerifier;
 import com.xwc1125.chain5j.crypto.Credentials;
 import com.xwc1125.chain5j.crypto.Hash;
@@ -33,6 +46,8 @@ public class RawTransactionManager extends TransactionManager {
 
     protected TxHashVerifier txHashVerifier = new TxHashVerifier();
 
+    private NonceManager nonceManager;
+
     public RawTransactionManager(Web3j web3j, Credentials credentials, byte chainId) {
         super(web3j, credentials.getAddress());
 
@@ -73,6 +88,9 @@ public class RawTransactionManager extends TransactionManager {
     }
 
     protected BigInteger getNonce() throws IOException {
+        if (nonceManager != null) {
+            return nonceManager.acquire(credentials.getAddress());
+        }
         EthGetTransactionCount ethGetTransactionCount = web3j.ethGetTransactionCount(
                 credentials.getAddress(), DefaultBlockParameterName.PENDING).send();
 
@@ -87,6 +105,20 @@ public class RawTransactionManager extends TransactionManager {
         this.txHashVerifier = txHashVerifier;
     }
 
+    public NonceManager getNonceManager() {
+        return nonceManager;
+    }
+
+    /**
+     * Allocate nonces from a shared {@link NonceManager} instead of querying the node for
+     * every transaction.
+     *
+     * @param nonceManager nonce allocator, or null to query the node
+     */
+    public void setNonceManager(NonceManager nonceManager) {
+        this.nonceManager = nonceManager;
+    }
+
     @Override
     public EthSendTransaction sendTransaction(
             BigInteger gasPrice, BigInteger gasLimit, String to,
@@ -103,7 +135,29 @@ public class RawTransactionManager extends TransactionManager {
                 data,
                 hasToken);
 
-        return signAndSend(rawTransaction);
+        if (nonceManager == null) {
+            return signAndSend(rawTransaction);
+        }
+
+        String address = credentials.getAddress();
+        EthSendTransaction ethSendTransaction;
+        try {
+            ethSendTransaction = signAndSend(rawTransaction);
+        } catch (IOException | RuntimeException e) {
+            // the transaction may have reached the node
+            nonceManager.confirm(address, nonce);
+            nonceManager.invalidate(address);
+            throw e;
+        }
+        if (ethSendTransaction == null || !ethSendTransaction.hasError()) {
+            nonceManager.confirm(address, nonce);
+        } else if (NonceManager.isNonceUsed(ethSendTransaction.getError().getMessage())) {
+            nonceManager.confirm(address, nonce);
+            nonceManager.invalidate(address);
+        } else {
+            nonceManager.release(address, nonce);
+        }
+        return ethSendTransaction;
     }
 
     /*
@@ -138,4 +192,242 @@ public class RawTransactionManager extends TransactionManager {
 
         return ethSendTransaction;
     }
+
+    /**
+     * Send many transactions from this account without waiting for each round trip.
+     *
+     * <p>Nonces are allocated in the order of {@code transactions}, whose own nonces are
+     * ignored, from the {@link #setNonceManager(NonceManager) nonce manager}, which has to be
+     * shared by all senders of the account. Transactions are signed in parallel on
+     * {@code signingExecutor} and submitted in nonce order, {@code batchSize} per JSON-RPC
+     * batch, one batch at a time.</p>
+     *
+     * <p>If a transaction cannot be signed or is rejected by the node, its nonce is released to
+     * the nonce manager, which hands it out again before any new nonce. The following
+     * transactions are not sent: their futures fail with a {@link TransactionException} and
+     * their nonces are released as well. Transactions of the same batch that the node already
+     * accepted stay pending until the released nonce is used by a later transaction.</p>
+     *
+     * <p>If a batch fails, whether its transactions reached the node is unknown, their futures
+     * fail and the account is resynchronised before its next nonce is allocated. A failed batch
+     * does not hold back the following ones.</p>
+     *
+     * <p>If a nonce cannot be allocated after the first one, the transactions allocated so far
+     * are still submitted and the returned list ends with a transaction without nonce whose
+     * hash future fails with the {@link IOException}; the remaining templates are not sent.</p>
+     *
+     * @param transactions    transaction templates
+     * @param signingExecutor executor signing the transactions
+     * @param batchSize       number of transactions per batch
+     * @return pending transactions, in the order of {@code transactions}
+     * @throws IOException if the transaction count of the account cannot be retrieved for the
+     *                     first transaction
+     * @throws IllegalStateException if no nonce manager is set
+     */
+    public List<PendingTransaction> sendTransactions(
+            Iterable<RawTransaction> transactions, Executor signingExecutor, int batchSize)
+            throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        NonceManager nonces = nonceManager;
+        if (nonces == null) {
+            // released nonces have to be reused by the account's next transaction
+            throw new IllegalStateException(
+                    "sendTransactions requires a shared NonceManager, see setNonceManager");
+        }
+        String address = credentials.getAddress();
+        // first nonce released by this call, the transactions after it are not sent
+        AtomicReference<BigInteger> released = new AtomicReference<>();
+
+        List<PendingTransaction> pendingTransactions = new ArrayList<>();
+        List<PendingTransaction> batch = new ArrayList<>(batchSize);
+        List<CompletableFuture<String>> signed = new ArrayList<>(batchSize);
+        CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+        for (RawTransaction template : transactions) {
+            BigInteger nonce;
+            try {
+                nonce = nonces.acquire(address);
+            } catch (IOException e) {
+                if (pendingTransactions.isEmpty()) {
+                    throw e;
+                }
+                PendingTransaction failed = new PendingTransaction(null, this::receiptFor);
+                failed.getTransactionHash().completeExceptionally(e);
+                pendingTransactions.add(failed);
+                break;
+            }
+            RawTransaction rawTransaction = RawTransaction.createTransaction(
+                    nonce,
+                    template.getGasPrice(),
+                    template.getGasLimit(),
+                    template.getTo(),
+                    template.getValue(),
+                    template.getData(),
+                    template.getHasToken());
+            PendingTransaction pendingTransaction =
+                    new PendingTransaction(nonce, this::receiptFor);
+            pendingTransactions.add(pendingTransaction);
+            batch.add(pendingTransaction);
+            signed.add(signAsync(rawTransaction, signingExecutor));
+
+            if (batch.size() == batchSize) {
+                previous = submitBatch(previous, nonces, released, batch, signed);
+                batch = new ArrayList<>(batchSize);
+                signed = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submitBatch(previous, nonces, released, batch, signed);
+        }
+        return pendingTransactions;
+    }
+
+    private CompletableFuture<String> signAsync(RawTransaction rawTransaction, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(() -> sign(rawTransaction), executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+    }
+
+    /**
+     * @return future of the batch, completed normally once all its transactions are complete
+     */
+    private CompletableFuture<Void> submitBatch(
+            CompletableFuture<Void> previous, NonceManager nonces,
+            AtomicReference<BigInteger> released, List<PendingTransaction> batch,
+            List<CompletableFuture<String>> signed) {
+        CompletableFuture<Void> allSigned = CompletableFuture.allOf(
+                signed.toArray(new CompletableFuture<?>[0]));
+        return previous.thenCombine(allSigned.handle((v, e) -> null), (v, w) -> null)
+                .thenCompose(v -> sendBatch(nonces, released, batch, signed))
+                .handle((v, e) -> {
+                    if (e != null) {
+                        fail(nonces, batch, e instanceof CompletionException ? e.getCause() : e);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Fail the transactions of a batch left incomplete by an unexpected error, whether they
+     * reached the node is unknown.
+     */
+    private void fail(NonceManager nonces, List<PendingTransaction> batch, Throwable error) {
+        String address = credentials.getAddress();
+        nonces.invalidate(address);
+        for (PendingTransaction pendingTransaction : batch) {
+            if (!pendingTransaction.getTransactionHash().isDone()) {
+                nonces.confirm(address, pendingTransaction.getNonce());
+                pendingTransaction.getTransactionHash().completeExceptionally(error);
+            }
+        }
+    }
+
+    private CompletableFuture<Void> sendBatch(
+            NonceManager nonces, AtomicReference<BigInteger> released,
+            List<PendingTransaction> batch, List<CompletableFuture<String>> signed) {
+        String address = credentials.getAddress();
+        List<PendingTransaction> sent = new ArrayList<>(batch.size());
+        List<String> hexValues = new ArrayList<>(batch.size());
+        BatchRequest batchRequest = web3j.newBatch();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingTransaction pendingTransaction = batch.get(i);
+            if (released.get() != null) {
+                skip(nonces, released.get(), pendingTransaction);
+                continue;
+            }
+            String hexValue;
+            try {
+                hexValue = signed.get(i).join();
+            } catch (RuntimeException e) {
+                nonces.release(address, pendingTransaction.getNonce());
+                released.compareAndSet(null, pendingTransaction.getNonce());
+                pendingTransaction.getTransactionHash().completeExceptionally(
+                        e.getCause() != null ? e.getCause() : e);
+                continue;
+            }
+            sent.add(pendingTransaction);
+            hexValues.add(hexValue);
+            batchRequest.add(web3j.ethSendRawTransaction(hexValue));
+        }
+        if (sent.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return batchRequest.sendAsync().handle((response, error) -> {
+            if (error != null) {
+                nonces.invalidate(address);
+            }
+            for (int i = 0; i < sent.size(); i++) {
+                PendingTransaction pendingTransaction = sent.get(i);
+                if (error != null) {
+                    nonces.confirm(address, pendingTransaction.getNonce());
+                    pendingTransaction.getTransactionHash().completeExceptionally(error);
+                } else {
+                    complete(nonces, released, pendingTransaction, hexValues.get(i),
+                            response.getResponse(i, EthSendTransaction.class));
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Release the nonce of a transaction that is not sent because an earlier one was not
+     * accepted.
+     */
+    private void skip(
+            NonceManager nonces, BigInteger releasedNonce, PendingTransaction pendingTransaction) {
+        nonces.release(credentials.getAddress(), pendingTransaction.getNonce());
+        pendingTransaction.getTransactionHash().completeExceptionally(new TransactionException(
+                "Transaction not sent, the transaction with nonce " + releasedNonce
+                        + " was not accepted"));
+    }
+
+    private void complete(
+            NonceManager nonces, AtomicReference<BigInteger> released,
+            PendingTransaction pendingTransaction, String hexValue,
+            EthSendTransaction ethSendTransaction) {
+        String address = credentials.getAddress();
+        BigInteger nonce = pendingTransaction.getNonce();
+        String txHashLocal = Hash.sha3(hexValue);
+        if (ethSendTransaction == null) {
+            nonces.confirm(address, nonce);
+            nonces.invalidate(address);
+            pendingTransaction.getTransactionHash().completeExceptionally(new TransactionException(
+                    "No response for transaction", txHashLocal));
+        } else if (ethSendTransaction.hasError()) {
+            String message = ethSendTransaction.getError().getMessage();
+            if (NonceManager.isNonceUsed(message)) {
+                nonces.confirm(address, nonce);
+                nonces.invalidate(address);
+            } else {
+                nonces.release(address, nonce);
+                released.compareAndSet(null, nonce);
+            }
+            pendingTransaction.getTransactionHash().completeExceptionally(new TransactionException(
+                    "Error processing transaction request: " + message, txHashLocal));
+        } else {
+            nonces.confirm(address, nonce);
+            String txHashRemote = ethSendTransaction.getTransactionHash();
+            if (txHashVerifier.verify(txHashLocal, txHashRemote)) {
+                pendingTransaction.getTransactionHash().complete(txHashRemote);
+            } else {
+                pendingTransaction.getTransactionHash().completeExceptionally(
+                        new TxHashMismatchException(txHashLocal, txHashRemote));
+            }
+        }
+    }
+
+    private CompletableFuture<TransactionReceipt> receiptFor(String transactionHash) {
+        TransactionReceiptProcessor processor = getTransactionReceiptProcessor();
+        if (processor instanceof BlockTransactionReceiptProcessor) {
+            return ((BlockTransactionReceiptProcessor) processor).submit(transactionHash);
+        }
+        return Async.run(() -> processor.waitForTransactionReceipt(transactionHash));
+    }
 }
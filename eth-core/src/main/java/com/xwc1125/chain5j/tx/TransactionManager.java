@@ -59,6 +59,10 @@ public abstract class TransactionManager {
         return fromAddress;
     }
 
+    protected TransactionReceiptProcessor getTransactionReceiptProcessor() {
+        return transactionReceiptProcessor;
+    }
+
     private TransactionReceipt processResponse(EthSendTransaction transactionResponse)
             throws IOException, TransactionException {
         if (transactionResponse.hasError()) {
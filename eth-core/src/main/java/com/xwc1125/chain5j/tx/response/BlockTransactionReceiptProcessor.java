@@ -0,0 +1,320 @@
+package com.xwc1125.chain5j.tx.response;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
+import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterNumber;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlock;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthGetTransactionReceipt;
+import com.xwc1125.chain5j.protocol.core.methods.response.Transaction;
+import com.xwc1125.chain5j.protocol.core.methods.response.TransactionReceipt;
+import com.xwc1125.chain5j.protocol.exceptions.TransactionException;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Transaction receipt processor driven by new blocks instead of polling every pending
+ * transaction hash.</p>
+ *
+ * <p>For each new block the processor fetches the block's transaction hashes and requests
+ * the receipts of the pending transactions it contains, in a single batch. The number of
+ * requests therefore grows with the number of blocks, not with the number of pending
+ * transactions. Blocks skipped by the block source are fetched by number, up to
+ * {@code maxBlockGap} of them.</p>
+ *
+ * <p>{@link #submit(String)} returns a future completed with the receipt,
+ * {@link #waitForTransactionReceipt(String)} blocks on it. The receipt of a newly submitted
+ * transaction is requested once right away, so transactions mined before they were submitted
+ * complete without waiting for a block. A transaction without a receipt after
+ * {@code blocksToWait} blocks fails with a {@link TransactionException}, also if it was seen in
+ * a block that was later reorged out. All pending transactions fail if the block source
+ * fails.</p>
+ *
+ * <p>New blocks are only followed once {@link #start()} is called.</p>
+ */
+public class BlockTransactionReceiptProcessor extends TransactionReceiptProcessor {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BlockTransactionReceiptProcessor.class);
+
+    public static final int DEFAULT_BLOCKS_TO_WAIT = 50;
+    public static final int DEFAULT_MAX_BLOCK_GAP = 64;
+
+    private final Web3j web3j;
+    private final int blocksToWait;
+    private final int maxBlockGap;
+    private final Flowable<String> blockHashes;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    private Disposable subscription;
+
+    private BigInteger lastBlockNumber;
+    private volatile Throwable failure;
+
+    /**
+     * Follow new blocks with a block filter, see {@link Web3j#ethBlockHashFlowable()}.
+     *
+     * @param web3j client
+     */
+    public BlockTransactionReceiptProcessor(Web3j web3j) {
+        this(web3j, web3j.ethBlockHashFlowable(), DEFAULT_BLOCKS_TO_WAIT, DEFAULT_MAX_BLOCK_GAP);
+    }
+
+    /**
+     * @param web3j        client
+     * @param blockHashes  hashes of new blocks, e.g. {@link #newHeads(Web3j)}
+     * @param blocksToWait number of blocks a transaction may take to be included
+     * @param maxBlockGap  maximum number of skipped blocks fetched by number
+     */
+    public BlockTransactionReceiptProcessor(
+            Web3j web3j, Flowable<String> blockHashes, int blocksToWait, int maxBlockGap) {
+        super(web3j);
+        this.web3j = web3j;
+        this.blocksToWait = blocksToWait;
+        this.maxBlockGap = maxBlockGap;
+        this.blockHashes = blockHashes;
+    }
+
+    /**
+     * Start following new blocks, does nothing if already started.
+     *
+     * @return this processor
+     */
+    public synchronized BlockTransactionReceiptProcessor start() {
+        if (subscription == null) {
+            subscription = blockHashes.subscribe(this::onBlock, this::onError);
+        }
+        return this;
+    }
+
+    /**
+     * Hashes of new blocks from WebSocket {@code newHeads} notifications.
+     *
+     * @param web3j client connected through a WebSocket service
+     * @return block hashes
+     */
+    public static Flowable<String> newHeads(Web3j web3j) {
+        return web3j.newHeadsNotifications()
+                .map(notification -> notification.getParams().getResult().getHash());
+    }
+
+    /**
+     * Track a transaction until it is included in a block.
+     *
+     * @param transactionHash hash of a submitted transaction
+     * @return future completed with the transaction receipt
+     */
+    public CompletableFuture<TransactionReceipt> submit(String transactionHash) {
+        Pending entry = new Pending(transactionHash);
+        Pending existing = pending.putIfAbsent(key(transactionHash), entry);
+        if (existing != null) {
+            return existing.future;
+        }
+        Throwable error = failure;
+        if (error != null) {
+            complete(entry, null, new TransactionException(error));
+        } else {
+            checkReceipt(entry);
+        }
+        return entry.future;
+    }
+
+    @Override
+    public TransactionReceipt waitForTransactionReceipt(String transactionHash)
+            throws IOException, TransactionException {
+        try {
+            return submit(transactionHash).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransactionException) {
+                throw (TransactionException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new TransactionException(cause);
+        }
+    }
+
+    /**
+     * @return number of transactions waiting for their receipt
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop following new blocks, pending transactions fail.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (subscription != null) {
+                subscription.dispose();
+            }
+        }
+        for (Pending entry : pending.values()) {
+            complete(entry, null, new TransactionException(
+                    "Receipt processor shut down", entry.transactionHash));
+        }
+    }
+
+    void onError(Throwable error) {
+        log.error("Block source failed", error);
+        failure = error;
+        for (Pending entry : pending.values()) {
+            complete(entry, null, new TransactionException(error));
+        }
+    }
+
+    void onBlock(String blockHash) {
+        if (pending.isEmpty()) {
+            lastBlockNumber = null;
+            return;
+        }
+        try {
+            EthBlock.Block block = web3j.ethGetBlockByHash(blockHash, false).send().getBlock();
+            if (block == null) {
+                return;
+            }
+            BigInteger number = block.getNumber();
+            if (lastBlockNumber != null) {
+                BigInteger first = lastBlockNumber.add(BigInteger.ONE)
+                        .max(number.subtract(BigInteger.valueOf(maxBlockGap)));
+                for (BigInteger i = first; i.compareTo(number) < 0; i = i.add(BigInteger.ONE)) {
+                    EthBlock.Block skipped = web3j.ethGetBlockByNumber(
+                            new DefaultBlockParameterNumber(i), false).send().getBlock();
+                    if (skipped != null) {
+                        markIncluded(skipped);
+                    }
+                }
+            }
+            if (lastBlockNumber == null || number.compareTo(lastBlockNumber) > 0) {
+                lastBlockNumber = number;
+            }
+            markIncluded(block);
+            fetchReceipts();
+        } catch (IOException | RuntimeException e) {
+            // included transactions are retried with the next block
+            log.warn("Failed to process block {}", blockHash, e);
+        }
+        expire();
+    }
+
+    private void checkReceipt(Pending entry) {
+        web3j.ethGetTransactionReceipt(entry.transactionHash).sendAsync()
+                .whenComplete((receipt, e) -> {
+                    if (e != null) {
+                        // the receipt is fetched again once the transaction is in a block
+                        log.warn("Failed to check receipt of {}", entry.transactionHash, e);
+                    } else if (receipt.hasError()) {
+                        complete(entry, null, new TransactionException(
+                                "Error processing request: " + receipt.getError().getMessage(),
+                                entry.transactionHash));
+                    } else if (receipt.getTransactionReceipt().isPresent()) {
+                        complete(entry, receipt.getTransactionReceipt().get(), null);
+                    }
+                });
+    }
+
+    private void markIncluded(EthBlock.Block block) {
+        List<EthBlock.TransactionResult> transactions = block.getTransactions();
+        if (transactions == null) {
+            return;
+        }
+        for (EthBlock.TransactionResult<?> transaction : transactions) {
+            Object value = transaction.get();
+            String hash = value instanceof Transaction
+                    ? ((Transaction) value).getHash() : (String) value;
+            Pending entry = pending.get(key(hash));
+            if (entry != null) {
+                entry.included = true;
+            }
+        }
+    }
+
+    private void fetchReceipts() throws IOException {
+        List<Pending> included = new ArrayList<>();
+        BatchRequest batch = web3j.newBatch();
+        for (Pending entry : pending.values()) {
+            if (entry.included) {
+                included.add(entry);
+                batch.add(web3j.ethGetTransactionReceipt(entry.transactionHash));
+            }
+        }
+        if (included.isEmpty()) {
+            return;
+        }
+
+        BatchResponse response = batch.send();
+        for (int i = 0; i < included.size(); i++) {
+            Pending entry = included.get(i);
+            EthGetTransactionReceipt receipt =
+                    response.getResponse(i, EthGetTransactionReceipt.class);
+            if (receipt == null) {
+                continue;
+            }
+            if (receipt.hasError()) {
+                complete(entry, null, new TransactionException("Error processing request: "
+                        + receipt.getError().getMessage(), entry.transactionHash));
+            } else if (receipt.getTransactionReceipt().isPresent()) {
+                complete(entry, receipt.getTransactionReceipt().get(), null);
+            } else {
+                // reorged out or dropped, requested again once seen in another block
+                entry.included = false;
+            }
+        }
+    }
+
+    private void expire() {
+        Iterator<Pending> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            Pending entry = iterator.next();
+            if (++entry.blocks > blocksToWait) {
+                iterator.remove();
+                entry.future.completeExceptionally(new TransactionException(
+                        "No transaction receipt for txHash: " + entry.transactionHash
+                                + " received after " + blocksToWait + " blocks",
+                        entry.transactionHash));
+            }
+        }
+    }
+
+    private void complete(Pending entry, TransactionReceipt receipt, Throwable error) {
+        pending.remove(key(entry.transactionHash), entry);
+        if (error != null) {
+            entry.future.completeExceptionally(error);
+        } else {
+            entry.future.complete(receipt);
+        }
+    }
+
+    private static String key(String transactionHash) {
+        return transactionHash == null ? "" : transactionHash.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Pending {
+        private final String transactionHash;
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        private volatile boolean included;
+        private int blocks;
+
+        Pending(String transactionHash) {
+            this.transactionHash = transactionHash;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.xwc1125.chain5j.engine;
+
+import com.xwc1125.chain5j.abi.EventEncoder;
+import com.xwc1125.chain5j.abi.EventValues;
+import com.xwc1125.chain5j.abi.TypeEncoder;
+import com.xwc1125.chain5j.abi.TypeReference;
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.Event;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.engine.abi.DecodedEvent;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.protocol.core.methods.response.TransactionReceipt;
+import com.xwc1125.chain5j.tx.Contract;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EventEngineTest {
+
+    private static final Event TRANSFER = new Event("Transfer", Arrays.<TypeReference<?>>asList(
+            new TypeReference<Address>(true) { }, new TypeReference<Address>(true) { },
+            new TypeReference<Uint256>() { }));
+
+    private static final Event MEMO = new Event("Memo", Arrays.<TypeReference<?>>asList(
+            new TypeReference<Uint256>(true) { }, new TypeReference<Utf8String>() { }));
+
+    @Test
+    public void testDecodeInOrder() {
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            switch (i % 3) {
+                case 0:
+                    logs.add(log(EventEncoder.encode(TRANSFER),
+                            Arrays.asList(topic(new Address(BigInteger.valueOf(i))),
+                                    topic(new Address(BigInteger.ONE))),
+                            TypeEncoder.encode(new Uint256(BigInteger.valueOf(i)))));
+                    break;
+                case 1:
+                    logs.add(log(EventEncoder.encode(MEMO),
+                            Collections.singletonList(topic(new Uint256(BigInteger.valueOf(i)))),
+                            "0000000000000000000000000000000000000000000000000000000000000020"
+                                    + TypeEncoder.encode(new Utf8String("memo " + i))));
+                    break;
+                default:
+                    // not registered
+                    logs.add(log("0x" + TypeEncoder.encode(new Uint256(BigInteger.valueOf(i))),
+                            Collections.<String>emptyList(), ""));
+            }
+        }
+
+        EventEngine engine = EventEngine.of(TRANSFER, MEMO).chunkSize(16);
+        List<DecodedEvent> decoded = engine.decode(logs);
+        assertEquals(667, decoded.size());
+
+        int index = 0;
+        for (Log log : logs) {
+            Event event = log.getTopics().get(0).equals(EventEncoder.encode(TRANSFER))
+                    ? TRANSFER
+                    : log.getTopics().get(0).equals(EventEncoder.encode(MEMO)) ? MEMO : null;
+            if (event == null) {
+                continue;
+            }
+            DecodedEvent result = decoded.get(index++);
+            EventValues expected = Contract.staticExtractEventParameters(event, log);
+            assertSame(log, result.getLog());
+            assertEquals(event.getName(), result.getName());
+            assertEquals(expected.getIndexedValues(), result.getValues().getIndexedValues());
+            assertEquals(expected.getNonIndexedValues(), result.getValues().getNonIndexedValues());
+        }
+    }
+
+    @Test
+    public void testDecodeReceipts() {
+        Log log = log(EventEncoder.encode(TRANSFER),
+                Arrays.asList(topic(new Address(BigInteger.TEN)), topic(new Address(BigInteger.ONE))),
+                TypeEncoder.encode(new Uint256(BigInteger.valueOf(42))));
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setLogs(Arrays.asList(log, log));
+
+        List<DecodedEvent> decoded = EventEngine.of(TRANSFER)
+                .decodeReceipts(Arrays.asList(receipt, new TransactionReceipt(), receipt));
+        assertEquals(4, decoded.size());
+        assertEquals(BigInteger.valueOf(42),
+                decoded.get(3).getValues().getNonIndexedValues().get(0).getValue());
+    }
+
+    private static Log log(String topic0, List<String> topics, String data) {
+        Log log = new Log();
+        List<String> allTopics = new ArrayList<>();
+        allTopics.add(topic0);
+        allTopics.addAll(topics);
+        log.setTopics(allTopics);
+        log.setData("0x" + data);
+        return log;
+    }
+
+    private static String topic(com.xwc1125.chain5j.abi.datatypes.Type value) {
+        return "0x" + TypeEncoder.encode(value);
+    }
+}
@@ -0,0 +1,128 @@
+package com.xwc1125.chain5j.engine.abi;
+
+import com.xwc1125.chain5j.abi.EventEncoder;
+import com.xwc1125.chain5j.abi.EventValues;
+import com.xwc1125.chain5j.abi.FunctionEncoder;
+import com.xwc1125.chain5j.abi.FunctionInputDecoder;
+import com.xwc1125.chain5j.abi.TypeEncoder;
+import com.xwc1125.chain5j.abi.TypeReference;
+import com.xwc1125.chain5j.abi.datatypes.Address;
+import com.xwc1125.chain5j.abi.datatypes.DynamicArray;
+import com.xwc1125.chain5j.abi.datatypes.Event;
+import com.xwc1125.chain5j.abi.datatypes.Function;
+import com.xwc1125.chain5j.abi.datatypes.Type;
+import com.xwc1125.chain5j.abi.datatypes.Utf8String;
+import com.xwc1125.chain5j.abi.datatypes.generated.StaticArray2;
+import com.xwc1125.chain5j.abi.datatypes.generated.Uint256;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.tx.Contract;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class AbiRegistryTest {
+
+    private static final String ERC20 = "["
+            + "{\"type\":\"function\",\"name\":\"transfer\",\"stateMutability\":\"nonpayable\","
+            + "\"inputs\":[{\"name\":\"to\",\"type\":\"address\"},{\"name\":\"value\",\"type\":\"uint256\"}],"
+            + "\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}]},"
+            + "{\"type\":\"function\",\"name\":\"batch\",\"stateMutability\":\"nonpayable\","
+            + "\"inputs\":[{\"name\":\"to\",\"type\":\"address[]\"},{\"name\":\"values\",\"type\":\"uint256[2]\"},"
+            + "{\"name\":\"memo\",\"type\":\"string\"}],\"outputs\":[]},"
+            + "{\"type\":\"event\",\"name\":\"Transfer\",\"anonymous\":false,"
+            + "\"inputs\":[{\"name\":\"from\",\"type\":\"address\",\"indexed\":true},"
+            + "{\"name\":\"to\",\"type\":\"address\",\"indexed\":true},"
+            + "{\"name\":\"value\",\"type\":\"uint256\",\"indexed\":false}]}]";
+
+    private static final String ERC721 = "["
+            + "{\"type\":\"event\",\"name\":\"Transfer\",\"anonymous\":false,"
+            + "\"inputs\":[{\"name\":\"from\",\"type\":\"address\",\"indexed\":true},"
+            + "{\"name\":\"to\",\"type\":\"address\",\"indexed\":true},"
+            + "{\"name\":\"tokenId\",\"type\":\"uint256\",\"indexed\":true}]},"
+            + "{\"type\":\"function\",\"name\":\"transfer\",\"stateMutability\":\"nonpayable\","
+            + "\"inputs\":[{\"name\":\"to\",\"type\":\"address\"},{\"name\":\"value\",\"type\":\"uint256\"}],"
+            + "\"outputs\":[]}]";
+
+    private static final Address FROM = new Address("0x0e623b82da9cc274e82669491d2b68df1d1efbee");
+    private static final Address TO = new Address("0x19e03255f667bdfd50a32722df860b1eeaf4d635");
+
+    @Test
+    public void testDecodeInput() throws Exception {
+        AbiRegistry registry = AbiRegistry.fromJson(ERC20, ERC721);
+        assertEquals(2, registry.getFunctions().size());
+
+        Function transfer = new Function("transfer",
+                Arrays.<Type>asList(TO, new Uint256(BigInteger.TEN.pow(21))),
+                Collections.<TypeReference<?>>emptyList());
+        String input = FunctionEncoder.encode(transfer);
+
+        FunctionInputDecoder.InputData expected = FunctionInputDecoder.decode(input, "transfer",
+                Arrays.<TypeReference<?>>asList(
+                        new TypeReference<Address>() { }, new TypeReference<Uint256>() { }));
+        FunctionInputDecoder.InputData inputData = registry.decodeInput(input);
+        assertEquals(expected.getMethod(), inputData.getMethod());
+        assertEquals(expected.getInputParameters(), inputData.getInputParameters());
+
+        AbiRegistry.FunctionEntry function = registry.getFunction("0xa9059cbb");
+        assertEquals("0xa9059cbb", function.getMethodId());
+        assertEquals(1, function.getOutputParameters().size());
+        assertNull(registry.getFunction("0x12345678"));
+        assertNull(registry.decodeInput("0x12345678"));
+    }
+
+    @Test
+    public void testDecodeArrays() throws Exception {
+        AbiRegistry registry = AbiRegistry.fromJson(ERC20);
+        Function batch = new Function("batch",
+                Arrays.<Type>asList(new DynamicArray<>(FROM, TO),
+                        new StaticArray2<>(new Uint256(BigInteger.ONE), new Uint256(BigInteger.TEN)),
+                        new Utf8String("memo")),
+                Collections.<TypeReference<?>>emptyList());
+
+        FunctionInputDecoder.InputData inputData =
+                registry.decodeInput(FunctionEncoder.encode(batch));
+        assertEquals("batch(address[],uint256[2],string)", inputData.getMethod());
+        assertEquals(batch.getInputParameters(), inputData.getInputParameters());
+    }
+
+    @Test
+    public void testDecodeLog() throws Exception {
+        AbiRegistry registry = AbiRegistry.fromJson(ERC20, ERC721);
+        assertEquals(2, registry.getEvents().size());
+
+        Event erc20 = new Event("Transfer", Arrays.<TypeReference<?>>asList(
+                new TypeReference<Address>(true) { }, new TypeReference<Address>(true) { },
+                new TypeReference<Uint256>() { }));
+        String topic = EventEncoder.encode(erc20);
+        Log log = new Log();
+        log.setTopics(Arrays.asList(topic,
+                "0x" + TypeEncoder.encode(FROM), "0x" + TypeEncoder.encode(TO)));
+        log.setData("0x" + TypeEncoder.encode(new Uint256(BigInteger.valueOf(42))));
+
+        EventValues expected = Contract.staticExtractEventParameters(erc20, log);
+        DecodedEvent decoded = registry.decodeLog(log);
+        assertEquals("Transfer(address,address,uint256)", decoded.getEvent().getSignature());
+        assertEquals(expected.getIndexedValues(), decoded.getValues().getIndexedValues());
+        assertEquals(expected.getNonIndexedValues(), decoded.getValues().getNonIndexedValues());
+
+        // same topic, the token id is indexed
+        log.setTopics(Arrays.asList(topic.toUpperCase().replace("0X", "0x"),
+                "0x" + TypeEncoder.encode(FROM), "0x" + TypeEncoder.encode(TO),
+                "0x" + TypeEncoder.encode(new Uint256(BigInteger.valueOf(7)))));
+        log.setData("0x");
+        decoded = registry.decodeLog(log);
+        assertNotNull(decoded);
+        assertEquals(3, decoded.getValues().getIndexedValues().size());
+        assertEquals(BigInteger.valueOf(7), decoded.getValues().getIndexedValues().get(2).getValue());
+        assertEquals(0, decoded.getValues().getNonIndexedValues().size());
+
+        log.setTopics(Collections.singletonList(topic));
+        assertNull(registry.decodeLog(log));
+    }
+}
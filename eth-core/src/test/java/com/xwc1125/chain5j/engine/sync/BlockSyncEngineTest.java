@@ -1,11 +1,33 @@
 package com.xwc1125.chain5j.engine.sync;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.xwc1125.chain5j.engine.sync.vo.ChainBlockInfo;
 import com.xwc1125.chain5j.engine.sync.vo.ChainTransactionInfo;
+import com.xwc1125.chain5j.protocol.StubService;
 import com.xwc1125.chain5j.protocol.Web3j;
 import com.xwc1125.chain5j.protocol.http.HttpService;
+import com.xwc1125.chain5j.utils.Numeric;
+import org.junit.After;
+import org.junit.Test;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @Description:
@@ -15,6 +37,340 @@ import java.math.BigInteger;
  */
 public class BlockSyncEngineTest {
 
+    private static final int TRANSACTIONS_PER_BLOCK = 2;
+
+    private volatile long head = 20;
+    private volatile boolean unavailable;
+    // number of receipt batches still to fail
+    private final AtomicInteger receiptFailures = new AtomicInteger();
+
+    private final StubService service = new StubService(this::reply);
+    private final Web3j web3j = Web3j.build(service);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Store store = new Store();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testPipelinedSync() throws Exception {
+        BlockSyncEngine engine = engine().pipeline(4).maxBlocksPerTick(7);
+        store.expect(21);
+        engine.start(BigInteger.ZERO);
+        store.await();
+        engine.stop();
+
+        assertEquals(range(0, 20), store.savedNumbers());
+        for (ChainBlockInfo blockInfo : store.saved) {
+            List<ChainTransactionInfo> transactionInfos = blockInfo.getTransactionInfos();
+            assertEquals(TRANSACTIONS_PER_BLOCK, transactionInfos.size());
+            for (ChainTransactionInfo transactionInfo : transactionInfos) {
+                assertNotNull(transactionInfo.getTransactionReceiptInfo());
+                assertEquals(transactionInfo.getHash(),
+                        transactionInfo.getTransactionReceiptInfo().getTransactionHash());
+            }
+        }
+        // one batch of receipts per block
+        assertEquals(Collections.nCopies(21, TRANSACTIONS_PER_BLOCK), service.getBatchSizes());
+        assertEquals(21, engine.getMetrics().getBlocksSynced());
+        assertEquals(42, engine.getMetrics().getTransactionsSynced());
+    }
+
+    @Test
+    public void testPipelinedSyncRewindsOnFork() throws Exception {
+        for (long number = 0; number < 4; number++) {
+            store.put(block(number, hash(number)));
+        }
+        // block 4 was replaced by a reorg
+        store.put(block(4, hash(1000)));
+        BlockSyncEngine engine = engine().pipeline(4);
+        store.expect(17);
+        engine.start(BigInteger.valueOf(5));
+        store.await();
+        engine.stop();
+
+        assertEquals(range(4, 20), store.savedNumbers());
+        assertEquals(hash(4), store.saved.get(0).getHash());
+        assertEquals(Collections.singletonList(BigInteger.valueOf(4)), store.deleted);
+        assertEquals(1, engine.getMetrics().getForksDetected());
+    }
+
+    @Test
+    public void testSequentialSyncRewindsOnFork() throws Exception {
+        for (long number = 0; number < 4; number++) {
+            store.put(block(number, hash(number)));
+        }
+        // block 4 was replaced by a reorg
+        store.put(block(4, hash(1000)));
+        BlockSyncEngine engine = engine();
+        store.expect(17);
+        engine.start(BigInteger.valueOf(5));
+        store.await();
+        engine.stop();
+
+        assertEquals(range(4, 20), store.savedNumbers());
+        assertEquals(hash(4), store.saved.get(0).getHash());
+        assertEquals(Collections.singletonList(BigInteger.valueOf(4)), store.deleted);
+        assertEquals(1, engine.getMetrics().getForksDetected());
+    }
+
+    @Test
+    public void testReceiptBatchFailure() throws Exception {
+        receiptFailures.set(1);
+        BlockSyncEngine engine = engine().pipeline(4).retry(3, 10, 10);
+        store.expect(21);
+        engine.start(BigInteger.ZERO);
+        store.await();
+        engine.stop();
+
+        // the failed block is fetched again, nothing is skipped or saved twice
+        assertEquals(range(0, 20), store.savedNumbers());
+        assertEquals(1, engine.getMetrics().getFailures());
+        assertEquals(BlockSyncEngine.State.STOPPED, engine.getState());
+    }
+
+    @Test
+    public void testPipelineAfterStart() {
+        BlockSyncEngine engine = engine();
+        engine.start(BigInteger.ZERO);
+        try {
+            engine.pipeline(4);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    public void testPauseAndResume() throws Exception {
+        BlockSyncEngine engine = engine().maxBlocksPerTick(5);
+        store.expect(21);
+        engine.start(BigInteger.ZERO);
+        store.await();
+        engine.pause();
+        assertEquals(BlockSyncEngine.State.PAUSED, engine.getState());
+        // let a tick that started before the pause finish
+        Thread.sleep(50);
+
+        head = 25;
+        Thread.sleep(100);
+        assertEquals(21, store.saved.size());
+
+        store.expect(5);
+        engine.resume();
+        store.await();
+        engine.stop();
+        assertEquals(range(0, 25), store.savedNumbers());
+        assertEquals(BlockSyncEngine.State.STOPPED, engine.getState());
+    }
+
+    @Test
+    public void testSyncBlockReturnsOnStop() throws Exception {
+        BlockSyncEngine engine = engine();
+        store.expect(21);
+        Thread thread = new Thread(() -> engine.syncBlock(BigInteger.ZERO));
+        thread.start();
+        store.await();
+        assertTrue(thread.isAlive());
+
+        engine.stop();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertEquals(BlockSyncEngine.State.STOPPED, engine.getState());
+    }
+
+    @Test
+    public void testFailsAfterRetries() {
+        unavailable = true;
+        BlockSyncEngine engine = engine().retry(2, 10, 20);
+        // returns once the retries are exhausted
+        engine.syncBlock(BigInteger.ZERO);
+
+        assertEquals(BlockSyncEngine.State.FAILED, engine.getState());
+        assertEquals(3, engine.getMetrics().getFailures());
+        // the connection is checked again after every failure
+        assertEquals(3, Collections.frequency(service.getMethods(), "eth_protocolVersion"));
+        assertTrue(store.saved.isEmpty());
+    }
+
+    @Test
+    public void testRetryValidation() {
+        BlockSyncEngine engine = engine();
+        engine.retry(0, 10, 10);
+        for (long[] retry : new long[][]{{-1, 10, 10}, {1, 0, 10}, {1, 10, 5}}) {
+            try {
+                engine.retry((int) retry[0], retry[1], retry[2]);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            engine.pollInterval(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        BlockSyncEngine engine = engine();
+        BlockSyncMetrics metrics = engine.getMetrics();
+        assertEquals(-1, metrics.getBlocksBehind());
+
+        store.expect(16);
+        engine.start(BigInteger.valueOf(5));
+        store.await();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (metrics.getCurrentBlockNumber() != 21 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        engine.stop();
+
+        assertEquals(16, metrics.getBlocksSynced());
+        assertEquals(32, metrics.getTransactionsSynced());
+        assertEquals(0, metrics.getForksDetected());
+        assertEquals(0, metrics.getFailures());
+        assertEquals(21, metrics.getCurrentBlockNumber());
+        assertEquals(20, metrics.getChainBlockNumber());
+        assertEquals(0, metrics.getBlocksBehind());
+        assertTrue(metrics.getLastSyncTime() > 0);
+        assertEquals(BigInteger.valueOf(21), engine.getCurrentBlockNumber());
+    }
+
+    private BlockSyncEngine engine() {
+        return BlockSyncEngine.build(web3j, store, scheduler)
+                .subscribeFlowable(false)
+                .pollInterval(10);
+    }
+
+    private String reply(JsonNode request) throws IOException {
+        JsonNode params = request.get("params");
+        switch (request.get("method").asText()) {
+            case "eth_protocolVersion":
+                return StubService.result(request, "\"0x3f\"");
+            case "eth_blockNumber":
+                if (unavailable) {
+                    throw new IOException("node unavailable");
+                }
+                return StubService.result(request, "\"" + Numeric.encodeQuantity(BigInteger.valueOf(head)) + "\"");
+            case "eth_getBlockByNumber":
+                long number = Numeric.decodeQuantity(params.get(0).asText()).longValue();
+                return StubService.result(request, number > head ? "null" : blockJson(number));
+            case "eth_getTransactionReceipt":
+                if (receiptFailures.getAndDecrement() > 0) {
+                    throw new IOException("node unavailable");
+                }
+                String transactionHash = params.get(0).asText();
+                return StubService.result(request, "{\"transactionHash\":\"" + transactionHash
+                        + "\",\"blockNumber\":\"0x1\",\"status\":\"0x1\",\"logs\":[]}");
+            default:
+                return StubService.error(request, -32601, "method not found");
+        }
+    }
+
+    private static String blockJson(long number) {
+        StringBuilder transactions = new StringBuilder();
+        for (int i = 0; i < TRANSACTIONS_PER_BLOCK; i++) {
+            transactions.append(i > 0 ? "," : "")
+                    .append("{\"hash\":\"").append(transactionHash(number, i))
+                    .append("\",\"blockHash\":\"").append(hash(number))
+                    .append("\",\"blockNumber\":\"").append(quantity(number))
+                    .append("\",\"nonce\":\"").append(quantity(i))
+                    .append("\",\"value\":\"0x1\",\"gas\":\"0x5208\",\"gasPrice\":\"0x1\"}");
+        }
+        return "{\"number\":\"" + quantity(number)
+                + "\",\"hash\":\"" + hash(number)
+                + "\",\"parentHash\":\"" + hash(number - 1)
+                + "\",\"timestamp\":\"" + quantity(1560000000 + number)
+                + "\",\"transactions\":[" + transactions + "],\"uncles\":[]}";
+    }
+
+    private static ChainBlockInfo block(long number, String hash) {
+        ChainBlockInfo blockInfo = new ChainBlockInfo();
+        blockInfo.setNumber(quantity(number));
+        blockInfo.setHash(hash);
+        return blockInfo;
+    }
+
+    private static String hash(long number) {
+        return String.format("0x%064x", number);
+    }
+
+    private static String transactionHash(long number, int index) {
+        return String.format("0x%062x%02x", number, index);
+    }
+
+    private static String quantity(long value) {
+        return Numeric.encodeQuantity(BigInteger.valueOf(value));
+    }
+
+    private static List<BigInteger> range(long from, long to) {
+        List<BigInteger> numbers = new ArrayList<>();
+        for (long number = from; number <= to; number++) {
+            numbers.add(BigInteger.valueOf(number));
+        }
+        return numbers;
+    }
+
+    /**
+     * Block store of the application, counting down a latch for each block saved.
+     */
+    private static class Store extends BlockSyncCallback {
+        private final Map<BigInteger, ChainBlockInfo> blocks = new ConcurrentHashMap<>();
+        private final List<ChainBlockInfo> saved = Collections.synchronizedList(new ArrayList<>());
+        private final List<BigInteger> deleted = Collections.synchronizedList(new ArrayList<>());
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+
+        void put(ChainBlockInfo blockInfo) {
+            blocks.put(blockInfo.getNumber(), blockInfo);
+        }
+
+        void expect(int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+
+        List<BigInteger> savedNumbers() {
+            List<BigInteger> numbers = new ArrayList<>();
+            synchronized (saved) {
+                saved.forEach(blockInfo -> numbers.add(blockInfo.getNumber()));
+            }
+            return numbers;
+        }
+
+        @Override
+        public void saveBlock(ChainBlockInfo blockInfo) {
+            put(blockInfo);
+            saved.add(blockInfo);
+            latch.countDown();
+        }
+
+        @Override
+        public void deleteBlockByNumber(BigInteger currentBlockNumber) {
+            blocks.remove(currentBlockNumber);
+            deleted.add(currentBlockNumber);
+        }
+
+        @Override
+        public ChainBlockInfo findBlockByNumber(BigInteger number) {
+            return blocks.get(number);
+        }
+
+        @Override
+        public void logException(Exception e) {
+        }
+    }
+
     public static void main(String[] args) {
         BlockSyncEngine bulid = BlockSyncEngine.bulid(Web3j.build(new HttpService("http://127.0.0.1:8545")), new BlockSyncCallback() {
             @Override
@@ -0,0 +1,116 @@
+package com.xwc1125.chain5j.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import com.xwc1125.chain5j.protocol.core.Request;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlock;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthLog;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.protocol.exceptions.ResponseErrorException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResponseStreamTest {
+
+    private static final String LOGS = "{\"jsonrpc\":\"2.0\",\"id\":7,\"result\":["
+            + "{\"logIndex\":\"0x1\",\"blockNumber\":\"0x1b4\",\"data\":\"0x01\","
+            + "\"topics\":[\"0x59ebeb90bc63057b6515673c3ecf9438e5058bca0f92585014eced636878c9a5\"]},"
+            + "{\"logIndex\":\"0x2\",\"blockNumber\":\"0x1b5\",\"data\":\"0x02\",\"topics\":[]}]}";
+
+    private static final String BLOCK = "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{"
+            + "\"hash\":\"0x01\",\"number\":\"0x1b4\",\"transactions\":["
+            + "{\"hash\":\"0x0a\",\"nonce\":\"0x15\",\"gas\":\"0x7f110\"},"
+            + "{\"hash\":\"0x0b\",\"nonce\":\"0x16\",\"gas\":\"0x7f110\"}],"
+            + "\"transactionsRoot\":\"0x02\",\"uncles\":[\"0x03\"]}}";
+
+    @Test
+    public void testArrayResult() throws IOException {
+        ResponseStream<Log> stream = stream(LOGS, null, Log.class);
+        assertEquals(7, stream.getId());
+
+        assertTrue(stream.hasNext());
+        Log log = stream.next();
+        assertEquals(436, log.getBlockNumber().longValue());
+        assertEquals(1, log.getTopics().size());
+        assertEquals("0x02", stream.next().getData());
+        assertFalse(stream.hasNext());
+        assertEquals(0, stream.getResult().size());
+    }
+
+    @Test
+    public void testArrayField() throws IOException {
+        ResponseStream<EthBlock.TransactionObject> stream =
+                stream(BLOCK, "transactions", EthBlock.TransactionObject.class);
+
+        assertEquals("0x01", stream.getResult().get("hash").asText());
+        assertEquals(21, stream.next().getNonce().longValue());
+        assertEquals("0x0b", stream.next().getHash());
+        assertFalse(stream.hasNext());
+
+        EthBlock.Block header = stream.getResult(EthBlock.Block.class);
+        assertEquals(436, header.getNumber().longValue());
+        assertEquals("0x02", header.getTransactionsRoot());
+        assertEquals(Collections.singletonList("0x03"), header.getUncles());
+        assertNull(header.getTransactions());
+    }
+
+    @Test
+    public void testNullResult() throws IOException {
+        ResponseStream<EthBlock.TransactionObject> stream = stream(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":null}",
+                "transactions", EthBlock.TransactionObject.class);
+        assertFalse(stream.hasNext());
+    }
+
+    @Test
+    public void testError() throws IOException {
+        try {
+            stream("{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":"
+                    + "{\"code\":-32005,\"message\":\"query returned more than 10000 results\"}}",
+                    null, Log.class);
+            fail();
+        } catch (ResponseErrorException e) {
+            assertEquals(-32005, e.getError().getCode());
+        }
+    }
+
+    @Test
+    public void testFlowable() {
+        Service service = new Service(false) {
+            @Override
+            protected InputStream performIO(String payload) {
+                return new ByteArrayInputStream(LOGS.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Request<?, EthLog> request = new Request<>(
+                "eth_getLogs", Collections.emptyList(), service, EthLog.class);
+
+        List<Log> logs = service.stream(request, null, Log.class).toList().blockingGet();
+        assertEquals(2, logs.size());
+        assertEquals(2, logs.get(1).getLogIndex().longValue());
+
+        assertEquals(1L, (long) service.stream(request, null, Log.class)
+                .take(1).count().blockingGet());
+    }
+
+    private static <T> ResponseStream<T> stream(
+            String response, String arrayField, Class<T> type) throws IOException {
+        return new ResponseStream<>(ObjectMapperFactory.getObjectMapper(),
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)),
+                arrayField, type);
+    }
+}
@@ -0,0 +1,99 @@
+package com.xwc1125.chain5j.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * In-memory node for tests. Every request, or every request of a batch, is answered by a
+ * {@link Handler}; the replies to a batch are returned in reverse order so that they have to
+ * be matched to their requests by id.
+ */
+public class StubService extends Service {
+
+    /**
+     * Answers a single JSON-RPC request.
+     */
+    public interface Handler {
+        /**
+         * @param request JSON-RPC request
+         * @return JSON-RPC reply, see {@link #result(JsonNode, String)} and
+         *     {@link #error(JsonNode, int, String)}
+         * @throws IOException to fail the whole HTTP request
+         */
+        String reply(JsonNode request) throws IOException;
+    }
+
+    private final Handler handler;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> methods = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    public StubService(Handler handler) {
+        super(false);
+        this.handler = handler;
+    }
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        requests.incrementAndGet();
+        JsonNode request = objectMapper.readTree(payload);
+        String response;
+        if (request.isArray()) {
+            batchSizes.add(request.size());
+            for (JsonNode element : request) {
+                methods.add(element.get("method").asText());
+            }
+            StringBuilder replies = new StringBuilder("[");
+            for (int i = request.size() - 1; i >= 0; i--) {
+                replies.append(handler.reply(request.get(i))).append(i > 0 ? "," : "");
+            }
+            response = replies.append("]").toString();
+        } else {
+            methods.add(request.get("method").asText());
+            response = handler.reply(request);
+        }
+        return new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return number of HTTP requests, a batch counting as one
+     */
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return methods of all requests received, including those of batches
+     */
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @return sizes of the batches received
+     */
+    public List<Integer> getBatchSizes() {
+        return batchSizes;
+    }
+
+    public static String result(JsonNode request, String result) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + request.get("id").asLong()
+                + ",\"result\":" + result + "}";
+    }
+
+    public static String error(JsonNode request, int code, String message) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + request.get("id").asLong()
+                + ",\"error\":{\"code\":" + code + ",\"message\":\"" + message + "\"}}";
+    }
+}
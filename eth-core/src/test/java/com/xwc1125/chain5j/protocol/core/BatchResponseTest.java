@@ -0,0 +1,61 @@
+package com.xwc1125.chain5j.protocol.core;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xwc1125.chain5j.protocol.ObjectMapperFactory;
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlockNumber;
+import com.xwc1125.chain5j.protocol.core.methods.response.NetVersion;
+import com.xwc1125.chain5j.protocol.http.HttpService;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BatchResponseTest {
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final Web3j web3j = Web3j.build(new HttpService());
+
+    @Test
+    public void testRepliesAreMatchedById() throws IOException {
+        BatchRequest batch = web3j.newBatch()
+                .add(web3j.ethBlockNumber())
+                .add(web3j.netVersion());
+        long blockNumberId = batch.getRequests().get(0).getId();
+        long netVersionId = batch.getRequests().get(1).getId();
+
+        JsonNode replies = objectMapper.readTree(
+                "[{\"jsonrpc\":\"2.0\",\"id\":" + netVersionId + ",\"result\":\"1\"},"
+                        + "{\"jsonrpc\":\"2.0\",\"id\":" + blockNumberId + ",\"result\":\"0x10\"}]");
+
+        BatchResponse response = BatchResponse.fromReplies(
+                objectMapper, batch.getRequests(), replies);
+
+        assertEquals(BigInteger.valueOf(16),
+                response.getResponse(0, EthBlockNumber.class).getBlockNumber());
+        assertEquals("1", response.getResponse(1, NetVersion.class).getNetVersion());
+    }
+
+    @Test
+    public void testMissingReplyIsNull() throws IOException {
+        BatchRequest batch = web3j.newBatch().add(web3j.ethBlockNumber());
+
+        BatchResponse response = BatchResponse.fromReplies(
+                objectMapper, batch.getRequests(), objectMapper.readTree("[]"));
+
+        assertNull(response.getResponses().get(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectedBatch() throws IOException {
+        BatchRequest batch = web3j.newBatch().add(web3j.ethBlockNumber());
+
+        BatchResponse.fromReplies(objectMapper, batch.getRequests(), objectMapper.readTree(
+                "{\"jsonrpc\":\"2.0\",\"id\":null,"
+                        + "\"error\":{\"code\":-32600,\"message\":\"Invalid Request\"}}"));
+    }
+}
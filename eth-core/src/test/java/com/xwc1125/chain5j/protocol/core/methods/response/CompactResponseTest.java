@@ -0,0 +1,112 @@
+package com.xwc1125.chain5j.protocol.core.methods.response;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.xwc1125.chain5j.exceptions.MessageDecodingException;
+import com.xwc1125.chain5j.protocol.ObjectMapperFactory;
+import com.xwc1125.chain5j.utils.Numeric;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactResponseTest {
+
+    private static final String BLOCK_HASH =
+            "0xe670ec64341771606e55d6b4ca35a1a6b75ee3d5145a99d05921026d1527331";
+
+    @Test
+    public void testCompactBlock() throws IOException {
+        EthBlock ethBlock = ObjectMapperFactory.getObjectMapper().readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{"
+                        + "\"number\":\"0x1b4\",\"hash\":\"" + BLOCK_HASH + "\","
+                        + "\"nonce\":\"0xfffffffffffffffe\",\"difficulty\":\"0x4ea3f27bc\","
+                        + "\"totalDifficulty\":\"0x78ed983323d\",\"size\":\"0x27f07\","
+                        + "\"gasLimit\":\"0x9f759\",\"gasUsed\":\"0x9f759\","
+                        + "\"timestamp\":\"0x54e34e8e\",\"uncles\":[],\"transactions\":[{"
+                        + "\"hash\":\"0xc6ef2fc5426d6ad6fd9e2a26abeab0aa2411b7ab17f30a99d3cb96aed1d1055b\","
+                        + "\"nonce\":\"0x15\",\"blockHash\":\"" + BLOCK_HASH + "\","
+                        + "\"blockNumber\":\"0x1b4\",\"transactionIndex\":\"0x41\","
+                        + "\"from\":\"0x407d73d8a49eeb85d32cf465507dd71d507100c1\","
+                        + "\"to\":\"0x85h43d8a49eeb85d32cf465507dd71d507100c1\","
+                        + "\"value\":\"0x7f110\",\"gas\":\"0x7f110\",\"gasPrice\":\"0x09184e72a000\","
+                        + "\"input\":\"0x603880600c6000396000f300603880600c6000396000f3603880600c6000396000f360\","
+                        + "\"v\":\"0x25\",\"r\":\"0x1\",\"s\":\"0x2\"}]}}",
+                EthBlock.class);
+        EthBlock.Block block = ethBlock.getBlock();
+
+        CompactBlock compact = CompactBlock.of(block);
+        assertEquals(block.getNumber().longValue(), compact.getNumber());
+        assertEquals(block.getSize().longValue(), compact.getSize());
+        assertEquals(block.getGasLimit().longValue(), compact.getGasLimit());
+        assertEquals(block.getGasUsed().longValue(), compact.getGasUsed());
+        assertEquals(block.getTimestamp().longValue(), compact.getTimestamp());
+        assertEquals(block.getNonce(), compact.getNonce());
+        assertEquals(block.getDifficulty(), compact.getDifficulty());
+        assertEquals(block.getTotalDifficulty(), compact.getTotalDifficulty());
+        // decoded once
+        assertSame(compact.getTotalDifficulty(), compact.getTotalDifficulty());
+        assertTrue(compact.getTransactionHashes().isEmpty());
+
+        Transaction transaction = (Transaction) block.getTransactions().get(0).get();
+        CompactTransaction compactTransaction = compact.getTransactions().get(0);
+        assertEquals(transaction.getHash(), compactTransaction.getHash());
+        assertSame(compact.getHash(), compactTransaction.getBlockHash());
+        assertEquals(transaction.getNonce().longValue(), compactTransaction.getNonce());
+        assertEquals(transaction.getBlockNumber().longValue(), compactTransaction.getBlockNumber());
+        assertEquals(transaction.getTransactionIndex().longValue(),
+                compactTransaction.getTransactionIndex());
+        assertEquals(transaction.getGas().longValue(), compactTransaction.getGas());
+        assertEquals(transaction.getValue(), compactTransaction.getValue());
+        assertEquals(transaction.getGasPrice(), compactTransaction.getGasPrice());
+        assertEquals(transaction.getChainId(), compactTransaction.getChainId());
+        assertEquals(transaction.getInput(), compactTransaction.getInput());
+    }
+
+    @Test
+    public void testCompactReceipt() {
+        Log log = new Log(false, "0x1", "0x2", "0xabc", BLOCK_HASH, "0x1b4", "0xdef", "0x",
+                null, Arrays.asList("0x01", "0x02"));
+        TransactionReceipt receipt = new TransactionReceipt("0xabc", "0x2", BLOCK_HASH,
+                "0x1b4", "0x5208", "0x5208", null, null, "0x0", "0x01", "0x02",
+                Arrays.asList(log), "0x00");
+
+        CompactTransactionReceipt compact = CompactTransactionReceipt.of(receipt);
+        assertEquals(0x1b4, compact.getBlockNumber());
+        assertEquals(21000, compact.getGasUsed());
+        assertEquals(0, compact.getStatus());
+        assertFalse(compact.isStatusOK());
+
+        CompactLog compactLog = compact.getLogs().get(0);
+        assertSame(compact.getTransactionHash(), compactLog.getTransactionHash());
+        assertEquals(1, compactLog.getLogIndex());
+        assertEquals(log, compactLog.toLog());
+
+        Log pending = new Log(false, null, null, null, null, null, "0xdef", "0x", null,
+                Arrays.asList("0x01"));
+        CompactLog compactPending = CompactLog.of(pending);
+        assertEquals(-1, compactPending.getBlockNumber());
+        assertNull(compactPending.toLog().getBlockNumberRaw());
+    }
+
+    @Test
+    public void testDecodeQuantityAsLong() {
+        assertEquals(0, Numeric.decodeQuantityAsLong("0x0"));
+        assertEquals(Long.MAX_VALUE, Numeric.decodeQuantityAsLong("0x7fffffffffffffff"));
+        assertEquals(Long.MAX_VALUE, Numeric.decodeQuantityAsLong("0x007fffffffffffffff"));
+    }
+
+    @Test(expected = MessageDecodingException.class)
+    public void testDecodeQuantityAsLongOverflow() {
+        Numeric.decodeQuantityAsLong("0x8000000000000000");
+    }
+
+    @Test(expected = MessageDecodingException.class)
+    public void testDecodeQuantityAsLongInvalid() {
+        Numeric.decodeQuantityAsLong("0x1g");
+    }
+}
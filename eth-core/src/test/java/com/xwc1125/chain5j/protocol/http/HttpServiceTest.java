@@ -0,0 +1,150 @@
+package com.xwc1125.chain5j.protocol.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
+import com.xwc1125.chain5j.protocol.core.Request;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlockNumber;
+import com.xwc1125.chain5j.protocol.exceptions.ClientConnectionException;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpServiceTest {
+
+    private HttpServer server;
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/", exchange -> {
+            String request;
+            try (InputStream body = exchange.getRequestBody()) {
+                StringBuilder builder = new StringBuilder();
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    builder.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                }
+                request = builder.toString();
+            }
+            String reply = "{\"jsonrpc\":\"2.0\",\"id\":%d,\"result\":\"0x4b7\"}";
+            String response = request.startsWith("[")
+                    ? "[" + String.format(reply, 1) + "," + String.format(reply, 2) + "]"
+                    : String.format(reply, 1);
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testDefaultClientConcurrency() {
+        HttpService httpService = new HttpService(url());
+        assertEquals(64, httpService.getHttpClient().dispatcher().getMaxRequests());
+        assertEquals(64, httpService.getHttpClient().dispatcher().getMaxRequestsPerHost());
+    }
+
+    @Test
+    public void testBuilder() {
+        HttpService httpService = HttpService.builder()
+                .url(url())
+                .header("Authorization", "Bearer token")
+                .maxRequests(32)
+                .maxRequestsPerHost(16)
+                .connectTimeout(1, TimeUnit.SECONDS)
+                .readTimeout(2, TimeUnit.SECONDS)
+                .writeTimeout(3, TimeUnit.SECONDS)
+                .gzipRequests(true)
+                .build();
+
+        OkHttpClient httpClient = httpService.getHttpClient();
+        assertEquals(32, httpClient.dispatcher().getMaxRequests());
+        assertEquals(16, httpClient.dispatcher().getMaxRequestsPerHost());
+        assertEquals(1000, httpClient.connectTimeoutMillis());
+        assertEquals(2000, httpClient.readTimeoutMillis());
+        assertEquals(3000, httpClient.writeTimeoutMillis());
+        assertTrue(httpClient.interceptors().stream()
+                .anyMatch(interceptor -> interceptor instanceof GzipRequestInterceptor));
+        assertEquals("Bearer token", httpService.getHeaders().get("Authorization"));
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        HttpService httpService = HttpService.builder().url(url()).maxRequestsPerHost(4).build();
+
+        List<CompletableFuture<EthBlockNumber>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(blockNumber(httpService).sendAsync());
+        }
+        for (CompletableFuture<EthBlockNumber> future : futures) {
+            assertEquals(1207, future.get().getBlockNumber().longValue());
+        }
+    }
+
+    @Test
+    public void testSendBatchAsync() throws Exception {
+        HttpService httpService = new HttpService(url());
+        Request<?, EthBlockNumber> first = blockNumber(httpService);
+        first.setId(1);
+        Request<?, EthBlockNumber> second = blockNumber(httpService);
+        second.setId(2);
+
+        BatchResponse response = new BatchRequest(httpService)
+                .add(first).add(second).sendAsync().get();
+        assertEquals(2, response.getResponses().size());
+        assertEquals(1207, response.getResponse(1, EthBlockNumber.class)
+                .getBlockNumber().longValue());
+    }
+
+    @Test
+    public void testSendAsyncError() throws InterruptedException {
+        status.set(500);
+        HttpService httpService = new HttpService(url());
+        try {
+            blockNumber(httpService).sendAsync().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClientConnectionException);
+        }
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    private static Request<?, EthBlockNumber> blockNumber(HttpService httpService) {
+        return new Request<>("eth_blockNumber", Collections.<String>emptyList(),
+                httpService, EthBlockNumber.class);
+    }
+}
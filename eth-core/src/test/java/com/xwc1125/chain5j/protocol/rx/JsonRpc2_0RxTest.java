@@ -0,0 +1,119 @@
+package com.xwc1125.chain5j.protocol.rx;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xwc1125.chain5j.protocol.StubService;
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterNumber;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlock;
+import com.xwc1125.chain5j.utils.Numeric;
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonRpc2_0RxTest {
+
+    private static final long LATEST = 99;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * Node answering eth_getBlockByNumber, single or batched, after a random delay.
+     */
+    private final StubService service = new StubService(JsonRpc2_0RxTest::reply) {
+        @Override
+        protected InputStream performIO(String payload) throws IOException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return super.performIO(payload);
+        }
+    };
+
+    private final Web3j web3j = Web3j.build(service);
+
+    @After
+    public void tearDown() {
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testConcurrentReplay() {
+        List<EthBlock> blocks = web3j.replayPastBlocksFlowable(
+                new DefaultBlockParameterNumber(0), new DefaultBlockParameterNumber(LATEST),
+                false, true, 4, 1)
+                .toList().blockingGet();
+
+        assertBlocks(blocks, 0, LATEST);
+        assertTrue(maxInFlight.get() > 1);
+    }
+
+    @Test
+    public void testBatchedReplayDescending() {
+        List<EthBlock> blocks = web3j.replayPastBlocksFlowable(
+                new DefaultBlockParameterNumber(10), new DefaultBlockParameterNumber(LATEST),
+                false, false, 3, 8)
+                .toList().blockingGet();
+
+        assertEquals(LATEST - 10 + 1, blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            assertEquals(LATEST - i, blocks.get(i).getBlock().getNumber().longValue());
+        }
+        assertEquals(12, service.getRequestCount());
+    }
+
+    @Test
+    public void testReplayPastBlocks() {
+        List<EthBlock> blocks = web3j.replayPastBlocksFlowable(
+                new DefaultBlockParameterNumber(50), false, Flowable.empty(), 4, 5)
+                .toList().blockingGet();
+
+        assertBlocks(blocks, 50, LATEST);
+    }
+
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        TestSubscriber<EthBlock> subscriber = web3j.replayPastBlocksFlowable(
+                new DefaultBlockParameterNumber(0), new DefaultBlockParameterNumber(LATEST),
+                false, true, 2, 5)
+                .test(3);
+        subscriber.awaitCount(3);
+        Thread.sleep(100);
+
+        subscriber.assertValueCount(3);
+        // the first batch of five and one prefetched batch, nothing further
+        assertTrue(service.getRequestCount() <= 2);
+        subscriber.cancel();
+    }
+
+    private static void assertBlocks(List<EthBlock> blocks, long first, long last) {
+        assertEquals(last - first + 1, blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            assertEquals(first + i, blocks.get(i).getBlock().getNumber().longValue());
+        }
+    }
+
+    private static String reply(JsonNode request) {
+        String parameter = request.get("params").get(0).asText();
+        long number = "latest".equals(parameter)
+                ? LATEST : Numeric.decodeQuantity(parameter).longValue();
+        return StubService.result(request, "{\"number\":\""
+                + Numeric.encodeQuantity(BigInteger.valueOf(number)) + "\"}");
+    }
+}
@@ -0,0 +1,122 @@
+package com.xwc1125.chain5j.protocol.rx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xwc1125.chain5j.protocol.StubService;
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.DefaultBlockParameterNumber;
+import com.xwc1125.chain5j.protocol.core.Response;
+import com.xwc1125.chain5j.protocol.core.methods.request.EthFilter;
+import com.xwc1125.chain5j.protocol.core.methods.response.Log;
+import com.xwc1125.chain5j.protocol.exceptions.ResponseErrorException;
+import com.xwc1125.chain5j.utils.Numeric;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LogScannerTest {
+
+    private static final String ADDRESS = "0x85h43d8a49eeb85d32cf465507dd71d507100c1";
+
+    private volatile long badBlock = -1;
+
+    /**
+     * Node with a log every 7 blocks that rejects ranges of more than 50 blocks.
+     */
+    private final StubService service = new StubService(request -> {
+        JsonNode filter = request.get("params").get(0);
+        assertEquals(ADDRESS, filter.get("address").asText());
+        long from = Numeric.decodeQuantity(filter.get("fromBlock").asText()).longValue();
+        long to = Numeric.decodeQuantity(filter.get("toBlock").asText()).longValue();
+
+        if (from <= badBlock && badBlock <= to) {
+            return StubService.error(request, -32602, "invalid argument");
+        } else if (to - from >= 50) {
+            return StubService.error(
+                    request, -32005, "query returned more than 10000 results");
+        }
+        StringBuilder result = new StringBuilder("[");
+        for (long block = from; block <= to; block++) {
+            if (block % 7 == 0) {
+                if (result.length() > 1) {
+                    result.append(',');
+                }
+                result.append("{\"blockNumber\":\"")
+                        .append(Numeric.encodeQuantity(BigInteger.valueOf(block)))
+                        .append("\",\"logIndex\":\"0x0\",\"topics\":[]}");
+            }
+        }
+        return StubService.result(request, result.append("]").toString());
+    });
+
+    @Test
+    public void testSplitsRange() {
+        Web3j web3j = Web3j.build(service);
+        List<Log> logs = new LogScanner(web3j)
+                .chunkSize(1_000)
+                .flowable(filter(0, 999))
+                .toList()
+                .blockingGet();
+
+        assertEquals(143, logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            assertEquals(i * 7, logs.get(i).getBlockNumber().longValue());
+        }
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testGrowsChunks() {
+        Web3j web3j = Web3j.build(service);
+        List<Log> logs = new LogScanner(web3j)
+                .chunkSize(1)
+                .chunkSizeBounds(1, 40)
+                .concurrency(1)
+                .flowable(filter(0, 999))
+                .toList()
+                .blockingGet();
+
+        assertEquals(143, logs.size());
+        assertTrue(service.getRequestCount() < 100);
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testOtherErrors() {
+        badBlock = 500;
+        Web3j web3j = Web3j.build(service);
+        try {
+            new LogScanner(web3j).flowable(filter(0, 999)).blockingSubscribe();
+            fail();
+        } catch (ResponseErrorException e) {
+            assertEquals(-32602, e.getError().getCode());
+        }
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testIsRangeError() {
+        assertTrue(LogScanner.isRangeError(new SocketTimeoutException()));
+        assertTrue(LogScanner.isRangeError(error(-32000, "Log response size exceeded")));
+        assertTrue(LogScanner.isRangeError(error(-32005, "limit")));
+        assertFalse(LogScanner.isRangeError(error(-32602, "invalid argument")));
+        assertFalse(LogScanner.isRangeError(new IOException()));
+    }
+
+    private static ResponseErrorException error(int code, String message) {
+        return new ResponseErrorException(new Response.Error(code, message));
+    }
+
+    private static EthFilter filter(long from, long to) {
+        return new EthFilter(
+                new DefaultBlockParameterNumber(from), new DefaultBlockParameterNumber(to),
+                ADDRESS);
+    }
+}
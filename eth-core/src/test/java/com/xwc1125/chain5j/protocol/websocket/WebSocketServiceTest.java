@@ -0,0 +1,424 @@
+package com.xwc1125.chain5j.protocol.websocket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.BatchRequest;
+import com.xwc1125.chain5j.protocol.core.BatchResponse;
+import com.xwc1125.chain5j.protocol.core.Request;
+import com.xwc1125.chain5j.protocol.core.methods.response.EthBlockNumber;
+import com.xwc1125.chain5j.utils.Numeric;
+import io.reactivex.disposables.Disposable;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class WebSocketServiceTest {
+
+    private final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    private final WebSocketService service =
+            new WebSocketService(mock(WebSocketClient.class), executor, false);
+
+    @Test
+    public void testReply() throws Exception {
+        Request<?, EthBlockNumber> request = blockNumber();
+        CompletableFuture<EthBlockNumber> reply = service.sendAsync(request, EthBlockNumber.class);
+        assertTrue(service.isWaitingForReply(request.getId()));
+
+        service.onWebSocketMessage(
+                "{\"jsonrpc\":\"2.0\",\"result\":{\"nested\":[1,{\"id\":2}]},\"id\":"
+                        + request.getId() + "}");
+        assertFalse(service.isWaitingForReply(request.getId()));
+        assertTrue(reply.isCompletedExceptionally());
+
+        request = blockNumber();
+        reply = service.sendAsync(request, EthBlockNumber.class);
+        service.onWebSocketMessage(
+                "{\"jsonrpc\":\"2.0\",\"id\":" + request.getId() + ",\"result\":\"0x4b7\"}");
+        assertEquals(1207, reply.get().getBlockNumber().longValue());
+    }
+
+    @Test
+    public void testBatchReply() throws Exception {
+        Request<?, EthBlockNumber> first = blockNumber();
+        Request<?, EthBlockNumber> second = blockNumber();
+        CompletableFuture<BatchResponse> reply = service.sendBatchAsync(
+                new BatchRequest(service).add(first).add(second));
+
+        service.onWebSocketMessage("[{\"jsonrpc\":\"2.0\",\"id\":" + second.getId()
+                + ",\"result\":\"0x2\"},{\"jsonrpc\":\"2.0\",\"id\":" + first.getId()
+                + ",\"result\":\"0x1\"}]");
+        BatchResponse response = reply.get();
+        assertEquals(1, response.getResponse(0, EthBlockNumber.class)
+                .getBlockNumber().longValue());
+        assertEquals(2, response.getResponse(1, EthBlockNumber.class)
+                .getBlockNumber().longValue());
+        assertFalse(service.isWaitingForReply(first.getId()));
+    }
+
+    @Test
+    public void testBatchReplyConversionFailure() throws Exception {
+        Request<?, EthBlockNumber> request = blockNumber();
+        CompletableFuture<BatchResponse> reply = service.sendBatchAsync(
+                new BatchRequest(service).add(request));
+
+        service.onWebSocketMessage("[{\"jsonrpc\":\"2.0\",\"id\":" + request.getId()
+                + ",\"result\":{\"unexpected\":true}}]");
+        assertFailsWith(reply, IOException.class);
+        assertFalse(service.isWaitingForReply(request.getId()));
+    }
+
+    @Test
+    public void testBatchRejected() throws Exception {
+        Request<?, EthBlockNumber> request = blockNumber();
+        CompletableFuture<BatchResponse> reply = service.sendBatchAsync(
+                new BatchRequest(service).add(request));
+
+        service.onWebSocketMessage("{\"jsonrpc\":\"2.0\",\"id\":null,"
+                + "\"error\":{\"code\":-32600,\"message\":\"batch too large\"}}");
+        assertFailsWith(reply, IOException.class);
+        assertFalse(service.isWaitingForReply(request.getId()));
+    }
+
+    @Test
+    public void testNullIdReplyWithSeveralBatches() throws Exception {
+        Request<?, EthBlockNumber> first = blockNumber();
+        Request<?, EthBlockNumber> second = blockNumber();
+        CompletableFuture<BatchResponse> older = service.sendBatchAsync(
+                new BatchRequest(service).add(first));
+        CompletableFuture<BatchResponse> newer = service.sendBatchAsync(
+                new BatchRequest(service).add(second));
+
+        // the reply can't be matched to either batch, both are left to time out
+        service.onWebSocketMessage("{\"jsonrpc\":\"2.0\",\"id\":null,"
+                + "\"error\":{\"code\":-32700,\"message\":\"parse error\"}}");
+        assertFalse(older.isDone());
+        assertFalse(newer.isDone());
+        assertTrue(service.isWaitingForReply(first.getId()));
+        assertTrue(service.isWaitingForReply(second.getId()));
+
+        service.onWebSocketMessage("[{\"jsonrpc\":\"2.0\",\"id\":" + second.getId()
+                + ",\"result\":\"0x2\"}]");
+        assertEquals(2, newer.get().getResponse(0, EthBlockNumber.class)
+                .getBlockNumber().longValue());
+        assertFalse(older.isDone());
+    }
+
+    @Test
+    public void testInvalidMessages() {
+        assertFails("{\"jsonrpc\":\"2.0\",\"id\":\"one\",\"result\":\"0x1\"}");
+        assertFails("{\"jsonrpc\":\"2.0\",\"id\":12345678,\"result\":\"0x1\"}");
+        assertFails("{\"jsonrpc\":\"2.0\",\"result\":\"0x1\"}");
+        assertFails("{\"jsonrpc\":");
+    }
+
+    @Test
+    public void testCloseRequest() throws InterruptedException {
+        Request<?, EthBlockNumber> request = blockNumber();
+        CompletableFuture<EthBlockNumber> reply = service.sendAsync(request, EthBlockNumber.class);
+        service.closeRequest(request.getId(), new IOException("timed out"));
+        service.closeRequest(request.getId(), new IOException("timed out"));
+        try {
+            reply.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testTimer() {
+        HashedWheelTimer timer = new HashedWheelTimer(executor, 100, TimeUnit.MILLISECONDS, 8);
+        AtomicInteger fired = new AtomicInteger();
+        timer.newTimeout(fired::incrementAndGet, 250, TimeUnit.MILLISECONDS);
+        timer.newTimeout(fired::incrementAndGet, 2, TimeUnit.SECONDS);
+        timer.newTimeout(fired::incrementAndGet, 100, TimeUnit.MILLISECONDS).cancel();
+
+        for (int i = 0; i < 3; i++) {
+            timer.advance();
+        }
+        assertEquals(0, fired.get());
+        timer.advance();
+        assertEquals(1, fired.get());
+        // the bucket of the second timeout is visited at ticks 5 and 13 before its deadline
+        for (int i = 4; i < 20; i++) {
+            timer.advance();
+        }
+        assertEquals(1, fired.get());
+        timer.advance();
+        assertEquals(2, fired.get());
+    }
+
+    @Test
+    public void testReconnectResumesSubscription() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        NodeServer node = new NodeServer(port);
+        node.start();
+        node.started.await(5, TimeUnit.SECONDS);
+
+        WebSocketService webSocketService = new WebSocketService(
+                new WebSocketClient(URI.create("ws://127.0.0.1:" + port)), false)
+                .enableReconnect(50, 200, TimeUnit.MILLISECONDS);
+        webSocketService.connect();
+        Web3j web3j = Web3j.build(webSocketService);
+
+        List<Long> heads = new CopyOnWriteArrayList<>();
+        Disposable subscription = web3j.newHeadsNotifications().subscribe(notification ->
+                heads.add(Numeric.decodeQuantity(
+                        notification.getParams().getResult().getNumber()).longValue()));
+        for (WebSocket connection : node.getConnections()) {
+            connection.send(NodeServer.newHead("0x1", 1));
+            connection.send(NodeServer.newHead("0x1", 2));
+        }
+        awaitSize(heads, 2);
+
+        // blocks 3 to 5 are produced while disconnected
+        node.head = 5;
+        for (WebSocket connection : node.getConnections()) {
+            connection.close();
+        }
+        awaitSize(heads, 6);
+        Thread.sleep(100);
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), heads);
+        assertEquals(2, node.subscriptions.get());
+        // missed blocks are fetched in one batch
+        assertEquals(1, node.batches.get());
+
+        subscription.dispose();
+        webSocketService.close();
+        node.stop();
+    }
+
+    @Test
+    public void testBackfillInBoundedBatches() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        NodeServer node = new NodeServer(port);
+        node.start();
+        node.started.await(5, TimeUnit.SECONDS);
+
+        WebSocketService webSocketService = new WebSocketService(
+                new WebSocketClient(URI.create("ws://127.0.0.1:" + port)), false)
+                .enableReconnect(50, 200, TimeUnit.MILLISECONDS);
+        webSocketService.connect();
+        Web3j web3j = Web3j.build(webSocketService);
+
+        List<Long> heads = new CopyOnWriteArrayList<>();
+        Disposable subscription = web3j.newHeadsNotifications().subscribe(notification ->
+                heads.add(Numeric.decodeQuantity(
+                        notification.getParams().getResult().getNumber()).longValue()));
+        for (WebSocket connection : node.getConnections()) {
+            connection.send(NodeServer.newHead("0x1", 2));
+        }
+        awaitSize(heads, 1);
+
+        node.head = 250;
+        for (WebSocket connection : node.getConnections()) {
+            connection.close();
+        }
+        awaitSize(heads, 249);
+        Thread.sleep(100);
+        assertEquals(249, heads.size());
+        assertEquals(250L, (long) heads.get(248));
+        // blocks 3 to 102, 103 to 202 and 203 to 250
+        assertEquals(3, node.batches.get());
+
+        subscription.dispose();
+        webSocketService.close();
+        node.stop();
+    }
+
+    @Test
+    public void testFailedBackfillCancelsSubscription() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        NodeServer node = new NodeServer(port);
+        node.blockNumberFailures.set(1);
+        node.start();
+        node.started.await(5, TimeUnit.SECONDS);
+
+        WebSocketService webSocketService = new WebSocketService(
+                new WebSocketClient(URI.create("ws://127.0.0.1:" + port)), false)
+                .enableReconnect(50, 200, TimeUnit.MILLISECONDS);
+        webSocketService.connect();
+        Web3j web3j = Web3j.build(webSocketService);
+
+        List<Long> heads = new CopyOnWriteArrayList<>();
+        Disposable subscription = web3j.newHeadsNotifications().subscribe(notification ->
+                heads.add(Numeric.decodeQuantity(
+                        notification.getParams().getResult().getNumber()).longValue()));
+        for (WebSocket connection : node.getConnections()) {
+            connection.send(NodeServer.newHead("0x1", 2));
+        }
+        awaitSize(heads, 1);
+
+        node.head = 5;
+        for (WebSocket connection : node.getConnections()) {
+            connection.close();
+        }
+        awaitSize(heads, 5);
+        Thread.sleep(100);
+        assertEquals(Arrays.asList(2L, 3L, 4L, 5L, 6L), heads);
+        // the subscription of the failed attempt was cancelled before subscribing again
+        assertEquals(3, node.subscriptions.get());
+        assertEquals(Collections.singletonList("0x2"), node.unsubscribed);
+
+        subscription.dispose();
+        webSocketService.close();
+        node.stop();
+    }
+
+    private static void assertFailsWith(
+            CompletableFuture<?> future, Class<? extends Throwable> type)
+            throws InterruptedException {
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(type.isInstance(e.getCause()));
+        }
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        for (int i = 0; i < 100 && list.size() < size; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(size, list.size());
+    }
+
+    /**
+     * Node sending new heads 5 and 6 right after a resubscription, 5 being also delivered by
+     * backfilling.
+     */
+    private static class NodeServer extends WebSocketServer {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger subscriptions = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger blockNumberFailures = new AtomicInteger();
+        private final List<String> unsubscribed = new CopyOnWriteArrayList<>();
+        private volatile long head = 2;
+
+        NodeServer(int port) {
+            super(new InetSocketAddress("127.0.0.1", port));
+        }
+
+        @Override
+        public void onMessage(WebSocket connection, String message) {
+            try {
+                JsonNode request = objectMapper.readTree(message);
+                if (request.isArray()) {
+                    batches.incrementAndGet();
+                    StringBuilder replies = new StringBuilder("[");
+                    for (JsonNode element : request) {
+                        replies.append(replies.length() > 1 ? "," : "").append(reply(
+                                element.get("id").asLong(),
+                                block(element.get("params").get(0).asText())));
+                    }
+                    connection.send(replies.append("]").toString());
+                    return;
+                }
+                long id = request.get("id").asLong();
+                String method = request.get("method").asText();
+                if ("eth_subscribe".equals(method)) {
+                    String subscriptionId = "0x" + subscriptions.incrementAndGet();
+                    connection.send(reply(id, "\"" + subscriptionId + "\""));
+                    if (!subscriptionId.equals("0x1")) {
+                        connection.send(newHead(subscriptionId, 5));
+                        connection.send(newHead(subscriptionId, 6));
+                    }
+                } else if ("eth_blockNumber".equals(method)
+                        && blockNumberFailures.getAndDecrement() > 0) {
+                    connection.send("{\"jsonrpc\":\"2.0\",\"id\":" + id
+                            + ",\"error\":{\"code\":-32000,\"message\":\"busy\"}}");
+                } else if ("eth_blockNumber".equals(method)) {
+                    connection.send(reply(id, "\"0x" + Long.toHexString(head) + "\""));
+                } else if ("eth_getBlockByNumber".equals(method)) {
+                    connection.send(reply(id, block(request.get("params").get(0).asText())));
+                } else {
+                    if ("eth_unsubscribe".equals(method)) {
+                        unsubscribed.add(request.get("params").get(0).asText());
+                    }
+                    connection.send(reply(id, "true"));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static String reply(long id, String result) {
+            return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"result\":" + result + "}";
+        }
+
+        private static String newHead(String subscriptionId, long number) {
+            return "{\"jsonrpc\":\"2.0\",\"method\":\"eth_subscription\",\"params\":"
+                    + "{\"subscription\":\"" + subscriptionId + "\",\"result\":"
+                    + block("0x" + Long.toHexString(number)) + "}}";
+        }
+
+        private static String block(String number) {
+            return "{\"number\":\"" + number + "\",\"hash\":\"0xb" + number.substring(2)
+                    + "\",\"transactions\":[]}";
+        }
+
+        @Override
+        public void onOpen(WebSocket connection, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket connection, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(WebSocket connection, Exception e) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+
+    private void assertFails(String message) {
+        try {
+            service.onWebSocketMessage(message);
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private Request<?, EthBlockNumber> blockNumber() {
+        return new Request<>("eth_blockNumber", Collections.<String>emptyList(),
+                service, EthBlockNumber.class);
+    }
+}
@@ -0,0 +1,176 @@
+package com.xwc1125.chain5j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xwc1125.chain5j.protocol.StubService;
+import com.xwc1125.chain5j.protocol.Web3j;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NonceManagerTest {
+
+    private static final String ADDRESS = "0xef678007d18427e6022059dbc264f27507cd1ffc";
+
+    private final AtomicLong transactionCount = new AtomicLong(5);
+    // when set, requests wait for it after counting down requested
+    private volatile CountDownLatch proceed;
+    private final CountDownLatch requested = new CountDownLatch(1);
+    private volatile boolean unavailable;
+
+    private final StubService service = new StubService(request -> {
+        if (unavailable) {
+            throw new IOException("node unavailable");
+        }
+        CountDownLatch latch = proceed;
+        String result = "\"0x" + Long.toHexString(transactionCount.get()) + "\"";
+        if (latch != null) {
+            requested.countDown();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+        return StubService.result(request, result);
+    });
+
+    private final Web3j web3j = Web3j.build(service);
+    private final NonceManager nonceManager = new NonceManager(web3j);
+
+    @After
+    public void tearDown() {
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testConcurrentAcquire() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<BigInteger>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String address = i % 2 == 0 ? ADDRESS : ADDRESS.toUpperCase().replace("0X", "0x");
+            futures.add(executor.submit(() -> nonceManager.acquire(address)));
+            futures.add(executor.submit(() -> nonceManager.acquire("0x01")));
+        }
+        Set<BigInteger> nonces = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < futures.size(); i++) {
+            BigInteger nonce = futures.get(i).get();
+            if (i % 2 == 0) {
+                nonces.add(nonce);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1000, nonces.size());
+        assertEquals(BigInteger.valueOf(5), Collections.min(nonces));
+        assertEquals(BigInteger.valueOf(1004), Collections.max(nonces));
+        assertEquals(1000, nonceManager.getInFlight(ADDRESS).size());
+        assertEquals(BigInteger.valueOf(1005), nonceManager.getNextNonce("0x01"));
+    }
+
+    @Test
+    public void testReleasedNonceIsReused() throws IOException {
+        BigInteger first = nonceManager.acquire(ADDRESS);
+        BigInteger second = nonceManager.acquire(ADDRESS);
+        nonceManager.confirm(ADDRESS, first);
+        nonceManager.release(ADDRESS, second);
+
+        assertEquals(Collections.singletonList(BigInteger.valueOf(6)),
+                nonceManager.getGaps(ADDRESS));
+        assertEquals(second, nonceManager.acquire(ADDRESS));
+        assertEquals(BigInteger.valueOf(7), nonceManager.acquire(ADDRESS));
+        assertEquals(Arrays.asList(BigInteger.valueOf(6), BigInteger.valueOf(7)),
+                nonceManager.getInFlight(ADDRESS));
+    }
+
+    @Test
+    public void testResync() throws IOException {
+        nonceManager.resyncInterval(1, TimeUnit.HOURS);
+        BigInteger nonce = nonceManager.acquire(ADDRESS);
+        nonceManager.confirm(ADDRESS, nonce);
+
+        // another sender used nonces 6 to 9
+        transactionCount.set(10);
+        nonceManager.resync(ADDRESS);
+        assertEquals(BigInteger.valueOf(10), nonceManager.acquire(ADDRESS));
+
+        // nonces 10 and 11 never reached the pool
+        nonceManager.confirm(ADDRESS, BigInteger.valueOf(10));
+        nonceManager.confirm(ADDRESS, nonceManager.acquire(ADDRESS));
+        nonceManager.invalidate(ADDRESS);
+        assertEquals(BigInteger.valueOf(10), nonceManager.acquire(ADDRESS));
+        assertEquals(BigInteger.valueOf(11), nonceManager.acquire(ADDRESS));
+        assertEquals(BigInteger.valueOf(12), nonceManager.acquire(ADDRESS));
+        assertTrue(nonceManager.getGaps(ADDRESS).isEmpty());
+    }
+
+    @Test
+    public void testFailedResync() throws Exception {
+        nonceManager.resyncInterval(1, TimeUnit.MILLISECONDS);
+        nonceManager.confirm(ADDRESS, nonceManager.acquire(ADDRESS));
+        Thread.sleep(5);
+
+        // the resync fails, the local counter is used
+        unavailable = true;
+        assertEquals(BigInteger.valueOf(6), nonceManager.acquire(ADDRESS));
+        assertEquals(2, service.getRequestCount());
+
+        // retried by the next acquire
+        unavailable = false;
+        transactionCount.set(10);
+        assertEquals(BigInteger.valueOf(10), nonceManager.acquire(ADDRESS));
+        assertEquals(3, service.getRequestCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailedFirstSync() throws IOException {
+        unavailable = true;
+        nonceManager.acquire(ADDRESS);
+    }
+
+    @Test
+    public void testAcquireDuringResync() throws Exception {
+        nonceManager.confirm(ADDRESS, nonceManager.acquire(ADDRESS));
+        transactionCount.set(6);
+
+        // the count is read before nonce 6 is allocated, sent and confirmed
+        proceed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> resync = executor.submit(() -> {
+            nonceManager.resync(ADDRESS);
+            return null;
+        });
+        assertTrue(requested.await(5, TimeUnit.SECONDS));
+        BigInteger nonce = nonceManager.acquire(ADDRESS);
+        assertEquals(BigInteger.valueOf(6), nonce);
+        nonceManager.confirm(ADDRESS, nonce);
+        proceed.countDown();
+        resync.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertTrue(nonceManager.getGaps(ADDRESS).isEmpty());
+        assertEquals(BigInteger.valueOf(7), nonceManager.acquire(ADDRESS));
+    }
+
+    @Test
+    public void testIsNonceUsed() {
+        assertTrue(NonceManager.isNonceUsed("nonce too low"));
+        assertTrue(NonceManager.isNonceUsed("ALREADY KNOWN"));
+        assertEquals(false, NonceManager.isNonceUsed("insufficient funds for gas * price + value"));
+    }
+}
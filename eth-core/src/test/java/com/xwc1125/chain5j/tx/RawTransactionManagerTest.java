@@ -0,0 +1,265 @@
+package com.xwc1125.chain5j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xwc1125.chain5j.crypto.Credentials;
+import com.xwc1125.chain5j.crypto.ECKeyPair;
+import com.xwc1125.chain5j.crypto.Hash;
+import com.xwc1125.chain5j.crypto.RawTransaction;
+import com.xwc1125.chain5j.crypto.TransactionDecoder;
+import com.xwc1125.chain5j.protocol.StubService;
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.exceptions.TransactionException;
+import com.xwc1125.chain5j.utils.TxHashVerifier;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RawTransactionManagerTest {
+
+    // signed transactions received by the node, by hash
+    private final Map<String, String> sent = new ConcurrentHashMap<>();
+
+    // transfers of this value are rejected by the node
+    private volatile BigInteger rejectedValue;
+
+    /**
+     * Node with 7 pending transactions for every account, rejecting transfers of
+     * {@link #rejectedValue}.
+     */
+    private final StubService service = new StubService(this::reply);
+
+    private final Web3j web3j = Web3j.build(service);
+    private final ExecutorService signingExecutor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        signingExecutor.shutdown();
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testSendTransactions() throws Exception {
+        Credentials credentials = Credentials.create(null, ECKeyPair.create(BigInteger.TEN));
+        RawTransactionManager transactionManager = new RawTransactionManager(web3j, credentials);
+        NonceManager nonceManager = new NonceManager(web3j);
+        transactionManager.setNonceManager(nonceManager);
+
+        List<PendingTransaction> pendingTransactions =
+                transactionManager.sendTransactions(transfers(25), signingExecutor, 10);
+
+        for (int i = 0; i < pendingTransactions.size(); i++) {
+            PendingTransaction pendingTransaction = pendingTransactions.get(i);
+            assertEquals(BigInteger.valueOf(7 + i), pendingTransaction.getNonce());
+            String transactionHash = pendingTransaction.getTransactionHash().get();
+            assertEquals(BigInteger.valueOf(7 + i),
+                    TransactionDecoder.decode(null, sent.get(transactionHash)).getNonce());
+        }
+
+        assertEquals(Arrays.asList(10, 10, 5), service.getBatchSizes());
+        assertTrue(nonceManager.getInFlight(credentials.getAddress()).isEmpty());
+        assertEquals(BigInteger.valueOf(32), nonceManager.acquire(credentials.getAddress()));
+    }
+
+    @Test
+    public void testRejectedTransaction() throws Exception {
+        rejectedValue = BigInteger.valueOf(13);
+        Credentials credentials = Credentials.create(null, ECKeyPair.create(BigInteger.TEN));
+        RawTransactionManager transactionManager = new RawTransactionManager(web3j, credentials);
+        NonceManager nonceManager = new NonceManager(web3j);
+        transactionManager.setNonceManager(nonceManager);
+
+        List<PendingTransaction> pendingTransactions =
+                transactionManager.sendTransactions(transfers(25), signingExecutor, 10);
+
+        for (int i = 0; i < pendingTransactions.size(); i++) {
+            CompletableFuture<String> transactionHash =
+                    pendingTransactions.get(i).getTransactionHash();
+            if (i < 13 || (i > 13 && i < 20)) {
+                // sent before the rejection, or in the same batch as the rejected transaction
+                assertTrue(sent.containsKey(transactionHash.get(5, TimeUnit.SECONDS)));
+            } else {
+                assertFails(transactionHash, TransactionException.class);
+            }
+        }
+        // the batch after the rejected transaction is not sent
+        assertEquals(Arrays.asList(10, 10), service.getBatchSizes());
+        assertEquals(20, sent.size());
+
+        String address = credentials.getAddress();
+        assertTrue(nonceManager.getInFlight(address).isEmpty());
+        assertEquals(Arrays.asList(BigInteger.valueOf(20), BigInteger.valueOf(27),
+                BigInteger.valueOf(28), BigInteger.valueOf(29), BigInteger.valueOf(30),
+                BigInteger.valueOf(31)), nonceManager.getGaps(address));
+        // the next transaction fills the gap left by the rejected one
+        assertEquals(BigInteger.valueOf(20), nonceManager.acquire(address));
+    }
+
+    @Test
+    public void testSigningFailure() throws Exception {
+        Credentials credentials = Credentials.create(null, ECKeyPair.create(BigInteger.TEN));
+        RawTransactionManager transactionManager = new RawTransactionManager(web3j, credentials);
+        NonceManager nonceManager = new NonceManager(web3j);
+        transactionManager.setNonceManager(nonceManager);
+        AtomicInteger signatures = new AtomicInteger();
+        Executor failingExecutor = command -> {
+            if (signatures.getAndIncrement() == 7) {
+                throw new RejectedExecutionException("signer unavailable");
+            }
+            signingExecutor.execute(command);
+        };
+
+        List<PendingTransaction> pendingTransactions =
+                transactionManager.sendTransactions(transfers(12), failingExecutor, 5);
+
+        for (int i = 0; i < pendingTransactions.size(); i++) {
+            CompletableFuture<String> transactionHash =
+                    pendingTransactions.get(i).getTransactionHash();
+            if (i < 7) {
+                assertTrue(sent.containsKey(transactionHash.get(5, TimeUnit.SECONDS)));
+            } else if (i == 7) {
+                assertFails(transactionHash, RejectedExecutionException.class);
+            } else {
+                assertFails(transactionHash, TransactionException.class);
+            }
+        }
+        assertEquals(Arrays.asList(5, 2), service.getBatchSizes());
+        String address = credentials.getAddress();
+        assertTrue(nonceManager.getInFlight(address).isEmpty());
+        assertEquals(BigInteger.valueOf(14), nonceManager.acquire(address));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSendTransactionsWithoutNonceManager() throws Exception {
+        Credentials credentials = Credentials.create(null, ECKeyPair.create(BigInteger.TEN));
+        new RawTransactionManager(web3j, credentials)
+                .sendTransactions(transfers(1), signingExecutor, 1);
+    }
+
+    @Test
+    public void testNonceAllocationFailure() throws Exception {
+        Credentials credentials = Credentials.create(null, ECKeyPair.create(BigInteger.TEN));
+        RawTransactionManager transactionManager = new RawTransactionManager(web3j, credentials);
+        AtomicInteger allocated = new AtomicInteger();
+        NonceManager nonceManager = new NonceManager(web3j) {
+            @Override
+            public BigInteger acquire(String address) throws IOException {
+                if (allocated.incrementAndGet() > 12) {
+                    throw new IOException("node unavailable");
+                }
+                return super.acquire(address);
+            }
+        };
+        transactionManager.setNonceManager(nonceManager);
+
+        List<PendingTransaction> pendingTransactions = transactionManager.sendTransactions(
+                transfers(25), signingExecutor, 10);
+
+        assertEquals(13, pendingTransactions.size());
+        for (int i = 0; i < 12; i++) {
+            pendingTransactions.get(i).getTransactionHash().get();
+        }
+        try {
+            pendingTransactions.get(12).getTransactionHash().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals(12, sent.size());
+        assertTrue(nonceManager.getInFlight(credentials.getAddress()).isEmpty());
+    }
+
+    @Test
+    public void testFailedBatchDoesNotStopLaterBatches() throws Exception {
+        Credentials credentials = Credentials.create(null, ECKeyPair.create(BigInteger.TEN));
+        RawTransactionManager transactionManager = new RawTransactionManager(web3j, credentials);
+        NonceManager nonceManager = new NonceManager(web3j);
+        transactionManager.setNonceManager(nonceManager);
+        AtomicInteger verified = new AtomicInteger();
+        transactionManager.setTxHashVerifier(new TxHashVerifier() {
+            @Override
+            public boolean verify(String hash1, String hash2) {
+                if (verified.incrementAndGet() == 1) {
+                    throw new IllegalStateException("verifier failed");
+                }
+                return super.verify(hash1, hash2);
+            }
+        });
+
+        List<PendingTransaction> pendingTransactions = transactionManager.sendTransactions(
+                transfers(12), signingExecutor, 5);
+
+        // the first batch fails as a whole, the next ones are sent
+        for (int i = 0; i < pendingTransactions.size(); i++) {
+            CompletableFuture<String> transactionHash =
+                    pendingTransactions.get(i).getTransactionHash();
+            if (i < 5) {
+                try {
+                    transactionHash.get(5, TimeUnit.SECONDS);
+                    fail();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException);
+                }
+            } else {
+                assertTrue(sent.containsKey(transactionHash.get(5, TimeUnit.SECONDS)));
+            }
+        }
+        assertEquals(3, service.getBatchSizes().size());
+        assertTrue(nonceManager.getInFlight(credentials.getAddress()).isEmpty());
+    }
+
+    private static void assertFails(
+            CompletableFuture<String> future, Class<? extends Throwable> cause)
+            throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().toString(), cause.isInstance(e.getCause()));
+        }
+    }
+
+    private static List<RawTransaction> transfers(int count) {
+        List<RawTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(RawTransaction.createEtherTransaction(
+                    null, BigInteger.ONE, BigInteger.valueOf(21000),
+                    "0x0000000000000000000000000000000000000001", BigInteger.valueOf(i)));
+        }
+        return transactions;
+    }
+
+    private String reply(JsonNode request) {
+        String method = request.get("method").asText();
+        String result;
+        if ("eth_sendRawTransaction".equals(method)) {
+            String hexValue = request.get("params").get(0).asText();
+            sent.put(Hash.sha3(hexValue), hexValue);
+            if (TransactionDecoder.decode(null, hexValue).getValue().equals(rejectedValue)) {
+                return StubService.error(request, -32000, "insufficient funds");
+            }
+            result = "\"" + Hash.sha3(hexValue) + "\"";
+        } else {
+            result = "\"0x7\"";
+        }
+        return StubService.result(request, result);
+    }
+}
@@ -0,0 +1,153 @@
+package com.xwc1125.chain5j.tx.response;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xwc1125.chain5j.protocol.StubService;
+import com.xwc1125.chain5j.protocol.Web3j;
+import com.xwc1125.chain5j.protocol.core.methods.response.TransactionReceipt;
+import com.xwc1125.chain5j.protocol.exceptions.TransactionException;
+import com.xwc1125.chain5j.utils.Numeric;
+import io.reactivex.processors.PublishProcessor;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockTransactionReceiptProcessorTest {
+
+    private volatile long head;
+    private volatile boolean reorged;
+
+    /**
+     * Node where block {@code n} has hash {@code 0xb<n>} and contains transaction {@code 0x<n>}.
+     * Transactions of blocks up to {@code head} have a receipt, unless {@code reorged}.
+     */
+    private final StubService service = new StubService(this::reply);
+
+    private final Web3j web3j = Web3j.build(service);
+    private final PublishProcessor<String> blocks = PublishProcessor.create();
+    private final BlockTransactionReceiptProcessor processor =
+            new BlockTransactionReceiptProcessor(web3j, blocks, 3, 64).start();
+
+    @After
+    public void tearDown() {
+        processor.shutdown();
+        web3j.shutdown();
+    }
+
+    @Test
+    public void testReceiptsFetchedInOneBatchPerBlock() throws Exception {
+        CompletableFuture<TransactionReceipt> first = processor.submit("0x1");
+        CompletableFuture<TransactionReceipt> other = processor.submit("0x100");
+
+        blocks.onNext("0xb1");
+        assertEquals("0x1", first.get().getTransactionHash());
+        assertFalse(other.isDone());
+        assertEquals(1, processor.getPendingCount());
+        assertEquals(1, service.getBatchSizes().size());
+        assertEquals(1, service.getMethods().stream()
+                .filter("eth_getBlockByHash"::equals).count());
+    }
+
+    @Test
+    public void testAlreadyMinedTransaction() throws Exception {
+        head = 5;
+        CompletableFuture<TransactionReceipt> future = processor.submit("0x3");
+        assertEquals("0x3", future.get(5, TimeUnit.SECONDS).getTransactionHash());
+
+        // mined in a block handled while nothing was pending
+        blocks.onNext("0xb6");
+        head = 6;
+        CompletableFuture<TransactionReceipt> other = processor.submit("0x6");
+        assertEquals("0x6", other.get(5, TimeUnit.SECONDS).getTransactionHash());
+        assertEquals(0, processor.getPendingCount());
+    }
+
+    @Test
+    public void testBlockSourceFailure() throws Exception {
+        CompletableFuture<TransactionReceipt> future = processor.submit("0x100");
+        blocks.onError(new IOException("connection lost"));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransactionException);
+        }
+        assertTrue(processor.submit("0x101").isCompletedExceptionally());
+        assertEquals(0, processor.getPendingCount());
+    }
+
+    @Test
+    public void testSkippedBlocksAreFetched() throws Exception {
+        CompletableFuture<TransactionReceipt> first = processor.submit("0x1");
+        CompletableFuture<TransactionReceipt> third = processor.submit("0x3");
+        processor.submit("0x100");
+
+        blocks.onNext("0xb1");
+        blocks.onNext("0xb4");
+        assertTrue(first.isDone());
+        assertEquals("0x3", third.get().getTransactionHash());
+        assertTrue(service.getMethods().contains("eth_getBlockByNumber"));
+    }
+
+    @Test
+    public void testExpiresAfterBlocksToWait() throws Exception {
+        CompletableFuture<TransactionReceipt> future = processor.submit("0x100");
+        for (int i = 1; i <= 4; i++) {
+            blocks.onNext("0xb" + i);
+        }
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransactionException);
+        }
+        assertEquals(0, processor.getPendingCount());
+    }
+
+    @Test
+    public void testReorgedTransactionExpires() throws Exception {
+        reorged = true;
+        CompletableFuture<TransactionReceipt> future = processor.submit("0x1");
+        for (int i = 1; i <= 4; i++) {
+            blocks.onNext("0xb" + i);
+        }
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransactionException);
+        }
+        // the receipt is only requested again when the transaction is seen in a block
+        assertEquals(1, service.getBatchSizes().size());
+        assertEquals(0, processor.getPendingCount());
+    }
+
+    private String reply(JsonNode request) {
+        String method = request.get("method").asText();
+        JsonNode params = request.get("params");
+        String result;
+        if ("eth_getTransactionReceipt".equals(method)) {
+            String hash = params.get(0).asText();
+            result = !reorged && Long.parseLong(hash.substring(2)) <= head
+                    ? "{\"transactionHash\":\"" + hash + "\"}" : "null";
+        } else {
+            long number = "eth_getBlockByHash".equals(method)
+                    ? Long.parseLong(params.get(0).asText().substring(3))
+                    : Numeric.decodeQuantity(params.get(0).asText()).longValue();
+            head = Math.max(head, number);
+            result = "{\"number\":\"" + Numeric.encodeQuantity(
+                    BigInteger.valueOf(number))
+                    + "\",\"hash\":\"0xb" + number + "\",\"transactions\":[\"0x" + number + "\"]}";
+        }
+        return StubService.result(request, result);
+    }
+}
@@ -0,0 +1,280 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.custom.sec.SecP256K1Curve;
+
+import static com.xwc1125.chain5j.crypto.Sign.CURVE;
+
+/**
+ * <p>Recovers the public keys, or addresses, of many signatures at once, e.g. the senders of
+ * all transactions in a block.</p>
+ *
+ * <p>Signatures are split into chunks which are processed on a {@link ForkJoinPool}. Within a
+ * chunk the modular inversions of r and the field inversions needed to convert the recovered
+ * points to affine coordinates are each shared using Montgomery's trick, so a chunk costs one
+ * inversion of each kind instead of one per signature.</p>
+ *
+ * <p>Results are returned in the order of the input. If any signature is invalid a
+ * {@link SignatureException} is thrown naming its index.</p>
+ */
+public class BatchSignatureRecovery {
+
+    private static final int DEFAULT_CHUNK_SIZE = 32;
+
+    private final ForkJoinPool pool;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public BatchSignatureRecovery() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchSignatureRecovery(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Number of signatures processed together by one task, defaults to 32.
+     *
+     * @param chunkSize chunk size
+     * @return this
+     */
+    public BatchSignatureRecovery chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Batch version of {@link Sign#signedMessageHashToKey(byte[], Sign.SignatureData)}.
+     *
+     * @param messageHashes hashes of the signed messages
+     * @param signatures signatures of the messages, in the same order
+     * @return the public keys, in the order of the input
+     * @throws SignatureException if any public key could not be recovered
+     */
+    public List<BigInteger> recoverKeys(
+            List<byte[]> messageHashes, List<Sign.SignatureData> signatures)
+            throws SignatureException {
+        byte[][] publicKeys = recover(messageHashes, signatures);
+        List<BigInteger> keys = new ArrayList<>(publicKeys.length);
+        for (byte[] publicKey : publicKeys) {
+            keys.add(new BigInteger(1, publicKey));
+        }
+        return keys;
+    }
+
+    /**
+     * @param messageHashes hashes of the signed messages
+     * @param signatures signatures of the messages, in the same order
+     * @return the addresses of the signers, in the order of the input
+     * @throws SignatureException if any public key could not be recovered
+     */
+    public List<String> recoverAddresses(
+            List<byte[]> messageHashes, List<Sign.SignatureData> signatures)
+            throws SignatureException {
+        return recoverAddresses(null, messageHashes, signatures);
+    }
+
+    /**
+     * @param icapPrefix if not empty, addresses are returned in ICAP format
+     * @param messageHashes hashes of the signed messages
+     * @param signatures signatures of the messages, in the same order
+     * @return the addresses of the signers, in the order of the input
+     * @throws SignatureException if any public key could not be recovered
+     */
+    public List<String> recoverAddresses(
+            String icapPrefix, List<byte[]> messageHashes, List<Sign.SignatureData> signatures)
+            throws SignatureException {
+        byte[][] publicKeys = recover(messageHashes, signatures);
+        List<String> addresses = new ArrayList<>(publicKeys.length);
+        for (byte[] publicKey : publicKeys) {
+            addresses.add(Keys.getAddress(icapPrefix, new BigInteger(1, publicKey)));
+        }
+        return addresses;
+    }
+
+    /**
+     * Batch version of {@link SignedRawTransaction#getFrom()}.
+     *
+     * @param transactions signed transactions
+     * @return the senders, in the order of the input
+     * @throws SignatureException if any sender could not be recovered
+     */
+    public List<String> recoverSenders(List<SignedRawTransaction> transactions)
+            throws SignatureException {
+        int size = transactions.size();
+        List<byte[]> messageHashes = Arrays.asList(new byte[size][]);
+        List<Sign.SignatureData> signatures = Arrays.asList(new Sign.SignatureData[size]);
+        // Encoding and hashing is part of the work, so it is done by the pool as well
+        pool.invoke(new ChunkAction(0, size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                SignedRawTransaction transaction = transactions.get(i);
+                messageHashes.set(i, transaction.getSigningHash());
+                signatures.set(i, transaction.getRecoverySignatureData());
+            }
+        }));
+
+        byte[][] publicKeys = recover(messageHashes, signatures);
+        List<String> senders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            senders.add(Keys.getAddress(
+                    transactions.get(i).getIcapPrefix(), new BigInteger(1, publicKeys[i])));
+        }
+        return senders;
+    }
+
+    private byte[][] recover(List<byte[]> messageHashes, List<Sign.SignatureData> signatures)
+            throws SignatureException {
+        if (messageHashes.size() != signatures.size()) {
+            throw new IllegalArgumentException("Got " + messageHashes.size()
+                    + " message hashes but " + signatures.size() + " signatures");
+        }
+
+        byte[][] publicKeys = new byte[messageHashes.size()][];
+        try {
+            pool.invoke(new ChunkAction(0, publicKeys.length, (from, to) ->
+                    recoverChunk(messageHashes, signatures, publicKeys, from, to)));
+        } catch (RecoveryException e) {
+            throw e.getCause();
+        }
+        return publicKeys;
+    }
+
+    private static void recoverChunk(
+            List<byte[]> messageHashes, List<Sign.SignatureData> signatures,
+            byte[][] publicKeys, int from, int to) {
+        BigInteger n = CURVE.getN();
+        int count = to - from;
+
+        BigInteger[] r = new BigInteger[count];
+        BigInteger[] s = new BigInteger[count];
+        ECPoint[] points = new ECPoint[count];
+        for (int i = 0; i < count; i++) {
+            Sign.SignatureData signatureData = signatures.get(from + i);
+            byte[] rBytes = signatureData.getR();
+            byte[] sBytes = signatureData.getS();
+            if (rBytes == null || rBytes.length != 32 || sBytes == null || sBytes.length != 32) {
+                throw failure(from + i, "r and s must be 32 bytes");
+            }
+            int header = signatureData.getV() & 0xFF;
+            if (header < 27 || header > 34) {
+                throw failure(from + i, "Header byte out of range: " + header);
+            }
+            int recId = header - 27;
+
+            r[i] = new BigInteger(1, rBytes);
+            s[i] = new BigInteger(1, sBytes);
+            if (r[i].signum() == 0 || r[i].compareTo(n) >= 0) {
+                throw failure(from + i, "Could not recover public key from signature");
+            }
+            BigInteger x = recId >= 2 ? r[i].add(n) : r[i];
+            if (x.compareTo(SecP256K1Curve.q) >= 0) {
+                throw failure(from + i, "Could not recover public key from signature");
+            }
+            try {
+                points[i] = GenericSecp256k1Engine.decompressKey(x, (recId & 1) == 1);
+            } catch (IllegalArgumentException e) {
+                throw failure(from + i, "Could not recover public key from signature");
+            }
+        }
+
+        BigInteger[] rInv = batchModInverse(r, n);
+
+        // Q = mi(r) * (sR - eG), see GenericSecp256k1Engine#recoverPoint
+        Secp256k1Engine engine = Sign.getEngine();
+        for (int i = 0; i < count; i++) {
+            BigInteger e = new BigInteger(1, messageHashes.get(from + i));
+            BigInteger eInvrInv = rInv[i].multiply(e.negate().mod(n)).mod(n);
+            BigInteger srInv = rInv[i].multiply(s[i]).mod(n);
+            points[i] = engine.multiplyGeneratorVartime(eInvrInv).add(points[i].multiply(srInv));
+            if (points[i].isInfinity()) {
+                throw failure(from + i, "Could not recover public key from signature");
+            }
+        }
+
+        CURVE.getCurve().normalizeAll(points);
+        for (int i = 0; i < count; i++) {
+            byte[] encoded = points[i].getEncoded(false);
+            publicKeys[from + i] = Arrays.copyOfRange(encoded, 1, encoded.length);
+        }
+    }
+
+    /**
+     * Montgomery's trick: inverts all values with a single modular inversion and
+     * 3 * (values.length - 1) multiplications.
+     */
+    static BigInteger[] batchModInverse(BigInteger[] values, BigInteger modulus) {
+        int count = values.length;
+        BigInteger[] result = new BigInteger[count];
+        if (count == 0) {
+            return result;
+        }
+
+        // result[i] = values[0] * ... * values[i]
+        result[0] = values[0];
+        for (int i = 1; i < count; i++) {
+            result[i] = result[i - 1].multiply(values[i]).mod(modulus);
+        }
+
+        BigInteger inverse = result[count - 1].modInverse(modulus);
+        for (int i = count - 1; i > 0; i--) {
+            result[i] = inverse.multiply(result[i - 1]).mod(modulus);
+            inverse = inverse.multiply(values[i]).mod(modulus);
+        }
+        result[0] = inverse;
+        return result;
+    }
+
+    private static RecoveryException failure(int index, String message) {
+        return new RecoveryException(
+                new SignatureException("Signature " + index + ": " + message));
+    }
+
+    private interface Chunk {
+        void process(int from, int to);
+    }
+
+    private class ChunkAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final Chunk chunk;
+
+        ChunkAction(int from, int to, Chunk chunk) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                chunk.process(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkAction(from, middle, chunk), new ChunkAction(middle, to, chunk));
+            }
+        }
+    }
+
+    // Carries a SignatureException out of the pool
+    private static class RecoveryException extends RuntimeException {
+        RecoveryException(SignatureException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SignatureException getCause() {
+            return (SignatureException) super.getCause();
+        }
+    }
+}
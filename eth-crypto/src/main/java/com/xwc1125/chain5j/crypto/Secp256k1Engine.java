@@ -0,0 +1,47 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Elliptic curve operations on secp256k1 used by {@link Sign}.
+ *
+ * <p>The engine in use is selected with {@link Sign#setEngine(Secp256k1Engine)}. It defaults
+ * to {@link PrecomputedSecp256k1Engine}, the generic BouncyCastle implementation can be
+ * selected by setting the system property {@code chain5j.secp256k1.engine} to
+ * {@code generic}. All engines return identical results.</p>
+ */
+public interface Secp256k1Engine {
+
+    /**
+     * Multiply the generator point G by a secret scalar, such as a private key or an ECDSA
+     * nonce. Implementations must not leak the scalar through timing or memory access
+     * patterns.
+     *
+     * @param k scalar, reduced modulo the group order if it is longer than the order
+     * @return k * G
+     */
+    ECPoint multiplyGenerator(BigInteger k);
+
+    /**
+     * Multiply the generator point G by a public scalar, e.g. during signature verification or
+     * public key recovery. The running time may depend on the scalar.
+     *
+     * @param k scalar, reduced modulo the group order if it is longer than the order
+     * @return k * G
+     */
+    default ECPoint multiplyGeneratorVartime(BigInteger k) {
+        return multiplyGenerator(k);
+    }
+
+    /**
+     * Recover the public key point from a signature according to SEC1v2 section 4.1.6.
+     *
+     * @param recId which of the possible keys to recover, 0 to 3
+     * @param sig the R and S components of the signature
+     * @param message hash of the data that was signed
+     * @return the public key point, or null if recovery was not possible
+     */
+    ECPoint recoverPoint(int recId, ECDSASignature sig, byte[] message);
+}
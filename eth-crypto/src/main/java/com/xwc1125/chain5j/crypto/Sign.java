@@ -5,13 +5,11 @@ import java.security.SignatureException;
 import java.util.Arrays;
 
 import org.bouncycastle.asn1.x9.X9ECParameters;
-import org.bouncycastle.asn1.x9.X9IntegerConverter;
+import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.ec.CustomNamedCurves;
 import org.bouncycastle.crypto.params.ECDomainParameters;
-import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
 import org.bouncycastle.math.ec.ECPoint;
-import org.bouncycastle.math.ec.FixedPointCombMultiplier;
-import org.bouncycastle.math.ec.custom.sec.SecP256K1Curve;
 
 import com.xwc1125.chain5j.utils.Numeric;
 
@@ -33,6 +31,31 @@ public class Sign {
 
     static final String MESSAGE_PREFIX = "\u0019Ethereum Signed Message:\n";
 
+    private static volatile Secp256k1Engine engine =
+            "generic".equals(System.getProperty("chain5j.secp256k1.engine"))
+                    ? new GenericSecp256k1Engine()
+                    : new PrecomputedSecp256k1Engine();
+
+    /**
+     * @return the engine used for elliptic curve operations
+     */
+    public static Secp256k1Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Select the engine used for elliptic curve operations by {@link Sign}: signing, public key
+     * derivation and public key recovery. {@link Keys} and {@link ECKeyPair#create} derive
+     * public keys through it, {@link ECKeyPair#sign(byte[])} signs with BouncyCastle's
+     * {@code ECDSASigner} regardless of the engine.
+     *
+     * @param secp256k1Engine engine to use
+     */
+    public static void setEngine(Secp256k1Engine secp256k1Engine) {
+        verifyPrecondition(secp256k1Engine != null, "engine cannot be null");
+        engine = secp256k1Engine;
+    }
+
     static byte[] getEthereumMessagePrefix(int messageLength) {
         return MESSAGE_PREFIX.concat(String.valueOf(messageLength)).getBytes();
     }
@@ -89,6 +112,60 @@ public class Sign {
         return new SignatureData(v, r, s);
     }
 
+    /**
+     * <p>Sign a message hash and compute the recovery id directly from the R point
+     * generated during signing.</p>
+     *
+     * <p>The signature is identical to the one produced by
+     * {@link #signMessage(byte[], ECKeyPair, boolean)} (deterministic RFC 6979 nonce,
+     * canonical low S), but the recovery id is taken from the parity of R's y-coordinate and
+     * whether R's x-coordinate overflowed the curve order, instead of trying up to four
+     * public key recoveries. Unlike {@link #signMessage(byte[], ECKeyPair, boolean)} it does
+     * not check that the public key of the key pair matches its private key.</p>
+     *
+     * @param messageHash 32 byte hash of the data to sign
+     * @param keyPair the key pair to sign with, only its private key is used
+     * @return the signature with a recovery header of 27 to 30
+     */
+    public static SignatureData signMessageHash(byte[] messageHash, ECKeyPair keyPair) {
+        BigInteger n = CURVE.getN();
+        BigInteger d = keyPair.getPrivateKey();
+        BigInteger e = new BigInteger(1, messageHash);
+        if (messageHash.length * 8 > n.bitLength()) {
+            e = e.shiftRight(messageHash.length * 8 - n.bitLength());
+        }
+
+        HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+        kCalculator.init(n, d, messageHash);
+        Secp256k1Engine secp256k1Engine = engine;
+
+        BigInteger r;
+        BigInteger s;
+        int recId;
+        do {
+            BigInteger k;
+            do {
+                k = kCalculator.nextK();
+                ECPoint p = secp256k1Engine.multiplyGenerator(k).normalize();
+                BigInteger x = p.getAffineXCoord().toBigInteger();
+                r = x.mod(n);
+                recId = (p.getAffineYCoord().testBitZero() ? 1 : 0)
+                        | (x.compareTo(n) >= 0 ? 2 : 0);
+            } while (r.signum() == 0);
+            s = k.modInverse(n).multiply(e.add(d.multiply(r))).mod(n);
+        } while (s.signum() == 0);
+
+        if (s.compareTo(HALF_CURVE_ORDER) > 0) {
+            // (r, n - s) is the signature for the nonce n - k, whose R point is the
+            // negation of ours, so the y parity flips
+            s = n.subtract(s);
+            recId ^= 1;
+        }
+
+        return new SignatureData(
+                (byte) (recId + 27), Numeric.toBytesPadded(r, 32), Numeric.toBytesPadded(s, 32));
+    }
+
     /**
      * <p>Given the components of a signature and a selector value, recover and return the public
      * key that generated the signature according to the algorithm in SEC1v2 section 4.1.6.</p>
@@ -117,66 +194,16 @@ public class Sign {
         verifyPrecondition(sig.s.signum() >= 0, "s must be positive");
         verifyPrecondition(message != null, "message cannot be null");
 
-        // 1.0 For j from 0 to h   (h == recId here and the loop is outside this function)
-        //   1.1 Let x = r + jn
-        BigInteger n = CURVE.getN();  // Curve order.
-        BigInteger i = BigInteger.valueOf((long) recId / 2);
-        BigInteger x = sig.r.add(i.multiply(n));
-        //   1.2. Convert the integer x to an octet string X of length mlen using the conversion
-        //        routine specified in Section 2.3.7, where mlen = ⌈(log2 p)/8⌉ or mlen = ⌈m/8⌉.
-        //   1.3. Convert the octet string (16 set binary digits)||X to an elliptic curve point R
-        //        using the conversion routine specified in Section 2.3.4. If this conversion
-        //        routine outputs "invalid", then do another iteration of Step 1.
-        //
-        // More concisely, what these points mean is to use X as a compressed public key.
-        BigInteger prime = SecP256K1Curve.q;
-        if (x.compareTo(prime) >= 0) {
-            // Cannot have point co-ordinates larger than this as everything takes place modulo Q.
-            return null;
-        }
-        // Compressed keys require you to know an extra bit of data about the y-coord as there are
-        // two possibilities. So it's encoded in the recId.
-        ECPoint R = decompressKey(x, (recId & 1) == 1);
-        //   1.4. If nR != point at infinity, then do another iteration of Step 1 (callers
-        //        responsibility).
-        if (!R.multiply(n).isInfinity()) {
+        ECPoint q = engine.recoverPoint(recId, sig, message);
+        if (q == null) {
             return null;
         }
-        //   1.5. Compute e from M using Steps 2 and 3 of ECDSA signature verification.
-        BigInteger e = new BigInteger(1, message);
-        //   1.6. For k from 1 to 2 do the following.   (loop is outside this function via
-        //        iterating recId)
-        //   1.6.1. Compute a candidate public key as:
-        //               Q = mi(r) * (sR - eG)
-        //
-        // Where mi(x) is the modular multiplicative inverse. We transform this into the following:
-        //               Q = (mi(r) * s ** R) + (mi(r) * -e ** G)
-        // Where -e is the modular additive inverse of e, that is z such that z + e = 0 (mod n).
-        // In the above equation ** is point multiplication and + is point addition (the EC group
-        // operator).
-        //
-        // We can find the additive inverse by subtracting e from zero then taking the mod. For
-        // example the additive inverse of 3 modulo 11 is 8 because 3 + 8 mod 11 = 0, and
-        // -3 mod 11 = 8.
-        BigInteger eInv = BigInteger.ZERO.subtract(e).mod(n);
-        BigInteger rInv = sig.r.modInverse(n);
-        BigInteger srInv = rInv.multiply(sig.s).mod(n);
-        BigInteger eInvrInv = rInv.multiply(eInv).mod(n);
-        ECPoint q = ECAlgorithms.sumOfTwoMultiplies(CURVE.getG(), eInvrInv, R, srInv);
 
         byte[] qBytes = q.getEncoded(false);
         // We remove the prefix
         return new BigInteger(1, Arrays.copyOfRange(qBytes, 1, qBytes.length));
     }
 
-    /** Decompress a compressed public key (x co-ord and low-bit of y-coord). */
-    private static ECPoint decompressKey(BigInteger xBN, boolean yBit) {
-        X9IntegerConverter x9 = new X9IntegerConverter();
-        byte[] compEnc = x9.integerToBytes(xBN, 1 + x9.getByteLength(CURVE.getCurve()));
-        compEnc[0] = (byte)(yBit ? 0x03 : 0x02);
-        return CURVE.getCurve().decodePoint(compEnc);
-    }
-
     /**
      * Given an arbitrary piece of text and an Ethereum message signature encoded in bytes,
      * returns the public key that was used to sign it. This can then be compared to the expected
@@ -256,14 +283,7 @@ public class Sign {
      * @return ECPoint public key
      */
     public static ECPoint publicPointFromPrivate(BigInteger privKey) {
-        /*
-         * TODO: FixedPointCombMultiplier currently doesn't support scalars longer than the group
-         * order, but that could change in future versions.
-         */
-        if (privKey.bitLength() > CURVE.getN().bitLength()) {
-            privKey = privKey.mod(CURVE.getN());
-        }
-        return new FixedPointCombMultiplier().multiply(CURVE.getG(), privKey);
+        return engine.multiplyGenerator(privKey);
     }
 
     /**
@@ -1,7 +1,5 @@
 package com.xwc1125.chain5j.crypto;
 
-import com.xwc1125.chain5j.utils.StringUtils;
-
 import java.math.BigInteger;
 import java.security.SignatureException;
 
@@ -25,7 +23,19 @@ public class SignedRawTransaction extends RawTransaction {
         return signatureData;
     }
 
+    public String getIcapPrefix() {
+        return icapPrefix;
+    }
+
     public String getFrom() throws SignatureException {
+        BigInteger key = Sign.signedMessageHashToKey(getSigningHash(), getRecoverySignatureData());
+        return Keys.getAddress(icapPrefix, key);
+    }
+
+    /**
+     * @return hash of the encoding that was signed, including the chain id if any
+     */
+    byte[] getSigningHash() {
         Integer chainId = getChainId();
         byte[] encodedTransaction;
         if (null == chainId) {
@@ -33,15 +43,15 @@ public class SignedRawTransaction extends RawTransaction {
         } else {
             encodedTransaction = TransactionEncoder.encode(this, chainId.byteValue());
         }
-        int v = signatureData.getV();
-        byte[] r = signatureData.getR();
-        byte[] s = signatureData.getS();
-        Sign.SignatureData signatureDataV = new Sign.SignatureData(getRealV(v), r, s);
-        BigInteger key = Sign.signedMessageToKey(encodedTransaction, signatureDataV);
-        if (StringUtils.isNotEmpty(icapPrefix)) {
-            return Keys.getAddress(icapPrefix, key);
-        }
-        return "0x" + Keys.getAddress(icapPrefix, key);
+        return Hash.sha3(encodedTransaction);
+    }
+
+    /**
+     * @return the signature with v mapped back to 27 or 28
+     */
+    Sign.SignatureData getRecoverySignatureData() {
+        return new Sign.SignatureData(
+                getRealV(signatureData.getV()), signatureData.getR(), signatureData.getS());
     }
 
     public void verify(String from) throws SignatureException {
@@ -3,9 +3,8 @@ package com.xwc1125.chain5j.crypto;
 import java.math.BigInteger;
 
 import com.xwc1125.chain5j.rlp.RlpDecoder;
-import com.xwc1125.chain5j.rlp.RlpList;
+import com.xwc1125.chain5j.rlp.RlpReader;
 import com.xwc1125.chain5j.rlp.RlpString;
-import com.xwc1125.chain5j.rlp.RlpType;
 import com.xwc1125.chain5j.utils.Numeric;
 import com.xwc1125.chain5j.utils.StringUtils;
 
@@ -17,25 +16,24 @@ public class TransactionDecoder {
 
     public static RawTransaction decode(String icapPrefix, String hexTransaction, Boolean hasToken) {
         byte[] transaction = Numeric.hexStringToByteArray(hexTransaction);
-        RlpList rlpList = RlpDecoder.decode(transaction);
-        RlpList values = (RlpList) rlpList.getValues().get(0);
-        BigInteger nonce = ((RlpString) values.getValues().get(0)).asPositiveBigInteger();
-        BigInteger gasPrice = ((RlpString) values.getValues().get(1)).asPositiveBigInteger();
-        BigInteger gasLimit = ((RlpString) values.getValues().get(2)).asPositiveBigInteger();
-        RlpString rlpType = (RlpString) values.getValues().get(3);
-        String to = rlpType.asICAPString();
+        // read the fields in place rather than building an RlpList tree
+        RlpReader reader = RlpDecoder.reader(transaction);
+        nextItem(reader);
+        reader.enterList();
+        BigInteger nonce = nextItem(reader).asPositiveBigInteger();
+        BigInteger gasPrice = nextItem(reader).asPositiveBigInteger();
+        BigInteger gasLimit = nextItem(reader).asPositiveBigInteger();
+        String to = RlpString.encode(nextItem(reader).bytes());
 
         if (StringUtils.isNotEmpty(icapPrefix)) {
             to = ICAPUtils.buildICAP(icapPrefix, to);
         }
-        BigInteger value = ((RlpString) values.getValues().get(4)).asPositiveBigInteger();
-        String data = ((RlpString) values.getValues().get(5)).asString();
-        if (values.getValues().size() > 6) {
-            byte v = ((RlpString) values.getValues().get(6)).getBytes()[0];
-            byte[] r = Numeric.toBytesPadded(
-                    Numeric.toBigInt(((RlpString) values.getValues().get(7)).getBytes()), 32);
-            byte[] s = Numeric.toBytesPadded(
-                    Numeric.toBigInt(((RlpString) values.getValues().get(8)).getBytes()), 32);
+        BigInteger value = nextItem(reader).asPositiveBigInteger();
+        String data = nextItem(reader).asString();
+        if (reader.next()) {
+            byte v = reader.asByte();
+            byte[] r = Numeric.toBytesPadded(nextItem(reader).asPositiveBigInteger(), 32);
+            byte[] s = Numeric.toBytesPadded(nextItem(reader).asPositiveBigInteger(), 32);
             Sign.SignatureData signatureData = new Sign.SignatureData(v, r, s);
             return new SignedRawTransaction(icapPrefix, nonce, gasPrice, gasLimit,
                     to, value, data, signatureData, hasToken);
@@ -45,4 +43,10 @@ public class TransactionDecoder {
         }
     }
 
+    private static RlpReader nextItem(RlpReader reader) {
+        if (!reader.next()) {
+            throw new RuntimeException("RLP wrong encoding");
+        }
+        return reader;
+    }
 }
@@ -17,21 +17,29 @@ import com.xwc1125.chain5j.utils.Numeric;
 public class TransactionEncoder {
 
     public static byte[] signMessage(RawTransaction rawTransaction, Credentials credentials) {
-        byte[] encodedTransaction = encode(rawTransaction);
-        Sign.SignatureData signatureData = Sign.signMessage(
-                encodedTransaction, credentials.getEcKeyPair());
-
-        return encode(rawTransaction, signatureData);
+        // the unsigned fields are converted to RLP once and shared by both encodings
+        List<RlpType> values = asRlpValues(rawTransaction, null);
+        byte[] encodedTransaction = RlpEncoder.encode(new RlpList(values));
+        Sign.SignatureData signatureData = Sign.signMessageHash(
+                Hash.sha3(encodedTransaction), credentials.getEcKeyPair());
+
+        values.addAll(asRlpValues(signatureData));
+        return RlpEncoder.encode(new RlpList(values));
     }
 
     public static byte[] signMessage(
             RawTransaction rawTransaction, int chainId, Credentials credentials) {
-        byte[] encodedTransaction = encode(rawTransaction, chainId);
-        Sign.SignatureData signatureData = Sign.signMessage(
-                encodedTransaction, credentials.getEcKeyPair());
+        List<RlpType> values = asRlpValues(rawTransaction, null);
+        int signatureIndex = values.size();
+        values.addAll(asRlpValues(new Sign.SignatureData(chainId, new byte[]{}, new byte[]{})));
+        byte[] encodedTransaction = RlpEncoder.encode(new RlpList(values));
+        Sign.SignatureData signatureData = Sign.signMessageHash(
+                Hash.sha3(encodedTransaction), credentials.getEcKeyPair());
 
         Sign.SignatureData eip155SignatureData = createEip155SignatureData(signatureData, chainId);
-        return encode(rawTransaction, eip155SignatureData);
+        values.subList(signatureIndex, values.size()).clear();
+        values.addAll(asRlpValues(eip155SignatureData));
+        return RlpEncoder.encode(new RlpList(values));
     }
 
     public static Sign.SignatureData createEip155SignatureData(
@@ -103,11 +111,17 @@ public class TransactionEncoder {
         result.add(RlpString.create(data));
 
         if (signatureData != null) {
-            result.add(RlpString.create(signatureData.getV()));
-            result.add(RlpString.create(Bytes.trimLeadingZeroes(signatureData.getR())));
-            result.add(RlpString.create(Bytes.trimLeadingZeroes(signatureData.getS())));
+            result.addAll(asRlpValues(signatureData));
         }
 
         return result;
     }
+
+    private static List<RlpType> asRlpValues(Sign.SignatureData signatureData) {
+        List<RlpType> result = new ArrayList<>(3);
+        result.add(RlpString.create(signatureData.getV()));
+        result.add(RlpString.create(Bytes.trimLeadingZeroes(signatureData.getR())));
+        result.add(RlpString.create(Bytes.trimLeadingZeroes(signatureData.getS())));
+        return result;
+    }
 }
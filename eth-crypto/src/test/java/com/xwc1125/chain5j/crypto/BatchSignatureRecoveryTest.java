@@ -0,0 +1,99 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchSignatureRecoveryTest {
+
+    private final BatchSignatureRecovery recovery = new BatchSignatureRecovery().chunkSize(8);
+
+    @Test
+    public void testBatchModInverse() {
+        BigInteger n = Sign.CURVE.getN();
+        Random random = new Random(1);
+        BigInteger[] values = new BigInteger[17];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new BigInteger(255, random).add(BigInteger.ONE);
+        }
+        BigInteger[] inverses = BatchSignatureRecovery.batchModInverse(values, n);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i].modInverse(n), inverses[i]);
+        }
+    }
+
+    @Test
+    public void testRecoverKeys() throws SignatureException {
+        List<byte[]> messageHashes = new ArrayList<>();
+        List<Sign.SignatureData> signatures = new ArrayList<>();
+        List<BigInteger> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ECKeyPair keyPair = ECKeyPair.create(BigInteger.valueOf(1000 + i));
+            byte[] messageHash = Hash.sha3(("message " + i).getBytes());
+            messageHashes.add(messageHash);
+            signatures.add(Sign.signMessageHash(messageHash, keyPair));
+            expected.add(keyPair.getPublicKey());
+        }
+
+        assertEquals(expected, recovery.recoverKeys(messageHashes, signatures));
+    }
+
+    @Test
+    public void testRecoverSenders() throws SignatureException {
+        Credentials credentials = Credentials.create(
+                "", "a392604efc2fad9c0b3da43b5f698a2e3f270f170d859912be0d54742275c5f6");
+        List<SignedRawTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            SignedRawTransaction unsigned = signedTransaction(i, null);
+            Sign.SignatureData signatureData;
+            if (i % 2 == 0) {
+                signatureData = Sign.signMessage(
+                        TransactionEncoder.encode(unsigned), credentials.getEcKeyPair());
+            } else {
+                signatureData = TransactionEncoder.createEip155SignatureData(Sign.signMessage(
+                        TransactionEncoder.encode(unsigned, 1), credentials.getEcKeyPair()), 1);
+            }
+            transactions.add(signedTransaction(i, signatureData));
+        }
+
+        List<String> senders = recovery.recoverSenders(transactions);
+        assertEquals(transactions.size(), senders.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            assertEquals(transactions.get(i).getFrom(), senders.get(i));
+            assertEquals(credentials.getAddress(), senders.get(i));
+        }
+    }
+
+    private static SignedRawTransaction signedTransaction(
+            long nonce, Sign.SignatureData signatureData) {
+        return new SignedRawTransaction(null, BigInteger.valueOf(nonce), BigInteger.ONE,
+                BigInteger.valueOf(21000), "0xef678007d18427e6022059dbc264f27507cd1ffc",
+                BigInteger.TEN, "", signatureData, false);
+    }
+
+    @Test
+    public void testInvalidSignature() {
+        byte[] messageHash = Hash.sha3("message".getBytes());
+        Sign.SignatureData valid = Sign.signMessageHash(
+                messageHash, ECKeyPair.create(BigInteger.TEN));
+        Sign.SignatureData invalid = new Sign.SignatureData((byte) 40, valid.getR(), valid.getS());
+
+        try {
+            recovery.recoverKeys(
+                    Arrays.asList(messageHash, messageHash, messageHash),
+                    Arrays.asList(valid, invalid, valid));
+            fail();
+        } catch (SignatureException e) {
+            assertTrue(e.getMessage().startsWith("Signature 1:"));
+        }
+    }
+}
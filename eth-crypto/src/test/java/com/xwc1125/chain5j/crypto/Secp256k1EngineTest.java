@@ -0,0 +1,62 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class Secp256k1EngineTest {
+
+    private final Secp256k1Engine generic = new GenericSecp256k1Engine();
+    private final Secp256k1Engine precomputed = new PrecomputedSecp256k1Engine();
+
+    @Test
+    public void testMultiplyGenerator() {
+        BigInteger n = Sign.CURVE.getN();
+        BigInteger[] scalars = {
+                BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(255), BigInteger.valueOf(256),
+                n.subtract(BigInteger.ONE), n, n.add(BigInteger.ONE), BigInteger.ONE.negate(),
+                BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE)
+        };
+        for (BigInteger k : scalars) {
+            assertMultiplyGenerator(k);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 64; i++) {
+            assertMultiplyGenerator(new BigInteger(256, random));
+        }
+    }
+
+    @Test
+    public void testRecoverPoint() {
+        ECKeyPair keyPair = ECKeyPair.create(BigInteger.valueOf(0x1234567890L));
+        for (int i = 0; i < 16; i++) {
+            byte[] messageHash = Hash.sha3(("message " + i).getBytes());
+            ECDSASignature sig = keyPair.sign(messageHash);
+            for (int recId = 0; recId < 4; recId++) {
+                ECPoint expected = generic.recoverPoint(recId, sig, messageHash);
+                ECPoint actual = precomputed.recoverPoint(recId, sig, messageHash);
+                if (expected == null) {
+                    assertEquals(null, actual);
+                } else {
+                    assertPointEquals(expected, actual);
+                }
+            }
+        }
+    }
+
+    private void assertMultiplyGenerator(BigInteger k) {
+        ECPoint expected = generic.multiplyGenerator(k);
+        assertPointEquals(expected, precomputed.multiplyGenerator(k));
+        assertPointEquals(expected, precomputed.multiplyGeneratorVartime(k));
+        assertPointEquals(expected, generic.multiplyGeneratorVartime(k));
+    }
+
+    private static void assertPointEquals(ECPoint expected, ECPoint actual) {
+        assertEquals(expected.normalize(), actual.normalize());
+    }
+}
@@ -0,0 +1,28 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SignTest {
+
+    private static final ECKeyPair KEY_PAIR = ECKeyPair.create(new BigInteger(
+            "a392604efc2fad9c0b3da43b5f698a2e3f270f170d859912be0d54742275c5f6", 16));
+
+    @Test
+    public void testSignMessageHashMatchesSignMessage() throws SignatureException {
+        for (int i = 0; i < 64; i++) {
+            byte[] message = ("message " + i).getBytes();
+            byte[] messageHash = Hash.sha3(message);
+
+            Sign.SignatureData expected = Sign.signMessage(message, KEY_PAIR);
+            Sign.SignatureData actual = Sign.signMessageHash(messageHash, KEY_PAIR);
+
+            assertEquals(expected, actual);
+            assertEquals(KEY_PAIR.getPublicKey(), Sign.signedMessageHashToKey(messageHash, actual));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.xwc1125.chain5j.rlp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RLP list type that keeps a view of its encoding and only decodes its items when
+ * {@link #getValues()} is first called. Nested lists are lazy as well.
+ */
+public class LazyRlpList extends RlpList {
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+
+    private volatile List<RlpType> values;
+
+    LazyRlpList(byte[] data, int offset, int length) {
+        super((List<RlpType>) null);
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public List<RlpType> getValues() {
+        List<RlpType> result = values;
+        if (result == null) {
+            result = new ArrayList<>();
+            RlpReader reader = reader();
+            while (reader.next()) {
+                result.add(reader.asRlpType());
+            }
+            values = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return a reader over the items of this list, independent of {@link #getValues()}
+     */
+    public RlpReader reader() {
+        return new RlpReader(data, offset, length);
+    }
+}
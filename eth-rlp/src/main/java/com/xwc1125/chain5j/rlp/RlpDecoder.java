@@ -61,6 +61,28 @@ public class RlpDecoder {
         return rlpList;
     }
 
+    /**
+     * Parse wire byte[] message into a lazily decoded RLP structure. Items are only
+     * decoded when the values of the list that contains them are accessed.
+     *
+     * @param rlpEncoded - RLP encoded byte-array
+     * @return lazy RLP structure, equivalent to the result of {@link #decode(byte[])}
+     */
+    public static RlpList decodeLazy(byte[] rlpEncoded) {
+        return new LazyRlpList(rlpEncoded, 0, rlpEncoded.length);
+    }
+
+    /**
+     * Create a streaming reader over a wire byte[] message, which exposes RLP items
+     * without copying them.
+     *
+     * @param rlpEncoded - RLP encoded byte-array
+     * @return reader positioned before the first item
+     */
+    public static RlpReader reader(byte[] rlpEncoded) {
+        return new RlpReader(rlpEncoded);
+    }
+
     private static void traverse(byte[] data, int startPos, int endPos, RlpList rlpList) {
 
         try {
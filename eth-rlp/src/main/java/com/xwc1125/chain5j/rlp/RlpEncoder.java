@@ -1,5 +1,7 @@
 package com.xwc1125.chain5j.rlp;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -11,81 +13,180 @@ import static com.xwc1125.chain5j.rlp.RlpDecoder.OFFSET_SHORT_STRING;
  *
  * <p>For the specification, refer to p16 of the <a href="http://gavwood.com/paper.pdf">
  * yellow paper</a> and <a href="https://github.com/ethereum/wiki/wiki/RLP">here</a>.</p>
+ *
+ * <p>Values are encoded in two passes over the tree: the first one computes the payload length
+ * of every list once, the second one writes the value into one pre-sized array or into a
+ * caller supplied buffer.</p>
  */
 public class RlpEncoder {
 
     public static byte[] encode(RlpType value) {
-        if (value instanceof RlpString) {
-            return encodeString((RlpString) value);
-        } else {
-            return encodeList((RlpList) value);
+        ListLengths listLengths = new ListLengths();
+        byte[] result = new byte[measure(value, listLengths)];
+        write(value, result, 0, listLengths);
+        return result;
+    }
+
+    /**
+     * Encode a value into a caller supplied array.
+     *
+     * @param value  value to encode
+     * @param dest   destination array
+     * @param offset position in the destination array to start writing at
+     * @return number of bytes written
+     * @throws IndexOutOfBoundsException if the encoded value does not fit
+     */
+    public static int encode(RlpType value, byte[] dest, int offset) {
+        ListLengths listLengths = new ListLengths();
+        int length = measure(value, listLengths);
+        if (offset < 0 || offset + length > dest.length) {
+            throw new IndexOutOfBoundsException(
+                    "Encoded value of " + length + " bytes does not fit at offset " + offset);
         }
+        write(value, dest, offset, listLengths);
+        return length;
     }
 
-    private static byte[] encode(byte[] bytesValue, int offset) {
-        if (bytesValue.length == 1
-                && offset == OFFSET_SHORT_STRING
-                && bytesValue[0] >= (byte) 0x00
-                && bytesValue[0] <= (byte) 0x7f) {
-            return bytesValue;
-        } else if (bytesValue.length <= 55) {
-            byte[] result = new byte[bytesValue.length + 1];
-            result[0] = (byte) (offset + bytesValue.length);
-            System.arraycopy(bytesValue, 0, result, 1, bytesValue.length);
-            return result;
+    /**
+     * Encode a value into a caller supplied buffer, starting at its current position. The
+     * position is advanced by the number of bytes written.
+     *
+     * @param value  value to encode
+     * @param buffer destination buffer
+     * @return number of bytes written
+     * @throws BufferOverflowException if the encoded value does not fit
+     */
+    public static int encode(RlpType value, ByteBuffer buffer) {
+        ListLengths listLengths = new ListLengths();
+        int length = measure(value, listLengths);
+        if (buffer.hasArray()) {
+            if (buffer.remaining() < length) {
+                throw new BufferOverflowException();
+            }
+            write(value, buffer.array(), buffer.arrayOffset() + buffer.position(), listLengths);
+            buffer.position(buffer.position() + length);
         } else {
-            byte[] encodedStringLength = toMinimalByteArray(bytesValue.length);
-            byte[] result = new byte[bytesValue.length + encodedStringLength.length + 1];
-
-            result[0] = (byte) ((offset + 0x37) + encodedStringLength.length);
-            System.arraycopy(encodedStringLength, 0, result, 1, encodedStringLength.length);
-            System.arraycopy(
-                    bytesValue, 0, result, encodedStringLength.length + 1, bytesValue.length);
-            return result;
+            byte[] encoded = new byte[length];
+            write(value, encoded, 0, listLengths);
+            buffer.put(encoded);
         }
+        return length;
+    }
+
+    /**
+     * Calculate the exact length of the RLP encoding of a value.
+     *
+     * @param value value to encode
+     * @return encoded length in bytes
+     */
+    public static int encodedLength(RlpType value) {
+        return measure(value, null);
     }
 
     static byte[] encodeString(RlpString value) {
-        return encode(value.getBytes(), OFFSET_SHORT_STRING);
+        return encode(value);
     }
 
-    private static byte[] toMinimalByteArray(int value) {
-        byte[] encoded = toByteArray(value);
+    static byte[] encodeList(RlpList value) {
+        return encode(value);
+    }
+
+    /**
+     * @param listLengths if not null, receives the payload lengths of the lists in the order
+     *                    they are written
+     * @return encoded length of the value
+     */
+    private static int measure(RlpType value, ListLengths listLengths) {
+        if (value instanceof RlpString) {
+            byte[] bytesValue = ((RlpString) value).getBytes();
+            if (isSingleByte(bytesValue)) {
+                return 1;
+            }
+            return headerLength(bytesValue.length) + bytesValue.length;
+        } else {
+            int index = listLengths != null ? listLengths.reserve() : -1;
+            int payloadLength = 0;
+            for (RlpType entry : ((RlpList) value).getValues()) {
+                payloadLength += measure(entry, listLengths);
+            }
+            if (listLengths != null) {
+                listLengths.set(index, payloadLength);
+            }
+            return headerLength(payloadLength) + payloadLength;
+        }
+    }
 
-        for (int i = 0; i < encoded.length; i++) {
-            if (encoded[i] != 0) {
-                return Arrays.copyOfRange(encoded, i, encoded.length);
+    private static int write(RlpType value, byte[] dest, int pos, ListLengths listLengths) {
+        if (value instanceof RlpString) {
+            byte[] bytesValue = ((RlpString) value).getBytes();
+            if (isSingleByte(bytesValue)) {
+                dest[pos] = bytesValue[0];
+                return pos + 1;
+            }
+            pos = writeHeader(bytesValue.length, OFFSET_SHORT_STRING, dest, pos);
+            System.arraycopy(bytesValue, 0, dest, pos, bytesValue.length);
+            return pos + bytesValue.length;
+        } else {
+            List<RlpType> values = ((RlpList) value).getValues();
+            pos = writeHeader(listLengths.next(), OFFSET_SHORT_LIST, dest, pos);
+            for (RlpType entry : values) {
+                pos = write(entry, dest, pos, listLengths);
             }
+            return pos;
         }
+    }
 
-        return new byte[]{ };
+    private static boolean isSingleByte(byte[] bytesValue) {
+        return bytesValue.length == 1
+                && bytesValue[0] >= (byte) 0x00
+                && bytesValue[0] <= (byte) 0x7f;
     }
 
-    private static byte[] toByteArray(int value) {
-        return new byte[] {
-                (byte) ((value >> 24) & 0xff),
-                (byte) ((value >> 16) & 0xff),
-                (byte) ((value >> 8) & 0xff),
-                (byte) (value & 0xff)
-        };
+    private static int headerLength(int length) {
+        if (length <= 55) {
+            return 1;
+        }
+        return 1 + minimalLength(length);
     }
 
-    static byte[] encodeList(RlpList value) {
-        List<RlpType> values = value.getValues();
-        if (values.isEmpty()) {
-            return encode(new byte[]{ }, OFFSET_SHORT_LIST);
-        } else {
-            byte[] result = new byte[0];
-            for (RlpType entry:values) {
-                result = concat(result, encode(entry));
-            }
-            return encode(result, OFFSET_SHORT_LIST);
+    private static int writeHeader(int length, int offset, byte[] dest, int pos) {
+        if (length <= 55) {
+            dest[pos] = (byte) (offset + length);
+            return pos + 1;
+        }
+        int lengthOfLength = minimalLength(length);
+        dest[pos++] = (byte) ((offset + 0x37) + lengthOfLength);
+        for (int i = lengthOfLength - 1; i >= 0; i--) {
+            dest[pos++] = (byte) ((length >> (8 * i)) & 0xff);
         }
+        return pos;
     }
 
-    private static byte[] concat(byte[] b1, byte[] b2) {
-        byte[] result = Arrays.copyOf(b1, b1.length + b2.length);
-        System.arraycopy(b2, 0, result, b1.length, b2.length);
-        return result;
+    private static int minimalLength(int value) {
+        return 4 - Integer.numberOfLeadingZeros(value) / 8;
+    }
+
+    /**
+     * Payload lengths of the lists of a value, in the order lists are visited when writing.
+     */
+    private static final class ListLengths {
+        private int[] lengths = new int[8];
+        private int size;
+        private int position;
+
+        int reserve() {
+            if (size == lengths.length) {
+                lengths = Arrays.copyOf(lengths, size << 1);
+            }
+            return size++;
+        }
+
+        void set(int index, int length) {
+            lengths[index] = length;
+        }
+
+        int next() {
+            return lengths[position++];
+        }
     }
 }
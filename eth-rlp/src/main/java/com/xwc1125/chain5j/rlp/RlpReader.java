@@ -0,0 +1,303 @@
+package com.xwc1125.chain5j.rlp;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.xwc1125.chain5j.utils.Numeric;
+
+import static com.xwc1125.chain5j.rlp.RlpDecoder.OFFSET_LONG_LIST;
+import static com.xwc1125.chain5j.rlp.RlpDecoder.OFFSET_LONG_STRING;
+import static com.xwc1125.chain5j.rlp.RlpDecoder.OFFSET_SHORT_LIST;
+import static com.xwc1125.chain5j.rlp.RlpDecoder.OFFSET_SHORT_STRING;
+
+/**
+ * <p>Streaming Recursive Length Prefix (RLP) reader.</p>
+ *
+ * <p>The reader is a cursor over an RLP encoded byte-array. {@link #next()} moves to the
+ * following item of the current list and exposes it as an (offset, length) view into the
+ * source array, nothing is copied until one of the value accessors is called.
+ * {@link #enterList()} descends into the current list item and {@link #exitList()} returns
+ * to the enclosing list.</p>
+ *
+ * <p>Readers are not thread-safe.</p>
+ */
+public class RlpReader {
+
+    private final byte[] data;
+
+    // Start of the next item and end of the list being read
+    private int position;
+    private int limit;
+
+    // (position, limit, offset, itemOffset) of each enclosing list
+    private int[] stack = new int[16];
+    private int depth;
+
+    // Current item
+    private boolean list;
+    private int itemOffset;
+    private int offset;
+    private int length;
+
+    public RlpReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public RlpReader(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException(
+                    "Invalid range [" + offset + ", " + (offset + length) + ") of "
+                            + data.length + " bytes");
+        }
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+        this.itemOffset = -1;
+    }
+
+    /**
+     * Create a reader over the remaining bytes of a buffer. Heap buffers are read in place,
+     * the content of direct buffers is copied once.
+     *
+     * @param buffer RLP encoded buffer, its position is not modified
+     * @return reader
+     */
+    public static RlpReader of(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new RlpReader(
+                    buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return new RlpReader(copy);
+    }
+
+    /**
+     * @return true if the current list contains another item
+     */
+    public boolean hasNext() {
+        return position < limit;
+    }
+
+    /**
+     * Move to the next item of the current list.
+     *
+     * @return false if there are no more items in the current list
+     */
+    public boolean next() {
+        if (position >= limit) {
+            return false;
+        }
+
+        int prefix = data[position] & 0xff;
+        itemOffset = position;
+
+        if (prefix < OFFSET_SHORT_STRING) {
+            list = false;
+            offset = position;
+            length = 1;
+        } else if (prefix <= OFFSET_LONG_STRING) {
+            list = false;
+            offset = position + 1;
+            length = prefix - OFFSET_SHORT_STRING;
+        } else if (prefix < OFFSET_SHORT_LIST) {
+            int lengthOfLength = prefix - OFFSET_LONG_STRING;
+            list = false;
+            offset = position + 1 + lengthOfLength;
+            length = readLength(position, lengthOfLength);
+        } else if (prefix <= OFFSET_LONG_LIST) {
+            list = true;
+            offset = position + 1;
+            length = prefix - OFFSET_SHORT_LIST;
+        } else {
+            int lengthOfLength = prefix - OFFSET_LONG_LIST;
+            list = true;
+            offset = position + 1 + lengthOfLength;
+            length = readLength(position, lengthOfLength);
+        }
+
+        if (length < 0 || offset + length > limit || offset + length < offset) {
+            throw new RuntimeException("RLP wrong encoding");
+        }
+        position = offset + length;
+        return true;
+    }
+
+    /**
+     * Descend into the current list item. The first item of the list is read with the next
+     * call to {@link #next()}.
+     */
+    public void enterList() {
+        if (!isList()) {
+            throw new IllegalStateException("Current RLP item is not a list");
+        }
+        if (stack.length < (depth + 1) * 4) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        int base = depth * 4;
+        stack[base] = position;
+        stack[base + 1] = limit;
+        stack[base + 2] = offset;
+        stack[base + 3] = itemOffset;
+        depth++;
+
+        limit = offset + length;
+        position = offset;
+        itemOffset = -1;
+    }
+
+    /**
+     * Return to the enclosing list, skipping any items of the current list that have not
+     * been read. The list that was left becomes the current item again.
+     */
+    public void exitList() {
+        if (depth == 0) {
+            throw new IllegalStateException("Not inside an RLP list");
+        }
+        depth--;
+        int base = depth * 4;
+        length = limit - stack[base + 2];
+        position = stack[base];
+        limit = stack[base + 1];
+        offset = stack[base + 2];
+        itemOffset = stack[base + 3];
+        list = true;
+    }
+
+    /**
+     * @return number of lists entered and not yet exited
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public boolean isList() {
+        checkItem();
+        return list;
+    }
+
+    /**
+     * @return the source array the offsets refer to
+     */
+    public byte[] array() {
+        return data;
+    }
+
+    /**
+     * @return offset of the current item's payload in {@link #array()}
+     */
+    public int offset() {
+        checkItem();
+        return offset;
+    }
+
+    /**
+     * @return length of the current item's payload
+     */
+    public int length() {
+        checkItem();
+        return length;
+    }
+
+    /**
+     * @return offset of the current item's encoding, including its prefix
+     */
+    public int itemOffset() {
+        checkItem();
+        return itemOffset;
+    }
+
+    /**
+     * @return length of the current item's encoding, including its prefix
+     */
+    public int itemLength() {
+        checkItem();
+        return offset + length - itemOffset;
+    }
+
+    /**
+     * @return a copy of the current item's payload
+     */
+    public byte[] bytes() {
+        checkItem();
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    /**
+     * @return first byte of the current string item
+     */
+    public byte asByte() {
+        checkString();
+        if (length == 0) {
+            throw new RuntimeException("RLP string is empty");
+        }
+        return data[offset];
+    }
+
+    public long asLong() {
+        checkString();
+        if (length > 8) {
+            throw new ArithmeticException("RLP string too long for a long: " + length);
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (data[i] & 0xff);
+        }
+        return value;
+    }
+
+    public BigInteger asPositiveBigInteger() {
+        checkString();
+        if (length == 0) {
+            return BigInteger.ZERO;
+        }
+        return Numeric.toBigInt(data, offset, length);
+    }
+
+    public String asString() {
+        checkString();
+        return Numeric.toHexString(data, offset, length, true);
+    }
+
+    public RlpString asRlpString() {
+        checkString();
+        return RlpString.create(bytes());
+    }
+
+    /**
+     * Materialize the current item. Lists are returned as {@link LazyRlpList}, so their
+     * content is only decoded when accessed.
+     *
+     * @return current item as a RLP type
+     */
+    public RlpType asRlpType() {
+        if (isList()) {
+            return new LazyRlpList(data, offset, length);
+        }
+        return asRlpString();
+    }
+
+    private void checkItem() {
+        if (itemOffset < 0) {
+            throw new IllegalStateException("No current RLP item, call next() first");
+        }
+    }
+
+    private void checkString() {
+        if (isList()) {
+            throw new IllegalStateException("Current RLP item is a list");
+        }
+    }
+
+    private int readLength(int pos, int lengthOfLength) {
+        if (lengthOfLength > 4 || pos + lengthOfLength >= limit) {
+            throw new RuntimeException("RLP wrong encoding");
+        }
+        int result = 0;
+        for (int i = 1; i <= lengthOfLength; i++) {
+            result = (result << 8) | (data[pos + i] & 0xff);
+        }
+        return result;
+    }
+}
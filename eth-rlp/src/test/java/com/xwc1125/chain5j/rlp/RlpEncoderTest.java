@@ -0,0 +1,140 @@
+package com.xwc1125.chain5j.rlp;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static com.xwc1125.chain5j.rlp.RlpDecoder.OFFSET_SHORT_LIST;
+import static com.xwc1125.chain5j.rlp.RlpDecoder.OFFSET_SHORT_STRING;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class RlpEncoderTest {
+
+    // string lengths around the boundaries of the header encoding
+    private static final int[] LENGTHS = {0, 1, 2, 54, 55, 56, 57, 255, 256, 65535, 65536};
+
+    @Test
+    public void testStrings() {
+        for (int length : LENGTHS) {
+            assertEncoding(RlpString.create(bytes(length)));
+        }
+        for (int value : new int[] {0x00, 0x7f, 0x80, 0xff}) {
+            assertEncoding(RlpString.create(new byte[] {(byte) value}));
+        }
+        assertEncoding(RlpString.create(BigInteger.ZERO));
+        assertEncoding(RlpString.create(BigInteger.valueOf(0x0400)));
+    }
+
+    @Test
+    public void testListPayloadBoundaries() {
+        for (int length : LENGTHS) {
+            // a string of length n has a payload of n + 1 or n + 2 bytes below 256
+            RlpList list = new RlpList(RlpString.create(bytes(length)));
+            assertEncoding(list);
+            assertEncoding(new RlpList(list, list));
+            assertEncoding(new RlpList(new RlpList(), list, RlpString.create(bytes(length))));
+        }
+        for (int count = 54; count <= 57; count++) {
+            // payloads of exactly 54 to 57 single byte entries
+            List<RlpType> entries = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                entries.add(RlpString.create((byte) i));
+            }
+            assertEncoding(new RlpList(entries));
+            assertEncoding(new RlpList(new RlpList(entries)));
+        }
+    }
+
+    @Test
+    public void testNestedLists() {
+        assertEncoding(new RlpList());
+        assertEncoding(new RlpList(new RlpList(), new RlpList(new RlpList())));
+
+        // every level doubles the tree, list payloads cross the header boundaries on the way
+        RlpType value = RlpString.create("leaf");
+        for (int depth = 0; depth < 12; depth++) {
+            value = new RlpList(
+                    RlpString.create(bytes(depth * 3)),
+                    value,
+                    new RlpList(RlpString.create(depth), new RlpList()),
+                    value);
+            assertEncoding(value);
+        }
+    }
+
+    private static void assertEncoding(RlpType value) {
+        byte[] expected = legacyEncode(value);
+
+        assertArrayEquals(expected, RlpEncoder.encode(value));
+        assertEquals(expected.length, RlpEncoder.encodedLength(value));
+
+        byte[] dest = new byte[expected.length + 5];
+        assertEquals(expected.length, RlpEncoder.encode(value, dest, 3));
+        assertArrayEquals(expected, Arrays.copyOfRange(dest, 3, 3 + expected.length));
+
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(expected.length + 2),
+                ByteBuffer.allocateDirect(expected.length + 2))) {
+            buffer.position(2);
+            assertEquals(expected.length, RlpEncoder.encode(value, buffer));
+            assertEquals(expected.length + 2, buffer.position());
+            byte[] encoded = new byte[expected.length];
+            buffer.position(2);
+            buffer.get(encoded);
+            assertArrayEquals(expected, encoded);
+        }
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return bytes;
+    }
+
+    /**
+     * The previous encoder, concatenating the encodings of the entries of a list.
+     */
+    private static byte[] legacyEncode(RlpType value) {
+        if (value instanceof RlpString) {
+            return legacyEncode(((RlpString) value).getBytes(), OFFSET_SHORT_STRING);
+        }
+        byte[] result = new byte[0];
+        for (RlpType entry : ((RlpList) value).getValues()) {
+            byte[] encoded = legacyEncode(entry);
+            int length = result.length;
+            result = Arrays.copyOf(result, length + encoded.length);
+            System.arraycopy(encoded, 0, result, length, encoded.length);
+        }
+        return legacyEncode(result, OFFSET_SHORT_LIST);
+    }
+
+    private static byte[] legacyEncode(byte[] bytesValue, int offset) {
+        if (bytesValue.length == 1
+                && offset == OFFSET_SHORT_STRING
+                && bytesValue[0] >= (byte) 0x00
+                && bytesValue[0] <= (byte) 0x7f) {
+            return bytesValue;
+        } else if (bytesValue.length <= 55) {
+            byte[] result = new byte[bytesValue.length + 1];
+            result[0] = (byte) (offset + bytesValue.length);
+            System.arraycopy(bytesValue, 0, result, 1, bytesValue.length);
+            return result;
+        } else {
+            byte[] encodedLength = BigInteger.valueOf(bytesValue.length).toByteArray();
+            if (encodedLength[0] == 0) {
+                encodedLength = Arrays.copyOfRange(encodedLength, 1, encodedLength.length);
+            }
+            byte[] result = new byte[bytesValue.length + encodedLength.length + 1];
+            result[0] = (byte) ((offset + 0x37) + encodedLength.length);
+            System.arraycopy(encodedLength, 0, result, 1, encodedLength.length);
+            System.arraycopy(bytesValue, 0, result, encodedLength.length + 1, bytesValue.length);
+            return result;
+        }
+    }
+}
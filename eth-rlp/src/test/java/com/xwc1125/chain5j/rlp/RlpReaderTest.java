@@ -0,0 +1,105 @@
+package com.xwc1125.chain5j.rlp;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RlpReaderTest {
+
+    private static final byte[] LONG_STRING = new byte[1024];
+
+    static {
+        Arrays.fill(LONG_STRING, (byte) 0x5a);
+    }
+
+    private final RlpList value = new RlpList(
+            RlpString.create(BigInteger.valueOf(0x0400)),
+            RlpString.create(new byte[0]),
+            RlpString.create((byte) 0x7f),
+            new RlpList(
+                    RlpString.create("cat"),
+                    new RlpList(),
+                    RlpString.create(LONG_STRING)),
+            RlpString.create("dog"));
+
+    private final byte[] encoded = RlpEncoder.encode(value);
+
+    @Test
+    public void testReader() {
+        RlpReader reader = RlpDecoder.reader(encoded);
+        assertTrue(reader.next());
+        assertTrue(reader.isList());
+        reader.enterList();
+
+        assertTrue(reader.next());
+        assertEquals(0x0400, reader.asLong());
+        assertTrue(reader.next());
+        assertEquals(BigInteger.ZERO, reader.asPositiveBigInteger());
+        assertTrue(reader.next());
+        assertEquals(0x7f, reader.asByte());
+
+        assertTrue(reader.next());
+        reader.enterList();
+        assertTrue(reader.next());
+        assertArrayEquals("cat".getBytes(), reader.bytes());
+        // skip the rest of the nested list
+        reader.exitList();
+        assertTrue(reader.isList());
+
+        assertTrue(reader.next());
+        assertArrayEquals("dog".getBytes(), reader.bytes());
+        assertFalse(reader.next());
+        reader.exitList();
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testLongItemsAreViews() {
+        RlpReader reader = RlpDecoder.reader(encoded);
+        reader.next();
+        reader.enterList();
+        for (int i = 0; i < 4; i++) {
+            reader.next();
+        }
+        reader.enterList();
+        reader.next();
+        reader.next();
+        assertTrue(reader.isList());
+        assertEquals(0, reader.length());
+        reader.next();
+        assertEquals(LONG_STRING.length, reader.length());
+        assertEquals(LONG_STRING.length + 3, reader.itemLength());
+        assertEquals(reader.array(), encoded);
+    }
+
+    @Test
+    public void testLazyListMatchesDecoder() {
+        assertRlpEquals(RlpDecoder.decode(encoded), RlpDecoder.decodeLazy(encoded));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTruncatedInput() {
+        RlpReader reader = RlpDecoder.reader(Arrays.copyOf(encoded, encoded.length - 1));
+        reader.next();
+    }
+
+    private static void assertRlpEquals(RlpType expected, RlpType actual) {
+        if (expected instanceof RlpString) {
+            assertEquals(expected, actual);
+        } else {
+            assertTrue(actual instanceof RlpList);
+            RlpList expectedList = (RlpList) expected;
+            RlpList actualList = (RlpList) actual;
+            assertEquals(expectedList.getValues().size(), actualList.getValues().size());
+            for (int i = 0; i < expectedList.getValues().size(); i++) {
+                assertRlpEquals(expectedList.getValues().get(i), actualList.getValues().get(i));
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.xwc1125.chain5j.crypto;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -8,7 +9,6 @@ import org.bouncycastle.crypto.digests.RIPEMD160Digest;
 import org.bouncycastle.crypto.digests.SHA512Digest;
 import org.bouncycastle.crypto.macs.HMac;
 import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
 
 import com.xwc1125.chain5j.utils.Numeric;
 
@@ -16,6 +16,8 @@ import com.xwc1125.chain5j.utils.Numeric;
  * Cryptographic hash functions.
  */
 public class Hash {
+    private static final ThreadLocal<Keccak256> KECCAK = ThreadLocal.withInitial(Keccak256::new);
+
     private Hash() { }
 
     /**
@@ -39,9 +41,30 @@ public class Hash {
      * @return hash value
      */
     public static byte[] sha3(byte[] input, int offset, int length) {
-        Keccak.DigestKeccak kecc = new Keccak.Digest256();
-        kecc.update(input, offset, length);
-        return kecc.digest();
+        return KECCAK.get().update(input, offset, length).digest();
+    }
+
+    /**
+     * Keccak-256 hash function writing into a caller provided buffer.
+     *
+     * @param input binary encoded input data
+     * @param offset of start of data
+     * @param length of data
+     * @param output buffer the 32 byte hash value is written to
+     * @param outputOffset of the hash value in {@code output}
+     */
+    public static void sha3(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        KECCAK.get().update(input, offset, length).digest(output, outputOffset);
+    }
+
+    /**
+     * Keccak-256 hash function on the remaining bytes of a buffer.
+     *
+     * @param input binary encoded input data, its position is advanced to its limit
+     * @param output buffer the 32 byte hash value is written to, at its position
+     */
+    public static void sha3(ByteBuffer input, ByteBuffer output) {
+        KECCAK.get().update(input).digest(output);
     }
 
     /**
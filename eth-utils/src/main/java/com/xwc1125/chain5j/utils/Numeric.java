@@ -16,6 +16,8 @@ public final class Numeric {
 
     private static final String HEX_PREFIX = "0x";
 
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
     private Numeric() {
     }
 
@@ -38,6 +40,33 @@ public final class Numeric {
         }
     }
 
+    /**
+     * Decode a quantity that fits in a long, such as a block number or an amount of gas,
+     * without going through {@link BigInteger}.
+     *
+     * @param value hex quantity, as accepted by {@link #decodeQuantity(String)}
+     * @return the value
+     * @throws MessageDecodingException if the value is not a quantity or does not fit in a
+     *                                  signed long
+     */
+    public static long decodeQuantityAsLong(String value) {
+        if (!isValidHexQuantity(value)) {
+            throw new MessageDecodingException("Value must be in format 0x[1-9]+[0-9]* or 0x0");
+        }
+        long result = 0;
+        for (int i = 2; i < value.length(); i++) {
+            int digit = Character.digit(value.charAt(i), 16);
+            if (digit < 0) {
+                throw new MessageDecodingException("Invalid hex quantity: " + value);
+            }
+            if ((result >>> 59) != 0) {
+                throw new MessageDecodingException("Quantity does not fit in a long: " + value);
+            }
+            result = (result << 4) | digit;
+        }
+        return result;
+    }
+
     private static boolean isValidHexQuantity(String value) {
         if (value == null) {
             return false;
@@ -199,15 +228,19 @@ public final class Numeric {
     }
 
     public static String toHexString(byte[] input, int offset, int length, boolean withPrefix) {
-        StringBuilder stringBuilder = new StringBuilder();
+        int prefixLength = withPrefix ? 2 : 0;
+        length = Math.max(length, 0);
+        char[] result = new char[prefixLength + (length << 1)];
         if (withPrefix) {
-            stringBuilder.append("0x");
+            result[0] = '0';
+            result[1] = 'x';
         }
-        for (int i = offset; i < offset + length; i++) {
-            stringBuilder.append(String.format("%02x", input[i] & 0xFF));
+        for (int i = 0, j = prefixLength; i < length; i++) {
+            int value = input[offset + i] & 0xFF;
+            result[j++] = HEX_CHARS[value >>> 4];
+            result[j++] = HEX_CHARS[value & 0x0F];
         }
-
-        return stringBuilder.toString();
+        return new String(result);
     }
 
     public static String toHexString(byte[] input) {
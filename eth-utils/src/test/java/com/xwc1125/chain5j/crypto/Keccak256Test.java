@@ -0,0 +1,78 @@
+package com.xwc1125.chain5j.crypto;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.bouncycastle.jcajce.provider.digest.Keccak;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class Keccak256Test {
+
+    @Test
+    public void testEmptyInput() {
+        assertEquals("0xc5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470",
+                Hash.sha3(""));
+    }
+
+    @Test
+    public void testMatchesBouncyCastle() {
+        Random random = new Random(7);
+        // cover lengths around the 136 byte rate
+        for (int length = 0; length < 600; length++) {
+            byte[] input = new byte[length];
+            random.nextBytes(input);
+            assertArrayEquals(String.valueOf(length), reference(input), Hash.sha3(input));
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        Random random = new Random(11);
+        byte[] input = new byte[1000];
+        random.nextBytes(input);
+
+        Keccak256 keccak = new Keccak256();
+        int offset = 0;
+        while (offset < input.length) {
+            int length = Math.min(random.nextInt(200), input.length - offset);
+            keccak.update(input, offset, length);
+            offset += length;
+        }
+        assertArrayEquals(reference(input), keccak.digest());
+
+        // the instance is reset by digest
+        for (byte b : input) {
+            keccak.update(b);
+        }
+        assertArrayEquals(reference(input), keccak.digest());
+    }
+
+    @Test
+    public void testOutputBuffers() {
+        byte[] input = "transfer(address,uint256)".getBytes();
+        byte[] expected = reference(input);
+
+        byte[] output = new byte[40];
+        Hash.sha3(input, 0, input.length, output, 8);
+        for (int i = 0; i < 32; i++) {
+            assertEquals(expected[i], output[8 + i]);
+        }
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+        direct.put(input).flip();
+        ByteBuffer out = ByteBuffer.allocate(32);
+        Hash.sha3(direct, out);
+        assertEquals(0, direct.remaining());
+        assertEquals(32, out.position());
+        assertArrayEquals(expected, out.array());
+    }
+
+    private static byte[] reference(byte[] input) {
+        Keccak.DigestKeccak keccak = new Keccak.Digest256();
+        keccak.update(input, 0, input.length);
+        return keccak.digest();
+    }
+}